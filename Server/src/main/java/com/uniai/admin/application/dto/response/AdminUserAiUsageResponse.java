@@ -0,0 +1,40 @@
+package com.uniai.admin.application.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserAiUsageResponse {
+    private Long userId;
+    private long minuteTokens;
+    private long minuteTokenLimit;
+    private long dailyTokens;
+    private long dailyTokenLimit;
+    private long totalCalls;
+    private long totalInputTokens;
+    private long totalOutputTokens;
+    private List<Entry> entries;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private LocalDate date;
+        private String operation;
+        private String provider;
+        private long calls;
+        private long estimatedInputTokens;
+        private long estimatedOutputTokens;
+        private long actualInputTokens;
+        private long actualOutputTokens;
+    }
+}
@@ -5,9 +5,13 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uniai.admin.application.dto.response.AdminOverviewResponse;
 import com.uniai.admin.application.dto.response.AdminFeedbackResponse;
+import com.uniai.admin.application.dto.response.AdminUserAiUsageResponse;
 import com.uniai.admin.application.dto.response.AdminUserDetailsResponse;
 import com.uniai.admin.application.dto.response.AdminUserFeedbackResponse;
 import com.uniai.admin.application.dto.response.AdminUserSearchResponse;
+import com.uniai.chat.application.usage.AiUsageLedger;
+import com.uniai.chat.application.usage.AiUsageLedgerEntry;
+import com.uniai.chat.application.usage.AiUserUsage;
 import com.uniai.chat.domain.repository.ChatRepository;
 import com.uniai.chat.domain.repository.MessageRepository;
 import com.uniai.cvbuilder.application.dto.response.PersonalInfoResponse;
@@ -44,6 +48,7 @@ public class AdminApplicationService {
     private final FeedbackRepository feedbackRepository;
     private final CVRepository cvRepository;
     private final PersonalInfoRepository personalInfoRepository;
+    private final AiUsageLedger aiUsageLedger;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public String getHealthMessage() {
@@ -105,6 +110,34 @@ public class AdminApplicationService {
                 .build();
     }
 
+    /**
+     * Token usage of one user: the current quota windows and the ledger totals per day, operation and
+     * provider. Totals use provider-reported counts where a call has them and the estimate otherwise.
+     */
+    public AdminUserAiUsageResponse getUserAiUsage(Long userId) {
+        getRequiredUser(userId);
+        AiUserUsage usage = aiUsageLedger.usage(userId);
+        List<AdminUserAiUsageResponse.Entry> entries = usage.entries().stream()
+                .map(this::toAiUsageEntry)
+                .toList();
+
+        return AdminUserAiUsageResponse.builder()
+                .userId(userId)
+                .minuteTokens(usage.minuteTokens())
+                .minuteTokenLimit(usage.minuteTokenLimit())
+                .dailyTokens(usage.dailyTokens())
+                .dailyTokenLimit(usage.dailyTokenLimit())
+                .totalCalls(usage.entries().stream().mapToLong(AiUsageLedgerEntry::calls).sum())
+                .totalInputTokens(usage.entries().stream()
+                        .mapToLong(entry -> entry.actualInputTokens() > 0 ? entry.actualInputTokens() : entry.estimatedInputTokens())
+                        .sum())
+                .totalOutputTokens(usage.entries().stream()
+                        .mapToLong(entry -> entry.actualOutputTokens() > 0 ? entry.actualOutputTokens() : entry.estimatedOutputTokens())
+                        .sum())
+                .entries(entries)
+                .build();
+    }
+
     public PersonalInfoResponse getUserPersonalInfo(Long userId) {
         getRequiredUser(userId);
         PersonalInfo info = personalInfoRepository.findByUserId(userId).orElse(null);
@@ -175,6 +208,19 @@ public class AdminApplicationService {
         return getUserDetails(userId);
     }
 
+    private AdminUserAiUsageResponse.Entry toAiUsageEntry(AiUsageLedgerEntry entry) {
+        return AdminUserAiUsageResponse.Entry.builder()
+                .date(entry.usageDate())
+                .operation(entry.operation() == null ? null : entry.operation().name())
+                .provider(entry.provider())
+                .calls(entry.calls())
+                .estimatedInputTokens(entry.estimatedInputTokens())
+                .estimatedOutputTokens(entry.estimatedOutputTokens())
+                .actualInputTokens(entry.actualInputTokens())
+                .actualOutputTokens(entry.actualOutputTokens())
+                .build();
+    }
+
     private AdminUserSearchResponse toSearchResponse(User user) {
         return AdminUserSearchResponse.builder()
                 .id(user.getId())
@@ -0,0 +1,7 @@
+package com.uniai.admin.cache.dto;
+
+public record AdminCachePurgeResponse(
+        String cache,
+        int purgedEntries
+) {
+}
@@ -0,0 +1,6 @@
+package com.uniai.admin.cache.dto;
+
+public record AdminDatasetVersionResponse(
+        String datasetVersion
+) {
+}
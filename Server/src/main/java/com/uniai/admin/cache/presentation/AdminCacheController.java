@@ -0,0 +1,36 @@
+package com.uniai.admin.cache.presentation;
+
+import com.uniai.admin.cache.dto.AdminCachePurgeResponse;
+import com.uniai.admin.cache.dto.AdminDatasetVersionResponse;
+import com.uniai.admin.cache.service.AdminCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/caches")
+@RequiredArgsConstructor
+public class AdminCacheController {
+
+    private final AdminCacheService service;
+
+    @DeleteMapping("/route-plans")
+    public ResponseEntity<AdminCachePurgeResponse> purgeRoutePlans() {
+        return ResponseEntity.ok(service.purgeRoutePlans());
+    }
+
+    @DeleteMapping("/route-results")
+    public ResponseEntity<AdminCachePurgeResponse> purgeRouteResults() {
+        return ResponseEntity.ok(service.purgeRouteResults());
+    }
+
+    @GetMapping("/graduate-dataset/version")
+    public ResponseEntity<AdminDatasetVersionResponse> graduateDatasetVersion() {
+        return ResponseEntity.ok(service.getGraduateDatasetVersion());
+    }
+
+    @PostMapping("/graduate-dataset/version")
+    public ResponseEntity<AdminDatasetVersionResponse> bumpGraduateDatasetVersion() {
+        return ResponseEntity.ok(service.bumpGraduateDatasetVersion());
+    }
+}
@@ -0,0 +1,35 @@
+package com.uniai.admin.cache.service;
+
+import com.uniai.admin.cache.dto.AdminCachePurgeResponse;
+import com.uniai.admin.cache.dto.AdminDatasetVersionResponse;
+import com.uniai.chat.application.planning.GraduateRoutePlanCache;
+import com.uniai.chat.application.planning.GraduateRouteResultCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AdminCacheService {
+
+    private final GraduateRoutePlanCache graduateRoutePlanCache;
+    private final GraduateRouteResultCache graduateRouteResultCache;
+
+    public AdminCachePurgeResponse purgeRoutePlans() {
+        return new AdminCachePurgeResponse("route-plans", graduateRoutePlanCache.purge());
+    }
+
+    public AdminCachePurgeResponse purgeRouteResults() {
+        return new AdminCachePurgeResponse("route-results", graduateRouteResultCache.purge());
+    }
+
+    public AdminDatasetVersionResponse getGraduateDatasetVersion() {
+        return new AdminDatasetVersionResponse(graduateRouteResultCache.datasetVersion());
+    }
+
+    /**
+     * Called after graduate data is changed outside a migration so cached route results are retired.
+     */
+    public AdminDatasetVersionResponse bumpGraduateDatasetVersion() {
+        return new AdminDatasetVersionResponse(graduateRouteResultCache.bumpDatasetVersion("admin"));
+    }
+}
@@ -3,6 +3,7 @@ package com.uniai.admin.presentation.controller;
 import com.uniai.admin.application.dto.response.AdminFeedbackResponse;
 import com.uniai.admin.application.dto.command.UpdateAdminUserRoleCommand;
 import com.uniai.admin.application.dto.response.AdminOverviewResponse;
+import com.uniai.admin.application.dto.response.AdminUserAiUsageResponse;
 import com.uniai.admin.application.dto.response.AdminUserDetailsResponse;
 import com.uniai.admin.application.dto.response.AdminUserFeedbackResponse;
 import com.uniai.admin.application.dto.response.AdminUserSearchResponse;
@@ -55,6 +56,11 @@ public class AdminController {
         return ResponseEntity.ok(adminApplicationService.getUserDetails(userId));
     }
 
+    @GetMapping("/users/{userId}/ai-usage")
+    public ResponseEntity<AdminUserAiUsageResponse> getUserAiUsage(@PathVariable Long userId) {
+        return ResponseEntity.ok(adminApplicationService.getUserAiUsage(userId));
+    }
+
     @GetMapping("/users/{userId}/personal-info")
     public ResponseEntity<PersonalInfoResponse> getUserPersonalInfo(@PathVariable Long userId) {
         return ResponseEntity.ok(adminApplicationService.getUserPersonalInfo(userId));
@@ -0,0 +1,243 @@
+package com.uniai.chat.application.background;
+
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, prioritized queue for AI work that must not hold up the HTTP response, such as
+ * conversation memory updates and chat titles. Jobs are served by rank and then in submission
+ * order. When the queue is full, a new job displaces the newest job of a strictly lower priority;
+ * otherwise the new job is shed. A job that waited past its deadline is skipped instead of run.
+ */
+public class BackgroundAiJobQueue {
+
+    private static final Logger logger = LogManager.getLogger(BackgroundAiJobQueue.class);
+    private static final Comparator<Job> ORDER = Comparator
+            .comparingInt((Job job) -> job.type().rank())
+            .thenComparingLong(Job::sequence);
+
+    private final BackgroundAiJobQueueConfiguration configuration;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final TreeSet<Job> pending = new TreeSet<>(ORDER);
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public BackgroundAiJobQueue(BackgroundAiJobQueueConfiguration configuration, MeterRegistry meterRegistry) {
+        this(configuration, meterRegistry, System::nanoTime, true);
+    }
+
+    BackgroundAiJobQueue(
+            BackgroundAiJobQueueConfiguration configuration,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoClock,
+            boolean startWorkers
+    ) {
+        this.configuration = configuration != null ? configuration : BackgroundAiJobQueueConfiguration.defaults();
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        if (meterRegistry != null) {
+            Gauge.builder(ChatAiMetrics.BACKGROUND_QUEUE_DEPTH, this, BackgroundAiJobQueue::depth)
+                    .description("Background AI jobs waiting for a worker")
+                    .register(meterRegistry);
+        }
+        if (startWorkers) {
+            for (int index = 1; index <= this.configuration.workerThreads(); index++) {
+                Thread worker = new Thread(this::workLoop, "ai-background-" + index);
+                worker.setDaemon(true);
+                workers.add(worker);
+                worker.start();
+            }
+        }
+    }
+
+    /**
+     * Queues the task and returns whether it was accepted. A task is never run on the caller's thread.
+     */
+    public boolean submit(BackgroundAiJobType type, Runnable task) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(task, "task");
+        if (!running) {
+            record(type, "rejected");
+            return false;
+        }
+
+        long now = nanoClock.getAsLong();
+        Job job = new Job(
+                type,
+                task,
+                sequence.incrementAndGet(),
+                now,
+                now + TimeUnit.MILLISECONDS.toNanos(configuration.deadlineMillis(type)));
+        Job displaced = null;
+        lock.lock();
+        try {
+            if (pending.size() >= configuration.queueCapacity()) {
+                Job lowest = pending.last();
+                if (lowest.type().rank() <= type.rank()) {
+                    record(type, "shed");
+                    logger.warn("[AI_BACKGROUND] Job shed jobType={} depth={}", type.tagValue(), pending.size());
+                    return false;
+                }
+                pending.remove(lowest);
+                displaced = lowest;
+            }
+            pending.add(job);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (displaced != null) {
+            record(displaced.type(), "shed");
+            logger.warn("[AI_BACKGROUND] Job displaced jobType={} by={}", displaced.type().tagValue(), type.tagValue());
+        }
+        record(type, "queued");
+        return true;
+    }
+
+    /**
+     * Adapts the queue to an {@link Executor} for one job type. Shed tasks raise
+     * {@link RejectedExecutionException}, as a saturated executor would.
+     */
+    public Executor executor(BackgroundAiJobType type) {
+        Objects.requireNonNull(type, "type");
+        return task -> {
+            if (!submit(type, task)) {
+                throw new RejectedExecutionException("Background AI queue rejected " + type.tagValue() + " job");
+            }
+        };
+    }
+
+    public int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        int dropped;
+        lock.lock();
+        try {
+            dropped = pending.size();
+            pending.clear();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        workers.forEach(Thread::interrupt);
+        if (dropped > 0) {
+            logger.info("[AI_BACKGROUND] Queue shut down droppedJobs={}", dropped);
+        }
+    }
+
+    /**
+     * Runs the next queued job on the calling thread, if any. Used when no workers were started.
+     */
+    boolean runNext() {
+        Job job;
+        lock.lock();
+        try {
+            job = pending.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+        if (job == null) {
+            return false;
+        }
+        run(job);
+        return true;
+    }
+
+    private void workLoop() {
+        while (running) {
+            Job job;
+            try {
+                job = take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (job != null) {
+                run(job);
+            }
+        }
+    }
+
+    private Job take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (pending.isEmpty() && running) {
+                notEmpty.await();
+            }
+            return running ? pending.pollFirst() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run(Job job) {
+        long now = nanoClock.getAsLong();
+        ChatAiMetrics.recordTimer(
+                meterRegistry,
+                ChatAiMetrics.BACKGROUND_QUEUE_AGE,
+                "Time background AI jobs spend waiting in the queue",
+                now - job.enqueuedAtNanos(),
+                "job_type", job.type().tagValue());
+        if (now > job.deadlineAtNanos()) {
+            record(job.type(), "expired");
+            logger.info("[AI_BACKGROUND] Job expired jobType={} waitedMs={}",
+                    job.type().tagValue(), TimeUnit.NANOSECONDS.toMillis(now - job.enqueuedAtNanos()));
+            return;
+        }
+
+        try {
+            job.task().run();
+            record(job.type(), "completed");
+        } catch (RuntimeException ex) {
+            record(job.type(), "failed");
+            logger.warn("[AI_BACKGROUND] Job failed jobType={} reason={}", job.type().tagValue(), ex.getMessage());
+        }
+    }
+
+    private void record(BackgroundAiJobType type, String outcome) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.BACKGROUND_JOBS,
+                "Background AI jobs by outcome",
+                "job_type", type.tagValue(),
+                "outcome", outcome);
+    }
+
+    private record Job(
+            BackgroundAiJobType type,
+            Runnable task,
+            long sequence,
+            long enqueuedAtNanos,
+            long deadlineAtNanos
+    ) {
+    }
+}
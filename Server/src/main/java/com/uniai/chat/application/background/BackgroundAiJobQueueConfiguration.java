@@ -0,0 +1,23 @@
+package com.uniai.chat.application.background;
+
+public record BackgroundAiJobQueueConfiguration(
+        int workerThreads,
+        int queueCapacity,
+        long memoryUpdateDeadlineMillis,
+        long chatTitleDeadlineMillis
+) {
+    public BackgroundAiJobQueueConfiguration {
+        workerThreads = Math.max(1, workerThreads);
+        queueCapacity = Math.max(1, queueCapacity);
+        memoryUpdateDeadlineMillis = Math.max(1L, memoryUpdateDeadlineMillis);
+        chatTitleDeadlineMillis = Math.max(1L, chatTitleDeadlineMillis);
+    }
+
+    public static BackgroundAiJobQueueConfiguration defaults() {
+        return new BackgroundAiJobQueueConfiguration(2, 256, 30_000L, 60_000L);
+    }
+
+    public long deadlineMillis(BackgroundAiJobType type) {
+        return type == BackgroundAiJobType.MEMORY_UPDATE ? memoryUpdateDeadlineMillis : chatTitleDeadlineMillis;
+    }
+}
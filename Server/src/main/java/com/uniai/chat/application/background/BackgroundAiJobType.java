@@ -0,0 +1,26 @@
+package com.uniai.chat.application.background;
+
+/**
+ * Kinds of deferred AI work that run after a chat turn has been persisted. A lower rank is served
+ * first and survives longer when the queue has to shed work.
+ */
+public enum BackgroundAiJobType {
+    MEMORY_UPDATE(0, "memory_update"),
+    CHAT_TITLE(1, "chat_title");
+
+    private final int rank;
+    private final String tagValue;
+
+    BackgroundAiJobType(int rank, String tagValue) {
+        this.rank = rank;
+        this.tagValue = tagValue;
+    }
+
+    public int rank() {
+        return rank;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
@@ -1,10 +1,14 @@
 package com.uniai.chat.application.budget;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
+
 import java.util.Map;
 import java.util.Locale;
 
 /**
  * Application-owned budget policy for request sizing.
+ * Operation budgets belong to the model tier serving that operation and take precedence over
+ * provider budgets, which in turn override the global limits.
  */
 public record AiContextBudgetConfiguration(
         int maxInputTokens,
@@ -13,10 +17,12 @@ public record AiContextBudgetConfiguration(
         int maxRetrievalTokens,
         int charactersPerToken,
         int requestOverheadTokens,
-        Map<String, ProviderBudget> providers
+        Map<String, ProviderBudget> providers,
+        Map<AiOperation, ProviderBudget> operations
 ) {
     public AiContextBudgetConfiguration {
         providers = providers == null ? Map.of() : Map.copyOf(providers);
+        operations = operations == null ? Map.of() : Map.copyOf(operations);
         maxInputTokens = Math.max(1, maxInputTokens);
         reservedOutputTokens = Math.max(0, reservedOutputTokens);
         maxHistoryTokens = Math.max(0, maxHistoryTokens);
@@ -25,6 +31,22 @@ public record AiContextBudgetConfiguration(
         requestOverheadTokens = Math.max(0, requestOverheadTokens);
     }
 
+    public AiContextBudgetConfiguration(
+            int maxInputTokens,
+            int reservedOutputTokens,
+            int maxHistoryTokens,
+            int maxRetrievalTokens,
+            int charactersPerToken,
+            int requestOverheadTokens,
+            Map<String, ProviderBudget> providers
+    ) {
+        this(maxInputTokens, reservedOutputTokens, maxHistoryTokens, maxRetrievalTokens, charactersPerToken, requestOverheadTokens, providers, Map.of());
+    }
+
+    public ProviderBudget operationBudget(AiOperation operation) {
+        return operation == null || operations.isEmpty() ? null : operations.get(operation);
+    }
+
     public ProviderBudget providerBudget(String provider) {
         if (provider == null || providers.isEmpty() || provider.isBlank()) {
             return null;
@@ -1,5 +1,6 @@
 package com.uniai.chat.application.budget;
 
+import com.uniai.chat.application.dto.ai.AiContextUnit;
 import com.uniai.chat.application.dto.ai.AiConversationMessage;
 import com.uniai.chat.application.dto.ai.AiOperation;
 import com.uniai.chat.application.dto.ai.AiRequest;
@@ -13,6 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.function.Function;
 
 public class AiContextBudgetManager {
 
@@ -22,6 +24,7 @@ public class AiContextBudgetManager {
 
     private final AiContextBudgetConfiguration configuration;
     private final AiTokenEstimator estimator;
+    private final AiContextUnitPacker packer;
     private final String activeProvider;
     private final MeterRegistry meterRegistry;
 
@@ -40,8 +43,9 @@ public class AiContextBudgetManager {
             MeterRegistry meterRegistry
     ) {
         this.configuration = configuration;
-        this.estimator = estimator;
         this.activeProvider = normalizeProvider(activeProvider);
+        this.estimator = estimator != null ? estimator.forProvider(this.activeProvider) : null;
+        this.packer = new AiContextUnitPacker(this.estimator);
         this.meterRegistry = meterRegistry;
     }
 
@@ -49,20 +53,22 @@ public class AiContextBudgetManager {
         Objects.requireNonNull(request, "request");
         long startNanos = System.nanoTime();
 
-        long maxInputTokens = resolveMaxInputTokens();
-        long reservedOutputTokens = resolveReservedOutputTokens(request);
+        long maxInputTokens = resolveMaxInputTokens(request, activeProvider);
+        long reservedOutputTokens = resolveReservedOutputTokens(request, activeProvider);
         long availableInputBudget = Math.max(0L, maxInputTokens - reservedOutputTokens);
-        long overheadTokens = resolveRequestOverheadTokens();
+        long overheadTokens = resolveRequestOverheadTokens(request, activeProvider);
 
         List<AiConversationMessage> originalHistory = copyHistory(request.getConversationHistory());
         List<String> originalContext = copyContext(request.getContext());
         ConversationMemory conversationMemory = request.getConversationMemory();
+        HistoryWindow history = new HistoryWindow(originalHistory);
+        ContextWindow context = new ContextWindow(new ArrayList<>(originalContext), request.getContextUnits());
 
         long originalSystemTokens = estimator.estimateTokens(request.getSystemPrompt());
         long originalMemoryTokens = estimator.estimateTokens(conversationMemory);
         long originalUserTokens = estimator.estimateTokens(request.getUserMessage());
-        long originalHistoryTokens = estimator.estimateConversationTokens(originalHistory);
-        long originalContextTokens = estimator.estimateContextTokens(originalContext);
+        long originalHistoryTokens = history.tokens();
+        long originalContextTokens = context.tokens();
         long originalTotal = originalSystemTokens + originalMemoryTokens + originalUserTokens + originalHistoryTokens + originalContextTokens + overheadTokens;
         AiOperation operation = request.getOperation() == null ? AiOperation.UNKNOWN : request.getOperation();
 
@@ -81,46 +87,37 @@ public class AiContextBudgetManager {
                 originalContext.size(),
                 originalHistory.size());
 
-        List<AiConversationMessage> budgetedHistory = new ArrayList<>(originalHistory);
-        List<String> budgetedContext = new ArrayList<>(originalContext);
         boolean historyTrimmed = false;
         boolean contextTrimmed = false;
 
-        TrimState historyTrimState = trimHistoryToBudget(budgetedHistory, resolveHistoryBudgetTokens(), availableInputBudget, request, budgetedContext);
+        TrimState historyTrimState = trimHistoryToBudget(history, resolveHistoryBudgetTokens(request, activeProvider));
         historyTrimmed |= historyTrimState.trimmed();
 
-        ContextTrimState contextTrimState = trimContextToBudget(budgetedContext, resolveRetrievalBudgetTokens(), availableInputBudget, request, budgetedHistory);
+        ContextTrimState contextTrimState = trimContextToBudget(context, resolveRetrievalBudgetTokens(request, activeProvider));
         contextTrimmed |= contextTrimState.trimmed();
 
-        long finalHistoryTokens = estimator.estimateConversationTokens(budgetedHistory);
-        long finalContextTokens = estimator.estimateContextTokens(budgetedContext);
-        long finalSystemTokens = estimator.estimateTokens(request.getSystemPrompt());
-        long finalMemoryTokens = estimator.estimateTokens(conversationMemory);
-        long finalUserTokens = estimator.estimateTokens(request.getUserMessage());
-        long finalTotal = finalSystemTokens + finalMemoryTokens + finalUserTokens + finalHistoryTokens + finalContextTokens + overheadTokens;
+        long finalSystemTokens = originalSystemTokens;
+        long finalMemoryTokens = originalMemoryTokens;
+        long finalUserTokens = originalUserTokens;
+        long finalTotal = finalSystemTokens + finalMemoryTokens + finalUserTokens + history.tokens() + context.tokens() + overheadTokens;
 
         if (finalTotal > availableInputBudget) {
-            TrimState overallHistoryTrimState = trimHistoryToFitOverallBudget(
-                    budgetedHistory,
-                    budgetedContext,
-                    availableInputBudget,
-                    request
-            );
+            // Memory cannot be trimmed, so it is left out of the overall fit and never pushes history or retrieval out.
+            long mandatoryTokens = finalSystemTokens + finalUserTokens + overheadTokens;
+            TrimState overallHistoryTrimState = trimHistoryToFitOverallBudget(history, context, availableInputBudget, mandatoryTokens);
             historyTrimmed |= overallHistoryTrimState.trimmed();
 
-            ContextTrimState overallContextTrimState = trimContextToFitOverallBudget(
-                    budgetedContext,
-                    budgetedHistory,
-                    availableInputBudget,
-                    request
-            );
+            ContextTrimState overallContextTrimState = trimContextToFitOverallBudget(context, history, availableInputBudget, mandatoryTokens);
             contextTrimmed |= overallContextTrimState.trimmed();
 
-            finalHistoryTokens = estimator.estimateConversationTokens(budgetedHistory);
-            finalContextTokens = estimator.estimateContextTokens(budgetedContext);
-            finalTotal = finalSystemTokens + finalMemoryTokens + finalUserTokens + finalHistoryTokens + finalContextTokens + overheadTokens;
+            finalTotal = finalSystemTokens + finalMemoryTokens + finalUserTokens + history.tokens() + context.tokens() + overheadTokens;
         }
 
+        List<AiConversationMessage> budgetedHistory = history.remaining();
+        List<String> budgetedContext = context.entries();
+        long finalHistoryTokens = history.tokens();
+        long finalContextTokens = context.tokens();
+
         recordEstimatedTokens(operation, "original", originalTotal);
         recordEstimatedTokens(operation, "final", finalTotal);
         recordEstimatedTokens(operation, "reserved_output", reservedOutputTokens);
@@ -163,13 +160,16 @@ public class AiContextBudgetManager {
         AiRequest budgetedRequest = AiRequest.builder()
                 .userMessage(request.getUserMessage())
                 .systemPrompt(request.getSystemPrompt())
+                .staticPromptPrefix(request.getStaticPromptPrefix())
                 .conversationHistory(List.copyOf(budgetedHistory))
                 .context(List.copyOf(budgetedContext))
+                .contextUnits(context.units())
                 .conversationMemory(conversationMemory)
                 .temperature(request.getTemperature())
                 .maxTokens(request.getMaxTokens() != null && request.getMaxTokens() > 0
                         ? request.getMaxTokens()
                         : (int) reservedOutputTokens)
+                .userId(request.getUserId())
                 .build();
 
         logger.debug("[AI_BUDGET] Evaluation completed finalEstimatedTokens={} requestFits={} durationMs={} historyTrimmed={} contextTrimmed={} finalHistoryCount={} finalContextCount={}",
@@ -199,6 +199,26 @@ public class AiContextBudgetManager {
         );
     }
 
+    /**
+     * Checks an already budgeted request against another provider's input window. Requests are
+     * trimmed for the active provider, so a router uses this to skip providers with tighter limits.
+     */
+    public boolean fitsProvider(AiRequest request, String provider) {
+        if (request == null) {
+            return true;
+        }
+        String normalizedProvider = normalizeProvider(provider);
+        AiTokenEstimator providerEstimator = estimator.forProvider(normalizedProvider);
+        long totalTokens = providerEstimator.estimateTokens(request.getSystemPrompt())
+                + providerEstimator.estimateTokens(request.getConversationMemory())
+                + providerEstimator.estimateTokens(request.getUserMessage())
+                + providerEstimator.estimateConversationTokens(request.getConversationHistory())
+                + providerEstimator.estimateContextTokens(request.getContext())
+                + resolveRequestOverheadTokens(request, normalizedProvider);
+        long availableInputBudget = resolveMaxInputTokens(request, normalizedProvider) - resolveReservedOutputTokens(request, normalizedProvider);
+        return totalTokens <= availableInputBudget;
+    }
+
     private void recordEstimatedTokens(AiOperation operation, String stage, long value) {
         ChatAiMetrics.recordSummary(
                 meterRegistry,
@@ -215,21 +235,14 @@ public class AiContextBudgetManager {
         );
     }
 
-    private TrimState trimHistoryToBudget(
-            List<AiConversationMessage> history,
-            long historyBudgetTokens,
-            long availableInputBudget,
-            AiRequest request,
-            List<String> context
-    ) {
+    private TrimState trimHistoryToBudget(HistoryWindow history, long historyBudgetTokens) {
         if (history.isEmpty()) {
             return TrimState.ofNotTrimmed();
         }
 
-        long historyTokens = estimator.estimateConversationTokens(history);
         boolean trimmed = false;
-        while (!history.isEmpty() && historyTokens > historyBudgetTokens) {
-            historyTokens = removeOldestHistoryMessage(history, historyTokens);
+        while (!history.isEmpty() && history.tokens() > historyBudgetTokens) {
+            history.removeOldestTurn();
             trimmed = true;
         }
 
@@ -237,93 +250,94 @@ public class AiContextBudgetManager {
     }
 
     private TrimState trimHistoryToFitOverallBudget(
-            List<AiConversationMessage> history,
-            List<String> context,
+            HistoryWindow history,
+            ContextWindow context,
             long availableInputBudget,
-            AiRequest request
+            long mandatoryTokens
     ) {
         if (history.isEmpty()) {
             return TrimState.ofNotTrimmed();
         }
 
         boolean trimmed = false;
-        while (!history.isEmpty() && estimateTotalTokens(request, history, context) > availableInputBudget) {
-            long before = estimator.estimateConversationTokens(history);
-            removeOldestHistoryMessage(history, before);
+        while (!history.isEmpty() && mandatoryTokens + history.tokens() + context.tokens() > availableInputBudget) {
+            history.removeOldestTurn();
             trimmed = true;
         }
         return trimmed ? TrimState.ofTrimmed() : TrimState.ofNotTrimmed();
     }
 
-    private ContextTrimState trimContextToBudget(
-            List<String> context,
-            long retrievalBudgetTokens,
-            long availableInputBudget,
-            AiRequest request,
-            List<AiConversationMessage> history
-    ) {
+    private ContextTrimState trimContextToBudget(ContextWindow context, long retrievalBudgetTokens) {
         if (context.isEmpty()) {
             return ContextTrimState.ofNotTrimmed();
         }
 
         boolean trimmed = false;
-        boolean removedBlankEntries = sanitizeContext(context);
-        long contextTokens = estimator.estimateContextTokens(context);
+        boolean removedBlankEntries = context.removeBlankEntries();
 
-        while (context.size() > 1 && contextTokens > retrievalBudgetTokens) {
-            String removed = context.remove(context.size() - 1);
-            contextTokens -= estimator.estimateTokens(removed);
+        while (context.size() > 1 && context.tokens() > retrievalBudgetTokens) {
+            context.removeLast();
             trimmed = true;
         }
 
-        if (contextTokens > retrievalBudgetTokens && !context.isEmpty()) {
-            String truncated = truncateContextForBudget(context.get(0), retrievalBudgetTokens);
-            if (!truncated.equals(context.get(0))) {
-                context.set(0, truncated);
-                contextTokens = estimator.estimateContextTokens(context);
+        if (context.tokens() > retrievalBudgetTokens && !context.isEmpty()) {
+            trimmed |= context.packFirst(retrievalBudgetTokens);
+        }
+
+        if (context.tokens() > retrievalBudgetTokens && !context.isEmpty()) {
+            String truncated = truncateContextForBudget(context.first(), retrievalBudgetTokens);
+            if (!truncated.equals(context.first())) {
+                context.replaceFirst(truncated);
                 trimmed = true;
             }
         }
 
         if (trimmed) {
-            appendTruncationMarker(context);
+            context.appendTruncationMarker();
         }
 
         return (trimmed || removedBlankEntries) ? ContextTrimState.ofTrimmed() : ContextTrimState.ofNotTrimmed();
     }
 
     private ContextTrimState trimContextToFitOverallBudget(
-            List<String> context,
-            List<AiConversationMessage> history,
+            ContextWindow context,
+            HistoryWindow history,
             long availableInputBudget,
-            AiRequest request
+            long mandatoryTokens
     ) {
         if (context.isEmpty()) {
             return ContextTrimState.ofNotTrimmed();
         }
 
+        long contextBudgetTokens = availableInputBudget - mandatoryTokens - history.tokens();
         boolean trimmed = false;
-        while (!context.isEmpty() && estimateTotalTokens(request, history, context) > availableInputBudget) {
+        while (!context.isEmpty() && context.tokens() > contextBudgetTokens) {
             if (context.size() > 1) {
-                context.remove(context.size() - 1);
+                context.removeLast();
                 trimmed = true;
                 continue;
             }
 
-            long remainingBudgetTokens = estimateRemainingContextBudget(request, history, context, availableInputBudget);
+            long remainingBudgetTokens = Math.max(0L, contextBudgetTokens);
             if (remainingBudgetTokens <= 0) {
                 context.clear();
                 trimmed = true;
                 break;
             }
 
-            String truncated = truncateContextForBudget(context.get(0), remainingBudgetTokens);
-            if (!truncated.equals(context.get(0))) {
-                context.set(0, truncated);
+            if (context.packFirst(remainingBudgetTokens)) {
                 trimmed = true;
-                appendTruncationMarker(context);
-                if (context.size() == 1 && CONTEXT_TRUNCATION_MARKER.equals(context.get(0))
-                        && estimateTotalTokens(request, history, context) > availableInputBudget) {
+                context.appendTruncationMarker();
+                continue;
+            }
+
+            String truncated = truncateContextForBudget(context.first(), remainingBudgetTokens);
+            if (!truncated.equals(context.first())) {
+                context.replaceFirst(truncated);
+                trimmed = true;
+                context.appendTruncationMarker();
+                if (context.size() == 1 && CONTEXT_TRUNCATION_MARKER.equals(context.first())
+                        && context.tokens() > contextBudgetTokens) {
                     context.clear();
                     break;
                 }
@@ -334,30 +348,6 @@ public class AiContextBudgetManager {
         return trimmed ? ContextTrimState.ofTrimmed() : ContextTrimState.ofNotTrimmed();
     }
 
-    private long estimateTotalTokens(AiRequest request, List<AiConversationMessage> history, List<String> context) {
-        return estimator.estimateTokens(request.getSystemPrompt())
-                + estimator.estimateTokens(request.getUserMessage())
-                + estimator.estimateConversationTokens(history)
-                + estimator.estimateContextTokens(context)
-                + resolveRequestOverheadTokens();
-    }
-
-    private long removeOldestHistoryMessage(List<AiConversationMessage> history, long currentTokens) {
-        if (history.isEmpty()) {
-            return currentTokens;
-        }
-
-        AiConversationMessage removed = history.remove(0);
-        currentTokens -= estimator.estimateTokens(removed);
-
-        while (!history.isEmpty() && isAssistant(history.get(0))) {
-            AiConversationMessage orphanAssistant = history.remove(0);
-            currentTokens -= estimator.estimateTokens(orphanAssistant);
-        }
-
-        return currentTokens;
-    }
-
     private boolean isAssistant(AiConversationMessage message) {
         if (message == null || !hasText(message.getRole())) {
             return false;
@@ -366,68 +356,69 @@ public class AiContextBudgetManager {
         return "assistant".equals(normalized) || "model".equals(normalized);
     }
 
-    private long estimateRemainingContextBudget(
-            AiRequest request,
-            List<AiConversationMessage> history,
-            List<String> context,
-            long availableInputBudget
-    ) {
-        long mandatory = estimator.estimateTokens(request.getSystemPrompt())
-                + estimator.estimateTokens(request.getUserMessage())
-                + estimator.estimateConversationTokens(history)
-                + resolveRequestOverheadTokens();
-        return Math.max(0L, availableInputBudget - mandatory);
-    }
-
-    private long resolveMaxInputTokens() {
-        int globalMax = Math.max(1, configuration != null ? configuration.maxInputTokens() : 200000);
-        AiContextBudgetConfiguration.ProviderBudget providerBudget = resolveProviderBudget();
-        if (providerBudget != null && providerBudget.maxInputTokens() != null) {
-            return Math.max(1, providerBudget.maxInputTokens());
+    private long resolveMaxInputTokens(AiRequest request, String provider) {
+        Integer budget = resolveBudgetValue(request, provider, AiContextBudgetConfiguration.ProviderBudget::maxInputTokens);
+        if (budget != null) {
+            return Math.max(1, budget);
         }
-        return globalMax;
+        return Math.max(1, configuration != null ? configuration.maxInputTokens() : 200000);
     }
 
-    private long resolveReservedOutputTokens(AiRequest request) {
+    private long resolveReservedOutputTokens(AiRequest request, String provider) {
         if (request != null && request.getMaxTokens() != null && request.getMaxTokens() > 0) {
             return request.getMaxTokens();
         }
-        AiContextBudgetConfiguration.ProviderBudget providerBudget = resolveProviderBudget();
-        if (providerBudget != null && providerBudget.reservedOutputTokens() != null) {
-            return Math.max(0, providerBudget.reservedOutputTokens());
+        Integer budget = resolveBudgetValue(request, provider, AiContextBudgetConfiguration.ProviderBudget::reservedOutputTokens);
+        if (budget != null) {
+            return Math.max(0, budget);
         }
         return Math.max(0, configuration != null ? configuration.reservedOutputTokens() : 2000);
     }
 
-    private long resolveHistoryBudgetTokens() {
-        AiContextBudgetConfiguration.ProviderBudget providerBudget = resolveProviderBudget();
-        if (providerBudget != null && providerBudget.maxHistoryTokens() != null) {
-            return Math.max(0, providerBudget.maxHistoryTokens());
+    private long resolveHistoryBudgetTokens(AiRequest request, String provider) {
+        Integer budget = resolveBudgetValue(request, provider, AiContextBudgetConfiguration.ProviderBudget::maxHistoryTokens);
+        if (budget != null) {
+            return Math.max(0, budget);
         }
         return Math.max(0, configuration != null ? configuration.maxHistoryTokens() : 12000);
     }
 
-    private long resolveRetrievalBudgetTokens() {
-        AiContextBudgetConfiguration.ProviderBudget providerBudget = resolveProviderBudget();
-        if (providerBudget != null && providerBudget.maxRetrievalTokens() != null) {
-            return Math.max(0, providerBudget.maxRetrievalTokens());
+    private long resolveRetrievalBudgetTokens(AiRequest request, String provider) {
+        Integer budget = resolveBudgetValue(request, provider, AiContextBudgetConfiguration.ProviderBudget::maxRetrievalTokens);
+        if (budget != null) {
+            return Math.max(0, budget);
         }
         return Math.max(0, configuration != null ? configuration.maxRetrievalTokens() : 120000);
     }
 
-    private long resolveRequestOverheadTokens() {
-        AiContextBudgetConfiguration.ProviderBudget providerBudget = resolveProviderBudget();
-        if (providerBudget != null && providerBudget.requestOverheadTokens() != null) {
-            return Math.max(0, providerBudget.requestOverheadTokens());
+    private long resolveRequestOverheadTokens(AiRequest request, String provider) {
+        Integer budget = resolveBudgetValue(request, provider, AiContextBudgetConfiguration.ProviderBudget::requestOverheadTokens);
+        if (budget != null) {
+            return Math.max(0, budget);
         }
         return estimator.resolveOverheadTokens();
     }
 
-    private AiContextBudgetConfiguration.ProviderBudget resolveProviderBudget() {
+    private Integer resolveBudgetValue(
+            AiRequest request,
+            String provider,
+            Function<AiContextBudgetConfiguration.ProviderBudget, Integer> field
+    ) {
+        AiContextBudgetConfiguration.ProviderBudget operationBudget = configuration != null && request != null
+                ? configuration.operationBudget(request.getOperation())
+                : null;
+        if (operationBudget != null && field.apply(operationBudget) != null) {
+            return field.apply(operationBudget);
+        }
+        AiContextBudgetConfiguration.ProviderBudget providerBudget = resolveProviderBudget(provider);
+        return providerBudget != null ? field.apply(providerBudget) : null;
+    }
+
+    private AiContextBudgetConfiguration.ProviderBudget resolveProviderBudget(String provider) {
         if (configuration == null || configuration.providers() == null || configuration.providers().isEmpty()) {
             return null;
         }
-        return configuration.providerBudget(activeProvider);
+        return configuration.providerBudget(provider);
     }
 
     private List<AiConversationMessage> copyHistory(List<AiConversationMessage> history) {
@@ -444,22 +435,13 @@ public class AiContextBudgetManager {
         return new ArrayList<>(context);
     }
 
-    private boolean sanitizeContext(List<String> context) {
-        if (context == null || context.isEmpty()) {
-            return false;
-        }
-        boolean removed = context.removeIf(entry -> !hasText(entry));
-        return removed;
-    }
-
     private String truncateContextForBudget(String contextEntry, long remainingBudgetTokens) {
         if (!hasText(contextEntry)) {
             return "";
         }
 
         long safeBudgetTokens = Math.max(0L, remainingBudgetTokens);
-        int charsPerToken = (int) Math.max(1L, estimator.resolveCharactersPerToken());
-        int allowedChars = (int) Math.max(0L, safeBudgetTokens * (long) charsPerToken);
+        int allowedChars = estimator.fitPrefixLength(contextEntry, safeBudgetTokens);
         if (contextEntry.length() <= allowedChars) {
             return contextEntry;
         }
@@ -471,23 +453,6 @@ public class AiContextBudgetManager {
         return prefix;
     }
 
-    private void appendTruncationMarker(List<String> context) {
-        if (context.isEmpty()) {
-            context.add(CONTEXT_TRUNCATION_MARKER);
-            return;
-        }
-
-        String lastEntry = context.get(context.size() - 1);
-        if (CONTEXT_TRUNCATION_MARKER.equals(lastEntry)) {
-            return;
-        }
-        if (!hasText(lastEntry) && context.size() == 1) {
-            context.set(0, CONTEXT_TRUNCATION_MARKER);
-            return;
-        }
-        context.add(CONTEXT_TRUNCATION_MARKER);
-    }
-
     private String normalizeProvider(String provider) {
         return !hasText(provider) ? "placeholder" : provider.trim().toLowerCase(Locale.ROOT);
     }
@@ -500,6 +465,187 @@ public class AiContextBudgetManager {
         return (System.nanoTime() - startNanos) / 1_000_000L;
     }
 
+    /**
+     * History with each message estimated once. Trimming only advances the start index and the running
+     * total, so dropping k turns costs O(k) instead of re-estimating the whole remaining history each time.
+     */
+    private final class HistoryWindow {
+        private final List<AiConversationMessage> messages;
+        private final long[] messageTokens;
+        private int start;
+        private long tokens;
+
+        private HistoryWindow(List<AiConversationMessage> messages) {
+            this.messages = messages;
+            this.messageTokens = new long[messages.size()];
+            for (int index = 0; index < messageTokens.length; index++) {
+                messageTokens[index] = estimator.estimateTokens(messages.get(index));
+                tokens += messageTokens[index];
+            }
+        }
+
+        private boolean isEmpty() {
+            return start >= messages.size();
+        }
+
+        private long tokens() {
+            return tokens;
+        }
+
+        /** Drops the oldest message together with any assistant replies it leaves without a user turn. */
+        private void removeOldestTurn() {
+            if (isEmpty()) {
+                return;
+            }
+            tokens -= messageTokens[start++];
+            while (!isEmpty() && isAssistant(messages.get(start))) {
+                tokens -= messageTokens[start++];
+            }
+        }
+
+        private List<AiConversationMessage> remaining() {
+            return new ArrayList<>(messages.subList(start, messages.size()));
+        }
+    }
+
+    /**
+     * Retrieval entries with their token estimates kept alongside. Entries are only removed from the end
+     * or replaced at the front, so the running total is adjusted without re-estimating what is kept.
+     * Ranked units are only used while they still render the single entry they describe.
+     */
+    private final class ContextWindow {
+        private final List<String> entries;
+        private final List<Long> entryTokens;
+        private List<AiContextUnit> units;
+        private long tokens;
+
+        private ContextWindow(List<String> entries, List<AiContextUnit> units) {
+            this.entries = entries;
+            this.units = units == null || units.isEmpty() ? List.of() : List.copyOf(units);
+            this.entryTokens = new ArrayList<>(entries.size());
+            for (String entry : entries) {
+                long entryEstimate = estimator.estimateTokens(entry);
+                entryTokens.add(entryEstimate);
+                tokens += entryEstimate;
+            }
+        }
+
+        private boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        private int size() {
+            return entries.size();
+        }
+
+        private long tokens() {
+            return tokens;
+        }
+
+        private String first() {
+            return entries.get(0);
+        }
+
+        private List<String> entries() {
+            return entries;
+        }
+
+        private List<AiContextUnit> units() {
+            return hasPackableUnits() ? units : List.of();
+        }
+
+        private boolean hasPackableUnits() {
+            return !units.isEmpty() && !entries.isEmpty()
+                    && (entries.size() == 1 || entries.size() == 2 && CONTEXT_TRUNCATION_MARKER.equals(entries.get(1)))
+                    && AiContextUnitPacker.render(units).equals(entries.get(0));
+        }
+
+        /**
+         * Packs the highest-value units of the first entry into the budget in place of its tail. Returns
+         * {@code false} without changes when the entry has no usable units, already fits, or when its
+         * pinned units alone exceed the budget, leaving prefix truncation to the caller.
+         */
+        private boolean packFirst(long budgetTokens) {
+            if (!hasPackableUnits() || entryTokens.get(0) <= budgetTokens) {
+                return false;
+            }
+            AiContextUnitPacker.Packing packing = packer.pack(units, budgetTokens);
+            if (packing == null || packing.units().size() == units.size()) {
+                return false;
+            }
+            logger.debug("[AI_BUDGET] Retrieval packed keptGroups={} totalGroups={} budgetTokens={}",
+                    packing.keptGroups(),
+                    packing.totalGroups(),
+                    budgetTokens);
+            List<AiContextUnit> packedUnits = packing.units();
+            replaceFirst(packing.text());
+            units = packedUnits;
+            return true;
+        }
+
+        private boolean removeBlankEntries() {
+            int kept = 0;
+            for (int index = 0; index < entries.size(); index++) {
+                if (hasText(entries.get(index))) {
+                    entries.set(kept, entries.get(index));
+                    entryTokens.set(kept, entryTokens.get(index));
+                    kept++;
+                } else {
+                    tokens -= entryTokens.get(index);
+                }
+            }
+            boolean removed = kept < entries.size();
+            entries.subList(kept, entries.size()).clear();
+            entryTokens.subList(kept, entryTokens.size()).clear();
+            return removed;
+        }
+
+        private void removeLast() {
+            int last = entries.size() - 1;
+            entries.remove(last);
+            tokens -= entryTokens.remove(last);
+        }
+
+        private void replaceFirst(String entry) {
+            units = List.of();
+            long entryEstimate = estimator.estimateTokens(entry);
+            tokens += entryEstimate - entryTokens.get(0);
+            entries.set(0, entry);
+            entryTokens.set(0, entryEstimate);
+        }
+
+        private void add(String entry) {
+            long entryEstimate = estimator.estimateTokens(entry);
+            entries.add(entry);
+            entryTokens.add(entryEstimate);
+            tokens += entryEstimate;
+        }
+
+        private void clear() {
+            units = List.of();
+            entries.clear();
+            entryTokens.clear();
+            tokens = 0L;
+        }
+
+        private void appendTruncationMarker() {
+            if (entries.isEmpty()) {
+                add(CONTEXT_TRUNCATION_MARKER);
+                return;
+            }
+
+            String lastEntry = entries.get(entries.size() - 1);
+            if (CONTEXT_TRUNCATION_MARKER.equals(lastEntry)) {
+                return;
+            }
+            if (!hasText(lastEntry) && entries.size() == 1) {
+                replaceFirst(CONTEXT_TRUNCATION_MARKER);
+                return;
+            }
+            add(CONTEXT_TRUNCATION_MARKER);
+        }
+    }
+
     private record TrimState(boolean trimmed) {
         private static TrimState ofTrimmed() {
             return new TrimState(true);
@@ -0,0 +1,108 @@
+package com.uniai.chat.application.budget;
+
+import com.uniai.chat.application.dto.ai.AiContextUnit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chooses which groups of context units to keep within a token budget. This is a 0/1 knapsack over groups;
+ * groups are taken greedily by score per token, skipping any that no longer fit, and the result is
+ * compared with the single most valuable group that fits, which bounds it at half the optimum.
+ * Kept units are rendered in their original order.
+ */
+final class AiContextUnitPacker {
+
+    private final AiTokenEstimator estimator;
+
+    AiContextUnitPacker(AiTokenEstimator estimator) {
+        this.estimator = estimator;
+    }
+
+    /** The packed entry, or {@code null} when the pinned units alone do not fit. */
+    Packing pack(List<AiContextUnit> units, long budgetTokens) {
+        long pinnedTokens = 0L;
+        Map<String, Group> groups = new LinkedHashMap<>();
+        for (AiContextUnit unit : units) {
+            long unitTokens = estimator.estimateTokens(unit.text() + "\n");
+            if (unit.isPinned()) {
+                pinnedTokens += unitTokens;
+            } else {
+                groups.computeIfAbsent(unit.group(), Group::new).add(unit, unitTokens);
+            }
+        }
+        long remainingTokens = budgetTokens - pinnedTokens;
+        if (remainingTokens < 0) {
+            return null;
+        }
+
+        List<Group> byDensity = new ArrayList<>(groups.values());
+        byDensity.sort(Comparator.comparingDouble(Group::density).reversed());
+        Set<String> kept = new HashSet<>();
+        double keptScore = 0.0;
+        long freeTokens = remainingTokens;
+        Group bestSingle = null;
+        for (Group group : byDensity) {
+            if (group.tokens > remainingTokens) {
+                continue;
+            }
+            if (bestSingle == null || group.score > bestSingle.score) {
+                bestSingle = group;
+            }
+            if (group.tokens <= freeTokens) {
+                kept.add(group.key);
+                keptScore += group.score;
+                freeTokens -= group.tokens;
+            }
+        }
+        if (bestSingle != null && bestSingle.score > keptScore) {
+            kept = Set.of(bestSingle.key);
+        }
+
+        List<AiContextUnit> packedUnits = new ArrayList<>();
+        for (AiContextUnit unit : units) {
+            if (unit.isPinned() || kept.contains(unit.group())) {
+                packedUnits.add(unit);
+            }
+        }
+        return new Packing(List.copyOf(packedUnits), render(packedUnits), kept.size(), groups.size());
+    }
+
+    static String render(List<AiContextUnit> units) {
+        StringBuilder rendered = new StringBuilder();
+        for (AiContextUnit unit : units) {
+            if (!rendered.isEmpty()) {
+                rendered.append('\n');
+            }
+            rendered.append(unit.text());
+        }
+        return rendered.toString();
+    }
+
+    record Packing(List<AiContextUnit> units, String text, int keptGroups, int totalGroups) {
+    }
+
+    private static final class Group {
+        private final String key;
+        private double score;
+        private long tokens;
+
+        private Group(String key) {
+            this.key = key;
+        }
+
+        private void add(AiContextUnit unit, long unitTokens) {
+            score += unit.score();
+            tokens += unitTokens;
+        }
+
+        private double density() {
+            return score / Math.max(1L, tokens);
+        }
+    }
+}
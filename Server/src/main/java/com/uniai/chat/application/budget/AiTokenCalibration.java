@@ -0,0 +1,139 @@
+package com.uniai.chat.application.budget;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Learns how far the token estimates are from the input token counts the providers report.
+ * Each provider response adds the ratio of actual to estimated input tokens to an exponentially weighted
+ * average, kept per provider, model and operation for inspection and per provider for the estimator.
+ * Samples and the resulting factor are clamped to the configured bounds, so one odd count, such as a
+ * prompt served from a provider's prompt cache, cannot swing every budget. Until a provider has enough
+ * samples its factor stays at 1.
+ */
+public class AiTokenCalibration {
+
+    private final Settings settings;
+    private final Map<Key, State> operationStates = new ConcurrentHashMap<>();
+    private final Map<String, State> providerStates = new ConcurrentHashMap<>();
+
+    public AiTokenCalibration(Settings settings) {
+        this.settings = settings != null ? settings : Settings.defaults();
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Adds one observation. Samples smaller than {@link Settings#minEstimatedTokens()} are skipped because
+     * the provider's fixed prompt template dominates them.
+     *
+     * @return {@code true} when the sample was used
+     */
+    public boolean record(String provider, String model, AiOperation operation, long estimatedTokens, long actualTokens) {
+        if (!settings.enabled() || estimatedTokens < Math.max(1L, settings.minEstimatedTokens()) || actualTokens <= 0L) {
+            return false;
+        }
+        double ratio = clamp(actualTokens / (double) estimatedTokens);
+        Key key = new Key(normalize(provider), normalize(model), operation != null ? operation : AiOperation.UNKNOWN);
+        operationStates.computeIfAbsent(key, ignored -> new State()).add(ratio, estimatedTokens, actualTokens);
+        providerStates.computeIfAbsent(key.provider(), ignored -> new State()).add(ratio, estimatedTokens, actualTokens);
+        return true;
+    }
+
+    /** Multiplier for estimates sent to {@code provider}; 1 until the provider has enough samples. */
+    public double factor(String provider) {
+        if (!settings.enabled()) {
+            return 1.0;
+        }
+        State state = providerStates.get(normalize(provider));
+        return state != null ? state.factor() : 1.0;
+    }
+
+    /** Per provider, model and operation state, ordered by those keys. */
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        operationStates.forEach((key, state) -> snapshots.add(state.snapshot(key)));
+        snapshots.sort(Comparator.comparing(Snapshot::provider)
+                .thenComparing(Snapshot::model)
+                .thenComparing(Snapshot::operation));
+        return List.copyOf(snapshots);
+    }
+
+    private double clamp(double value) {
+        return Math.max(settings.minFactor(), Math.min(settings.maxFactor(), value));
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "unknown" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * {@code smoothing} is the weight of the newest sample. Factors are kept between {@code minFactor}
+     * and {@code maxFactor} and applied once a provider has {@code minSamples} samples.
+     */
+    public record Settings(
+            boolean enabled,
+            double smoothing,
+            double minFactor,
+            double maxFactor,
+            int minSamples,
+            long minEstimatedTokens
+    ) {
+        public Settings {
+            smoothing = Math.max(0.01, Math.min(1.0, smoothing));
+            minFactor = Math.max(0.05, minFactor);
+            maxFactor = Math.max(minFactor, maxFactor);
+            minSamples = Math.max(1, minSamples);
+            minEstimatedTokens = Math.max(1L, minEstimatedTokens);
+        }
+
+        public static Settings defaults() {
+            return new Settings(true, 0.1, 0.5, 2.0, 5, 200);
+        }
+    }
+
+    public record Snapshot(
+            String provider,
+            String model,
+            AiOperation operation,
+            long samples,
+            double factor,
+            long lastEstimatedTokens,
+            long lastActualTokens
+    ) {
+    }
+
+    private record Key(String provider, String model, AiOperation operation) {
+    }
+
+    private final class State {
+        private long samples;
+        private double average = 1.0;
+        private long lastEstimatedTokens;
+        private long lastActualTokens;
+
+        synchronized void add(double ratio, long estimatedTokens, long actualTokens) {
+            average = samples == 0 ? ratio : average + settings.smoothing() * (ratio - average);
+            samples++;
+            lastEstimatedTokens = estimatedTokens;
+            lastActualTokens = actualTokens;
+        }
+
+        synchronized double factor() {
+            return samples >= settings.minSamples() ? clamp(average) : 1.0;
+        }
+
+        synchronized Snapshot snapshot(Key key) {
+            return new Snapshot(key.provider(), key.model(), key.operation(), samples, factor(),
+                    lastEstimatedTokens, lastActualTokens);
+        }
+    }
+}
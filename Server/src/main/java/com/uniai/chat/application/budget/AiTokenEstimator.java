@@ -8,15 +8,44 @@ import com.uniai.chat.application.memory.ConversationMemoryPromptFormatter;
 import java.util.List;
 
 /**
- * Lightweight approximate token estimator.
- * The estimate is intentionally conservative and character-based.
+ * Request-level token estimator over a pluggable {@link AiTokenizer}.
+ * Without a tokenizer it falls back to the conservative characters-per-token approximation.
+ * With an {@link AiTokenCalibration}, counts are scaled by the factor learned for the estimator's provider;
+ * {@link #forProvider(String)} gives the estimator for another provider, for budgets and admission checks
+ * made on behalf of a routed provider.
  */
 public class AiTokenEstimator {
 
     private final AiContextBudgetConfiguration configuration;
+    private final AiTokenizer tokenizer;
+    private final AiTokenCalibration calibration;
+    private final String provider;
 
     public AiTokenEstimator(AiContextBudgetConfiguration configuration) {
+        this(configuration, null);
+    }
+
+    public AiTokenEstimator(AiContextBudgetConfiguration configuration, AiTokenizer tokenizer) {
+        this(configuration, tokenizer, null, null);
+    }
+
+    public AiTokenEstimator(
+            AiContextBudgetConfiguration configuration,
+            AiTokenizer tokenizer,
+            AiTokenCalibration calibration,
+            String provider) {
         this.configuration = configuration;
+        this.tokenizer = tokenizer != null ? tokenizer : new CharacterRatioTokenizer(resolveCharactersPerToken());
+        this.calibration = calibration;
+        this.provider = provider;
+    }
+
+    /** An estimator sharing this tokenizer and calibration that applies {@code provider}'s factor. */
+    public AiTokenEstimator forProvider(String provider) {
+        if (provider == null || provider.equals(this.provider)) {
+            return this;
+        }
+        return new AiTokenEstimator(configuration, tokenizer, calibration, provider);
     }
 
     public long estimateTokens(String text) {
@@ -24,8 +53,56 @@ public class AiTokenEstimator {
             return 0L;
         }
 
-        int charactersPerToken = resolveCharactersPerToken();
-        return (long) Math.ceil((double) text.length() / charactersPerToken);
+        long tokens = tokenizer.countTokens(text);
+        double factor = calibrationFactor();
+        return factor == 1.0 ? tokens : (long) Math.ceil(tokens * factor);
+    }
+
+    /** Length of the longest prefix of {@code text} that fits in {@code maxTokens}. */
+    public int fitPrefixLength(String text, long maxTokens) {
+        double factor = calibrationFactor();
+        return tokenizer.maxPrefixLength(text, factor == 1.0 ? maxTokens : (long) Math.floor(maxTokens / factor));
+    }
+
+    /** Current multiplier applied to tokenizer counts for this estimator's provider; 1 without calibration. */
+    public double calibrationFactor() {
+        return calibration != null ? calibration.factor(provider) : 1.0;
+    }
+
+    public AiTokenCalibration calibration() {
+        return calibration;
+    }
+
+    /**
+     * Tokenizer count of every text part of {@code request}, including conversation memory, without the
+     * calibration factor or the request overhead. Calibration compares this against provider usage, so
+     * the learned factor never feeds back into its own samples.
+     */
+    public long estimateUncalibratedInputTokens(AiRequest request) {
+        if (request == null) {
+            return 0L;
+        }
+
+        long total = countTokens(request.getSystemPrompt())
+                + countTokens(request.getUserMessage())
+                + (request.getConversationMemory() != null
+                        ? countTokens(ConversationMemoryPromptFormatter.render(request.getConversationMemory()))
+                        : 0L);
+        if (request.getConversationHistory() != null) {
+            for (AiConversationMessage message : request.getConversationHistory()) {
+                total += message != null ? countTokens(message.getContent()) : 0L;
+            }
+        }
+        if (request.getContext() != null) {
+            for (String entry : request.getContext()) {
+                total += countTokens(entry);
+            }
+        }
+        return total;
+    }
+
+    public String tokenizerName() {
+        return tokenizer.name();
     }
 
     public long estimateTokens(AiConversationMessage message) {
@@ -83,6 +160,10 @@ public class AiTokenEstimator {
         return Math.max(0, configuration != null ? configuration.requestOverheadTokens() : 128);
     }
 
+    private long countTokens(String text) {
+        return hasText(text) ? tokenizer.countTokens(text) : 0L;
+    }
+
     private boolean hasText(String value) {
         return value != null && !value.isBlank();
     }
@@ -0,0 +1,39 @@
+package com.uniai.chat.application.budget;
+
+/**
+ * Counts tokens the way a provider family's tokenizer would.
+ * Implementations must be thread-safe; the estimator shares one instance across all requests.
+ */
+public interface AiTokenizer {
+
+    String name();
+
+    long countTokens(String text);
+
+    /**
+     * Length of the longest prefix of {@code text} that fits in {@code maxTokens}, never splitting a
+     * surrogate pair. The default searches prefix lengths, so it costs a logarithmic number of counts.
+     */
+    default int maxPrefixLength(String text, long maxTokens) {
+        if (text == null || text.isEmpty() || maxTokens <= 0L) {
+            return 0;
+        }
+        if (countTokens(text) <= maxTokens) {
+            return text.length();
+        }
+        int low = 0;
+        int high = text.length() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (countTokens(text.substring(0, middle)) <= maxTokens) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (low > 0 && Character.isHighSurrogate(text.charAt(low - 1))) {
+            low--;
+        }
+        return low;
+    }
+}
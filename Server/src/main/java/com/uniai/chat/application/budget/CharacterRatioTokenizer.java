@@ -0,0 +1,36 @@
+package com.uniai.chat.application.budget;
+
+/**
+ * The original fixed characters-per-token approximation. Used when no tokenizer is configured and
+ * selectable with {@code ai.context.tokenizer.family=character}.
+ */
+public final class CharacterRatioTokenizer implements AiTokenizer {
+
+    private final int charactersPerToken;
+
+    public CharacterRatioTokenizer(int charactersPerToken) {
+        this.charactersPerToken = Math.max(1, charactersPerToken);
+    }
+
+    @Override
+    public String name() {
+        return "character";
+    }
+
+    @Override
+    public long countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0L;
+        }
+        return (text.length() + (long) charactersPerToken - 1L) / charactersPerToken;
+    }
+
+    @Override
+    public int maxPrefixLength(String text, long maxTokens) {
+        if (text == null || maxTokens <= 0L) {
+            return 0;
+        }
+        long allowedChars = maxTokens * charactersPerToken;
+        return (int) Math.min(text.length(), allowedChars);
+    }
+}
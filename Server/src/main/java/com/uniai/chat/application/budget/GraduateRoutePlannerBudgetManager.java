@@ -134,7 +134,8 @@ public class GraduateRoutePlannerBudgetManager {
         GraduateRoutePlanningRequest budgetedRequest = new GraduateRoutePlanningRequest(
                 request.userMessage(),
                 List.copyOf(budgetedHistory),
-                conversationMemory
+                conversationMemory,
+                request.userId()
         );
 
         logger.debug("[AI_INTERPRETATION_BUDGET] Evaluation completed provider={} originalEstimatedTokens={} finalEstimatedTokens={} promptTokens={} memoryTokens={} userTokens={} historyTokens={} historyTrimmed={} requestFits={} durationMs={}",
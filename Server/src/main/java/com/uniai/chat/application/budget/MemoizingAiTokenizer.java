@@ -0,0 +1,55 @@
+package com.uniai.chat.application.budget;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers token counts for long strings that are re-estimated on every request, such as system prompts
+ * and route context. Strings are immutable and cache their hash, so a repeated lookup of the same
+ * instance costs one hash probe. Short strings are cheaper to count than to cache and are never stored.
+ * The cache is cleared when it reaches its entry limit instead of tracking recency.
+ */
+public final class MemoizingAiTokenizer implements AiTokenizer {
+
+    private final AiTokenizer delegate;
+    private final int maxEntries;
+    private final int minCachedChars;
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    public MemoizingAiTokenizer(AiTokenizer delegate, int maxEntries, int minCachedChars) {
+        this.delegate = delegate;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.minCachedChars = Math.max(0, minCachedChars);
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public long countTokens(String text) {
+        if (text == null || maxEntries == 0 || text.length() < minCachedChars) {
+            return delegate.countTokens(text);
+        }
+        Long cached = counts.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        long count = delegate.countTokens(text);
+        if (counts.size() >= maxEntries) {
+            counts.clear();
+        }
+        counts.put(text, count);
+        return count;
+    }
+
+    @Override
+    public int maxPrefixLength(String text, long maxTokens) {
+        return delegate.maxPrefixLength(text, maxTokens);
+    }
+
+    int cachedEntries() {
+        return counts.size();
+    }
+}
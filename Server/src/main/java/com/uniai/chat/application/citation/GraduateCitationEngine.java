@@ -99,24 +99,34 @@ public final class GraduateCitationEngine {
     }
 
     public static List<GraduateCitation> filterCitationsPresentInContext(List<GraduateCitation> citations, List<String> finalContext) {
-        if (citations == null || citations.isEmpty() || finalContext == null || finalContext.isEmpty()) {
+        return filterCitationsPresentInContext(citations, finalContext, finalContext);
+    }
+
+    /**
+     * Keeps the citations still present in the budgeted context. When the original context carried citation
+     * labels, a dropped label drops its citation even if the university or program name survives elsewhere,
+     * so the result matches the rows that were packed.
+     */
+    public static List<GraduateCitation> filterCitationsPresentInContext(
+            List<GraduateCitation> citations,
+            List<String> originalContext,
+            List<String> finalContext
+    ) {
+        if (citations == null || citations.isEmpty()) {
             return List.of();
         }
 
-        List<String> contextEntries = finalContext.stream()
-                .filter(StringUtils::hasText)
-                .map(String::trim)
-                .toList();
-        if (contextEntries.isEmpty()) {
+        String joinedContext = joinContext(finalContext);
+        if (!StringUtils.hasText(joinedContext)) {
             return List.of();
         }
 
-        String joinedContext = String.join("\n", contextEntries);
+        String joinedOriginalContext = originalContext == finalContext ? joinedContext : joinContext(originalContext);
         boolean hasExplicitCitationLabels = citations.stream()
                 .filter(Objects::nonNull)
                 .map(GraduateCitation::label)
                 .filter(StringUtils::hasText)
-                .anyMatch(label -> containsExactLabel(joinedContext, label.trim()));
+                .anyMatch(label -> containsExactLabel(joinedOriginalContext, label.trim()));
 
         List<GraduateCitation> filtered = new ArrayList<>();
         for (GraduateCitation citation : citations) {
@@ -136,6 +146,16 @@ public final class GraduateCitationEngine {
         return List.copyOf(filtered);
     }
 
+    private static String joinContext(List<String> context) {
+        if (context == null || context.isEmpty()) {
+            return "";
+        }
+        return String.join("\n", context.stream()
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .toList());
+    }
+
     private static boolean containsExactLabel(String context, String label) {
         return StringUtils.hasText(context) && StringUtils.hasText(label) && context.contains("[" + label + "]");
     }
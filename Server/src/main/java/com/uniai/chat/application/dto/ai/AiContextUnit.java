@@ -0,0 +1,27 @@
+package com.uniai.chat.application.dto.ai;
+
+/**
+ * One line or block of a retrieval context entry. Units with the same group are kept or dropped together,
+ * such as a result row and its source reference, and the group is worth the sum of their scores.
+ * A unit without a group is always kept. Joining all units with newlines gives the full entry.
+ */
+public record AiContextUnit(String text, String group, double score) {
+
+    public AiContextUnit {
+        text = text == null ? "" : text;
+        group = group == null || group.isBlank() ? null : group;
+        score = Double.isFinite(score) ? Math.max(0.0, score) : 0.0;
+    }
+
+    public static AiContextUnit pinned(String text) {
+        return new AiContextUnit(text, null, 0.0);
+    }
+
+    public static AiContextUnit ranked(String text, String group, double score) {
+        return new AiContextUnit(text, group, score);
+    }
+
+    public boolean isPinned() {
+        return group == null;
+    }
+}
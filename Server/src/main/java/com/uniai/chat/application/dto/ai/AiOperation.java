@@ -5,5 +5,6 @@ public enum AiOperation {
     MAIN_RESPONSE,
     MEMORY_UPDATE,
     TITLE_GENERATION,
+    POST_ANSWER_UPDATE,
     UNKNOWN
 }
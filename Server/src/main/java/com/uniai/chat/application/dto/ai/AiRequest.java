@@ -18,9 +18,22 @@ public class AiRequest {
     private String userMessage;
     private String systemPrompt;
 
+    /**
+     * Leading part of {@link #systemPrompt} that is identical across calls, such as a prompt file.
+     * Providers may cache it; {@code null} when no part of the prompt is stable.
+     */
+    private String staticPromptPrefix;
+
     @Builder.Default
     private List<String> context = new ArrayList<>();
 
+    /**
+     * Ranked units of a single {@link #context} entry, when the caller has them. If the entry does not fit
+     * the retrieval budget, the budget manager keeps the highest-value units instead of cutting its tail.
+     */
+    @Builder.Default
+    private List<AiContextUnit> contextUnits = new ArrayList<>();
+
     @Builder.Default
     private List<AiConversationMessage> conversationHistory = new ArrayList<>();
 
@@ -31,4 +44,7 @@ public class AiRequest {
 
     private Double temperature;
     private Integer maxTokens;
+
+    /** The user the call is made for, charged in the usage ledger; {@code null} for calls made for no user. */
+    private Long userId;
 }
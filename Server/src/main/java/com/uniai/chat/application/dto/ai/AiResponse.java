@@ -21,4 +21,11 @@ public class AiResponse {
     private AiProviderFailureCategory failureCategory = AiProviderFailureCategory.UNKNOWN;
     @Builder.Default
     private Boolean retryable = Boolean.FALSE;
+    private Long retryAfterMs;
+    /** True when the call was refused locally, by a rate limiter or an open circuit, and never reached the provider. */
+    @Builder.Default
+    private Boolean notSent = Boolean.FALSE;
+    private Long promptTokens;
+    private Long completionTokens;
+    private Long cachedPromptTokens;
 }
@@ -74,27 +74,48 @@ public class ConversationMemoryManager {
 
     public void updateMemoryIfNeeded(
             Long chatId,
+            Long userId,
+            ConversationMemory previousMemory,
+            String currentUserMessage,
+            String assistantResponse,
+            GraduateRouteExecutionResult routeResult
+    ) {
+        ConversationMemoryUpdateRequest request = prepareUpdate(chatId, userId, previousMemory, currentUserMessage, assistantResponse, routeResult);
+        if (request != null) {
+            applyUpdate(chatId, request, null);
+        }
+    }
+
+    /**
+     * Decides whether this turn should update memory and whether the update fits its budget.
+     *
+     * @return the update request, or {@code null} when no update is due
+     */
+    public ConversationMemoryUpdateRequest prepareUpdate(
+            Long chatId,
+            Long userId,
             ConversationMemory previousMemory,
             String currentUserMessage,
             String assistantResponse,
             GraduateRouteExecutionResult routeResult
     ) {
         if (chatId == null || !isEnabled() || routeResult == null) {
-            return;
+            return null;
         }
 
         ConversationMemory baseMemory = previousMemory == null ? ConversationMemory.empty() : previousMemory;
         long completedTurns = messageRepository == null ? 0L : Math.max(0L, messageRepository.countByChatId(chatId) / 2L);
         if (!triggerPolicy.shouldUpdate(baseMemory, routeResult, completedTurns, currentUserMessage)) {
             logger.debug("[AI_MEMORY] Memory update skipped chatId={} reason=no-trigger", chatId);
-            return;
+            return null;
         }
 
         ConversationMemoryUpdateRequest request = new ConversationMemoryUpdateRequest(
                 baseMemory,
                 currentUserMessage,
                 assistantResponse,
-                routeResult
+                routeResult,
+                userId
         );
 
         String prompt = promptPort != null ? promptPort.getPrompt() : "";
@@ -103,11 +124,26 @@ public class ConversationMemoryManager {
             logger.warn("[AI_MEMORY] Memory update skipped chatId={} reason=budget-exceeded category={}",
                     chatId,
                     budgetResult.diagnosticCategory());
+            return null;
+        }
+        return request;
+    }
+
+    /**
+     * Validates, merges and stores a memory patch for a prepared request.
+     *
+     * @param proposedPatch patch already produced by a combined call, or {@code null} to ask the update port
+     */
+    public void applyUpdate(Long chatId, ConversationMemoryUpdateRequest request, ConversationMemoryPatch proposedPatch) {
+        if (chatId == null || request == null || request.routeResult() == null) {
             return;
         }
+        ConversationMemory baseMemory = request.previousMemory();
+        GraduateRouteExecutionResult routeResult = request.routeResult();
+        String currentUserMessage = request.currentUserMessage();
 
         List<UniversityCatalog> catalogs = universityCatalogRepository == null ? List.of() : universityCatalogRepository.findAll();
-        ConversationMemoryPatch patch = proposePatch(request);
+        ConversationMemoryPatch patch = proposedPatch != null ? proposedPatch : proposePatch(request);
         ConversationMemoryValidator.ValidationResult validationResult = validator.validatePatch(patch, catalogs);
         if (!validationResult.isValid()) {
             logger.warn("[AI_MEMORY] Memory patch rejected chatId={} category={}", chatId, validationResult.failureCategory());
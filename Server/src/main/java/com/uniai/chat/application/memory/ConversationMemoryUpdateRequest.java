@@ -6,8 +6,18 @@ public record ConversationMemoryUpdateRequest(
         ConversationMemory previousMemory,
         String currentUserMessage,
         String assistantResponse,
-        GraduateRouteExecutionResult routeResult
+        GraduateRouteExecutionResult routeResult,
+        Long userId
 ) {
+    public ConversationMemoryUpdateRequest(
+            ConversationMemory previousMemory,
+            String currentUserMessage,
+            String assistantResponse,
+            GraduateRouteExecutionResult routeResult
+    ) {
+        this(previousMemory, currentUserMessage, assistantResponse, routeResult, null);
+    }
+
     public ConversationMemoryUpdateRequest {
         previousMemory = previousMemory == null ? ConversationMemory.empty() : previousMemory;
         currentUserMessage = currentUserMessage == null ? "" : currentUserMessage;
@@ -10,6 +10,7 @@ public final class GraduateAiRouterManager {
     private final GraduateAiRouteRegistry registry;
     private final GraduateRouteArgumentValidator argumentValidator;
     private final GraduateRouteEntityResolver entityResolver;
+    private final GraduateRouteResultCache resultCache;
 
     public GraduateAiRouterManager(GraduateRoutePlanParser parser, GraduateAiRouteRegistry registry) {
         this(parser, registry, new GraduateRouteArgumentValidator(), new GraduateRouteEntityResolver());
@@ -19,10 +20,19 @@ public final class GraduateAiRouterManager {
                                    GraduateAiRouteRegistry registry,
                                    GraduateRouteArgumentValidator argumentValidator,
                                    GraduateRouteEntityResolver entityResolver) {
+        this(parser, registry, argumentValidator, entityResolver, null);
+    }
+
+    public GraduateAiRouterManager(GraduateRoutePlanParser parser,
+                                   GraduateAiRouteRegistry registry,
+                                   GraduateRouteArgumentValidator argumentValidator,
+                                   GraduateRouteEntityResolver entityResolver,
+                                   GraduateRouteResultCache resultCache) {
         this.parser = parser;
         this.registry = registry;
         this.argumentValidator = argumentValidator;
         this.entityResolver = entityResolver;
+        this.resultCache = resultCache;
     }
 
     public GraduateRouteExecutionResult execute(String rawPlan) {
@@ -46,7 +56,18 @@ public final class GraduateAiRouterManager {
         if (!handler.argumentType().equals(plan.arguments().getClass())) {
             throw new GraduateRoutePlanningException("Route handler argument type mismatch: " + plan.route());
         }
-        return executeTyped(handler, resolvedPlan).withResolvedUniversities(resolvedPlan.universities());
+        if (resultCache == null || !resultCache.enabled() || plan.route() == GraduateAiRoute.DIRECT_AI_RESPONSE) {
+            return executeTyped(handler, resolvedPlan).withResolvedUniversities(resolvedPlan.universities());
+        }
+        String cacheKey = resultCache.key(resolvedPlan);
+        GraduateRouteExecutionResult cached = resultCache.get(cacheKey).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+        GraduateRouteExecutionResult result = executeTyped(handler, resolvedPlan)
+                .withResolvedUniversities(resolvedPlan.universities());
+        resultCache.put(cacheKey, result);
+        return result;
     }
 
     @SuppressWarnings("unchecked")
@@ -64,19 +64,22 @@ public final class GraduateCatalogRouteHandler<T> implements GraduateAiRouteHand
 
     private GraduateRouteExecutionResult universities(ResolvedGraduateRoutePlan<T> plan,List<UniversityRow> rows){
         StringBuilder out=new StringBuilder("Universities:\n");
-        for(UniversityRow r:rows){out.append("- ").append(r.name()); append(out,"Acronym",r.acronym()); append(out,"Arabic name",r.nameAr()); append(out,"Country",r.country()); out.append('\n');}
-        return result(plan,out.toString().trim(),List.of(),rows.isEmpty());
+        GraduateRouteRowScorer scorer=scorer(plan); List<GraduateRouteContextRow> contextRows=new ArrayList<>();
+        for(int i=0;i<rows.size();i++){UniversityRow r=rows.get(i); StringBuilder line=new StringBuilder("- ").append(r.name()); append(line,"Acronym",r.acronym()); append(line,"Arabic name",r.nameAr()); append(line,"Country",r.country()); out.append(line).append('\n'); contextRows.add(scorer.row(line.toString(),i,rows.size(),null));}
+        return result(plan,out.toString().trim(),List.of(),rows.isEmpty()).withContextRows(contextRows);
     }
     private GraduateRouteExecutionResult campuses(ResolvedGraduateRoutePlan<T> plan,List<CampusRow> rows){
         StringBuilder out=new StringBuilder("Campuses:\n");
-        for(CampusRow r:rows){out.append("- University: ").append(r.universityName()); append(out,"Campus",r.name()); append(out,"Type",r.campusType()); append(out,"City",r.city()); append(out,"Locality",r.locality()); if(r.latitude()!=null&&r.longitude()!=null) append(out,"Coordinates",r.latitude()+", "+r.longitude()); out.append('\n');}
-        return result(plan,out.toString().trim(),List.of(),rows.isEmpty());
+        GraduateRouteRowScorer scorer=scorer(plan); List<GraduateRouteContextRow> contextRows=new ArrayList<>();
+        for(int i=0;i<rows.size();i++){CampusRow r=rows.get(i); StringBuilder line=new StringBuilder("- University: ").append(r.universityName()); append(line,"Campus",r.name()); append(line,"Type",r.campusType()); append(line,"City",r.city()); append(line,"Locality",r.locality()); if(r.latitude()!=null&&r.longitude()!=null) append(line,"Coordinates",r.latitude()+", "+r.longitude()); out.append(line).append('\n'); contextRows.add(scorer.row(line.toString(),i,rows.size(),null));}
+        return result(plan,out.toString().trim(),List.of(),rows.isEmpty()).withContextRows(contextRows);
     }
     private GraduateRouteExecutionResult academic(ResolvedGraduateRoutePlan<T> plan,List<AcademicRow> rows){
         StringBuilder out=new StringBuilder(route.name().contains("DEPARTMENT")?"Departments:\n":"Faculties and schools:\n");
         List<GraduateCitation> citations=new ArrayList<>(); int i=1;
-        for(AcademicRow r:rows){out.append("- University: ").append(r.universityName()); append(out,"Name",r.name()); append(out,"Short name",r.shortName()); append(out,"Type",r.type()); append(out,"Faculty",r.facultyName()); append(out,"Notes",r.notes()); out.append('\n'); if(text(r.officialUrl())) citations.add(new GraduateCitation("route-academic-"+r.id(),"S"+(i++),r.name(),r.officialUrl(),r.type(),r.universityId(),r.universityName(),null,r.name()));}
-        return result(plan,out.toString().trim(),citations,rows.isEmpty());
+        GraduateRouteRowScorer scorer=scorer(plan); List<GraduateRouteContextRow> contextRows=new ArrayList<>();
+        for(AcademicRow r:rows){StringBuilder line=new StringBuilder("- University: ").append(r.universityName()); append(line,"Name",r.name()); append(line,"Short name",r.shortName()); append(line,"Type",r.type()); append(line,"Faculty",r.facultyName()); append(line,"Notes",r.notes()); out.append(line).append('\n'); String label=null; if(text(r.officialUrl())){label="S"+(i++); citations.add(new GraduateCitation("route-academic-"+r.id(),label,r.name(),r.officialUrl(),r.type(),r.universityId(),r.universityName(),null,r.name()));} contextRows.add(scorer.row(line.toString(),contextRows.size(),rows.size(),label));}
+        return result(plan,out.toString().trim(),citations,rows.isEmpty()).withContextRows(contextRows);
     }
     private GraduateRouteExecutionResult statistics(ResolvedGraduateRoutePlan<T> plan,List<UniversityStatisticsRow> rows){
         StringBuilder out=new StringBuilder("University graduate statistics:\n");
@@ -91,6 +94,7 @@ public final class GraduateCatalogRouteHandler<T> implements GraduateAiRouteHand
     }
     private GraduateRouteExecutionResult scalar(ResolvedGraduateRoutePlan<T> plan,String label,Object value){return result(plan,label+": "+value,List.of(),false);}
     private GraduateRouteExecutionResult result(ResolvedGraduateRoutePlan<T> plan,String context,List<GraduateCitation> citations,boolean empty){return new GraduateRouteExecutionResult(route,plan.canonicalArguments(),context,citations,List.of(),empty,null);}
+    private GraduateRouteRowScorer scorer(ResolvedGraduateRoutePlan<T> plan){Values v=Values.from(plan.arguments());return GraduateRouteRowScorer.forPlan(plan,v.query,v.city,v.campus,v.faculty,v.department,v.country);}
     private void append(StringBuilder b,String label,String value){if(text(value))b.append(" | ").append(label).append(": ").append(value.replace('\n',' '));}
     private boolean text(String v){return v!=null&&!v.isBlank();}
 
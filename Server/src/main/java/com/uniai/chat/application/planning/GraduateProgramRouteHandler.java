@@ -94,25 +94,31 @@ public final class GraduateProgramRouteHandler<T> implements GraduateAiRouteHand
         StringBuilder context = new StringBuilder("Program results:\n")
                 .append("Total matching programs: ").append(page.totalMatches()).append('\n')
                 .append("Returned programs: ").append(page.rows().size()).append('\n');
-        int ordinal = 1;
-        for (ProgramRow row : page.rows()) {
-            context.append(ordinal++).append(". University: ").append(row.universityName());
-            if (text(row.universityAcronym())) context.append(" (").append(row.universityAcronym()).append(')');
-            context.append(" | Program: ").append(displayName(row));
-            append(context, "Degree", row.degreeType());
-            append(context, "Faculty", row.facultyName());
-            append(context, "Department", row.departmentName());
-            if (row.credits() != null) append(context, "Credits", row.credits().toString());
-            append(context, "Duration", row.duration());
-            append(context, "Language", row.language());
-            append(context, "Delivery", row.deliveryMode());
-            if (route == GraduateAiRoute.GET_PROGRAM_DETAILS) append(context, "Description", row.description());
-            context.append('\n');
+        GraduateRouteRowScorer scorer = scorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
+        List<ProgramRow> rows = page.rows();
+        for (int i = 0; i < rows.size(); i++) {
+            ProgramRow row = rows.get(i);
+            StringBuilder line = new StringBuilder().append(i + 1).append(". University: ").append(row.universityName());
+            if (text(row.universityAcronym())) line.append(" (").append(row.universityAcronym()).append(')');
+            line.append(" | Program: ").append(displayName(row));
+            append(line, "Degree", row.degreeType());
+            append(line, "Faculty", row.facultyName());
+            append(line, "Department", row.departmentName());
+            if (row.credits() != null) append(line, "Credits", row.credits().toString());
+            append(line, "Duration", row.duration());
+            append(line, "Language", row.language());
+            append(line, "Delivery", row.deliveryMode());
+            if (route == GraduateAiRoute.GET_PROGRAM_DETAILS) append(line, "Description", row.description());
+            context.append(line).append('\n');
+            boolean cited = text(row.sourceUrl()) || text(row.officialUrl());
+            contextRows.add(scorer.row(line.toString(), i, rows.size(), cited ? "S" + (i + 1) : null));
         }
         List<String> warnings = page.truncated()
                 ? List.of("The configured route limit was applied; " + page.totalMatches() + " rows matched but "
-                + page.rows().size() + " were returned.") : List.of();
-        return result(plan, context.toString().trim(), citations(page.rows()), warnings, page.rows().isEmpty());
+                + rows.size() + " were returned.") : List.of();
+        return result(plan, context.toString().trim(), citations(rows), warnings, rows.isEmpty())
+                .withContextRows(contextRows);
     }
 
     private GraduateRouteExecutionResult availabilityResult(ResolvedGraduateRoutePlan<T> plan, ProgramPage page) {
@@ -127,26 +133,35 @@ public final class GraduateProgramRouteHandler<T> implements GraduateAiRouteHand
 
     private GraduateRouteExecutionResult groupedResult(ResolvedGraduateRoutePlan<T> plan, List<GroupCountRow> rows) {
         StringBuilder context = new StringBuilder("Grouped program counts:\n");
-        for (GroupCountRow row : rows) {
-            context.append("- ").append(row.groupName()).append(" | University: ")
-                    .append(row.universityName()).append(" | Count: ").append(row.count()).append('\n');
+        GraduateRouteRowScorer scorer = scorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            GroupCountRow row = rows.get(i);
+            String line = "- " + row.groupName() + " | University: " + row.universityName() + " | Count: " + row.count();
+            context.append(line).append('\n');
+            contextRows.add(scorer.row(line, i, rows.size(), null));
         }
-        return result(plan, context.toString().trim(), List.of(), List.of(), rows.isEmpty());
+        return result(plan, context.toString().trim(), List.of(), List.of(), rows.isEmpty())
+                .withContextRows(contextRows);
     }
 
     private GraduateRouteExecutionResult evidenceResult(ResolvedGraduateRoutePlan<T> plan,
                                                         List<ProgramEvidenceRow> rows) {
         StringBuilder context = new StringBuilder(route.name().replace('_', ' ').toLowerCase(Locale.ROOT)).append(":\n");
-        int ordinal = 1;
-        for (ProgramEvidenceRow row : rows) {
-            context.append(ordinal++).append(". University: ").append(row.universityName())
+        GraduateRouteRowScorer scorer = scorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ProgramEvidenceRow row = rows.get(i);
+            StringBuilder line = new StringBuilder().append(i + 1).append(". University: ").append(row.universityName())
                     .append(" | Program: ").append(row.programName())
                     .append(" | Type: ").append(row.kind())
                     .append(" | Value: ").append(row.value());
-            append(context, "Details", row.details());
-            context.append('\n');
+            append(line, "Details", row.details());
+            context.append(line).append('\n');
+            contextRows.add(scorer.row(line.toString(), i, rows.size(), text(row.sourceUrl()) ? "S" + (i + 1) : null));
         }
-        return result(plan, context.toString().trim(), evidenceCitations(rows), List.of(), rows.isEmpty());
+        return result(plan, context.toString().trim(), evidenceCitations(rows), List.of(), rows.isEmpty())
+                .withContextRows(contextRows);
     }
 
     private GraduateRouteExecutionResult scalarResult(ResolvedGraduateRoutePlan<T> plan, String label, Object value) {
@@ -162,6 +177,12 @@ public final class GraduateProgramRouteHandler<T> implements GraduateAiRouteHand
                 citations, warnings, empty, null);
     }
 
+    private GraduateRouteRowScorer scorer(ResolvedGraduateRoutePlan<T> plan) {
+        Values values = Values.from(plan.arguments());
+        return GraduateRouteRowScorer.forPlan(plan, values.searchQuery, values.programName, values.facultyName,
+                values.departmentName, values.language, values.city);
+    }
+
     private List<GraduateCitation> citations(List<ProgramRow> rows) {
         List<GraduateCitation> citations = new ArrayList<>();
         for (int i = 0; i < rows.size(); i++) {
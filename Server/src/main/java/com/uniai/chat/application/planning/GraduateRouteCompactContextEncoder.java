@@ -0,0 +1,167 @@
+package com.uniai.chat.application.planning;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the labeled rows of a route result as a table: a header row, then one delimited row per result.
+ * Rows are parsed from the " | "-separated "Label: value" format the route handlers write. A column whose
+ * value is the same on every row, such as the university name, and a currency shared by every amount are
+ * written once on a shared-values line. The citation label of each row goes in a Source column.
+ */
+final class GraduateRouteCompactContextEncoder {
+    private static final String FIELD_SEPARATOR = " | ";
+    private static final String DELIMITER = "|";
+    private static final String ORDINAL_COLUMN = "#";
+    private static final String NAME_COLUMN = "Name";
+    private static final String SOURCE_COLUMN = "Source";
+    private static final String CURRENCY_COLUMN = "Currency";
+    private static final Pattern ROW_PREFIX = Pattern.compile("^(?:(\\d+)\\.|-)\\s+");
+    private static final Pattern MONEY = Pattern.compile("^([A-Z]{3}) (\\S+)$");
+
+    /** The rewritten route context and the text of each table row, in the order of the input rows. */
+    record Encoded(String context, List<String> rowTexts) {
+    }
+
+    Encoded encode(String formattedContext, List<GraduateRouteContextRow> rows) {
+        List<String> lines = List.of(formattedContext.split("\n", -1));
+        List<Integer> rowLines = rowLineIndexes(lines, rows);
+        if (rowLines.size() != rows.size()) {
+            return null;
+        }
+
+        List<Map<String, String>> parsedRows = new ArrayList<>();
+        Set<String> columns = new LinkedHashSet<>();
+        for (GraduateRouteContextRow row : rows) {
+            Map<String, String> fields = parse(row);
+            columns.addAll(fields.keySet());
+            parsedRows.add(fields);
+        }
+
+        Map<String, String> shared = new LinkedHashMap<>();
+        if (parsedRows.size() > 1) {
+            for (String column : columns) {
+                if (column.equals(ORDINAL_COLUMN) || column.equals(SOURCE_COLUMN)) continue;
+                String value = parsedRows.get(0).get(column);
+                if (value != null && parsedRows.stream().allMatch(fields -> value.equals(fields.get(column)))) {
+                    shared.put(column, value);
+                }
+            }
+            columns.removeAll(shared.keySet());
+            Set<String> moneyColumns = new LinkedHashSet<>();
+            String currency = sharedCurrency(parsedRows, columns, moneyColumns);
+            if (currency != null) {
+                stripCurrency(parsedRows, moneyColumns);
+                shared.putIfAbsent(CURRENCY_COLUMN, currency);
+            }
+        }
+        if (columns.isEmpty()) {
+            return null;
+        }
+
+        List<String> rowTexts = new ArrayList<>();
+        for (Map<String, String> fields : parsedRows) {
+            List<String> values = new ArrayList<>();
+            for (String column : columns) {
+                String value = fields.get(column);
+                values.add(value == null ? "" : value.replace(DELIMITER, "/"));
+            }
+            rowTexts.add(String.join(DELIMITER, values));
+        }
+
+        List<String> block = new ArrayList<>();
+        if (!shared.isEmpty()) {
+            StringBuilder sharedLine = new StringBuilder("Shared values:");
+            shared.forEach((column, value) -> sharedLine.append(' ').append(column).append(": ").append(value).append(';'));
+            block.add(sharedLine.substring(0, sharedLine.length() - 1));
+        }
+        block.add(String.join(DELIMITER, columns));
+        block.addAll(rowTexts);
+
+        Set<Integer> replacedLines = new HashSet<>(rowLines);
+        List<String> encoded = new ArrayList<>(lines.subList(0, rowLines.get(0)));
+        encoded.addAll(block);
+        for (int index = rowLines.get(0) + 1; index < lines.size(); index++) {
+            if (!replacedLines.contains(index)) encoded.add(lines.get(index));
+        }
+        return new Encoded(String.join("\n", encoded), List.copyOf(rowTexts));
+    }
+
+    private List<Integer> rowLineIndexes(List<String> lines, List<GraduateRouteContextRow> rows) {
+        List<Integer> indexes = new ArrayList<>();
+        int rowIndex = 0;
+        for (int index = 0; index < lines.size() && rowIndex < rows.size(); index++) {
+            if (lines.get(index).strip().equals(rows.get(rowIndex).text())) {
+                indexes.add(index);
+                rowIndex++;
+            }
+        }
+        return indexes;
+    }
+
+    private Map<String, String> parse(GraduateRouteContextRow row) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        String text = row.text();
+        Matcher prefix = ROW_PREFIX.matcher(text);
+        if (prefix.find()) {
+            if (prefix.group(1) != null) fields.put(ORDINAL_COLUMN, prefix.group(1));
+            text = text.substring(prefix.end());
+        }
+        for (String segment : text.split(Pattern.quote(FIELD_SEPARATOR))) {
+            int separator = segment.indexOf(": ");
+            if (separator > 0) {
+                fields.putIfAbsent(segment.substring(0, separator).strip(), segment.substring(separator + 2).strip());
+            } else if (!segment.isBlank()) {
+                fields.putIfAbsent(NAME_COLUMN, segment.strip());
+            }
+        }
+        if (row.citationLabel() != null) fields.put(SOURCE_COLUMN, "[" + row.citationLabel() + "]");
+        return fields;
+    }
+
+    /**
+     * The currency code when every amount uses the same one, otherwise {@code null}. A column holds amounts
+     * when all of its values look like "USD 1136.00"; those columns are added to {@code moneyColumns}.
+     */
+    private String sharedCurrency(List<Map<String, String>> rows, Set<String> columns, Set<String> moneyColumns) {
+        String currency = null;
+        for (String column : columns) {
+            String columnCurrency = null;
+            boolean moneyColumn = true;
+            for (Map<String, String> fields : rows) {
+                String value = fields.get(column);
+                if (value == null) continue;
+                Matcher money = MONEY.matcher(value);
+                if (!money.matches()) {
+                    moneyColumn = false;
+                    break;
+                }
+                if (columnCurrency != null && !columnCurrency.equals(money.group(1))) return null;
+                columnCurrency = money.group(1);
+            }
+            if (!moneyColumn || columnCurrency == null) continue;
+            if (currency != null && !currency.equals(columnCurrency)) return null;
+            currency = columnCurrency;
+            moneyColumns.add(column);
+        }
+        return currency;
+    }
+
+    private void stripCurrency(List<Map<String, String>> rows, Set<String> columns) {
+        for (Map<String, String> fields : rows) {
+            for (String column : columns) {
+                String value = fields.get(column);
+                if (value == null) continue;
+                Matcher money = MONEY.matcher(value);
+                if (money.matches()) fields.put(column, money.group(2));
+            }
+        }
+    }
+}
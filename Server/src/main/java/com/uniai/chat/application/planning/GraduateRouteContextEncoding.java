@@ -0,0 +1,9 @@
+package com.uniai.chat.application.planning;
+
+/** How route result rows are written into the final answer context. */
+public enum GraduateRouteContextEncoding {
+    /** One line per row with a "Label: value" pair for every field. */
+    LABELED,
+    /** One header row, then delimited value rows, with values shared by every row written once. */
+    COMPACT
+}
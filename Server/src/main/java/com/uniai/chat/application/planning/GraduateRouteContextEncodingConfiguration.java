@@ -0,0 +1,38 @@
+package com.uniai.chat.application.planning;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/** Route context encoding; a route setting takes precedence over a provider setting, then the default. */
+public record GraduateRouteContextEncodingConfiguration(
+        GraduateRouteContextEncoding defaultEncoding,
+        Map<GraduateAiRoute, GraduateRouteContextEncoding> routes,
+        Map<String, GraduateRouteContextEncoding> providers
+) {
+    public GraduateRouteContextEncodingConfiguration {
+        defaultEncoding = defaultEncoding == null ? GraduateRouteContextEncoding.LABELED : defaultEncoding;
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+        Map<String, GraduateRouteContextEncoding> normalizedProviders = new HashMap<>();
+        if (providers != null) {
+            providers.forEach((provider, encoding) -> {
+                if (provider != null && encoding != null) {
+                    normalizedProviders.put(provider.trim().toLowerCase(Locale.ROOT), encoding);
+                }
+            });
+        }
+        providers = Map.copyOf(normalizedProviders);
+    }
+
+    public static GraduateRouteContextEncodingConfiguration defaults() {
+        return new GraduateRouteContextEncodingConfiguration(GraduateRouteContextEncoding.LABELED, Map.of(), Map.of());
+    }
+
+    public GraduateRouteContextEncoding resolve(GraduateAiRoute route, String provider) {
+        GraduateRouteContextEncoding routeEncoding = route == null ? null : routes.get(route);
+        if (routeEncoding != null) return routeEncoding;
+        GraduateRouteContextEncoding providerEncoding = provider == null || provider.isBlank()
+                ? null : providers.get(provider.trim().toLowerCase(Locale.ROOT));
+        return providerEncoding != null ? providerEncoding : defaultEncoding;
+    }
+}
@@ -0,0 +1,12 @@
+package com.uniai.chat.application.planning;
+
+/**
+ * One result row of {@link GraduateRouteExecutionResult#formattedContext()}, exactly as rendered there, with a
+ * relevance score and the label of the citation that backs it, or {@code null} when the row has no source.
+ */
+public record GraduateRouteContextRow(String text, double score, String citationLabel) {
+    public GraduateRouteContextRow {
+        text = text == null ? "" : text.strip();
+        citationLabel = citationLabel == null || citationLabel.isBlank() ? null : citationLabel.trim();
+    }
+}
@@ -15,13 +15,27 @@ public record GraduateRouteExecutionResult(
         List<String> warnings,
         boolean empty,
         List<ResolvedUniversity> resolvedUniversities,
-        GraduateDirectAiReason directAiReason
+        GraduateDirectAiReason directAiReason,
+        List<GraduateRouteContextRow> contextRows
 ) {
     public GraduateRouteExecutionResult {
         formattedContext = formattedContext == null ? "" : formattedContext;
         citations = citations == null ? List.of() : List.copyOf(citations);
         warnings = warnings == null ? List.of() : List.copyOf(warnings);
         resolvedUniversities = resolvedUniversities == null ? List.of() : List.copyOf(resolvedUniversities);
+        contextRows = contextRows == null ? List.of() : List.copyOf(contextRows);
+    }
+
+    public GraduateRouteExecutionResult(GraduateAiRoute route,
+                                        JsonNode canonicalArguments,
+                                        String formattedContext,
+                                        List<GraduateCitation> citations,
+                                        List<String> warnings,
+                                        boolean empty,
+                                        List<ResolvedUniversity> resolvedUniversities,
+                                        GraduateDirectAiReason directAiReason) {
+        this(route, canonicalArguments, formattedContext, citations, warnings, empty, resolvedUniversities,
+                directAiReason, List.of());
     }
 
     public GraduateRouteExecutionResult(GraduateAiRoute route,
@@ -41,6 +55,12 @@ public record GraduateRouteExecutionResult(
 
     public GraduateRouteExecutionResult withResolvedUniversities(List<ResolvedUniversity> universities) {
         return new GraduateRouteExecutionResult(route, canonicalArguments, formattedContext, citations,
-                warnings, empty, universities, directAiReason);
+                warnings, empty, universities, directAiReason, contextRows);
+    }
+
+    /** Attaches the scored rows of {@link #formattedContext()} so the answer budget can rank them. */
+    public GraduateRouteExecutionResult withContextRows(List<GraduateRouteContextRow> rows) {
+        return new GraduateRouteExecutionResult(route, canonicalArguments, formattedContext, citations,
+                warnings, empty, resolvedUniversities, directAiReason, rows);
     }
 }
@@ -0,0 +1,349 @@
+package com.uniai.chat.application.planning;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.uniai.catalog.domain.model.CampusCatalog;
+import com.uniai.catalog.domain.model.UniversityCatalog;
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.retrieval.GraduateKnowledgeUniversityAliases;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic planner for the most frequent single-university questions. It runs before the
+ * provider planner and only produces a plan when the intent, the university and, where needed,
+ * the program are all explicit in the message. Plans go through {@link GraduateRoutePlanParser}
+ * so they are validated exactly like provider output. Anything contextual, comparative or
+ * ambiguous is left to the provider, and so is any message naming something a more specific
+ * route covers, such as a faculty, a language, a requirement or a single campus, because the
+ * score only counts the features the fast path understands. A plan starts fully confident and
+ * loses confidence for each thing it had to guess: a university named only through a loose alias,
+ * a program without the degree level its details or tuition depend on, or a question with no
+ * program or degree to narrow it. A message naming several universities is never planned.
+ */
+public final class GraduateRouteFastPathPlanner {
+    private static final Logger logger = LogManager.getLogger(GraduateRouteFastPathPlanner.class);
+    /** The university was only recognised through an alias such as "lu", not its name or acronym. */
+    private static final double ALIAS_MATCH_PENALTY = 0.3d;
+    /** A program is named but not its degree level, and the route's answer differs per level. */
+    private static final double MISSING_DEGREE_PENALTY = 0.3d;
+    /** Nothing narrows the question below the whole university, so the answer may be broader than asked. */
+    private static final double UNSCOPED_PENALTY = 0.15d;
+
+    private static final Pattern COMPARATIVE = Pattern.compile(
+            "\\b(compare|comparison|vs|versus|difference|cheapest|cheaper|lowest|highest|most|least|rank|ranking|best|average|between)\\b");
+    private static final Pattern REFERENTIAL = Pattern.compile(
+            "\\b(it|its|there|that|those|them|this|these|same|also|else|other|another)\\b|^(and|what about|how about)\\b");
+    /** Words that belong to more specific neighbouring routes the fast path does not plan. */
+    private static final Pattern NEIGHBOURING_ROUTE = Pattern.compile(
+            "\\b(facult(y|ies)|schools? of|colleges? of|departments?|dept|languages?|english|arabic|french|taught in"
+                    + "|tracks?|concentrations?|specializations?|requirements?|requires?|required|prerequisites?"
+                    + "|admissions?|eligib\\w*|gre|gmat|toefl|ielts|documents?|duration|how long|how many years"
+                    + "|credits?|credit hours|scholarships?|financial aid|payment plans?|installments?|sources?)\\b");
+    private static final Pattern TUITION = Pattern.compile("\\b(tuition|how much does .* cost|cost of|price of)\\b");
+    private static final Pattern DEADLINE = Pattern.compile("\\b(deadlines?|last day to apply|when (can|do|should) i apply|apply by)\\b");
+    private static final Pattern CAMPUS = Pattern.compile("\\bcampus(es)?\\b");
+    private static final Pattern COUNT = Pattern.compile("\\bhow many\\b|\\bnumber of\\b");
+    private static final Pattern PROGRAM_WORD = Pattern.compile(
+            "\\b(programs?|programmes?|majors?|degrees?|masters|master's|phds|diplomas|certificates)\\b");
+    private static final Pattern LIST = Pattern.compile("\\b(list|which|what|show|offer|offers|available)\\b");
+    private static final Pattern DETAILS = Pattern.compile(
+            "\\b(tell me about|details|information|info|describe|overview of|about the)\\b");
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Map<String, GraduateRouteArguments.DegreeLevel> DEGREE_KEYWORDS = degreeKeywords();
+    private static final Map<String, ProgramAlias> PROGRAM_ALIASES = programAliases();
+
+    private final GraduateRoutePlanParser parser;
+    private final double confidenceThreshold;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public GraduateRouteFastPathPlanner(GraduateRoutePlanParser parser) {
+        this(parser, 0.75d, null);
+    }
+
+    public GraduateRouteFastPathPlanner(GraduateRoutePlanParser parser, double confidenceThreshold, MeterRegistry meterRegistry) {
+        this.parser = parser;
+        this.confidenceThreshold = confidenceThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns a plan only when its confidence reaches the threshold, recording the outcome so the
+     * fast-path hit rate can be tracked.
+     */
+    public Optional<ValidatedGraduateRoutePlan<?>> tryPlan(String userMessage,
+                                                           List<AiConversationMessage> recentHistory,
+                                                           List<UniversityCatalog> catalogs) {
+        GraduateRouteFastPathResult result = plan(userMessage, recentHistory, catalogs);
+        boolean accepted = result.accepted(confidenceThreshold);
+        String reason = accepted ? "matched" : result.plan() != null ? "low_confidence" : result.reason();
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.ROUTE_FAST_PATH,
+                "Route planning attempts answered by the deterministic fast path",
+                "outcome",
+                accepted ? "hit" : "miss",
+                "route",
+                result.plan() != null ? result.plan().route().name() : "none",
+                "reason",
+                reason
+        );
+        if (!accepted) {
+            return Optional.empty();
+        }
+        logger.debug("[AI_ROUTE_PLANNER] Fast path planned route={} confidence={}",
+                result.plan().route(), result.confidence());
+        return Optional.of(result.plan());
+    }
+
+    public GraduateRouteFastPathResult plan(String userMessage,
+                                            List<AiConversationMessage> recentHistory,
+                                            List<UniversityCatalog> catalogs) {
+        if (userMessage == null || userMessage.isBlank() || userMessage.length() > 300) {
+            return GraduateRouteFastPathResult.miss("unsupported_message");
+        }
+        String text = normalize(userMessage);
+        if (COMPARATIVE.matcher(text).find()) {
+            return GraduateRouteFastPathResult.miss("comparative");
+        }
+        if (NEIGHBOURING_ROUTE.matcher(text).find()) {
+            return GraduateRouteFastPathResult.miss("neighbouring_route");
+        }
+        if (recentHistory != null && !recentHistory.isEmpty() && REFERENTIAL.matcher(text).find()) {
+            return GraduateRouteFastPathResult.miss("contextual");
+        }
+
+        String words = words(text);
+        List<UniversityCatalog> universities = mentionedUniversities(words, catalogs);
+        if (universities.size() != 1) {
+            return GraduateRouteFastPathResult.miss(universities.isEmpty() ? "no_university" : "multiple_universities");
+        }
+        UniversityCatalog university = universities.get(0);
+        ProgramAlias program = mentionedProgram(words);
+        GraduateRouteArguments.DegreeLevel degree = mentionedDegree(words, program);
+
+        List<GraduateAiRoute> intents = intents(text, program);
+        if (intents.size() != 1) {
+            return GraduateRouteFastPathResult.miss(intents.isEmpty() ? "no_intent" : "ambiguous_intent");
+        }
+        GraduateAiRoute route = intents.get(0);
+
+        ObjectNode arguments = objectMapper.createObjectNode();
+        arguments.put("university", university.getName());
+        double confidence = 1.0d;
+        if (!namedExplicitly(words, university)) {
+            confidence -= ALIAS_MATCH_PENALTY;
+        }
+        switch (route) {
+            case LIST_CAMPUSES -> {
+                String city = uniqueCityMention(words, university);
+                if (city != null) {
+                    arguments.put("city", city);
+                }
+            }
+            case GET_PROGRAM_DETAILS -> {
+                arguments.put("programName", program.programName());
+                if (degree != null) {
+                    arguments.put("degreeType", degree.name());
+                } else {
+                    confidence -= MISSING_DEGREE_PENALTY;
+                }
+            }
+            case GET_TUITION, GET_APPLICATION_DEADLINES -> {
+                if (program != null) {
+                    arguments.put("programName", program.programName());
+                } else {
+                    confidence -= UNSCOPED_PENALTY;
+                }
+                if (degree != null && route == GraduateAiRoute.GET_TUITION) {
+                    arguments.put("degreeType", degree.name());
+                } else if (program != null && route == GraduateAiRoute.GET_TUITION) {
+                    confidence -= MISSING_DEGREE_PENALTY;
+                }
+            }
+            case LIST_PROGRAMS, COUNT_PROGRAMS -> {
+                if (degree != null) {
+                    arguments.put("degreeType", degree.name());
+                } else {
+                    confidence -= UNSCOPED_PENALTY;
+                }
+            }
+            default -> {
+                return GraduateRouteFastPathResult.miss("unsupported_route");
+            }
+        }
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("route", route.name());
+        root.set("arguments", arguments);
+        try {
+            return new GraduateRouteFastPathResult(parser.parse(root.toString()), Math.max(0.0d, confidence), "matched");
+        } catch (GraduateRoutePlanningException ex) {
+            return GraduateRouteFastPathResult.miss("invalid_plan");
+        }
+    }
+
+    private List<GraduateAiRoute> intents(String text, ProgramAlias program) {
+        Set<GraduateAiRoute> intents = new LinkedHashSet<>();
+        boolean tuition = TUITION.matcher(text).find();
+        boolean deadline = DEADLINE.matcher(text).find();
+        boolean campus = CAMPUS.matcher(text).find();
+        boolean programWord = PROGRAM_WORD.matcher(text).find();
+        boolean count = COUNT.matcher(text).find();
+        boolean details = DETAILS.matcher(text).find();
+        if (campus && (count || details)) {
+            // Counting campuses or describing one campus belong to COUNT_CAMPUSES and GET_CAMPUS_DETAILS.
+            return List.of();
+        }
+        if (tuition) intents.add(GraduateAiRoute.GET_TUITION);
+        if (deadline) intents.add(GraduateAiRoute.GET_APPLICATION_DEADLINES);
+        if (campus) intents.add(GraduateAiRoute.LIST_CAMPUSES);
+        if (!tuition && !deadline && !campus) {
+            if (count && programWord && program == null) {
+                intents.add(GraduateAiRoute.COUNT_PROGRAMS);
+            } else if (program != null && details) {
+                intents.add(GraduateAiRoute.GET_PROGRAM_DETAILS);
+            } else if (program == null && programWord && LIST.matcher(text).find()) {
+                intents.add(GraduateAiRoute.LIST_PROGRAMS);
+            }
+        }
+        return new ArrayList<>(intents);
+    }
+
+    private List<UniversityCatalog> mentionedUniversities(String text, List<UniversityCatalog> catalogs) {
+        if (catalogs == null || catalogs.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UniversityCatalog> matches = new LinkedHashMap<>();
+        for (UniversityCatalog catalog : catalogs) {
+            if (catalog == null) continue;
+            if (namedExplicitly(text, catalog)) {
+                matches.put(catalog.getId(), catalog);
+            }
+        }
+        for (Map.Entry<String, String> alias : GraduateKnowledgeUniversityAliases.all().entrySet()) {
+            if (!containsPhrase(text, alias.getKey())) continue;
+            for (UniversityCatalog catalog : catalogs) {
+                if (catalog != null && catalog.getAcronym() != null
+                        && normalize(catalog.getAcronym()).equals(alias.getValue())) {
+                    matches.put(catalog.getId(), catalog);
+                }
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    private static boolean namedExplicitly(String text, UniversityCatalog university) {
+        return containsPhrase(text, university.getName())
+                || containsPhrase(text, university.getAcronym())
+                || containsPhrase(text, university.getNameAr());
+    }
+
+    private ProgramAlias mentionedProgram(String text) {
+        ProgramAlias match = null;
+        int matchLength = 0;
+        for (Map.Entry<String, ProgramAlias> alias : PROGRAM_ALIASES.entrySet()) {
+            if (containsPhrase(text, alias.getKey()) && alias.getKey().length() > matchLength) {
+                match = alias.getValue();
+                matchLength = alias.getKey().length();
+            }
+        }
+        return match;
+    }
+
+    private GraduateRouteArguments.DegreeLevel mentionedDegree(String text, ProgramAlias program) {
+        Set<GraduateRouteArguments.DegreeLevel> degrees = new LinkedHashSet<>();
+        for (Map.Entry<String, GraduateRouteArguments.DegreeLevel> keyword : DEGREE_KEYWORDS.entrySet()) {
+            if (containsPhrase(text, keyword.getKey())) {
+                degrees.add(keyword.getValue());
+            }
+        }
+        if (program != null && program.degree() != null) {
+            degrees.add(program.degree());
+        }
+        return degrees.size() == 1 ? degrees.iterator().next() : null;
+    }
+
+    private String uniqueCityMention(String text, UniversityCatalog university) {
+        if (university.getCampuses() == null) return null;
+        List<String> cities = university.getCampuses().stream()
+                .map(CampusCatalog::getCity)
+                .filter(city -> city != null && !city.isBlank() && containsPhrase(text, city))
+                .map(String::trim)
+                .distinct()
+                .toList();
+        return cities.size() == 1 ? cities.get(0) : null;
+    }
+
+    /** Whole-word containment; {@code words} is the padded output of {@link #words(String)}. */
+    private static boolean containsPhrase(String words, String phrase) {
+        if (phrase == null || phrase.isBlank()) return false;
+        String normalized = words(normalize(phrase));
+        return !normalized.isBlank() && words.contains(normalized);
+    }
+
+    /** Letters and digits only, single-spaced and padded, so phrase checks respect word boundaries. */
+    private static String words(String normalized) {
+        return " " + NON_WORD.matcher(normalized).replaceAll(" ").trim() + " ";
+    }
+
+    private static String normalize(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replace('’', '\'')
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    private static Map<String, GraduateRouteArguments.DegreeLevel> degreeKeywords() {
+        Map<String, GraduateRouteArguments.DegreeLevel> keywords = new LinkedHashMap<>();
+        for (String keyword : List.of("master", "masters", "master's", "msc", "m.sc", "ms", "ma", "meng", "graduate master")) {
+            keywords.put(keyword, GraduateRouteArguments.DegreeLevel.MASTER);
+        }
+        for (String keyword : List.of("phd", "ph.d", "doctorate", "doctoral")) {
+            keywords.put(keyword, GraduateRouteArguments.DegreeLevel.PHD);
+        }
+        keywords.put("diploma", GraduateRouteArguments.DegreeLevel.DIPLOMA);
+        keywords.put("certificate", GraduateRouteArguments.DegreeLevel.CERTIFICATE);
+        return Map.copyOf(keywords);
+    }
+
+    /** Common names and abbreviations mapped to the {@code major} value stored for graduate programs. */
+    private static Map<String, ProgramAlias> programAliases() {
+        Map<String, ProgramAlias> aliases = new LinkedHashMap<>();
+        aliases.put("mba", new ProgramAlias("Business Administration", GraduateRouteArguments.DegreeLevel.MASTER));
+        aliases.put("business administration", new ProgramAlias("Business Administration", null));
+        aliases.put("mph", new ProgramAlias("Public Health", GraduateRouteArguments.DegreeLevel.MASTER));
+        aliases.put("public health", new ProgramAlias("Public Health", null));
+        aliases.put("computer science", new ProgramAlias("Computer Science", null));
+        aliases.put("data science", new ProgramAlias("Data Science", null));
+        aliases.put("civil engineering", new ProgramAlias("Civil Engineering", null));
+        aliases.put("mechanical engineering", new ProgramAlias("Mechanical Engineering", null));
+        aliases.put("electrical and computer engineering", new ProgramAlias("Electrical and Computer Engineering", null));
+        aliases.put("engineering management", new ProgramAlias("Engineering Management", null));
+        aliases.put("public administration", new ProgramAlias("Public Administration", null));
+        aliases.put("nursing", new ProgramAlias("Nursing", null));
+        aliases.put("psychology", new ProgramAlias("Psychology", null));
+        aliases.put("economics", new ProgramAlias("Economics", null));
+        return Map.copyOf(aliases);
+    }
+
+    private record ProgramAlias(String programName, GraduateRouteArguments.DegreeLevel degree) {
+    }
+}
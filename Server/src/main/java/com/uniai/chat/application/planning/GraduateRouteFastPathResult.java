@@ -0,0 +1,16 @@
+package com.uniai.chat.application.planning;
+
+/** Outcome of the deterministic fast-path planner; {@code plan} is null when nothing matched. */
+public record GraduateRouteFastPathResult(
+        ValidatedGraduateRoutePlan<?> plan,
+        double confidence,
+        String reason
+) {
+    public static GraduateRouteFastPathResult miss(String reason) {
+        return new GraduateRouteFastPathResult(null, 0.0d, reason);
+    }
+
+    public boolean accepted(double threshold) {
+        return plan != null && confidence >= threshold;
+    }
+}
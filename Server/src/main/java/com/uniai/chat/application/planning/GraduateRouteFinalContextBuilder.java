@@ -1,11 +1,148 @@
 package com.uniai.chat.application.planning;
 
+import com.uniai.chat.application.budget.AiTokenEstimator;
 import com.uniai.chat.application.citation.GraduateCitation;
+import com.uniai.chat.application.dto.ai.AiContextUnit;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
-/** Builds the trusted route envelope supplied to the final answer-generation call. */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the trusted route envelope supplied to the final answer-generation call. Result rows are written
+ * in the encoding configured for the route or the configured primary provider, since routing picks the
+ * answering provider only after the context is built; when a meter registry is present the
+ * estimated tokens of both encodings are recorded for every result with rows.
+ */
 public final class GraduateRouteFinalContextBuilder {
+    private static final Logger logger = LogManager.getLogger(GraduateRouteFinalContextBuilder.class);
+    private static final String SOURCE_REFERENCES_HEADER = "Source references:";
+
+    private final GraduateRouteContextEncodingConfiguration encodings;
+    private final String provider;
+    private final AiTokenEstimator estimator;
+    private final MeterRegistry meterRegistry;
+    private final GraduateRouteCompactContextEncoder compactEncoder = new GraduateRouteCompactContextEncoder();
+
+    public GraduateRouteFinalContextBuilder() {
+        this(GraduateRouteContextEncodingConfiguration.defaults(), null, null, null);
+    }
+
+    public GraduateRouteFinalContextBuilder(GraduateRouteContextEncodingConfiguration encodings,
+                                            String provider,
+                                            AiTokenEstimator estimator,
+                                            MeterRegistry meterRegistry) {
+        this.encodings = encodings == null ? GraduateRouteContextEncodingConfiguration.defaults() : encodings;
+        this.provider = provider;
+        this.estimator = estimator;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public GraduateRouteRuntimeOutcome outcome(GraduateRouteExecutionResult result) {
+        GraduateRouteContextEncoding encoding = encoding(result);
+        Rendering rendering = render(result, encoding);
+        recordEncodingTokens(result, encoding, rendering);
+        return new GraduateRouteRuntimeOutcome(result, rendering.text(), units(rendering));
+    }
+
     public String build(GraduateRouteExecutionResult result) {
-        if (result == null) return "";
+        return render(result, encoding(result)).text();
+    }
+
+    public String build(GraduateRouteExecutionResult result, GraduateRouteContextEncoding encoding) {
+        return render(result, encoding).text();
+    }
+
+    /**
+     * Splits the built envelope into units: each result row is ranked by its score and grouped with the
+     * source reference line of its citation, so packing keeps or drops both together. Every other line is
+     * pinned. Joining the units with newlines gives {@link #build} exactly.
+     */
+    public List<AiContextUnit> buildUnits(GraduateRouteExecutionResult result) {
+        return units(render(result, encoding(result)));
+    }
+
+    private GraduateRouteContextEncoding encoding(GraduateRouteExecutionResult result) {
+        return encodings.resolve(result == null ? null : result.route(), provider);
+    }
+
+    private Rendering render(GraduateRouteExecutionResult result, GraduateRouteContextEncoding encoding) {
+        if (result == null) return new Rendering("", List.of(), List.of());
+        List<GraduateRouteContextRow> rows = result.contextRows();
+        if (encoding == GraduateRouteContextEncoding.COMPACT && !rows.isEmpty()) {
+            GraduateRouteCompactContextEncoder.Encoded encoded = compactEncoder.encode(result.formattedContext(), rows);
+            if (encoded != null) {
+                return new Rendering(envelope(result, encoded.context()), rows, encoded.rowTexts());
+            }
+        }
+        return new Rendering(envelope(result, result.formattedContext()), rows,
+                rows.stream().map(GraduateRouteContextRow::text).toList());
+    }
+
+    private void recordEncodingTokens(GraduateRouteExecutionResult result,
+                                      GraduateRouteContextEncoding selected,
+                                      Rendering rendering) {
+        if (estimator == null || meterRegistry == null || result == null || result.contextRows().isEmpty()) return;
+        long labeledTokens = 0L;
+        long compactTokens = 0L;
+        for (GraduateRouteContextEncoding encoding : GraduateRouteContextEncoding.values()) {
+            String text = encoding == selected ? rendering.text() : render(result, encoding).text();
+            long tokens = estimator.estimateTokens(text);
+            if (encoding == GraduateRouteContextEncoding.COMPACT) compactTokens = tokens;
+            else labeledTokens = tokens;
+            ChatAiMetrics.recordSummary(
+                    meterRegistry,
+                    ChatAiMetrics.ROUTE_CONTEXT_TOKENS,
+                    "Estimated tokens of the final route context per encoding",
+                    "tokens",
+                    tokens,
+                    "route",
+                    ChatAiMetrics.normalizeEnumName(result.route()),
+                    "encoding",
+                    ChatAiMetrics.normalizeEnumName(encoding),
+                    "selected",
+                    String.valueOf(encoding == selected)
+            );
+        }
+        logger.debug("[AI_ROUTE_CONTEXT] Encoding tokens route={} selected={} rows={} labeledTokens={} compactTokens={}",
+                result.route(), selected, result.contextRows().size(), labeledTokens, compactTokens);
+    }
+
+    private List<AiContextUnit> units(Rendering rendering) {
+        List<GraduateRouteContextRow> rows = rendering.rows();
+        if (rows.isEmpty()) return List.of();
+        List<String> rowTexts = rendering.rowTexts();
+        Map<String, String> groupByLabel = new HashMap<>();
+        List<AiContextUnit> units = new ArrayList<>();
+        int rowIndex = 0;
+        boolean inSourceReferences = false;
+        for (String line : rendering.text().split("\n", -1)) {
+            if (!inSourceReferences && rowIndex < rows.size() && line.strip().equals(rowTexts.get(rowIndex))) {
+                GraduateRouteContextRow row = rows.get(rowIndex);
+                String group = "row-" + rowIndex++;
+                if (row.citationLabel() != null) groupByLabel.putIfAbsent(row.citationLabel(), group);
+                units.add(AiContextUnit.ranked(line, group, row.score()));
+                continue;
+            }
+            if (line.equals(SOURCE_REFERENCES_HEADER)) inSourceReferences = true;
+            String group = inSourceReferences ? groupByLabel.get(sourceReferenceLabel(line)) : null;
+            units.add(group == null ? AiContextUnit.pinned(line) : AiContextUnit.ranked(line, group, 0.0));
+        }
+        return List.copyOf(units);
+    }
+
+    private String sourceReferenceLabel(String line) {
+        if (!line.startsWith("- [")) return null;
+        int end = line.indexOf(']');
+        return end > 3 ? line.substring(3, end) : null;
+    }
+
+    private String envelope(GraduateRouteExecutionResult result, String formattedContext) {
         StringBuilder context = new StringBuilder("Graduate route execution:\n")
                 .append("Selected route: ").append(result.route()).append('\n')
                 .append("Validated canonical arguments: ")
@@ -21,9 +158,9 @@ public final class GraduateRouteFinalContextBuilder {
             result.warnings().forEach(warning -> context.append("- ").append(warning).append('\n'));
         }
         context.append("Retrieved database context:\n")
-                .append(result.formattedContext().isBlank() ? "No matching structured data." : result.formattedContext());
+                .append(formattedContext.isBlank() ? "No matching structured data." : formattedContext);
         if (!result.citations().isEmpty()) {
-            context.append("\nSource references:\n");
+            context.append('\n').append(SOURCE_REFERENCES_HEADER).append('\n');
             for (GraduateCitation citation : result.citations()) {
                 context.append("- [").append(citation.label()).append("] ")
                         .append(citation.title());
@@ -36,4 +173,7 @@ public final class GraduateRouteFinalContextBuilder {
         }
         return context.toString().trim();
     }
+
+    private record Rendering(String text, List<GraduateRouteContextRow> rows, List<String> rowTexts) {
+    }
 }
@@ -0,0 +1,181 @@
+package com.uniai.chat.application.planning;
+
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.memory.ConversationMemoryPromptFormatter;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, TTL-evicting cache of validated planner results. The key covers everything the planner
+ * sees: the normalized user message, the rendered conversation memory, the budgeted history window
+ * and a digest of the planner prompt, so a prompt change never serves plans made for the old one.
+ */
+public class GraduateRoutePlanCache {
+    private static final Logger logger = LogManager.getLogger(GraduateRoutePlanCache.class);
+    private static final char SEPARATOR = '\u001F';
+
+    private final GraduateRoutePlanCacheConfiguration configuration;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile PromptVersion promptVersion;
+
+    public GraduateRoutePlanCache(GraduateRoutePlanCacheConfiguration configuration, MeterRegistry meterRegistry) {
+        this(configuration, meterRegistry, System::nanoTime);
+    }
+
+    GraduateRoutePlanCache(GraduateRoutePlanCacheConfiguration configuration,
+                           MeterRegistry meterRegistry,
+                           LongSupplier nanoClock) {
+        this.configuration = configuration != null ? configuration : GraduateRoutePlanCacheConfiguration.defaults();
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean enabled() {
+        return configuration.enabled() && configuration.maxEntries() > 0;
+    }
+
+    public String key(GraduateRoutePlanningRequest request, String plannerPrompt) {
+        StringBuilder material = new StringBuilder();
+        material.append(promptVersion(plannerPrompt)).append(SEPARATOR)
+                .append(normalizeMessage(request.userMessage())).append(SEPARATOR)
+                .append(ConversationMemoryPromptFormatter.render(request.conversationMemory())).append(SEPARATOR);
+        for (AiConversationMessage message : request.recentConversationHistory()) {
+            if (message == null) {
+                continue;
+            }
+            material.append(message.getRole()).append(':').append(message.getContent()).append(SEPARATOR);
+        }
+        return sha256(material.toString());
+    }
+
+    public Optional<ValidatedGraduateRoutePlan<?>> get(String key) {
+        if (!enabled() || key == null) {
+            return Optional.empty();
+        }
+        Entry entry;
+        boolean expired = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos() - nanoClock.getAsLong() <= 0) {
+                entries.remove(key);
+                entry = null;
+                expired = true;
+            }
+        }
+        if (expired) {
+            recordEviction("expired", 1);
+        }
+        recordLookup(entry != null ? "hit" : "miss");
+        return entry != null ? Optional.of(entry.plan()) : Optional.empty();
+    }
+
+    public void put(String key, ValidatedGraduateRoutePlan<?> plan) {
+        if (!enabled() || key == null || plan == null) {
+            return;
+        }
+        long expiresAtNanos = nanoClock.getAsLong() + TimeUnit.SECONDS.toNanos(configuration.ttlSeconds());
+        int evicted = 0;
+        synchronized (entries) {
+            entries.put(key, new Entry(plan, expiresAtNanos));
+            while (entries.size() > configuration.maxEntries()) {
+                String eldest = entries.keySet().iterator().next();
+                entries.remove(eldest);
+                evicted++;
+            }
+        }
+        recordEviction("size", evicted);
+    }
+
+    /**
+     * Drops every cached plan and returns how many were removed.
+     */
+    public int purge() {
+        int purged;
+        synchronized (entries) {
+            purged = entries.size();
+            entries.clear();
+        }
+        recordEviction("purge", purged);
+        logger.info("[AI_ROUTE_PLANNER] Route plan cache purged entries={}", purged);
+        return purged;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    static String normalizeMessage(String message) {
+        if (message == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(message, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+        return normalized.replaceAll("[\\s?!.]+$", "");
+    }
+
+    private String promptVersion(String plannerPrompt) {
+        String prompt = plannerPrompt != null ? plannerPrompt : "";
+        PromptVersion current = promptVersion;
+        if (current == null || !current.prompt().equals(prompt)) {
+            current = new PromptVersion(prompt, sha256(prompt));
+            promptVersion = current;
+        }
+        return current.digest();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private void recordLookup(String result) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.ROUTE_PLAN_CACHE_LOOKUPS,
+                "Route plan cache lookups before calling the planner provider",
+                "result",
+                result
+        );
+    }
+
+    private void recordEviction(String cause, int count) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.ROUTE_PLAN_CACHE_EVICTIONS,
+                "Route plans removed from the cache",
+                count,
+                "cause",
+                cause
+        );
+    }
+
+    private record Entry(ValidatedGraduateRoutePlan<?> plan, long expiresAtNanos) {
+    }
+
+    private record PromptVersion(String prompt, String digest) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.uniai.chat.application.planning;
+
+public record GraduateRoutePlanCacheConfiguration(
+        boolean enabled,
+        int maxEntries,
+        long ttlSeconds
+) {
+    public GraduateRoutePlanCacheConfiguration {
+        maxEntries = Math.max(0, maxEntries);
+        ttlSeconds = Math.max(1L, ttlSeconds);
+    }
+
+    public static GraduateRoutePlanCacheConfiguration defaults() {
+        return new GraduateRoutePlanCacheConfiguration(true, 2000, 600L);
+    }
+}
@@ -8,8 +8,17 @@ import java.util.List;
 public record GraduateRoutePlanningRequest(
         String userMessage,
         List<AiConversationMessage> recentConversationHistory,
-        ConversationMemory conversationMemory
+        ConversationMemory conversationMemory,
+        Long userId
 ) {
+    public GraduateRoutePlanningRequest(
+            String userMessage,
+            List<AiConversationMessage> recentConversationHistory,
+            ConversationMemory conversationMemory
+    ) {
+        this(userMessage, recentConversationHistory, conversationMemory, null);
+    }
+
     public GraduateRoutePlanningRequest {
         recentConversationHistory = recentConversationHistory == null ? List.of() : List.copyOf(recentConversationHistory);
         conversationMemory = conversationMemory == null ? ConversationMemory.empty() : conversationMemory;
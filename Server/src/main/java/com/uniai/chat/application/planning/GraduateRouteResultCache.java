@@ -0,0 +1,207 @@
+package com.uniai.chat.application.planning;
+
+import com.uniai.chat.application.citation.GraduateCitation;
+import com.uniai.chat.application.retrieval.ResolvedUniversity;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size- and memory-bounded cache of executed route results, keyed by route, canonical arguments
+ * and resolved university identity. Keys also carry the graduate dataset version, so bumping the
+ * version after a migration or an admin data change retires every older result.
+ */
+public class GraduateRouteResultCache {
+    private static final Logger logger = LogManager.getLogger(GraduateRouteResultCache.class);
+    private static final long ENTRY_OVERHEAD_BYTES = 256L;
+    private static final long CITATION_OVERHEAD_BYTES = 96L;
+
+    private final GraduateRouteResultCacheConfiguration configuration;
+    private final Supplier<String> baseDatasetVersionSupplier;
+    private volatile String baseDatasetVersion;
+    private final AtomicLong datasetRevision = new AtomicLong();
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weightBytes;
+
+    public GraduateRouteResultCache(GraduateRouteResultCacheConfiguration configuration, String baseDatasetVersion) {
+        this(configuration, () -> baseDatasetVersion);
+    }
+
+    /**
+     * @param baseDatasetVersion resolved on first use, so it can read the schema version after
+     *                           migrations have run
+     */
+    public GraduateRouteResultCache(GraduateRouteResultCacheConfiguration configuration,
+                                    Supplier<String> baseDatasetVersion) {
+        this.configuration = configuration != null ? configuration : GraduateRouteResultCacheConfiguration.defaults();
+        this.baseDatasetVersionSupplier = baseDatasetVersion;
+    }
+
+    public boolean enabled() {
+        return configuration.enabled() && configuration.maxEntries() > 0 && configuration.maxBytes() > 0;
+    }
+
+    /**
+     * Current graduate dataset version: the schema version the application started on plus the
+     * number of in-process data change notifications since.
+     */
+    public String datasetVersion() {
+        return baseDatasetVersion() + "." + datasetRevision.get();
+    }
+
+    /**
+     * Marks the graduate dataset as changed. Older results become unreachable and are dropped.
+     */
+    public String bumpDatasetVersion(String reason) {
+        datasetRevision.incrementAndGet();
+        int dropped = clear();
+        String version = datasetVersion();
+        logger.info("[AI_ROUTE_CACHE] Graduate dataset version bumped version={} reason={} droppedEntries={}",
+                version, reason, dropped);
+        return version;
+    }
+
+    public String key(ResolvedGraduateRoutePlan<?> plan) {
+        StringBuilder key = new StringBuilder()
+                .append(datasetVersion()).append('|')
+                .append(plan.route()).append('|')
+                .append(plan.canonicalArguments() != null ? plan.canonicalArguments().toString() : "{}").append('|');
+        for (ResolvedUniversity university : plan.universities()) {
+            key.append(university.id()).append(',');
+        }
+        key.append('|');
+        for (String unresolved : plan.unresolvedUniversities()) {
+            key.append(unresolved).append(',');
+        }
+        return key.toString();
+    }
+
+    public Optional<GraduateRouteExecutionResult> get(String key) {
+        if (!enabled() || key == null) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.result());
+    }
+
+    public void put(String key, GraduateRouteExecutionResult result) {
+        if (!enabled() || key == null || result == null) {
+            return;
+        }
+        long weight = weigh(key, result);
+        if (weight > configuration.maxBytes()) {
+            return;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, new Entry(result, weight));
+            if (previous != null) {
+                weightBytes -= previous.weightBytes();
+            }
+            weightBytes += weight;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > configuration.maxEntries() || weightBytes > configuration.maxBytes())
+                    && eldest.hasNext()) {
+                weightBytes -= eldest.next().getValue().weightBytes();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        puts.increment();
+    }
+
+    public int purge() {
+        int purged = clear();
+        logger.info("[AI_ROUTE_CACHE] Route result cache purged entries={}", purged);
+        return purged;
+    }
+
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long weightBytes() {
+        synchronized (entries) {
+            return weightBytes;
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private String baseDatasetVersion() {
+        String version = baseDatasetVersion;
+        if (version == null) {
+            String supplied = baseDatasetVersionSupplier != null ? baseDatasetVersionSupplier.get() : null;
+            version = supplied == null || supplied.isBlank() ? "unknown" : supplied.trim();
+            baseDatasetVersion = version;
+        }
+        return version;
+    }
+
+    private int clear() {
+        synchronized (entries) {
+            int cleared = entries.size();
+            entries.clear();
+            weightBytes = 0L;
+            evictions.add(cleared);
+            return cleared;
+        }
+    }
+
+    /** Rough retained size: two bytes per char for the strings plus fixed per-object overheads. */
+    private long weigh(String key, GraduateRouteExecutionResult result) {
+        long chars = key.length() + result.formattedContext().length();
+        List<GraduateCitation> citations = result.citations();
+        for (GraduateCitation citation : citations) {
+            chars += citation.citationId().length() + citation.label().length() + citation.title().length()
+                    + citation.url().length() + citation.universityName().length() + citation.programName().length();
+        }
+        for (String warning : result.warnings()) {
+            chars += warning != null ? warning.length() : 0;
+        }
+        for (GraduateRouteContextRow row : result.contextRows()) {
+            chars += row.text().length();
+        }
+        return ENTRY_OVERHEAD_BYTES + chars * 2L + citations.size() * CITATION_OVERHEAD_BYTES
+                + result.resolvedUniversities().size() * CITATION_OVERHEAD_BYTES
+                + result.contextRows().size() * CITATION_OVERHEAD_BYTES;
+    }
+
+    private record Entry(GraduateRouteExecutionResult result, long weightBytes) {
+    }
+}
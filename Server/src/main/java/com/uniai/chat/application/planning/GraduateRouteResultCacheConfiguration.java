@@ -0,0 +1,16 @@
+package com.uniai.chat.application.planning;
+
+public record GraduateRouteResultCacheConfiguration(
+        boolean enabled,
+        int maxEntries,
+        long maxBytes
+) {
+    public GraduateRouteResultCacheConfiguration {
+        maxEntries = Math.max(0, maxEntries);
+        maxBytes = Math.max(0L, maxBytes);
+    }
+
+    public static GraduateRouteResultCacheConfiguration defaults() {
+        return new GraduateRouteResultCacheConfiguration(true, 5000, 32L * 1024L * 1024L);
+    }
+}
@@ -0,0 +1,78 @@
+package com.uniai.chat.application.planning;
+
+import com.uniai.chat.application.retrieval.ResolvedUniversity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Scores route result rows for context packing. A row is worth more when it mentions the resolved
+ * universities and the entities named in the route arguments, when it has a citation, and the earlier it
+ * comes in the route's sort order. Every row keeps a small base score so unmatched rows still rank by order.
+ */
+final class GraduateRouteRowScorer {
+    private static final double BASE_SCORE = 0.1;
+    private static final double ENTITY_MATCH_WEIGHT = 2.0;
+    private static final double CITATION_WEIGHT = 1.0;
+    private static final double ORDER_WEIGHT = 1.0;
+
+    private final List<List<String>> entityTerms;
+
+    private GraduateRouteRowScorer(List<List<String>> entityTerms) {
+        this.entityTerms = entityTerms;
+    }
+
+    /** Terms of one university count as a single entity, matched by name or acronym. */
+    static GraduateRouteRowScorer forPlan(ResolvedGraduateRoutePlan<?> plan, String... argumentTerms) {
+        List<List<String>> entityTerms = new ArrayList<>();
+        List<String> universityTerms = new ArrayList<>();
+        for (ResolvedUniversity university : plan.universities()) {
+            addTerm(universityTerms, university.name());
+            addTerm(universityTerms, university.acronym());
+        }
+        if (!universityTerms.isEmpty()) entityTerms.add(universityTerms);
+        Arrays.stream(argumentTerms).filter(Objects::nonNull).forEach(term -> {
+            List<String> terms = new ArrayList<>();
+            addTerm(terms, term);
+            if (!terms.isEmpty()) entityTerms.add(terms);
+        });
+        return new GraduateRouteRowScorer(List.copyOf(entityTerms));
+    }
+
+    static GraduateRouteRowScorer forPlan(ResolvedGraduateRoutePlan<?> plan, List<String> argumentTerms) {
+        return forPlan(plan, argumentTerms.toArray(String[]::new));
+    }
+
+    GraduateRouteContextRow row(String text, int position, int rowCount, String citationLabel) {
+        return new GraduateRouteContextRow(text, score(text, position, rowCount, citationLabel != null), citationLabel);
+    }
+
+    double score(String rowText, int position, int rowCount, boolean cited) {
+        double score = BASE_SCORE + ENTITY_MATCH_WEIGHT * matchStrength(rowText);
+        if (cited) score += CITATION_WEIGHT;
+        if (rowCount > 0) score += ORDER_WEIGHT * (rowCount - position) / (double) rowCount;
+        return score;
+    }
+
+    /** Fraction of the requested entities that the row mentions, from 0 to 1. */
+    private double matchStrength(String rowText) {
+        if (entityTerms.isEmpty()) return 0.0;
+        String row = " " + normalize(rowText) + " ";
+        long matched = entityTerms.stream()
+                .filter(terms -> terms.stream().anyMatch(term -> row.contains(" " + term + " ")))
+                .count();
+        return matched / (double) entityTerms.size();
+    }
+
+    private static void addTerm(List<String> terms, String value) {
+        String normalized = normalize(value);
+        if (!normalized.isEmpty()) terms.add(normalized);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+}
@@ -24,6 +24,8 @@ public class GraduateRouteRuntimeManager {
     private final GraduateAiRouterManager routerManager;
     private final GraduateRouteFinalContextBuilder contextBuilder;
     private final GraduateRouteDeterministicFallback deterministicFallback;
+    private final GraduateRoutePlanCache planCache;
+    private final GraduateRouteFastPathPlanner fastPathPlanner;
 
     public GraduateRouteRuntimeManager(GraduateRoutePlannerPort plannerPort,
                                        GraduateRoutePlannerPromptPort promptPort,
@@ -41,21 +43,60 @@ public class GraduateRouteRuntimeManager {
                                        GraduateAiRouterManager routerManager,
                                        GraduateRouteFinalContextBuilder contextBuilder,
                                        GraduateRouteDeterministicFallback deterministicFallback) {
+        this(plannerPort, promptPort, budgetManager, routerManager, contextBuilder, deterministicFallback, null);
+    }
+
+    public GraduateRouteRuntimeManager(GraduateRoutePlannerPort plannerPort,
+                                       GraduateRoutePlannerPromptPort promptPort,
+                                       GraduateRoutePlannerBudgetManager budgetManager,
+                                       GraduateAiRouterManager routerManager,
+                                       GraduateRouteFinalContextBuilder contextBuilder,
+                                       GraduateRouteDeterministicFallback deterministicFallback,
+                                       GraduateRoutePlanCache planCache) {
+        this(plannerPort, promptPort, budgetManager, routerManager, contextBuilder, deterministicFallback, planCache, null);
+    }
+
+    public GraduateRouteRuntimeManager(GraduateRoutePlannerPort plannerPort,
+                                       GraduateRoutePlannerPromptPort promptPort,
+                                       GraduateRoutePlannerBudgetManager budgetManager,
+                                       GraduateAiRouterManager routerManager,
+                                       GraduateRouteFinalContextBuilder contextBuilder,
+                                       GraduateRouteDeterministicFallback deterministicFallback,
+                                       GraduateRoutePlanCache planCache,
+                                       GraduateRouteFastPathPlanner fastPathPlanner) {
         this.plannerPort = plannerPort;
         this.promptPort = promptPort;
         this.budgetManager = budgetManager;
         this.routerManager = routerManager;
         this.contextBuilder = contextBuilder;
         this.deterministicFallback = deterministicFallback;
+        this.planCache = planCache;
+        this.fastPathPlanner = fastPathPlanner;
     }
 
     public GraduateRouteRuntimeOutcome execute(String currentMessage,
                                                          List<AiConversationMessage> recentHistory,
                                                          ConversationMemory memory,
                                                          List<UniversityCatalog> universityCatalogs) {
+        return execute(currentMessage, recentHistory, memory, universityCatalogs, null);
+    }
+
+    /**
+     * @param userId the user the planner call is charged to, or {@code null}
+     */
+    public GraduateRouteRuntimeOutcome execute(String currentMessage,
+                                                         List<AiConversationMessage> recentHistory,
+                                                         ConversationMemory memory,
+                                                         List<UniversityCatalog> universityCatalogs,
+                                                         Long userId) {
+        GraduateRouteRuntimeOutcome fastPathOutcome = executeFastPath(currentMessage, recentHistory, universityCatalogs);
+        if (fastPathOutcome != null) {
+            return fastPathOutcome;
+        }
         GraduateRoutePlanningRequest request = new GraduateRoutePlanningRequest(
-                currentMessage, recentHistory, memory);
-        GraduateRoutePlannerBudgetResult budget = budgetManager.budget(request, promptPort.getPrompt());
+                currentMessage, recentHistory, memory, userId);
+        String plannerPrompt = promptPort.getPrompt();
+        GraduateRoutePlannerBudgetResult budget = budgetManager.budget(request, plannerPrompt);
         if (!budget.requestFits()) {
             logger.warn("[AI_ROUTE_PLANNER] Runtime rejected reason=budget_rejected category={}",
                     budget.diagnosticCategory());
@@ -64,7 +105,7 @@ public class GraduateRouteRuntimeManager {
         try {
             ValidatedGraduateRoutePlan<?> plan;
             try {
-                plan = plannerPort.plan(budget.request());
+                plan = planWithCache(budget.request(), plannerPrompt);
             } catch (RuntimeException plannerFailure) {
                 logger.warn("[AI_ROUTE_PLANNER] Deterministic fallback attempted reason={}",
                         plannerFailure.getClass().getSimpleName());
@@ -80,11 +121,58 @@ public class GraduateRouteRuntimeManager {
                     plan, currentMessage, universityCatalogs);
             logger.info("[AI_ROUTE_PLANNER] Runtime execution completed route={} empty={} citationCount={}",
                     result.route(), result.empty(), result.citations().size());
-            return new GraduateRouteRuntimeOutcome(result, contextBuilder.build(result));
+            return contextBuilder.outcome(result);
         } catch (RuntimeException ex) {
             logger.warn("[AI_ROUTE_PLANNER] Runtime failed failureType={}",
                     ex.getClass().getSimpleName());
             throw ex;
         }
     }
+
+    /**
+     * Runs a confident fast-path plan. Returns {@code null} to fall through to the provider planner
+     * when there is no such plan, or when it fails validation or finds no data.
+     */
+    private GraduateRouteRuntimeOutcome executeFastPath(String currentMessage,
+                                                        List<AiConversationMessage> recentHistory,
+                                                        List<UniversityCatalog> universityCatalogs) {
+        if (fastPathPlanner == null) {
+            return null;
+        }
+        ValidatedGraduateRoutePlan<?> plan = fastPathPlanner.tryPlan(currentMessage, recentHistory, universityCatalogs)
+                .orElse(null);
+        if (plan == null) {
+            return null;
+        }
+        try {
+            GraduateRouteExecutionResult result = routerManager.execute(plan, currentMessage, universityCatalogs);
+            if (result.empty()) {
+                logger.info("[AI_ROUTE_PLANNER] Fast path found no data, using planner route={}", plan.route());
+                return null;
+            }
+            logger.info("[AI_ROUTE_PLANNER] Fast path execution completed route={} citationCount={}",
+                    result.route(), result.citations().size());
+            return contextBuilder.outcome(result);
+        } catch (GraduateRoutePlanningException ex) {
+            logger.info("[AI_ROUTE_PLANNER] Fast path plan rejected, using planner route={} reason={}",
+                    plan.route(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private ValidatedGraduateRoutePlan<?> planWithCache(GraduateRoutePlanningRequest request, String plannerPrompt) {
+        if (planCache == null || !planCache.enabled()) {
+            return plannerPort.plan(request);
+        }
+        String key = planCache.key(request, plannerPrompt);
+        ValidatedGraduateRoutePlan<?> cached = planCache.get(key).orElse(null);
+        if (cached != null) {
+            logger.debug("[AI_ROUTE_PLANNER] Route plan served from cache route={}", cached.route());
+            return cached;
+        }
+        // Only provider plans are cached; deterministic fallbacks stay uncached so recovery is immediate.
+        ValidatedGraduateRoutePlan<?> plan = plannerPort.plan(request);
+        planCache.put(key, plan);
+        return plan;
+    }
 }
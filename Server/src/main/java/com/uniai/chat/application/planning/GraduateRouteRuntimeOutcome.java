@@ -1,8 +1,23 @@
 package com.uniai.chat.application.planning;
 
-/** Trusted route execution prepared for the existing final-answer orchestration. */
+import com.uniai.chat.application.dto.ai.AiContextUnit;
+
+import java.util.List;
+
+/**
+ * Trusted route execution prepared for the existing final-answer orchestration. {@code finalContextUnits}
+ * splits {@code finalContext} into pinned envelope lines and ranked result rows; empty when there are no rows.
+ */
 public record GraduateRouteRuntimeOutcome(
         GraduateRouteExecutionResult executionResult,
-        String finalContext
+        String finalContext,
+        List<AiContextUnit> finalContextUnits
 ) {
+    public GraduateRouteRuntimeOutcome {
+        finalContextUnits = finalContextUnits == null ? List.of() : List.copyOf(finalContextUnits);
+    }
+
+    public GraduateRouteRuntimeOutcome(GraduateRouteExecutionResult executionResult, String finalContext) {
+        this(executionResult, finalContext, List.of());
+    }
 }
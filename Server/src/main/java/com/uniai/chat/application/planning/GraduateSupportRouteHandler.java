@@ -29,9 +29,11 @@ public final class GraduateSupportRouteHandler<T> implements GraduateAiRouteHand
     }
     private SupportCriteria criteria(Object a,List<ResolvedUniversity> u){Values v=Values.from(a,route);return new SupportCriteria(
             u.stream().map(ResolvedUniversity::id).filter(Objects::nonNull).toList(),v.program,v.degree,v.faculty,v.department,v.types,v.year,v.currency,v.term,v.status,v.required,v.limit==null?50:v.limit);}
-    private GraduateRouteExecutionResult rows(ResolvedGraduateRoutePlan<T> p,List<SupportRow> rows){StringBuilder b=new StringBuilder(route.name().replace('_',' ')).append(":\n");
-        for(SupportRow r:rows){b.append("- University: ").append(r.universityName());add(b,"Program",r.programName());add(b,"Faculty",r.facultyName());add(b,"Department",r.departmentName());add(b,"Scope",r.scopeLevel());add(b,"Type",r.itemType());add(b,"Name",r.name());add(b,"Description",r.description());add(b,"Operator",r.operator());add(b,"Threshold",r.threshold()==null?null:r.threshold()+" "+nullSafe(r.thresholdUnit()));add(b,"Required",r.required()==null?null:r.required().toString());add(b,"Academic year",r.academicYear());add(b,"Amount",r.amount()==null?null:nullSafe(r.currency())+" "+r.amount());add(b,"Date",r.dateFrom()==null?null:r.dateFrom().toString());add(b,"Valid until",r.dateUntil()==null?null:r.dateUntil().toString());add(b,"Status",r.status());add(b,"Details",r.details());b.append('\n');}
-        return result(p,b.toString().trim(),citations(rows),rows.isEmpty());}
+    private GraduateRouteExecutionResult rows(ResolvedGraduateRoutePlan<T> p,List<SupportRow> rows){StringBuilder out=new StringBuilder(route.name().replace('_',' ')).append(":\n");
+        Values v=Values.from(p.arguments(),route);GraduateRouteRowScorer scorer=GraduateRouteRowScorer.forPlan(p,v.program,v.faculty,v.department);List<GraduateRouteContextRow> contextRows=new ArrayList<>();int label=1;
+        for(SupportRow r:rows){StringBuilder b=new StringBuilder("- University: ").append(r.universityName());add(b,"Program",r.programName());add(b,"Faculty",r.facultyName());add(b,"Department",r.departmentName());add(b,"Scope",r.scopeLevel());add(b,"Type",r.itemType());add(b,"Name",r.name());add(b,"Description",r.description());add(b,"Operator",r.operator());add(b,"Threshold",r.threshold()==null?null:r.threshold()+" "+nullSafe(r.thresholdUnit()));add(b,"Required",r.required()==null?null:r.required().toString());add(b,"Academic year",r.academicYear());add(b,"Amount",r.amount()==null?null:nullSafe(r.currency())+" "+r.amount());add(b,"Date",r.dateFrom()==null?null:r.dateFrom().toString());add(b,"Valid until",r.dateUntil()==null?null:r.dateUntil().toString());add(b,"Status",r.status());add(b,"Details",r.details());out.append(b).append('\n');
+            contextRows.add(scorer.row(b.toString(),contextRows.size(),rows.size(),text(r.sourceUrl())?"S"+(label++):null));}
+        return result(p,out.toString().trim(),citations(rows),rows.isEmpty()).withContextRows(contextRows);}
     private GraduateRouteExecutionResult comparison(ResolvedGraduateRoutePlan<T> p,List<SupportRow> rows){StringBuilder b=new StringBuilder("Admission requirement comparison:\n");for(ResolvedUniversity u:p.universities()){long count=rows.stream().filter(r->r.universityId()==u.id()).count();b.append("- ").append(u.name()).append(" | Matching requirements: ").append(count).append('\n');}return result(p,b.toString().trim(),citations(rows),false);}
     private GraduateRouteExecutionResult result(ResolvedGraduateRoutePlan<T> p,String c,List<GraduateCitation> cites,boolean empty){return new GraduateRouteExecutionResult(route,p.canonicalArguments(),c,cites,List.of(),empty,null);}
     private List<GraduateCitation> citations(List<SupportRow> rows){List<GraduateCitation> c=new ArrayList<>();int i=1;for(SupportRow r:rows)if(text(r.sourceUrl()))c.add(new GraduateCitation("route-support-"+route+"-"+r.id(),"S"+(i++),r.sourceTitle(),r.sourceUrl(),route.name(),r.universityId(),r.universityName(),r.programId(),r.programName()));return List.copyOf(c);}
@@ -79,41 +79,65 @@ public final class GraduateTuitionRouteHandler<T> implements GraduateAiRouteHand
                                                            List<UniversityTuitionRankingRow> rows) {
         StringBuilder context = new StringBuilder("University tuition ranking (comparable groups):\n")
                 .append("Ranking is based only on comparable tuition data; cheapest does not mean objectively best.\n");
+        GraduateRouteRowScorer scorer = rankingScorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
         for (int i = 0; i < rows.size(); i++) {
             UniversityTuitionRankingRow row = rows.get(i);
-            context.append(i + 1).append(". University: ").append(row.universityName());
-            append(context, "Acronym", row.universityAcronym());
-            append(context, "Average tuition", money(row.averageAmount(), row.currency()));
-            append(context, "Minimum tuition", money(row.minimumAmount(), row.currency()));
-            append(context, "Maximum tuition", money(row.maximumAmount(), row.currency()));
-            append(context, "Matching records", String.valueOf(row.matchingRecordCount()));
-            append(context, "Billing basis", row.billingBasis());
-            append(context, "Scope level", row.scopeLevel());
-            append(context, "Academic year", row.academicYear());
-            context.append('\n');
+            StringBuilder line = new StringBuilder().append(i + 1).append(". University: ").append(row.universityName());
+            append(line, "Acronym", row.universityAcronym());
+            append(line, "Average tuition", money(row.averageAmount(), row.currency()));
+            append(line, "Minimum tuition", money(row.minimumAmount(), row.currency()));
+            append(line, "Maximum tuition", money(row.maximumAmount(), row.currency()));
+            append(line, "Matching records", String.valueOf(row.matchingRecordCount()));
+            append(line, "Billing basis", row.billingBasis());
+            append(line, "Scope level", row.scopeLevel());
+            append(line, "Academic year", row.academicYear());
+            context.append(line).append('\n');
+            contextRows.add(scorer.row(line.toString(), i, rows.size(), null));
         }
-        return result(plan, context.toString().trim(), List.of(), rankingWarnings(plan, rows), rows.isEmpty());
+        return result(plan, context.toString().trim(), List.of(), rankingWarnings(plan, rows), rows.isEmpty(), contextRows);
     }
 
     private GraduateRouteExecutionResult rankPrograms(ResolvedGraduateRoutePlan<T> plan,
                                                        List<ProgramTuitionRankingRow> rows) {
         StringBuilder context = new StringBuilder("Program tuition ranking (comparable groups):\n")
                 .append("Ranking is based only on comparable tuition data; cheapest does not mean objectively best.\n");
+        GraduateRouteRowScorer scorer = rankingScorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
         for (int i = 0; i < rows.size(); i++) {
             ProgramTuitionRankingRow row = rows.get(i);
-            context.append(i + 1).append(". Program: ").append(row.programName());
-            append(context, "University", row.universityName());
-            append(context, "Acronym", row.universityAcronym());
-            append(context, "Average tuition", money(row.averageAmount(), row.currency()));
-            append(context, "Minimum tuition", money(row.minimumAmount(), row.currency()));
-            append(context, "Maximum tuition", money(row.maximumAmount(), row.currency()));
-            append(context, "Matching records", String.valueOf(row.matchingRecordCount()));
-            append(context, "Billing basis", row.billingBasis());
-            append(context, "Scope level", row.scopeLevel());
-            append(context, "Academic year", row.academicYear());
-            context.append('\n');
+            StringBuilder line = new StringBuilder().append(i + 1).append(". Program: ").append(row.programName());
+            append(line, "University", row.universityName());
+            append(line, "Acronym", row.universityAcronym());
+            append(line, "Average tuition", money(row.averageAmount(), row.currency()));
+            append(line, "Minimum tuition", money(row.minimumAmount(), row.currency()));
+            append(line, "Maximum tuition", money(row.maximumAmount(), row.currency()));
+            append(line, "Matching records", String.valueOf(row.matchingRecordCount()));
+            append(line, "Billing basis", row.billingBasis());
+            append(line, "Scope level", row.scopeLevel());
+            append(line, "Academic year", row.academicYear());
+            context.append(line).append('\n');
+            contextRows.add(scorer.row(line.toString(), i, rows.size(), null));
         }
-        return result(plan, context.toString().trim(), List.of(), rankingWarnings(plan, rows), rows.isEmpty());
+        return result(plan, context.toString().trim(), List.of(), rankingWarnings(plan, rows), rows.isEmpty(), contextRows);
+    }
+
+    private GraduateRouteRowScorer rankingScorer(ResolvedGraduateRoutePlan<T> plan) {
+        if (plan.arguments() instanceof GraduateRouteArguments.RankUniversitiesByTuitionArguments a) {
+            return GraduateRouteRowScorer.forPlan(plan, a.programs());
+        }
+        if (plan.arguments() instanceof GraduateRouteArguments.RankProgramsByTuitionArguments a) {
+            List<String> terms = new ArrayList<>(a.programs());
+            terms.addAll(a.faculties());
+            terms.addAll(a.departments());
+            return GraduateRouteRowScorer.forPlan(plan, terms);
+        }
+        return GraduateRouteRowScorer.forPlan(plan);
+    }
+
+    private GraduateRouteRowScorer scorer(ResolvedGraduateRoutePlan<T> plan) {
+        Values values = Values.from(plan.arguments());
+        return GraduateRouteRowScorer.forPlan(plan, values.programName, values.facultyName, values.departmentName);
     }
 
     private List<String> rankingWarnings(ResolvedGraduateRoutePlan<T> plan, List<?> rows) {
@@ -164,64 +188,78 @@ public final class GraduateTuitionRouteHandler<T> implements GraduateAiRouteHand
         StringBuilder context = new StringBuilder("Tuition rates:\n")
                 .append("Total matching rates: ").append(page.totalMatches()).append('\n')
                 .append("Returned rates: ").append(page.rows().size()).append('\n');
-        int ordinal = 1;
-        for (TuitionRow row : page.rows()) {
-            context.append(ordinal++).append(". University: ").append(row.universityName());
-            append(context, "Program", row.programName());
-            append(context, "Degree", row.degreeType());
-            append(context, "Faculty", row.facultyName());
-            append(context, "Department", row.departmentName());
-            append(context, "Amount", money(row.amount(), row.currency()));
-            append(context, "Billing basis", row.billingBasis());
-            append(context, "Scope level", row.scopeLevel());
-            append(context, "Academic year", row.academicYear());
-            append(context, "Category", row.category());
-            context.append('\n');
+        GraduateRouteRowScorer scorer = scorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
+        List<TuitionRow> rows = page.rows();
+        for (int i = 0; i < rows.size(); i++) {
+            TuitionRow row = rows.get(i);
+            StringBuilder line = new StringBuilder().append(i + 1).append(". University: ").append(row.universityName());
+            append(line, "Program", row.programName());
+            append(line, "Degree", row.degreeType());
+            append(line, "Faculty", row.facultyName());
+            append(line, "Department", row.departmentName());
+            append(line, "Amount", money(row.amount(), row.currency()));
+            append(line, "Billing basis", row.billingBasis());
+            append(line, "Scope level", row.scopeLevel());
+            append(line, "Academic year", row.academicYear());
+            append(line, "Category", row.category());
+            context.append(line).append('\n');
+            contextRows.add(scorer.row(line.toString(), i, rows.size(), text(row.sourceUrl()) ? "S" + (i + 1) : null));
         }
         List<String> warnings = page.truncated()
                 ? List.of("The configured tuition route limit was applied; not all matching rates are shown.") : List.of();
-        return result(plan, context.toString().trim(), rateCitations(page.rows()), warnings, page.rows().isEmpty());
+        return result(plan, context.toString().trim(), rateCitations(rows), warnings, rows.isEmpty(), contextRows);
     }
 
     private GraduateRouteExecutionResult aggregates(ResolvedGraduateRoutePlan<T> plan,
                                                      List<TuitionAggregateRow> rows) {
         StringBuilder context = new StringBuilder("Tuition analytics:\n");
-        for (TuitionAggregateRow row : rows) {
-            context.append("- University: ").append(row.universityName());
-            append(context, "Academic year", row.academicYear());
-            append(context, "Currency", row.currency());
-            append(context, "Billing basis", row.billingBasis());
-            append(context, "Scope level", row.scopeLevel());
-            append(context, "Records", String.valueOf(row.recordCount()));
-            if (route == GraduateAiRoute.GET_MINIMUM_TUITION) append(context, "Minimum", money(row.minimumAmount(), row.currency()));
-            else if (route == GraduateAiRoute.GET_MAXIMUM_TUITION) append(context, "Maximum", money(row.maximumAmount(), row.currency()));
-            else append(context, "Average", money(row.averageAmount(), row.currency()));
-            context.append('\n');
+        GraduateRouteRowScorer scorer = scorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TuitionAggregateRow row = rows.get(i);
+            StringBuilder line = new StringBuilder("- University: ").append(row.universityName());
+            append(line, "Academic year", row.academicYear());
+            append(line, "Currency", row.currency());
+            append(line, "Billing basis", row.billingBasis());
+            append(line, "Scope level", row.scopeLevel());
+            append(line, "Records", String.valueOf(row.recordCount()));
+            if (route == GraduateAiRoute.GET_MINIMUM_TUITION) append(line, "Minimum", money(row.minimumAmount(), row.currency()));
+            else if (route == GraduateAiRoute.GET_MAXIMUM_TUITION) append(line, "Maximum", money(row.maximumAmount(), row.currency()));
+            else append(line, "Average", money(row.averageAmount(), row.currency()));
+            context.append(line).append('\n');
+            contextRows.add(scorer.row(line.toString(), i, rows.size(), null));
         }
-        return result(plan, context.toString().trim(), List.of(), List.of(), rows.isEmpty());
+        return result(plan, context.toString().trim(), List.of(), List.of(), rows.isEmpty(), contextRows);
     }
 
     private GraduateRouteExecutionResult fees(ResolvedGraduateRoutePlan<T> plan, FeePage page) {
         StringBuilder context = new StringBuilder("Graduate fee items:\n");
-        for (FeeRow row : page.rows()) {
-            context.append("- University: ").append(row.universityName());
-            append(context, "Fee", row.feeName());
-            append(context, "Amount", money(row.amount(), row.currency()));
-            append(context, "Billing basis", row.billingBasis());
-            append(context, "Scope level", row.scopeLevel());
-            append(context, "Academic year", row.academicYear());
-            append(context, "Program", row.programName());
-            context.append('\n');
+        GraduateRouteRowScorer scorer = scorer(plan);
+        List<GraduateRouteContextRow> contextRows = new ArrayList<>();
+        List<FeeRow> rows = page.rows();
+        for (int i = 0; i < rows.size(); i++) {
+            FeeRow row = rows.get(i);
+            StringBuilder line = new StringBuilder("- University: ").append(row.universityName());
+            append(line, "Fee", row.feeName());
+            append(line, "Amount", money(row.amount(), row.currency()));
+            append(line, "Billing basis", row.billingBasis());
+            append(line, "Scope level", row.scopeLevel());
+            append(line, "Academic year", row.academicYear());
+            append(line, "Program", row.programName());
+            context.append(line).append('\n');
+            contextRows.add(scorer.row(line.toString(), i, rows.size(), text(row.sourceUrl()) ? "S" + (i + 1) : null));
         }
         List<String> warnings = page.truncated()
                 ? List.of("The configured fee route limit was applied; not all matching fee items are shown.") : List.of();
-        return result(plan, context.toString().trim(), feeCitations(page.rows()), warnings, page.rows().isEmpty());
+        return result(plan, context.toString().trim(), feeCitations(rows), warnings, rows.isEmpty(), contextRows);
     }
 
     private GraduateRouteExecutionResult result(ResolvedGraduateRoutePlan<T> plan, String context,
-                                                List<GraduateCitation> citations, List<String> warnings, boolean empty) {
+                                                List<GraduateCitation> citations, List<String> warnings, boolean empty,
+                                                List<GraduateRouteContextRow> contextRows) {
         return new GraduateRouteExecutionResult(route, plan.canonicalArguments(), context,
-                citations, warnings, empty, null);
+                citations, warnings, empty, null).withContextRows(contextRows);
     }
 
     private List<GraduateCitation> rateCitations(List<TuitionRow> rows) {
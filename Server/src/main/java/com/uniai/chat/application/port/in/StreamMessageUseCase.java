@@ -0,0 +1,14 @@
+package com.uniai.chat.application.port.in;
+
+import com.uniai.chat.application.dto.command.SendMessageCommand;
+import com.uniai.chat.application.dto.response.MessageResponseDto;
+
+import java.util.function.Consumer;
+
+public interface StreamMessageUseCase {
+    /**
+     * Same as {@link SendMessageUseCase#sendMessage} but forwards answer chunks to {@code chunkConsumer}
+     * while the provider generates them. The returned message is the persisted answer and supersedes the chunks.
+     */
+    MessageResponseDto streamMessage(String email, SendMessageCommand command, Consumer<String> chunkConsumer);
+}
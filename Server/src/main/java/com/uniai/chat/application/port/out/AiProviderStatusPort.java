@@ -1,5 +1,7 @@
 package com.uniai.chat.application.port.out;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.provider.AiProviderCircuitState;
 import com.uniai.chat.application.provider.AiProviderFailureCategory;
 import com.uniai.chat.application.provider.AiProviderStatusSnapshot;
 
@@ -10,6 +12,8 @@ public interface AiProviderStatusPort {
 
     void recordFailure(String provider, String model, AiProviderFailureCategory failureCategory, long latencyMs);
 
+    void recordCircuitState(String provider, AiOperation operation, AiProviderCircuitState state);
+
     AiProviderStatusSnapshot getStatus(String provider);
 
     Map<String, AiProviderStatusSnapshot> getAllStatuses();
@@ -2,6 +2,9 @@ package com.uniai.chat.application.port.out;
 
 import com.uniai.chat.application.dto.ai.AiRequest;
 import com.uniai.chat.application.dto.ai.AiResponse;
+import org.springframework.util.StringUtils;
+
+import java.util.function.Consumer;
 
 /**
  * Outbound port — implemented in infrastructure.
@@ -15,4 +18,25 @@ public interface AiServicePort {
      * @return the AI-generated response payload
      */
     AiResponse generateResponse(AiRequest request);
+
+    /**
+     * Generates an AI response while forwarding text chunks as the provider produces them.
+     * The returned response carries the complete answer and is authoritative: when the provider
+     * fails part-way through, the chunks already forwarded must be discarded in favour of it.
+     * Providers without a streaming transport fall back to a single chunk holding the full answer.
+     *
+     * @param request the AI request
+     * @param chunkConsumer receives each non-empty text chunk in order
+     * @return the AI-generated response payload
+     */
+    default AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        AiResponse response = generateResponse(request);
+        if (chunkConsumer != null
+                && response != null
+                && !Boolean.TRUE.equals(response.getFallback())
+                && StringUtils.hasText(response.getContent())) {
+            chunkConsumer.accept(response.getContent());
+        }
+        return response;
+    }
 }
@@ -0,0 +1,19 @@
+package com.uniai.chat.application.port.out;
+
+import com.uniai.chat.application.usage.AiUsageLedgerEntry;
+
+import java.util.List;
+
+/**
+ * Outbound port for the persisted AI usage ledger.
+ */
+public interface AiUsageLedgerPort {
+
+    /**
+     * Adds each entry's counts to the stored row for its user, day, operation and provider, creating the
+     * row when it does not exist.
+     */
+    void addAll(List<AiUsageLedgerEntry> entries);
+
+    List<AiUsageLedgerEntry> findByUserId(Long userId);
+}
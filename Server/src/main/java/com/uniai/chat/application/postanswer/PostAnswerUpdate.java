@@ -0,0 +1,13 @@
+package com.uniai.chat.application.postanswer;
+
+import com.uniai.chat.application.memory.ConversationMemoryPatch;
+
+/**
+ * Result of a combined post-answer call. Either half may be {@code null} when the provider left it
+ * out or it could not be read; callers fall back for that half alone.
+ */
+public record PostAnswerUpdate(
+        ConversationMemoryPatch memoryPatch,
+        String title
+) {
+}
@@ -0,0 +1,106 @@
+package com.uniai.chat.application.postanswer;
+
+import com.uniai.chat.application.memory.ConversationMemory;
+import com.uniai.chat.application.memory.ConversationMemoryManager;
+import com.uniai.chat.application.memory.ConversationMemoryPatch;
+import com.uniai.chat.application.memory.ConversationMemoryUpdateRequest;
+import com.uniai.chat.application.planning.GraduateRouteExecutionResult;
+import com.uniai.chat.application.title.ChatTitleGenerationManager;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs the AI work that follows an answer. When a turn needs both a memory update and a chat title,
+ * one combined call replaces the two separate ones. Each half that the combined call does not deliver
+ * falls back to its usual path.
+ */
+public class PostAnswerUpdateManager {
+
+    private static final Logger logger = LogManager.getLogger(PostAnswerUpdateManager.class);
+
+    private final ConversationMemoryManager memoryManager;
+    private final ChatTitleGenerationManager titleManager;
+    private final PostAnswerUpdatePort updatePort;
+    private final MeterRegistry meterRegistry;
+
+    public PostAnswerUpdateManager(
+            ConversationMemoryManager memoryManager,
+            ChatTitleGenerationManager titleManager,
+            PostAnswerUpdatePort updatePort,
+            MeterRegistry meterRegistry
+    ) {
+        this.memoryManager = memoryManager;
+        this.titleManager = titleManager;
+        this.updatePort = updatePort;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void updateAfterAnswer(
+            Long chatId,
+            Long userId,
+            ConversationMemory previousMemory,
+            String currentUserMessage,
+            String assistantResponse,
+            GraduateRouteExecutionResult routeResult,
+            boolean firstUserTurn
+    ) {
+        if (chatId == null) {
+            return;
+        }
+
+        boolean titleDue = firstUserTurn && titleManager != null && titleManager.isTitleDue(chatId, currentUserMessage);
+        ConversationMemoryUpdateRequest memoryRequest = memoryManager != null
+                ? memoryManager.prepareUpdate(chatId, userId, previousMemory, currentUserMessage, assistantResponse, routeResult)
+                : null;
+
+        if (!titleDue || memoryRequest == null || updatePort == null) {
+            if (memoryRequest != null) {
+                memoryManager.applyUpdate(chatId, memoryRequest, null);
+            }
+            if (titleDue) {
+                titleManager.generateTitleIfNeeded(chatId, userId, currentUserMessage);
+            }
+            return;
+        }
+
+        PostAnswerUpdate update = proposeCombined(chatId, memoryRequest);
+        ConversationMemoryPatch memoryPatch = update != null ? update.memoryPatch() : null;
+        memoryManager.applyUpdate(chatId, memoryRequest, memoryPatch);
+
+        boolean titleApplied = update != null && update.title() != null && titleManager.applyTitle(chatId, update.title());
+        if (!titleApplied) {
+            titleManager.generateTitle(chatId, userId, currentUserMessage);
+        }
+
+        recordOutcome(chatId, memoryPatch != null, titleApplied);
+    }
+
+    private PostAnswerUpdate proposeCombined(Long chatId, ConversationMemoryUpdateRequest memoryRequest) {
+        try {
+            return updatePort.proposeUpdate(memoryRequest);
+        } catch (RuntimeException ex) {
+            logger.warn("[AI_POST_ANSWER] Combined update failed chatId={} reason={}", chatId, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void recordOutcome(Long chatId, boolean memoryUsed, boolean titleUsed) {
+        // Two standalone calls are replaced by one; every half that falls back costs its own call again.
+        int callsSaved = Math.max(0, (memoryUsed ? 1 : 0) + (titleUsed ? 1 : 0) - 1);
+        String outcome = memoryUsed && titleUsed
+                ? "combined"
+                : memoryUsed ? "title_fallback" : titleUsed ? "memory_fallback" : "both_fallback";
+        logger.debug("[AI_POST_ANSWER] Combined update finished chatId={} outcome={} callsSaved={}", chatId, outcome, callsSaved);
+        ChatAiMetrics.recordSummary(
+                meterRegistry,
+                ChatAiMetrics.POST_ANSWER_CALLS_SAVED,
+                "Provider calls saved per turn by the combined post-answer update",
+                "calls",
+                callsSaved,
+                "outcome",
+                outcome
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.uniai.chat.application.postanswer;
+
+import com.uniai.chat.application.memory.ConversationMemoryUpdateRequest;
+
+/**
+ * Produces the memory patch and the chat title for a finished first turn in a single provider call.
+ * The title is generated for {@link ConversationMemoryUpdateRequest#currentUserMessage()}.
+ */
+public interface PostAnswerUpdatePort {
+
+    PostAnswerUpdate proposeUpdate(ConversationMemoryUpdateRequest memoryRequest);
+}
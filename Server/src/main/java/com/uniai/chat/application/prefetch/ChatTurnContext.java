@@ -0,0 +1,24 @@
+package com.uniai.chat.application.prefetch;
+
+import com.uniai.catalog.domain.model.UniversityCatalog;
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.memory.ConversationMemory;
+
+import java.util.List;
+
+/**
+ * Everything a chat turn reads before route planning, gathered by {@link ChatTurnPrefetcher}.
+ */
+public record ChatTurnContext(
+        ConversationMemory conversationMemory,
+        List<AiConversationMessage> conversationHistory,
+        boolean firstUserTurn,
+        List<UniversityCatalog> universityCatalogs,
+        String systemPrompt
+) {
+    public ChatTurnContext {
+        conversationMemory = conversationMemory == null ? ConversationMemory.empty() : conversationMemory;
+        conversationHistory = conversationHistory == null ? List.of() : List.copyOf(conversationHistory);
+        universityCatalogs = universityCatalogs == null ? List.of() : universityCatalogs;
+    }
+}
@@ -0,0 +1,21 @@
+package com.uniai.chat.application.prefetch;
+
+public record ChatTurnPrefetchConfiguration(
+        long memoryTimeoutMillis,
+        long historyTimeoutMillis,
+        long catalogTimeoutMillis,
+        long promptTimeoutMillis,
+        long turnCountTimeoutMillis
+) {
+    public ChatTurnPrefetchConfiguration {
+        memoryTimeoutMillis = Math.max(1L, memoryTimeoutMillis);
+        historyTimeoutMillis = Math.max(1L, historyTimeoutMillis);
+        catalogTimeoutMillis = Math.max(1L, catalogTimeoutMillis);
+        promptTimeoutMillis = Math.max(1L, promptTimeoutMillis);
+        turnCountTimeoutMillis = Math.max(1L, turnCountTimeoutMillis);
+    }
+
+    public static ChatTurnPrefetchConfiguration defaults() {
+        return new ChatTurnPrefetchConfiguration(2000L, 2000L, 3000L, 1000L, 1000L);
+    }
+}
@@ -0,0 +1,293 @@
+package com.uniai.chat.application.prefetch;
+
+import com.uniai.catalog.domain.model.UniversityCatalog;
+import com.uniai.catalog.domain.repository.UniversityCatalogRepository;
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.memory.ConversationMemory;
+import com.uniai.chat.application.memory.ConversationMemoryManager;
+import com.uniai.chat.application.port.out.ChatSystemPromptPort;
+import com.uniai.chat.domain.model.RecentMessage;
+import com.uniai.chat.domain.repository.MessageRepository;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Loads the independent reads of a chat turn concurrently: conversation memory, recent history,
+ * the university catalog, the system prompt and the chat's message count. Each stage has its own
+ * deadline measured from the start of the prefetch; a stage past its deadline is cancelled and its
+ * worker interrupted. Memory and history degrade to empty values when they fail or time out; the
+ * catalog, the prompt and the message count are required and fail the turn. The message count
+ * alone decides whether this is the chat's first turn, so a degraded history never suppresses the
+ * chat title.
+ *
+ * <p>When the executor rejects a stage, an optional stage degrades straight away and a required stage
+ * runs on the calling thread, where its deadline cannot interrupt it.
+ */
+public class ChatTurnPrefetcher {
+
+    private static final Logger logger = LogManager.getLogger(ChatTurnPrefetcher.class);
+    private static final int MAX_CONVERSATION_HISTORY_MESSAGES = 6;
+
+    private final ConversationMemoryManager conversationMemoryManager;
+    private final MessageRepository messageRepository;
+    private final UniversityCatalogRepository universityCatalogRepository;
+    private final ChatSystemPromptPort chatSystemPromptPort;
+    private final Executor executor;
+    private final ChatTurnPrefetchConfiguration configuration;
+    private final MeterRegistry meterRegistry;
+
+    public ChatTurnPrefetcher(
+            ConversationMemoryManager conversationMemoryManager,
+            MessageRepository messageRepository,
+            UniversityCatalogRepository universityCatalogRepository,
+            ChatSystemPromptPort chatSystemPromptPort,
+            Executor executor
+    ) {
+        this(conversationMemoryManager, messageRepository, universityCatalogRepository, chatSystemPromptPort, executor,
+                ChatTurnPrefetchConfiguration.defaults(), null);
+    }
+
+    public ChatTurnPrefetcher(
+            ConversationMemoryManager conversationMemoryManager,
+            MessageRepository messageRepository,
+            UniversityCatalogRepository universityCatalogRepository,
+            ChatSystemPromptPort chatSystemPromptPort,
+            Executor executor,
+            ChatTurnPrefetchConfiguration configuration,
+            MeterRegistry meterRegistry
+    ) {
+        this.conversationMemoryManager = conversationMemoryManager;
+        this.messageRepository = messageRepository;
+        this.universityCatalogRepository = universityCatalogRepository;
+        this.chatSystemPromptPort = chatSystemPromptPort;
+        this.executor = executor;
+        this.configuration = configuration != null ? configuration : ChatTurnPrefetchConfiguration.defaults();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Prefetches the turn context. Must run after the current user message is committed so the
+     * history stage, which uses its own connection, can see it.
+     */
+    public ChatTurnContext prefetch(Long chatId, Long currentUserId, String currentUserContent) {
+        long startNanos = System.nanoTime();
+        String outcome = "failure";
+        List<Future<?>> pending = new ArrayList<>();
+        try {
+            Future<ConversationMemory> memory = submit(pending, "memory", false, () -> loadMemory(chatId));
+            Future<List<AiConversationMessage>> history = submit(pending, "history", false,
+                    () -> loadRecentConversationHistory(chatId, currentUserId, currentUserContent));
+            Future<Long> turnCount = submit(pending, "turn_count", true, () -> messageRepository.countByChatId(chatId));
+            Future<List<UniversityCatalog>> catalogs = submit(pending, "catalog", true, universityCatalogRepository::findAll);
+            Future<String> prompt = submit(pending, "prompt", true, chatSystemPromptPort::getPrompt);
+
+            ConversationMemory conversationMemory = awaitOptional("memory", memory, startNanos,
+                    configuration.memoryTimeoutMillis(), ConversationMemory.empty(), chatId);
+            List<AiConversationMessage> conversationHistory = awaitOptional("history", history, startNanos,
+                    configuration.historyTimeoutMillis(), null, chatId);
+            List<UniversityCatalog> universityCatalogs = awaitRequired("catalog", catalogs, startNanos,
+                    configuration.catalogTimeoutMillis(), chatId);
+            String systemPrompt = awaitRequired("prompt", prompt, startNanos,
+                    configuration.promptTimeoutMillis(), chatId);
+            // The current user message is already committed, so a first turn counts exactly one message.
+            boolean firstUserTurn = awaitRequired("turn_count", turnCount, startNanos,
+                    configuration.turnCountTimeoutMillis(), chatId) == 1L;
+
+            outcome = conversationHistory == null ? "degraded" : "success";
+            logger.debug("[PREFETCH] Turn context loaded chatId={} historyCount={} catalogCount={} outcome={} durationMs={}",
+                    chatId,
+                    conversationHistory != null ? conversationHistory.size() : 0,
+                    universityCatalogs != null ? universityCatalogs.size() : 0,
+                    outcome,
+                    elapsedMillis(startNanos));
+            return new ChatTurnContext(
+                    conversationMemory,
+                    conversationHistory != null ? conversationHistory : List.of(),
+                    firstUserTurn,
+                    universityCatalogs,
+                    systemPrompt);
+        } finally {
+            for (Future<?> future : pending) {
+                future.cancel(true);
+            }
+            ChatAiMetrics.recordTimer(
+                    meterRegistry,
+                    ChatAiMetrics.PREFETCH_DURATION,
+                    "Wall-clock duration of the chat turn pre-planner prefetch stage",
+                    System.nanoTime() - startNanos,
+                    "outcome",
+                    outcome
+            );
+        }
+    }
+
+    private <T> Future<T> submit(List<Future<?>> pending, String stage, boolean required, Supplier<T> loader) {
+        FutureTask<T> task = new FutureTask<>(() -> {
+            long stageStartNanos = System.nanoTime();
+            String stageOutcome = "failure";
+            try {
+                T value = loader.get();
+                stageOutcome = "success";
+                return value;
+            } finally {
+                recordStage(stage, stageOutcome, System.nanoTime() - stageStartNanos);
+            }
+        });
+        pending.add(task);
+        if (executor == null) {
+            task.run();
+            return task;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            ChatAiMetrics.incrementCounter(
+                    meterRegistry,
+                    ChatAiMetrics.PREFETCH_REJECTIONS,
+                    "Chat turn prefetch stages rejected by a saturated executor",
+                    "stage",
+                    stage
+            );
+            if (required) {
+                task.run();
+            } else {
+                task.cancel(false);
+            }
+        }
+        return task;
+    }
+
+    private <T> T awaitOptional(String stage, Future<T> future, long startNanos, long timeoutMillis, T fallback, Long chatId) {
+        try {
+            return await(stage, future, startNanos, timeoutMillis, chatId);
+        } catch (RuntimeException ex) {
+            logger.warn("[PREFETCH] Optional stage degraded chatId={} stage={} reason={}", chatId, stage, ex.getMessage());
+            return fallback;
+        }
+    }
+
+    private <T> T awaitRequired(String stage, Future<T> future, long startNanos, long timeoutMillis, Long chatId) {
+        return await(stage, future, startNanos, timeoutMillis, chatId);
+    }
+
+    private <T> T await(String stage, Future<T> future, long startNanos, long timeoutMillis, Long chatId) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - (System.nanoTime() - startNanos);
+        try {
+            return future.get(Math.max(0L, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            ChatAiMetrics.incrementCounter(
+                    meterRegistry,
+                    ChatAiMetrics.PREFETCH_TIMEOUTS,
+                    "Chat turn prefetch stages that exceeded their deadline",
+                    "stage",
+                    stage
+            );
+            logger.warn("[PREFETCH] Stage timed out chatId={} stage={} timeoutMs={}", chatId, stage, timeoutMillis);
+            throw new IllegalStateException("Chat turn prefetch timed out stage=" + stage, ex);
+        } catch (CancellationException ex) {
+            throw new IllegalStateException("Chat turn prefetch rejected stage=" + stage, ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Chat turn prefetch failed stage=" + stage, cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chat turn prefetch interrupted stage=" + stage, ex);
+        }
+    }
+
+    private ConversationMemory loadMemory(Long chatId) {
+        return conversationMemoryManager == null
+                ? ConversationMemory.empty()
+                : conversationMemoryManager.loadMemory(chatId);
+    }
+
+    private List<AiConversationMessage> loadRecentConversationHistory(Long chatId, Long currentUserId, String currentUserContent) {
+        // One extra row covers the current user message, which is excluded from the history below.
+        List<RecentMessage> messages = messageRepository.findRecentByChatId(chatId, MAX_CONVERSATION_HISTORY_MESSAGES + 1);
+        if (messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int endIndex = messages.size();
+        RecentMessage lastMessage = messages.get(endIndex - 1);
+        if (lastMessage != null
+                && lastMessage.senderId() != null
+                && lastMessage.senderId().equals(currentUserId)
+                && lastMessage.content() != null
+                && lastMessage.content().equals(currentUserContent)) {
+            endIndex--;
+        }
+
+        if (endIndex <= 0) {
+            return Collections.emptyList();
+        }
+
+        int startIndex = Math.max(0, endIndex - MAX_CONVERSATION_HISTORY_MESSAGES);
+        List<AiConversationMessage> history = new ArrayList<>();
+        for (RecentMessage message : messages.subList(startIndex, endIndex)) {
+            if (message != null && message.senderId() != null && message.senderId().equals(0L)
+                    && isAssistantErrorMessage(message.content())) {
+                continue;
+            }
+            history.add(AiConversationMessage.builder()
+                    .role(resolveConversationRole(message))
+                    .content(message.content())
+                    .build());
+        }
+        return history;
+    }
+
+    private boolean isAssistantErrorMessage(String content) {
+        if (!StringUtils.hasText(content)) return false;
+        String normalized = content.trim().toLowerCase();
+        return normalized.contains("please try again later")
+                || normalized.contains("temporarily unavailable")
+                || normalized.contains("provider error")
+                || normalized.contains("service error")
+                || normalized.contains("request failed");
+    }
+
+    private String resolveConversationRole(RecentMessage message) {
+        if (message == null || message.senderId() == null) {
+            return "user";
+        }
+        return message.senderId() == 0L ? "assistant" : "user";
+    }
+
+    private void recordStage(String stage, String outcome, long durationNanos) {
+        ChatAiMetrics.recordTimer(
+                meterRegistry,
+                ChatAiMetrics.PREFETCH_STAGE_DURATION,
+                "Duration of one chat turn prefetch stage",
+                durationNanos,
+                "stage",
+                stage,
+                "outcome",
+                outcome
+        );
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+}
@@ -0,0 +1,7 @@
+package com.uniai.chat.application.provider;
+
+public enum AiProviderCircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
@@ -1,7 +1,11 @@
 package com.uniai.chat.application.provider;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
+
 import java.time.Instant;
+import java.util.EnumMap;
 import java.util.Locale;
+import java.util.Map;
 
 public record AiProviderStatusSnapshot(
         String provider,
@@ -10,13 +14,17 @@ public record AiProviderStatusSnapshot(
         AiProviderFailureCategory lastFailureCategory,
         Instant lastSuccessAt,
         Instant lastFailureAt,
-        Long lastLatencyMs
+        Long lastLatencyMs,
+        int consecutiveFailures,
+        Map<AiOperation, AiProviderCircuitState> circuits
 ) {
     public AiProviderStatusSnapshot {
         provider = normalize(provider);
         model = normalize(model);
         status = status == null ? AiProviderRuntimeStatus.UNKNOWN : status;
         lastFailureCategory = lastFailureCategory == null ? AiProviderFailureCategory.UNKNOWN : lastFailureCategory;
+        consecutiveFailures = Math.max(0, consecutiveFailures);
+        circuits = circuits == null ? Map.of() : Map.copyOf(circuits);
     }
 
     public static AiProviderStatusSnapshot unknown(String provider) {
@@ -27,7 +35,9 @@ public record AiProviderStatusSnapshot(
                 AiProviderFailureCategory.UNKNOWN,
                 null,
                 null,
-                null
+                null,
+                0,
+                Map.of()
         );
     }
 
@@ -39,7 +49,9 @@ public record AiProviderStatusSnapshot(
                 AiProviderFailureCategory.NONE,
                 observedAt,
                 lastFailureAt,
-                latencyMs
+                latencyMs,
+                0,
+                circuits
         );
     }
 
@@ -61,10 +73,37 @@ public record AiProviderStatusSnapshot(
                 effectiveCategory,
                 lastSuccessAt,
                 observedAt,
-                latencyMs
+                latencyMs,
+                consecutiveFailures + 1,
+                circuits
+        );
+    }
+
+    public AiProviderStatusSnapshot withCircuitState(AiOperation operation, AiProviderCircuitState state) {
+        Map<AiOperation, AiProviderCircuitState> updated = new EnumMap<>(AiOperation.class);
+        updated.putAll(circuits);
+        if (state == null || state == AiProviderCircuitState.CLOSED) {
+            updated.remove(operation);
+        } else {
+            updated.put(operation, state);
+        }
+        return new AiProviderStatusSnapshot(
+                provider,
+                model,
+                status,
+                lastFailureCategory,
+                lastSuccessAt,
+                lastFailureAt,
+                lastLatencyMs,
+                consecutiveFailures,
+                updated
         );
     }
 
+    public boolean hasOpenCircuit() {
+        return circuits.containsValue(AiProviderCircuitState.OPEN);
+    }
+
     private static String normalize(String value) {
         return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
     }
@@ -3,6 +3,8 @@ package com.uniai.chat.application.service;
 import com.uniai.chat.application.dto.command.SendMessageCommand;
 import com.uniai.chat.application.dto.ai.AiConversationMessage;
 import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.background.BackgroundAiJobQueue;
+import com.uniai.chat.application.background.BackgroundAiJobType;
 import com.uniai.chat.application.budget.AiContextBudgetManager;
 import com.uniai.chat.application.budget.AiContextBudgetResult;
 import com.uniai.chat.application.citation.GraduateCitation;
@@ -16,22 +18,23 @@ import com.uniai.chat.application.dto.response.ChatSummaryResponseDto;
 import com.uniai.chat.application.dto.response.MessageResponseDto;
 import com.uniai.chat.application.memory.ConversationMemory;
 import com.uniai.chat.application.memory.ConversationMemoryManager;
+import com.uniai.chat.application.prefetch.ChatTurnContext;
+import com.uniai.chat.application.prefetch.ChatTurnPrefetcher;
 import com.uniai.chat.application.title.ChatTitleGenerationManager;
+import com.uniai.chat.application.postanswer.PostAnswerUpdateManager;
 import com.uniai.chat.application.port.in.*;
 import com.uniai.chat.application.port.out.AiProviderStatusPort;
-import com.uniai.chat.application.port.out.ChatSystemPromptPort;
 import com.uniai.chat.application.port.out.AiServicePort;
 import com.uniai.chat.application.planning.GraduateRouteRuntimeManager;
 import com.uniai.chat.application.planning.GraduateRouteRuntimeOutcome;
 import com.uniai.chat.application.planning.GraduateRouteExecutionResult;
+import com.uniai.chat.application.usage.AiUsageLedger;
 import com.uniai.chat.domain.builder.ChatBuilder;
 import com.uniai.chat.domain.builder.MessageBuilder;
 import com.uniai.chat.domain.model.Chat;
 import com.uniai.chat.domain.model.Message;
 import com.uniai.chat.domain.repository.ChatRepository;
 import com.uniai.chat.domain.repository.MessageRepository;
-import com.uniai.catalog.domain.model.UniversityCatalog;
-import com.uniai.catalog.domain.repository.UniversityCatalogRepository;
 import com.uniai.shared.exception.ChatNotFoundException;
 import com.uniai.shared.exception.EmailNotFoundException;
 import com.uniai.shared.exception.InvalidMessageException;
@@ -45,17 +48,21 @@ import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Application service for all chat use cases.
@@ -64,6 +71,7 @@ import java.util.Objects;
 public class ChatApplicationService implements
         CreateChatUseCase,
         SendMessageUseCase,
+        StreamMessageUseCase,
         GetUserChatsUseCase,
         GetChatMessagesUseCase,
         DeleteChatUseCase,
@@ -74,16 +82,18 @@ public class ChatApplicationService implements
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final AiServicePort aiServicePort;
-    private final ChatSystemPromptPort chatSystemPromptPort;
-    private final UniversityCatalogRepository universityCatalogRepository;
+    private final ChatTurnPrefetcher chatTurnPrefetcher;
     private final AiContextBudgetManager aiContextBudgetManager;
     private final ConversationMemoryManager conversationMemoryManager;
     private final ChatTitleGenerationManager chatTitleGenerationManager;
+    private final PostAnswerUpdateManager postAnswerUpdateManager;
+    private final BackgroundAiJobQueue backgroundAiJobQueue;
     private final AiProviderStatusPort aiProviderStatusPort;
+    private final AiUsageLedger aiUsageLedger;
     private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
     private GraduateRouteRuntimeManager routePlannerRuntimeManager;
 
-    private static final int MAX_CONVERSATION_HISTORY_MESSAGES = 6;
     private static final int MAX_INTERPRETATION_HISTORY_MESSAGES = 4;
 
     @Autowired
@@ -92,26 +102,32 @@ public class ChatApplicationService implements
             MessageRepository messageRepository,
             UserRepository userRepository,
             AiServicePort aiServicePort,
-            ChatSystemPromptPort chatSystemPromptPort,
-            UniversityCatalogRepository universityCatalogRepository,
+            ChatTurnPrefetcher chatTurnPrefetcher,
             GraduateRouteRuntimeManager routePlannerRuntimeManager,
             AiContextBudgetManager aiContextBudgetManager,
             ConversationMemoryManager conversationMemoryManager,
             ChatTitleGenerationManager chatTitleGenerationManager,
+            PostAnswerUpdateManager postAnswerUpdateManager,
+            BackgroundAiJobQueue backgroundAiJobQueue,
             AiProviderStatusPort aiProviderStatusPort,
-            MeterRegistry meterRegistry
+            AiUsageLedger aiUsageLedger,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager
     ) {
         this.chatRepository = chatRepository;
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
         this.aiServicePort = aiServicePort;
-        this.chatSystemPromptPort = chatSystemPromptPort;
-        this.universityCatalogRepository = universityCatalogRepository;
+        this.chatTurnPrefetcher = chatTurnPrefetcher;
         this.aiContextBudgetManager = aiContextBudgetManager;
         this.conversationMemoryManager = conversationMemoryManager;
         this.chatTitleGenerationManager = chatTitleGenerationManager;
+        this.postAnswerUpdateManager = postAnswerUpdateManager;
+        this.backgroundAiJobQueue = backgroundAiJobQueue;
         this.aiProviderStatusPort = aiProviderStatusPort;
+        this.aiUsageLedger = aiUsageLedger;
         this.meterRegistry = meterRegistry;
+        this.transactionTemplate = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
         this.routePlannerRuntimeManager = routePlannerRuntimeManager;
     }
 
@@ -133,8 +149,20 @@ public class ChatApplicationService implements
     // -------------------------------------------------------------------------
 
     @Override
-    @Transactional
     public MessageResponseDto sendMessage(String email, SendMessageCommand command) {
+        return processMessage(email, command, null);
+    }
+
+    // -------------------------------------------------------------------------
+    // StreamMessageUseCase
+    // -------------------------------------------------------------------------
+
+    @Override
+    public MessageResponseDto streamMessage(String email, SendMessageCommand command, Consumer<String> chunkConsumer) {
+        return processMessage(email, command, chunkConsumer != null ? chunkConsumer : chunk -> { });
+    }
+
+    private MessageResponseDto processMessage(String email, SendMessageCommand command, Consumer<String> chunkConsumer) {
         long requestStartNanos = System.nanoTime();
         Long chatId = command != null ? command.getChatId() : null;
         Long userId = null;
@@ -143,53 +171,27 @@ public class ChatApplicationService implements
                 chatId,
                 command != null && command.getContent() != null ? command.getContent().length() : 0);
 
+        ChatTurn turn = null;
+        boolean answerPersisted = false;
         try {
-            validateContent(command.getContent());
-
-            Chat chat = chatRepository.findById(command.getChatId())
-                    .orElseThrow(() -> new ChatNotFoundException("Chat not found"));
-
-            User user = getUser(email);
+            turn = inTransaction("load_turn", () -> startTurn(email, command));
+            Chat chat = turn.chat();
+            User user = turn.user();
             userId = user.getId();
-            validateOwnership(chat, user);
-            ConversationMemory conversationMemory = conversationMemoryManager == null
-                    ? ConversationMemory.empty()
-                    : conversationMemoryManager.loadMemory(chat.getId());
-
-            logger.info("[CHAT] Request started userId={} chatId={} messageLength={}",
-                    user.getId(),
-                    chat.getId(),
-                    command.getContent() != null ? command.getContent().length() : 0);
 
-            Message userMessage = MessageBuilder.userMessage(chat, user.getId(), command.getContent()).build();
-            long userSaveStartNanos = System.nanoTime();
-            Message persistedUserMessage = messageRepository.save(userMessage);
-            logger.debug("[PERSISTENCE] User message saved id={} chatId={} durationMs={}",
-                    persistedUserMessage != null ? persistedUserMessage.getId() : null,
-                    chat.getId(),
-                    elapsedMillis(userSaveStartNanos));
-
-            boolean isFirstUserTurn = messageRepository.countByChatId(chat.getId()) == 1L;
-
-            logger.debug("[CHAT] History retrieval started chatId={}", chat.getId());
-            long historyStartNanos = System.nanoTime();
-            List<AiConversationMessage> conversationHistory = loadRecentConversationHistory(
-                    chat.getId(),
-                    user.getId(),
-                    command.getContent()
-            );
-            logger.debug("[CHAT] History retrieval completed chatId={} messageCount={} durationMs={}",
-                    chat.getId(),
-                    conversationHistory.size(),
-                    elapsedMillis(historyStartNanos));
+            // Prefetch, route planning, retrieval and the answer call run outside any transaction so a
+            // pooled connection is only held while the turn is loaded and while the answer is saved.
+            ChatTurnContext turnContext = chatTurnPrefetcher.prefetch(chat.getId(), user.getId(), command.getContent());
+            ConversationMemory conversationMemory = turnContext.conversationMemory();
+            boolean isFirstUserTurn = turnContext.firstUserTurn();
+            List<AiConversationMessage> conversationHistory = turnContext.conversationHistory();
 
             List<AiConversationMessage> recentConversationWindow = buildRecentConversationWindow(conversationHistory);
             logger.debug("[CHAT] Recent conversation window prepared chatId={} windowMessageCount={}",
                     chat.getId(),
                     recentConversationWindow.size());
-            List<UniversityCatalog> universityCatalogs = universityCatalogRepository.findAll();
             GraduateRouteRuntimeOutcome routeOutcome = routePlannerRuntimeManager.execute(
-                    command.getContent(), recentConversationWindow, conversationMemory, universityCatalogs);
+                    command.getContent(), recentConversationWindow, conversationMemory, turnContext.universityCatalogs(), user.getId());
             GraduateRouteExecutionResult activeRouteExecution = routeOutcome.executionResult();
             boolean generalChat = activeRouteExecution.route()
                     == com.uniai.chat.application.planning.GraduateAiRoute.DIRECT_AI_RESPONSE;
@@ -205,7 +207,7 @@ public class ChatApplicationService implements
                 logger.warn("[RETRIEVAL] Empty context returned chatId={}", chat.getId());
             }
 
-            String baseSystemPrompt = chatSystemPromptPort.getPrompt();
+            String baseSystemPrompt = turnContext.systemPrompt();
             if (activeRouteExecution != null && generalChat) {
                 baseSystemPrompt += "\n\nThe route planner selected DIRECT_AI_RESPONSE with reason "
                         + activeRouteExecution.directAiReason()
@@ -223,17 +225,20 @@ public class ChatApplicationService implements
             AiRequest aiRequest = AiRequest.builder()
                     .userMessage(command.getContent())
                     .systemPrompt(systemPrompt)
+                    .staticPromptPrefix(turnContext.systemPrompt())
                     .conversationHistory(conversationHistory)
                     .context(context)
+                    .contextUnits(context.isEmpty() ? List.of() : routeOutcome.finalContextUnits())
                     .conversationMemory(conversationMemory)
                     .operation(AiOperation.MAIN_RESPONSE)
+                    .userId(user.getId())
                     .build();
 
             logger.debug("[AI] Budget evaluation started chatId={} providerBean={}",
                     chat.getId(),
                     aiServicePort.getClass().getSimpleName());
             AiContextBudgetResult budgetResult = aiContextBudgetManager.budget(aiRequest);
-            logger.debug("[AI] Budget evaluation completed chatId={} provider={} requestFits={} originalEstimatedInputTokens={} finalEstimatedInputTokens={} historyTrimmed={} contextTrimmed={} finalHistoryCount={} finalContextCount={}",
+            logger.debug("[AI] Budget evaluation completed chatId={} budgetProvider={} requestFits={} originalEstimatedInputTokens={} finalEstimatedInputTokens={} historyTrimmed={} contextTrimmed={} finalHistoryCount={} finalContextCount={}",
                     chat.getId(),
                     budgetResult.activeProvider(),
                     budgetResult.requestFits(),
@@ -253,6 +258,7 @@ public class ChatApplicationService implements
                     : budgetResult.contextTrimmed()
                     ? GraduateCitationEngine.filterCitationsPresentInContext(
                     graduateCitations,
+                    context,
                     budgetedRequest != null ? budgetedRequest.getContext() : List.of()
             )
                     : graduateCitations;
@@ -271,7 +277,7 @@ public class ChatApplicationService implements
                         "reason",
                         "budget_rejected"
                 );
-                logger.warn("[AI] Budget rejection chatId={} provider={} category={} originalEstimatedInputTokens={} finalEstimatedInputTokens={} maxInputTokens={} reservedOutputTokens={} historyTrimmed={} contextTrimmed={} requestFits={}",
+                logger.warn("[AI] Budget rejection chatId={} budgetProvider={} category={} originalEstimatedInputTokens={} finalEstimatedInputTokens={} maxInputTokens={} reservedOutputTokens={} historyTrimmed={} contextTrimmed={} requestFits={}",
                         chat.getId(),
                         budgetResult.activeProvider(),
                         budgetResult.diagnosticCategory(),
@@ -295,12 +301,14 @@ public class ChatApplicationService implements
                         : AiRequest.builder()
                         .userMessage(budgetedRequest.getUserMessage())
                         .systemPrompt(activeSystemPrompt)
+                        .staticPromptPrefix(budgetedRequest.getStaticPromptPrefix())
                         .conversationHistory(budgetedRequest.getConversationHistory())
                         .context(budgetedRequest.getContext())
                         .conversationMemory(budgetedRequest.getConversationMemory())
                         .operation(AiOperation.MAIN_RESPONSE)
                         .temperature(budgetedRequest.getTemperature())
                         .maxTokens(budgetedRequest.getMaxTokens())
+                        .userId(budgetedRequest.getUserId())
                         .build();
                 logger.debug("[AI] Provider invocation started chatId={} providerBean={} historyCount={} contextCount={} maxTokens={}",
                         chat.getId(),
@@ -309,9 +317,15 @@ public class ChatApplicationService implements
                         effectiveRequest != null && effectiveRequest.getContext() != null ? effectiveRequest.getContext().size() : 0,
                         effectiveRequest != null ? effectiveRequest.getMaxTokens() : null);
                 long providerStartNanos = System.nanoTime();
-                aiResponse = aiServicePort.generateResponse(effectiveRequest);
+                AtomicLong firstChunkNanos = new AtomicLong();
+                aiResponse = chunkConsumer == null
+                        ? aiServicePort.generateResponse(effectiveRequest)
+                        : aiServicePort.streamResponse(effectiveRequest, timingFirstChunk(chunkConsumer, firstChunkNanos));
                 providerDurationMs = elapsedMillis(providerStartNanos);
-                recordMainResponseDuration(budgetResult.activeProvider(), aiResponse, providerDurationMs);
+                // Tagged after the call so routed requests are attributed to the provider that answered.
+                String respondingProvider = respondingProvider(aiResponse, budgetResult);
+                recordFirstToken(requestStartNanos, firstChunkNanos.get(), respondingProvider);
+                recordMainResponseDuration(respondingProvider, aiResponse, providerDurationMs);
             }
 
             String aiContent = (aiResponse != null && aiResponse.getContent() != null)
@@ -356,29 +370,42 @@ public class ChatApplicationService implements
             List<GraduateCitationDto> responseCitations = toCitationDtos(
                     GraduateCitationEngine.extractCitations(aiContent, activeGraduateCitations)
             );
-            Message aiMessage = MessageBuilder.aiMessage(chat, aiContent).build();
-            long aiSaveStartNanos = System.nanoTime();
-            Message persistedAiMessage = messageRepository.save(aiMessage);
-            logger.debug("[PERSISTENCE] Assistant message saved id={} chatId={} durationMs={}",
-                    persistedAiMessage != null ? persistedAiMessage.getId() : null,
-                    chat.getId(),
-                    elapsedMillis(aiSaveStartNanos));
-
-            chat.setUpdatedAt(LocalDateTime.now());
-            chatRepository.save(chat);
-            registerChatTitleGeneration(chat.getId(), command.getContent(), isFirstUserTurn);
-            registerConversationMemoryUpdate(chat.getId(), conversationMemory, command.getContent(), aiContent, activeRouteExecution);
+            Message aiMessage = inTransaction("persist_answer", () -> {
+                Chat currentChat = chatRepository.findById(chat.getId())
+                        .orElseThrow(() -> new ChatNotFoundException("Chat not found"));
+                Message assistantMessage = MessageBuilder.aiMessage(currentChat, aiContent).build();
+                long aiSaveStartNanos = System.nanoTime();
+                Message persistedAssistantMessage = messageRepository.save(assistantMessage);
+                logger.debug("[PERSISTENCE] Assistant message saved id={} chatId={} durationMs={}",
+                        persistedAssistantMessage != null ? persistedAssistantMessage.getId() : null,
+                        currentChat.getId(),
+                        elapsedMillis(aiSaveStartNanos));
+
+                currentChat.setUpdatedAt(LocalDateTime.now());
+                chatRepository.save(currentChat);
+                if (isFirstUserTurn && postAnswerUpdateManager != null) {
+                    registerPostAnswerUpdate(currentChat.getId(), user.getId(), conversationMemory, command.getContent(), aiContent, activeRouteExecution);
+                } else {
+                    registerChatTitleGeneration(currentChat.getId(), user.getId(), command.getContent(), isFirstUserTurn);
+                    registerConversationMemoryUpdate(currentChat.getId(), user.getId(), conversationMemory, command.getContent(), aiContent, activeRouteExecution);
+                }
+                return assistantMessage;
+            });
+            answerPersisted = true;
 
             logger.info("[CHAT] Request completed userId={} chatId={} assistantMessageId={} responseLength={} durationMs={}",
                     user.getId(),
                     chat.getId(),
-                    persistedAiMessage != null ? persistedAiMessage.getId() : null,
+                    aiMessage.getId(),
                     aiContent.length(),
                     elapsedMillis(requestStartNanos));
 
             return toDto(aiMessage, responseCitations);
         } catch (RuntimeException ex) {
             chatOutcome = "failure";
+            if (turn != null && !answerPersisted) {
+                discardUserMessage(turn);
+            }
             logger.error("[CHAT] Request failed userId={} chatId={} durationMs={} reason={}",
                     userId,
                     chatId,
@@ -457,6 +484,97 @@ public class ChatApplicationService implements
     // Private helpers
     // -------------------------------------------------------------------------
 
+    private ChatTurn startTurn(String email, SendMessageCommand command) {
+        validateContent(command.getContent());
+
+        Chat chat = chatRepository.findById(command.getChatId())
+                .orElseThrow(() -> new ChatNotFoundException("Chat not found"));
+
+        User user = getUser(email);
+        validateOwnership(chat, user);
+        // Checked before the user message is saved and before route planning, the first provider call.
+        if (aiUsageLedger != null) {
+            aiUsageLedger.checkQuota(user.getId());
+        }
+
+        logger.info("[CHAT] Request started userId={} chatId={} messageLength={}",
+                user.getId(),
+                chat.getId(),
+                command.getContent() != null ? command.getContent().length() : 0);
+
+        Message userMessage = MessageBuilder.userMessage(chat, user.getId(), command.getContent()).build();
+        long userSaveStartNanos = System.nanoTime();
+        Message persistedUserMessage = messageRepository.save(userMessage);
+        logger.debug("[PERSISTENCE] User message saved id={} chatId={} durationMs={}",
+                persistedUserMessage != null ? persistedUserMessage.getId() : null,
+                chat.getId(),
+                elapsedMillis(userSaveStartNanos));
+
+        return new ChatTurn(
+                chat,
+                user,
+                persistedUserMessage != null ? persistedUserMessage.getId() : userMessage.getId());
+    }
+
+    /**
+     * Removes the user message committed by the load stage when the turn fails before the
+     * answer is saved, so a failed turn leaves no trace, as it did when the turn was one transaction.
+     */
+    private void discardUserMessage(ChatTurn turn) {
+        if (turn.userMessageId() == null) {
+            return;
+        }
+        try {
+            inTransaction("discard_turn", () -> {
+                messageRepository.deleteById(turn.userMessageId());
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("[PERSISTENCE] User message cleanup failed id={} chatId={} reason={}",
+                    turn.userMessageId(),
+                    turn.chat().getId(),
+                    ex.getMessage());
+        }
+    }
+
+    private <T> T inTransaction(String stage, Supplier<T> work) {
+        if (transactionTemplate == null) {
+            return work.get();
+        }
+        long requestedNanos = System.nanoTime();
+        long[] beganNanos = {-1L};
+        String outcome = "failure";
+        try {
+            T result = transactionTemplate.execute(status -> {
+                beganNanos[0] = System.nanoTime();
+                ChatAiMetrics.recordTimer(
+                        meterRegistry,
+                        ChatAiMetrics.TRANSACTION_ACQUIRE,
+                        "Time spent waiting for a chat transaction and its pooled connection to begin",
+                        beganNanos[0] - requestedNanos,
+                        "stage",
+                        stage
+                );
+                return work.get();
+            });
+            outcome = "committed";
+            return result;
+        } finally {
+            if (beganNanos[0] >= 0) {
+                ChatAiMetrics.recordTimer(
+                        meterRegistry,
+                        ChatAiMetrics.TRANSACTION_DURATION,
+                        "Time a chat transaction holds its connection, including commit",
+                        System.nanoTime() - beganNanos[0],
+                        "stage",
+                        stage,
+                        "outcome",
+                        outcome
+                );
+            }
+        }
+    }
+
     private User getUser(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(EmailNotFoundException::new);
@@ -477,51 +595,6 @@ public class ChatApplicationService implements
         }
     }
 
-    private List<AiConversationMessage> loadRecentConversationHistory(Long chatId, Long currentUserId, String currentUserContent) {
-        List<Message> messages = messageRepository.findByChatIdOrderByTimestampAsc(chatId);
-        if (messages.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        int endIndex = messages.size();
-        Message lastMessage = messages.get(endIndex - 1);
-        if (lastMessage != null
-                && lastMessage.getSenderId() != null
-                && lastMessage.getSenderId().equals(currentUserId)
-                && lastMessage.getContent() != null
-                && lastMessage.getContent().equals(currentUserContent)) {
-            endIndex--;
-        }
-
-        if (endIndex <= 0) {
-            return Collections.emptyList();
-        }
-
-        int startIndex = Math.max(0, endIndex - MAX_CONVERSATION_HISTORY_MESSAGES);
-        List<AiConversationMessage> history = new ArrayList<>();
-        for (Message message : messages.subList(startIndex, endIndex)) {
-            if (message != null && message.getSenderId() != null && message.getSenderId().equals(0L)
-                    && isAssistantErrorMessage(message.getContent())) {
-                continue;
-            }
-            history.add(AiConversationMessage.builder()
-                    .role(resolveConversationRole(message))
-                    .content(message.getContent())
-                    .build());
-        }
-        return history;
-    }
-
-    private boolean isAssistantErrorMessage(String content) {
-        if (!StringUtils.hasText(content)) return false;
-        String normalized = content.trim().toLowerCase();
-        return normalized.contains("please try again later")
-                || normalized.contains("temporarily unavailable")
-                || normalized.contains("provider error")
-                || normalized.contains("service error")
-                || normalized.contains("request failed");
-    }
-
     private long elapsedMillis(long startNanos) {
         return (System.nanoTime() - startNanos) / 1_000_000L;
     }
@@ -587,6 +660,35 @@ public class ChatApplicationService implements
         );
     }
 
+    /** Notes when the first streamed chunk arrives; the timer is recorded once the answering provider is known. */
+    private Consumer<String> timingFirstChunk(Consumer<String> chunkConsumer, AtomicLong firstChunkNanos) {
+        return chunk -> {
+            firstChunkNanos.compareAndSet(0L, System.nanoTime());
+            chunkConsumer.accept(chunk);
+        };
+    }
+
+    private void recordFirstToken(long requestStartNanos, long firstChunkNanos, String provider) {
+        if (firstChunkNanos == 0L) {
+            return;
+        }
+        ChatAiMetrics.recordTimer(
+                meterRegistry,
+                ChatAiMetrics.RESPONSE_FIRST_TOKEN,
+                "Time from chat request start to the first streamed answer chunk",
+                firstChunkNanos - requestStartNanos,
+                "provider",
+                ChatAiMetrics.normalizeTagValue(StringUtils.hasText(provider) ? provider : "unknown")
+        );
+    }
+
+    /** The provider that produced the answer, which differs from the budgeted one when routing fails over. */
+    private String respondingProvider(AiResponse response, AiContextBudgetResult budgetResult) {
+        return response != null && StringUtils.hasText(response.getProvider())
+                ? response.getProvider()
+                : budgetResult.activeProvider();
+    }
+
     private void recordMainResponseDuration(String provider, AiResponse response, long durationMs) {
         if (durationMs < 0) {
             return;
@@ -666,6 +768,7 @@ public class ChatApplicationService implements
 
     private void registerConversationMemoryUpdate(
             Long chatId,
+            Long userId,
             ConversationMemory previousMemory,
             String currentUserMessage,
             String assistantResponse,
@@ -677,29 +780,70 @@ public class ChatApplicationService implements
 
         Runnable task = () -> {
             try {
-                conversationMemoryManager.updateMemoryIfNeeded(chatId, previousMemory, currentUserMessage, assistantResponse, routeResult);
+                conversationMemoryManager.updateMemoryIfNeeded(chatId, userId, previousMemory, currentUserMessage, assistantResponse, routeResult);
             } catch (RuntimeException ex) {
                 logger.warn("[AI_MEMORY] Memory update failed chatId={} reason={}", chatId, ex.getMessage());
             }
         };
+        // The update includes a provider call, so it leaves the request thread once the turn is committed.
+        Runnable enqueue = () -> {
+            if (backgroundAiJobQueue == null) {
+                task.run();
+            } else if (!backgroundAiJobQueue.submit(BackgroundAiJobType.MEMORY_UPDATE, task)) {
+                logger.warn("[AI_MEMORY] Memory update skipped chatId={} reason=background_queue_full", chatId);
+            }
+        };
 
         if (TransactionSynchronizationManager.isSynchronizationActive()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    task.run();
+                    enqueue.run();
                 }
             });
         } else {
-            task.run();
+            enqueue.run();
         }
     }
 
-    private String resolveConversationRole(Message message) {
-        if (message == null || message.getSenderId() == null) {
-            return "user";
+    private void registerPostAnswerUpdate(
+            Long chatId,
+            Long userId,
+            ConversationMemory previousMemory,
+            String currentUserMessage,
+            String assistantResponse,
+            GraduateRouteExecutionResult routeResult
+    ) {
+        if (chatId == null) {
+            return;
+        }
+
+        Runnable task = () -> {
+            try {
+                postAnswerUpdateManager.updateAfterAnswer(chatId, userId, previousMemory, currentUserMessage, assistantResponse, routeResult, true);
+            } catch (RuntimeException ex) {
+                logger.warn("[AI_POST_ANSWER] Post-answer update failed chatId={} reason={}", chatId, ex.getMessage());
+            }
+        };
+        // Memory and title may share one provider call on the first turn, so both leave the request thread together.
+        Runnable enqueue = () -> {
+            if (backgroundAiJobQueue == null) {
+                task.run();
+            } else if (!backgroundAiJobQueue.submit(BackgroundAiJobType.MEMORY_UPDATE, task)) {
+                logger.warn("[AI_POST_ANSWER] Post-answer update skipped chatId={} reason=background_queue_full", chatId);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue.run();
+                }
+            });
+        } else {
+            enqueue.run();
         }
-        return message.getSenderId() == 0L ? "assistant" : "user";
     }
 
     private MessageResponseDto toDto(Message message) {
@@ -736,14 +880,14 @@ public class ChatApplicationService implements
                 .build();
     }
 
-    private void registerChatTitleGeneration(Long chatId, String firstUserMessage, boolean shouldGenerate) {
+    private void registerChatTitleGeneration(Long chatId, Long userId, String firstUserMessage, boolean shouldGenerate) {
         if (chatTitleGenerationManager == null || chatId == null || !shouldGenerate) {
             return;
         }
 
         Runnable task = () -> {
             try {
-                chatTitleGenerationManager.generateTitleIfNeeded(chatId, firstUserMessage);
+                chatTitleGenerationManager.generateTitleIfNeeded(chatId, userId, firstUserMessage);
             } catch (RuntimeException ex) {
                 logger.warn("[CHAT_TITLE] Title generation failed chatId={} reason={}", chatId, ex.getMessage());
             }
@@ -760,4 +904,7 @@ public class ChatApplicationService implements
             task.run();
         }
     }
+
+    private record ChatTurn(Chat chat, User user, Long userMessageId) {
+    }
 }
@@ -72,18 +72,82 @@ public class ChatTitleGenerationManager {
     }
 
     public void generateTitleIfNeeded(Long chatId, String firstUserMessage) {
+        generateTitleIfNeeded(chatId, null, firstUserMessage);
+    }
+
+    /** Schedules title generation, charging the call to {@code userId} when one is given. */
+    public void generateTitleIfNeeded(Long chatId, Long userId, String firstUserMessage) {
         if (!isEnabled() || configuration == null || chatId == null || !hasText(firstUserMessage) || executor == null || isPlaceholderProvider()) {
             return;
         }
 
         try {
-            executor.execute(() -> generateTitle(chatId, firstUserMessage));
+            executor.execute(() -> generateTitle(chatId, userId, firstUserMessage));
         } catch (RuntimeException ex) {
             logger.warn("[CHAT_TITLE] Title generation scheduling failed chatId={} reason={}", chatId, ex.getMessage());
         }
     }
 
-    private void generateTitle(Long chatId, String firstUserMessage) {
+    /**
+     * Checks on the calling thread whether this chat still needs a title and the title call fits its
+     * budget, so a caller can fold title generation into another provider call.
+     */
+    public boolean isTitleDue(Long chatId, String firstUserMessage) {
+        if (!isEnabled() || chatId == null || !hasText(firstUserMessage) || isPlaceholderProvider()) {
+            return false;
+        }
+        try {
+            String existingTitle = chatRepository != null ? chatRepository.findTitleById(chatId) : null;
+            if (hasText(existingTitle)) {
+                return false;
+            }
+            String prompt = promptPort != null ? promptPort.getPrompt() : "";
+            if (!budgetFits(prompt, firstUserMessage)) {
+                recordBudgetRejection(chatId);
+                return false;
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            logger.warn("[CHAT_TITLE] Title check failed chatId={} reason={}", chatId, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Validates a title produced elsewhere against the same rules as a generated one and stores it.
+     *
+     * @return {@code false} when the title was rejected, so the caller can fall back to {@link #generateTitle}
+     */
+    public boolean applyTitle(Long chatId, String rawTitle) {
+        String normalizedTitle = configuration != null ? normalizeTitle(rawTitle) : null;
+        if (!hasText(normalizedTitle)) {
+            logger.warn("[CHAT_TITLE] Title validation failed chatId={} reason=invalid-output", chatId);
+            return false;
+        }
+        try {
+            boolean saved = chatRepository != null && chatRepository.updateTitleIfAbsent(chatId, normalizedTitle);
+            if (saved) {
+                logger.info("[CHAT_TITLE] Title generated chatId={} titleLength={}", chatId, normalizedTitle.length());
+            } else {
+                logger.debug("[CHAT_TITLE] Title persistence skipped chatId={} reason=already-set-or-missing", chatId);
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            logger.warn("[CHAT_TITLE] Title persistence failed chatId={} reason={}", chatId, ex.getMessage());
+            return true;
+        }
+    }
+
+    /** Generates and stores a title on the calling thread. */
+    public void generateTitle(Long chatId, String firstUserMessage) {
+        generateTitle(chatId, null, firstUserMessage);
+    }
+
+    /** Generates and stores a title on the calling thread, charging the call to {@code userId} when one is given. */
+    public void generateTitle(Long chatId, Long userId, String firstUserMessage) {
+        if (!isEnabled() || chatId == null || !hasText(firstUserMessage) || isPlaceholderProvider()) {
+            return;
+        }
         try {
             String existingTitle = chatRepository != null ? chatRepository.findTitleById(chatId) : null;
             if (hasText(existingTitle)) {
@@ -93,16 +157,7 @@ public class ChatTitleGenerationManager {
 
             String prompt = promptPort != null ? promptPort.getPrompt() : "";
             if (!budgetFits(prompt, firstUserMessage)) {
-                logger.warn("[CHAT_TITLE] Title budget rejected chatId={} category=CHAT_TITLE_BUDGET_EXCEEDED", chatId);
-                ChatAiMetrics.incrementCounter(
-                        meterRegistry,
-                        ChatAiMetrics.BUDGET_REJECTIONS,
-                        "Budget rejections for AI requests",
-                        "operation",
-                        "title_generation",
-                        "provider",
-                        hasText(activeProvider) ? activeProvider : "unknown"
-                );
+                recordBudgetRejection(chatId);
                 return;
             }
 
@@ -110,6 +165,7 @@ public class ChatTitleGenerationManager {
                     .systemPrompt(prompt)
                     .userMessage(firstUserMessage)
                     .operation(AiOperation.TITLE_GENERATION)
+                    .userId(userId)
                     .temperature(0.0)
                     .maxTokens(configuration.maxOutputTokens())
                     .build();
@@ -120,24 +176,25 @@ public class ChatTitleGenerationManager {
                 return;
             }
 
-            String normalizedTitle = normalizeTitle(response.getContent());
-            if (!hasText(normalizedTitle)) {
-                logger.warn("[CHAT_TITLE] Title validation failed chatId={} reason=invalid-output", chatId);
-                return;
-            }
-
-            boolean saved = chatRepository != null && chatRepository.updateTitleIfAbsent(chatId, normalizedTitle);
-            if (!saved) {
-                logger.debug("[CHAT_TITLE] Title persistence skipped chatId={} reason=already-set-or-missing", chatId);
-                return;
-            }
-
-            logger.info("[CHAT_TITLE] Title generated chatId={} titleLength={}", chatId, normalizedTitle.length());
+            applyTitle(chatId, response.getContent());
         } catch (RuntimeException ex) {
             logger.warn("[CHAT_TITLE] Title generation failed chatId={} reason={}", chatId, ex.getMessage());
         }
     }
 
+    private void recordBudgetRejection(Long chatId) {
+        logger.warn("[CHAT_TITLE] Title budget rejected chatId={} category=CHAT_TITLE_BUDGET_EXCEEDED", chatId);
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.BUDGET_REJECTIONS,
+                "Budget rejections for AI requests",
+                "operation",
+                "title_generation",
+                "provider",
+                hasText(activeProvider) ? activeProvider : "unknown"
+        );
+    }
+
     private boolean budgetFits(String prompt, String firstUserMessage) {
         long promptTokens = estimator != null ? estimator.estimateTokens(prompt) : 0L;
         long messageTokens = estimator != null ? estimator.estimateTokens(firstUserMessage) : 0L;
@@ -0,0 +1,303 @@
+package com.uniai.chat.application.usage;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.port.out.AiUsageLedgerPort;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import com.uniai.shared.exception.AiUsageQuotaExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user ledger of AI token usage with sliding-window quotas.
+ * Calls are counted in memory on striped counters, keyed by user, day, operation and provider, and
+ * {@link #flush()} writes the growth since the previous flush to {@link AiUsageLedgerPort} in batches.
+ * Counters are never reset, so a call recorded while a flush reads them is written by the next flush
+ * instead of being lost. Quotas are checked against sliding minute and day windows held per user.
+ * The windows are kept per instance: a user's day window starts from the tokens of their ledger rows
+ * for the current day, so a restart does not reset it, but calls served by other instances after that
+ * are not seen. Quotas are therefore approximate when several instances serve the same user.
+ */
+public class AiUsageLedger {
+
+    private static final Logger logger = LogManager.getLogger(AiUsageLedger.class);
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+    private static final Duration DAY = Duration.ofDays(1);
+    private static final int MINUTE_BUCKETS = 12;
+    private static final int DAY_BUCKETS = 96;
+
+    private final AiUsageLedgerConfiguration configuration;
+    private final AiUsageLedgerPort persistencePort;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<Key, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<Long, UserWindows> windows = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    public AiUsageLedger(AiUsageLedgerConfiguration configuration, AiUsageLedgerPort persistencePort, MeterRegistry meterRegistry) {
+        this(configuration, persistencePort, meterRegistry, Clock.systemUTC());
+    }
+
+    AiUsageLedger(AiUsageLedgerConfiguration configuration, AiUsageLedgerPort persistencePort, MeterRegistry meterRegistry, Clock clock) {
+        this.configuration = configuration != null ? configuration : AiUsageLedgerConfiguration.defaults();
+        this.persistencePort = persistencePort;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Refuses a call for {@code userId} when the user's sliding minute or day window has reached its limit.
+     */
+    public void checkQuota(Long userId) {
+        if (!configuration.quotaEnabled() || userId == null) {
+            return;
+        }
+        UserWindows userWindows = seededWindows(userId);
+        long now = clock.millis();
+        if (exceeded(configuration.minuteTokenLimit(), userWindows.minute.sum(now))) {
+            reject(userId, "minute", "You are sending messages too quickly. Please wait a minute and try again.");
+        }
+        if (exceeded(configuration.dailyTokenLimit(), userWindows.day.sum(now))) {
+            reject(userId, "day", "You have reached today's AI usage limit. Please try again later.");
+        }
+    }
+
+    /**
+     * Records one provider call. Actual counts may be {@code null} when the provider reported no usage;
+     * the quota windows are then charged with the estimate.
+     */
+    public void record(
+            Long userId,
+            AiOperation operation,
+            String provider,
+            long estimatedInputTokens,
+            long estimatedOutputTokens,
+            Long actualInputTokens,
+            Long actualOutputTokens) {
+        if (userId == null) {
+            return;
+        }
+        long estimatedInput = Math.max(0L, estimatedInputTokens);
+        long estimatedOutput = Math.max(0L, estimatedOutputTokens);
+        long actualInput = actualInputTokens != null ? Math.max(0L, actualInputTokens) : 0L;
+        long actualOutput = actualOutputTokens != null ? Math.max(0L, actualOutputTokens) : 0L;
+
+        Key key = new Key(userId, LocalDate.now(clock), operation != null ? operation : AiOperation.UNKNOWN, normalizeProvider(provider));
+        Counters entry = counters.computeIfAbsent(key, ignored -> new Counters());
+        entry.estimatedInputTokens.add(estimatedInput);
+        entry.estimatedOutputTokens.add(estimatedOutput);
+        entry.actualInputTokens.add(actualInput);
+        entry.actualOutputTokens.add(actualOutput);
+        // Counted last so a flush that sees this call also sees its tokens.
+        entry.calls.increment();
+
+        long charged = (actualInputTokens != null ? actualInput : estimatedInput)
+                + (actualOutputTokens != null ? actualOutput : estimatedOutput);
+        long now = clock.millis();
+        UserWindows userWindows = windows.computeIfAbsent(userId, ignored -> new UserWindows());
+        userWindows.minute.add(now, charged);
+        userWindows.day.add(now, charged);
+        userWindows.lastUsedMillis = now;
+    }
+
+    /**
+     * Writes the counts recorded since the previous flush. When the write fails the counts stay pending
+     * and are retried by the next flush.
+     *
+     * @return the number of ledger rows written
+     */
+    public int flush() {
+        if (persistencePort == null) {
+            return 0;
+        }
+        synchronized (flushLock) {
+            List<Map.Entry<Counters, AiUsageLedgerEntry>> pending = new ArrayList<>();
+            counters.forEach((key, entry) -> {
+                AiUsageLedgerEntry delta = entry.delta(key);
+                if (delta != null) {
+                    pending.add(Map.entry(entry, delta));
+                }
+            });
+
+            int written = 0;
+            for (int start = 0; start < pending.size(); start += configuration.flushBatchSize()) {
+                List<Map.Entry<Counters, AiUsageLedgerEntry>> batch =
+                        pending.subList(start, Math.min(pending.size(), start + configuration.flushBatchSize()));
+                try {
+                    persistencePort.addAll(batch.stream().map(Map.Entry::getValue).toList());
+                } catch (RuntimeException ex) {
+                    logger.warn("[AI_USAGE] Ledger flush failed rows={} reason={}", batch.size(), ex.getMessage());
+                    ChatAiMetrics.incrementCounter(meterRegistry, ChatAiMetrics.USAGE_LEDGER_FLUSHES,
+                            "AI usage ledger flush batches", "outcome", "failed");
+                    break;
+                }
+                batch.forEach(item -> item.getKey().markFlushed(item.getValue()));
+                written += batch.size();
+                ChatAiMetrics.incrementCounter(meterRegistry, ChatAiMetrics.USAGE_LEDGER_FLUSHES,
+                        "AI usage ledger flush batches", "outcome", "written");
+            }
+            evictIdle();
+            if (written > 0) {
+                logger.debug("[AI_USAGE] Ledger flushed rows={}", written);
+            }
+            return written;
+        }
+    }
+
+    /** Window usage and ledger totals of one user, including counts not yet flushed. */
+    public AiUserUsage usage(Long userId) {
+        Map<Key, AiUsageLedgerEntry> totals = new LinkedHashMap<>();
+        // Read under the flush lock so a row being flushed is counted either as stored or as pending.
+        synchronized (flushLock) {
+            if (userId != null && persistencePort != null) {
+                for (AiUsageLedgerEntry stored : persistencePort.findByUserId(userId)) {
+                    totals.merge(Key.of(stored), stored, AiUsageLedgerEntry::plus);
+                }
+            }
+            counters.forEach((key, entry) -> {
+                if (key.userId().equals(userId)) {
+                    AiUsageLedgerEntry pending = entry.delta(key);
+                    if (pending != null) {
+                        totals.merge(key, pending, AiUsageLedgerEntry::plus);
+                    }
+                }
+            });
+        }
+
+        UserWindows userWindows = userId != null ? seededWindows(userId) : null;
+        long now = clock.millis();
+        List<AiUsageLedgerEntry> entries = new ArrayList<>(totals.values());
+        entries.sort(Comparator.comparing(AiUsageLedgerEntry::usageDate).reversed()
+                .thenComparing(AiUsageLedgerEntry::operation)
+                .thenComparing(AiUsageLedgerEntry::provider));
+        return new AiUserUsage(
+                userId,
+                userWindows != null ? userWindows.minute.sum(now) : 0L,
+                configuration.minuteTokenLimit(),
+                userWindows != null ? userWindows.day.sum(now) : 0L,
+                configuration.dailyTokenLimit(),
+                List.copyOf(entries));
+    }
+
+    /**
+     * The windows of {@code userId}, creating them from today's ledger rows on first use. The store is read
+     * outside the map, so a slow read does not block other users.
+     */
+    private UserWindows seededWindows(Long userId) {
+        UserWindows existing = windows.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        UserWindows created = new UserWindows();
+        long now = clock.millis();
+        created.day.add(now, storedTokensToday(userId));
+        created.lastUsedMillis = now;
+        UserWindows raced = windows.putIfAbsent(userId, created);
+        return raced != null ? raced : created;
+    }
+
+    private long storedTokensToday(Long userId) {
+        if (persistencePort == null) {
+            return 0L;
+        }
+        LocalDate today = LocalDate.now(clock);
+        try {
+            return persistencePort.findByUserId(userId).stream()
+                    .filter(entry -> today.equals(entry.usageDate()))
+                    .mapToLong(entry -> (entry.actualInputTokens() > 0L ? entry.actualInputTokens() : entry.estimatedInputTokens())
+                            + (entry.actualOutputTokens() > 0L ? entry.actualOutputTokens() : entry.estimatedOutputTokens()))
+                    .sum();
+        } catch (RuntimeException ex) {
+            logger.warn("[AI_USAGE] Unable to read stored usage userId={} reason={}", userId, ex.getMessage());
+            return 0L;
+        }
+    }
+
+    private boolean exceeded(long limit, long used) {
+        return limit > 0L && used >= limit;
+    }
+
+    private void reject(Long userId, String window, String message) {
+        logger.info("[AI_USAGE] Quota exceeded userId={} window={}", userId, window);
+        ChatAiMetrics.incrementCounter(meterRegistry, ChatAiMetrics.USAGE_QUOTA_REJECTIONS,
+                "Chat requests refused by per-user AI usage quotas", "window", window);
+        throw new AiUsageQuotaExceededException(message);
+    }
+
+    /** Drops fully flushed counters of earlier days and windows of users idle for a whole day. */
+    private void evictIdle() {
+        LocalDate yesterday = LocalDate.now(clock).minusDays(1);
+        counters.entrySet().removeIf(item -> item.getKey().usageDate().isBefore(yesterday) && item.getValue().delta(item.getKey()) == null);
+        long idleBefore = clock.millis() - DAY.toMillis();
+        windows.values().removeIf(userWindows -> userWindows.lastUsedMillis < idleBefore);
+    }
+
+    private static String normalizeProvider(String provider) {
+        return provider == null || provider.isBlank() ? "unknown" : provider.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(Long userId, LocalDate usageDate, AiOperation operation, String provider) {
+        static Key of(AiUsageLedgerEntry entry) {
+            return new Key(entry.userId(), entry.usageDate(), entry.operation(), entry.provider());
+        }
+    }
+
+    private static final class UserWindows {
+        private final AiUsageWindow minute = new AiUsageWindow(MINUTE.toMillis(), MINUTE_BUCKETS);
+        private final AiUsageWindow day = new AiUsageWindow(DAY.toMillis(), DAY_BUCKETS);
+        private volatile long lastUsedMillis;
+    }
+
+    /** Cumulative counts and the part of them already written; only the flusher touches the flushed values. */
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder estimatedInputTokens = new LongAdder();
+        private final LongAdder estimatedOutputTokens = new LongAdder();
+        private final LongAdder actualInputTokens = new LongAdder();
+        private final LongAdder actualOutputTokens = new LongAdder();
+        private volatile long[] flushed = new long[5];
+
+        /** Counts recorded since the last flush, or {@code null} when there are none. */
+        AiUsageLedgerEntry delta(Key key) {
+            long[] written = flushed;
+            AiUsageLedgerEntry delta = new AiUsageLedgerEntry(
+                    key.userId(),
+                    key.usageDate(),
+                    key.operation(),
+                    key.provider(),
+                    calls.sum() - written[0],
+                    estimatedInputTokens.sum() - written[1],
+                    estimatedOutputTokens.sum() - written[2],
+                    actualInputTokens.sum() - written[3],
+                    actualOutputTokens.sum() - written[4]);
+            boolean empty = delta.calls() == 0L
+                    && delta.estimatedInputTokens() == 0L
+                    && delta.estimatedOutputTokens() == 0L
+                    && delta.actualInputTokens() == 0L
+                    && delta.actualOutputTokens() == 0L;
+            return empty ? null : delta;
+        }
+
+        void markFlushed(AiUsageLedgerEntry delta) {
+            long[] written = flushed.clone();
+            written[0] += delta.calls();
+            written[1] += delta.estimatedInputTokens();
+            written[2] += delta.estimatedOutputTokens();
+            written[3] += delta.actualInputTokens();
+            written[4] += delta.actualOutputTokens();
+            flushed = written;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.uniai.chat.application.usage;
+
+/**
+ * Per-user token quotas and ledger flushing. A limit of 0 disables that window. Quotas count input plus
+ * output tokens over a sliding minute and a sliding day, using provider-reported counts where available.
+ */
+public record AiUsageLedgerConfiguration(
+        boolean quotaEnabled,
+        long minuteTokenLimit,
+        long dailyTokenLimit,
+        int flushBatchSize
+) {
+    public AiUsageLedgerConfiguration {
+        minuteTokenLimit = Math.max(0L, minuteTokenLimit);
+        dailyTokenLimit = Math.max(0L, dailyTokenLimit);
+        flushBatchSize = Math.max(1, flushBatchSize);
+    }
+
+    public static AiUsageLedgerConfiguration defaults() {
+        return new AiUsageLedgerConfiguration(false, 450000L, 4000000L, 200);
+    }
+}
@@ -0,0 +1,34 @@
+package com.uniai.chat.application.usage;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+
+import java.time.LocalDate;
+
+/**
+ * Token totals of one user for one day, operation and provider. Estimated counts come from the budget
+ * manager; actual counts are the usage the provider reported, 0 when it reported none.
+ */
+public record AiUsageLedgerEntry(
+        Long userId,
+        LocalDate usageDate,
+        AiOperation operation,
+        String provider,
+        long calls,
+        long estimatedInputTokens,
+        long estimatedOutputTokens,
+        long actualInputTokens,
+        long actualOutputTokens
+) {
+    AiUsageLedgerEntry plus(AiUsageLedgerEntry other) {
+        return new AiUsageLedgerEntry(
+                userId,
+                usageDate,
+                operation,
+                provider,
+                calls + other.calls,
+                estimatedInputTokens + other.estimatedInputTokens,
+                estimatedOutputTokens + other.estimatedOutputTokens,
+                actualInputTokens + other.actualInputTokens,
+                actualOutputTokens + other.actualOutputTokens);
+    }
+}
@@ -0,0 +1,39 @@
+package com.uniai.chat.application.usage;
+
+/**
+ * Sliding-window token counter over a ring of fixed-width buckets. The window sum covers the current
+ * bucket and the ones before it, so it over-counts by at most one bucket width of old usage.
+ */
+final class AiUsageWindow {
+
+    private final long bucketMillis;
+    private final long[] counts;
+    private final long[] bucketIndexes;
+
+    AiUsageWindow(long windowMillis, int buckets) {
+        this.bucketMillis = Math.max(1L, windowMillis / buckets);
+        this.counts = new long[buckets];
+        this.bucketIndexes = new long[buckets];
+    }
+
+    synchronized void add(long nowMillis, long amount) {
+        long index = nowMillis / bucketMillis;
+        int slot = (int) Math.floorMod(index, (long) counts.length);
+        if (bucketIndexes[slot] != index) {
+            bucketIndexes[slot] = index;
+            counts[slot] = 0L;
+        }
+        counts[slot] += amount;
+    }
+
+    synchronized long sum(long nowMillis) {
+        long index = nowMillis / bucketMillis;
+        long total = 0L;
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (index - bucketIndexes[slot] < counts.length) {
+                total += counts[slot];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package com.uniai.chat.application.usage;
+
+import java.util.List;
+
+/**
+ * Usage of one user: tokens charged in the current sliding windows against their limits, and the ledger
+ * totals per day, operation and provider including counts not yet flushed.
+ */
+public record AiUserUsage(
+        Long userId,
+        long minuteTokens,
+        long minuteTokenLimit,
+        long dailyTokens,
+        long dailyTokenLimit,
+        List<AiUsageLedgerEntry> entries
+) {
+}
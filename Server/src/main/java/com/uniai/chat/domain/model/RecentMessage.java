@@ -0,0 +1,11 @@
+package com.uniai.chat.domain.model;
+
+/**
+ * Read-only projection of a chat message carrying just what the AI conversation history needs.
+ */
+public record RecentMessage(Long id, Long senderId, String content) {
+
+    public static RecentMessage from(Message message) {
+        return new RecentMessage(message.getId(), message.getSenderId(), message.getContent());
+    }
+}
@@ -1,6 +1,7 @@
 package com.uniai.chat.domain.repository;
 
 import com.uniai.chat.domain.model.Message;
+import com.uniai.chat.domain.model.RecentMessage;
 
 import java.util.List;
 
@@ -14,10 +15,17 @@ public interface MessageRepository {
 
     List<Message> findTop10ByChatIdOrderByTimestampDesc(Long chatId);
 
+    /**
+     * Returns the last {@code limit} messages of a chat, oldest first.
+     */
+    List<RecentMessage> findRecentByChatId(Long chatId, int limit);
+
     void deleteByChatId(Long chatId);
 
     void deleteByChatIdIn(List<Long> chatIds);
 
+    void deleteById(Long messageId);
+
     long countByChatId(Long chatId);
 
     long count();
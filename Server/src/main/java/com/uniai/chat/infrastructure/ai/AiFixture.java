@@ -0,0 +1,94 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * One recorded provider exchange, stored as a JSON line in a fixture file.
+ * {@code requestKey} identifies the complete request; {@code messageKey} identifies only its user message,
+ * which is all the mock provider server can recover once an adapter has rendered the request into a
+ * provider's wire format.
+ */
+public record AiFixture(
+        String requestKey,
+        String messageKey,
+        String operation,
+        String provider,
+        String model,
+        long latencyMs,
+        Long firstChunkMs,
+        String content,
+        String finishReason,
+        Long promptTokens,
+        Long completionTokens,
+        Long cachedPromptTokens
+) {
+    public AiFixture {
+        latencyMs = Math.max(0L, latencyMs);
+        firstChunkMs = firstChunkMs == null ? null : Math.max(0L, Math.min(firstChunkMs, latencyMs));
+    }
+
+    static AiFixture of(AiRequest request, AiResponse response, long latencyMs, Long firstChunkMs) {
+        AiOperation operation = request != null && request.getOperation() != null ? request.getOperation() : AiOperation.UNKNOWN;
+        return new AiFixture(
+                request != null ? CoalescingAiServiceAdapter.fingerprint(request) : null,
+                messageKey(request != null ? request.getUserMessage() : null),
+                operation.name(),
+                response.getProvider(),
+                response.getModel(),
+                latencyMs,
+                firstChunkMs,
+                response.getContent(),
+                response.getFinishReason(),
+                response.getPromptTokens(),
+                response.getCompletionTokens(),
+                response.getCachedPromptTokens());
+    }
+
+    AiResponse toResponse(String replayProvider) {
+        return AiResponse.builder()
+                .content(content)
+                .provider(replayProvider)
+                .model(model)
+                .finishReason(finishReason)
+                .fallback(false)
+                .failureCategory(AiProviderFailureCategory.NONE)
+                .retryable(false)
+                .promptTokens(promptTokens)
+                .completionTokens(completionTokens)
+                .cachedPromptTokens(cachedPromptTokens)
+                .build();
+    }
+
+    /** Splits the recorded content into stream chunks of at most {@code chunkChars} characters. */
+    List<String> contentChunks(int chunkChars) {
+        List<String> chunks = new ArrayList<>();
+        if (content == null || content.isEmpty()) {
+            return chunks;
+        }
+        int size = Math.max(1, chunkChars);
+        for (int start = 0; start < content.length(); start += size) {
+            chunks.add(content.substring(start, Math.min(content.length(), start + size)));
+        }
+        return chunks;
+    }
+
+    static String messageKey(String userMessage) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] material = (userMessage == null ? "" : userMessage.strip()).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(material));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
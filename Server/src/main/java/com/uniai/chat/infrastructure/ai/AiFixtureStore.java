@@ -0,0 +1,107 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only index over a fixture file written by {@link RecordingAiServiceAdapter}.
+ * Lookups try the exact request first, then the user message, then any fixture of the same operation,
+ * and finally any fixture at all, so a benchmark keeps producing realistic responses when the replayed
+ * traffic drifts from the recorded traffic. Ties rotate so repeated lookups spread over the recordings.
+ */
+public final class AiFixtureStore {
+
+    private final List<AiFixture> fixtures;
+    private final Map<String, AiFixture> byRequest = new HashMap<>();
+    private final Map<String, List<AiFixture>> byMessage = new HashMap<>();
+    private final Map<String, List<AiFixture>> byOperation = new HashMap<>();
+    private final AtomicLong cursor = new AtomicLong();
+
+    public AiFixtureStore(List<AiFixture> fixtures) {
+        this.fixtures = fixtures == null ? List.of() : List.copyOf(fixtures);
+        for (AiFixture fixture : this.fixtures) {
+            if (fixture.requestKey() != null) {
+                byRequest.put(fixture.requestKey(), fixture);
+            }
+            if (fixture.messageKey() != null) {
+                byMessage.computeIfAbsent(fixture.messageKey(), key -> new ArrayList<>()).add(fixture);
+            }
+            if (fixture.operation() != null) {
+                byOperation.computeIfAbsent(fixture.operation(), key -> new ArrayList<>()).add(fixture);
+            }
+        }
+    }
+
+    /** Loads a JSON-lines fixture file; blank lines are skipped and unknown fields ignored. */
+    public static AiFixtureStore load(Path file, ObjectMapper objectMapper) {
+        ObjectReader reader = objectMapper.readerFor(AiFixture.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        List<AiFixture> fixtures = new ArrayList<>();
+        try (BufferedReader lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (!line.isBlank()) {
+                    fixtures.add(reader.readValue(line));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read AI fixture file " + file, ex);
+        }
+        return new AiFixtureStore(fixtures);
+    }
+
+    public int size() {
+        return fixtures.size();
+    }
+
+    public AiFixture match(AiRequest request) {
+        if (request == null) {
+            return any();
+        }
+        AiFixture exact = byRequest.get(CoalescingAiServiceAdapter.fingerprint(request));
+        if (exact != null) {
+            return exact;
+        }
+        AiFixture message = rotate(byMessage.get(AiFixture.messageKey(request.getUserMessage())));
+        if (message != null) {
+            return message;
+        }
+        AiOperation operation = request.getOperation() != null ? request.getOperation() : AiOperation.UNKNOWN;
+        AiFixture sameOperation = rotate(byOperation.get(operation.name()));
+        return sameOperation != null ? sameOperation : any();
+    }
+
+    public AiFixture matchMessage(String userMessage) {
+        AiFixture message = rotate(byMessage.get(AiFixture.messageKey(userMessage)));
+        return message != null ? message : any();
+    }
+
+    private AiFixture any() {
+        return rotate(fixtures);
+    }
+
+    private AiFixture rotate(List<AiFixture> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        return candidates.get((int) Math.floorMod(cursor.getAndIncrement(), (long) candidates.size()));
+    }
+}
@@ -0,0 +1,274 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared HTTP transport for the AI provider adapters. Each provider gets one JDK {@link HttpClient},
+ * so its keep-alive connections are reused across every template handed out for that provider.
+ * HTTPS providers negotiate HTTP/2 when enabled; plain HTTP endpoints such as a local Ollama stay
+ * on HTTP/1.1. Concurrent requests per provider are capped, and a request that cannot get a slot
+ * within the connect timeout fails as a timeout. The cap is released when the response is closed,
+ * so streamed bodies hold their slot until fully read.
+ */
+public class AiHttpTransport {
+
+    private static final Logger logger = LogManager.getLogger(AiHttpTransport.class);
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(20);
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_PROVIDER = 32;
+    public static final long DEFAULT_MAX_RESPONSE_BYTES = AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES;
+
+    private static final class DefaultHolder {
+        private static final AiHttpTransport INSTANCE = new AiHttpTransport(
+                DEFAULT_CONNECT_TIMEOUT,
+                DEFAULT_READ_TIMEOUT,
+                DEFAULT_MAX_CONNECTIONS_PER_PROVIDER,
+                true,
+                null);
+    }
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final int maxConnectionsPerProvider;
+    private final boolean http2Enabled;
+    private final long maxResponseBytes;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ProviderPool> pools = new ConcurrentHashMap<>();
+
+    public AiHttpTransport(
+            Duration connectTimeout,
+            Duration readTimeout,
+            int maxConnectionsPerProvider,
+            boolean http2Enabled,
+            MeterRegistry meterRegistry
+    ) {
+        this(connectTimeout, readTimeout, maxConnectionsPerProvider, http2Enabled, DEFAULT_MAX_RESPONSE_BYTES, meterRegistry);
+    }
+
+    public AiHttpTransport(
+            Duration connectTimeout,
+            Duration readTimeout,
+            int maxConnectionsPerProvider,
+            boolean http2Enabled,
+            long maxResponseBytes,
+            MeterRegistry meterRegistry
+    ) {
+        this.connectTimeout = positiveOrDefault(connectTimeout, DEFAULT_CONNECT_TIMEOUT);
+        this.readTimeout = positiveOrDefault(readTimeout, DEFAULT_READ_TIMEOUT);
+        this.maxConnectionsPerProvider = Math.max(1, maxConnectionsPerProvider);
+        this.http2Enabled = http2Enabled;
+        this.maxResponseBytes = maxResponseBytes > 0 ? maxResponseBytes : DEFAULT_MAX_RESPONSE_BYTES;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Process-wide transport with default settings, used by adapters built outside Spring.
+     */
+    public static AiHttpTransport defaultTransport() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public RestTemplate restTemplate(String provider, String baseUrl) {
+        return restTemplate(provider, baseUrl, readTimeout);
+    }
+
+    public RestTemplate restTemplate(String provider, String baseUrl, Duration providerReadTimeout) {
+        ProviderPool pool = pools.computeIfAbsent(normalizeProvider(provider), name -> createPool(name, baseUrl));
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(pool.client);
+        factory.setReadTimeout(positiveOrDefault(providerReadTimeout, readTimeout));
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(pool::intercept);
+        return restTemplate;
+    }
+
+    /** Largest non-streaming provider body adapters read before treating the response as invalid. */
+    public long maxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    public int inFlight(String provider) {
+        ProviderPool pool = pools.get(normalizeProvider(provider));
+        return pool == null ? 0 : pool.inFlight.get();
+    }
+
+    public void shutdown() {
+        pools.values().forEach(pool -> pool.executor.shutdownNow());
+        pools.clear();
+    }
+
+    private ProviderPool createPool(String provider, String baseUrl) {
+        HttpClient.Version version = http2Enabled && isHttps(baseUrl)
+                ? HttpClient.Version.HTTP_2
+                : HttpClient.Version.HTTP_1_1;
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(
+                    runnable,
+                    "ai-http-" + provider + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        ProviderPool pool = new ProviderPool(provider, client, executor, maxConnectionsPerProvider);
+        if (meterRegistry != null) {
+            Gauge.builder(ChatAiMetrics.AI_HTTP_IN_FLIGHT, pool.inFlight, AtomicInteger::get)
+                    .description("AI provider HTTP requests holding a pooled connection")
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+            Gauge.builder(ChatAiMetrics.AI_HTTP_POOL_UTILIZATION, pool, ProviderPool::utilization)
+                    .description("Share of the per-provider connection cap in use")
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+        }
+        logger.info("[AI_HTTP] Provider pool created provider={} version={} maxConnections={} connectTimeoutMs={}",
+                provider, version, maxConnectionsPerProvider, connectTimeout.toMillis());
+        return pool;
+    }
+
+    private static boolean isHttps(String baseUrl) {
+        return baseUrl != null && baseUrl.trim().toLowerCase(Locale.ROOT).startsWith("https://");
+    }
+
+    private static String normalizeProvider(String provider) {
+        return provider == null || provider.isBlank() ? "unknown" : provider.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Duration positiveOrDefault(Duration value, Duration fallback) {
+        return value == null || value.isZero() || value.isNegative() ? fallback : value;
+    }
+
+    private final class ProviderPool {
+
+        private final String provider;
+        private final HttpClient client;
+        private final ExecutorService executor;
+        private final Semaphore permits;
+        private final int maxConnections;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private ProviderPool(String provider, HttpClient client, ExecutorService executor, int maxConnections) {
+            this.provider = provider;
+            this.client = client;
+            this.executor = executor;
+            this.permits = new Semaphore(maxConnections);
+            this.maxConnections = maxConnections;
+        }
+
+        private double utilization() {
+            return (double) inFlight.get() / maxConnections;
+        }
+
+        private ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+            long waitStart = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for an AI provider connection");
+            }
+            ChatAiMetrics.recordTimer(
+                    meterRegistry,
+                    ChatAiMetrics.AI_HTTP_POOL_WAIT,
+                    "Time AI provider requests wait for a pooled connection",
+                    System.nanoTime() - waitStart,
+                    "provider", provider);
+            if (!acquired) {
+                ChatAiMetrics.incrementCounter(
+                        meterRegistry,
+                        ChatAiMetrics.AI_HTTP_POOL_REJECTIONS,
+                        "AI provider requests that found the connection cap exhausted",
+                        "provider", provider);
+                throw new SocketTimeoutException("Timed out waiting for an AI provider connection provider=" + provider);
+            }
+
+            inFlight.incrementAndGet();
+            try {
+                return new ReleasingResponse(execution.execute(request, body), this::release);
+            } catch (IOException | RuntimeException ex) {
+                release();
+                throw ex;
+            }
+        }
+
+        private void release() {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private static final class ReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Runnable onClose;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ReleasingResponse(ClientHttpResponse delegate, Runnable onClose) {
+            this.delegate = delegate;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    onClose.run();
+                }
+            }
+        }
+    }
+}
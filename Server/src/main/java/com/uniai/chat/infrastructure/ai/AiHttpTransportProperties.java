@@ -0,0 +1,17 @@
+package com.uniai.chat.infrastructure.ai;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.http")
+public class AiHttpTransportProperties {
+
+    private long connectTimeoutMs = 5000L;
+    private long readTimeoutMs = 20000L;
+    private int maxConnectionsPerProvider = 32;
+    private boolean http2Enabled = true;
+    private long maxResponseBytes = 4194304L;
+}
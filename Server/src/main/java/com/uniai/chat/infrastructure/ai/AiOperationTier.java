@@ -0,0 +1,24 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Per-operation override of a provider's model, read timeout and output cap, bound from
+ * {@code ai.<provider>.operations.<operation>.*}. Unset fields keep the provider defaults.
+ */
+@Data
+public class AiOperationTier {
+
+    private String model;
+    private Integer timeoutSeconds;
+    private Integer maxTokens;
+
+    /** The model a provider uses for {@code operation}: the tier's model when set, otherwise {@code defaultModel}. */
+    public static String modelFor(Map<AiOperation, AiOperationTier> tiers, AiOperation operation, String defaultModel) {
+        AiOperationTier tier = tiers != null && operation != null ? tiers.get(operation) : null;
+        return tier != null && tier.getModel() != null && !tier.getModel().isBlank() ? tier.getModel().trim() : defaultModel;
+    }
+}
@@ -0,0 +1,97 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the model tier an adapter uses for a request from the provider's per-operation overrides.
+ * Tiers with their own timeout get a template from the shared transport, so they keep the provider's
+ * connection pool and only change the read timeout.
+ */
+final class AiOperationTierSelector {
+
+    static final String DEFAULT_TIER = "default";
+
+    private final String provider;
+    private final String baseUrl;
+    private final Supplier<String> defaultModel;
+    private final Supplier<Map<AiOperation, AiOperationTier>> tiers;
+    private final RestTemplate defaultRestTemplate;
+    private final AiHttpTransport transport;
+    private final Map<Integer, RestTemplate> timeoutTemplates = new ConcurrentHashMap<>();
+
+    AiOperationTierSelector(
+            String provider,
+            String baseUrl,
+            Supplier<String> defaultModel,
+            Supplier<Map<AiOperation, AiOperationTier>> tiers,
+            RestTemplate defaultRestTemplate,
+            AiHttpTransport transport
+    ) {
+        this.provider = provider;
+        this.baseUrl = baseUrl;
+        this.defaultModel = defaultModel;
+        this.tiers = tiers;
+        this.defaultRestTemplate = defaultRestTemplate;
+        this.transport = transport;
+    }
+
+    Selection select(AiRequest request) {
+        AiOperation operation = request != null && request.getOperation() != null ? request.getOperation() : AiOperation.UNKNOWN;
+        Map<AiOperation, AiOperationTier> configured = tiers.get();
+        AiOperationTier tier = configured != null ? configured.get(operation) : null;
+        Integer requestedMaxTokens = request != null ? request.getMaxTokens() : null;
+        if (tier == null) {
+            return new Selection(DEFAULT_TIER, defaultModel.get(), defaultRestTemplate, requestedMaxTokens);
+        }
+
+        String model = AiOperationTier.modelFor(configured, operation, defaultModel.get());
+        return new Selection(
+                operation.name().toLowerCase(Locale.ROOT),
+                model,
+                restTemplate(tier.getTimeoutSeconds()),
+                capMaxTokens(requestedMaxTokens, tier.getMaxTokens()));
+    }
+
+    /** Metric tag for an operation tag: the operation itself when it has a tier, otherwise {@code default}. */
+    String tierTag(String operationTag) {
+        Map<AiOperation, AiOperationTier> configured = tiers.get();
+        if (configured == null || configured.isEmpty() || operationTag == null) {
+            return DEFAULT_TIER;
+        }
+        for (AiOperation operation : configured.keySet()) {
+            if (operation.name().equalsIgnoreCase(operationTag)) {
+                return operation.name().toLowerCase(Locale.ROOT);
+            }
+        }
+        return DEFAULT_TIER;
+    }
+
+    private RestTemplate restTemplate(Integer timeoutSeconds) {
+        if (transport == null || timeoutSeconds == null || timeoutSeconds <= 0) {
+            return defaultRestTemplate;
+        }
+        return timeoutTemplates.computeIfAbsent(timeoutSeconds,
+                seconds -> transport.restTemplate(provider, baseUrl, Duration.ofSeconds(seconds)));
+    }
+
+    private static Integer capMaxTokens(Integer requested, Integer tierLimit) {
+        if (tierLimit == null || tierLimit <= 0) {
+            return requested;
+        }
+        return requested == null || requested <= 0 ? tierLimit : Math.min(requested, tierLimit);
+    }
+
+    /**
+     * @param tier metric tag value; the operation name when it has its own tier, otherwise {@code default}
+     */
+    record Selection(String tier, String model, RestTemplate restTemplate, Integer maxTokens) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.uniai.chat.infrastructure.ai;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Splits a composed system prompt into the static prefix a caller marked as stable and the
+ * per-call remainder (route notes, citation instructions, conversation memory). Sending the
+ * prefix as its own leading block keeps it byte-identical between calls, which is what provider
+ * prompt caches match on.
+ *
+ * @param staticPrefix stable leading part, or {@code null} when the request marked none
+ * @param dynamicPrompt everything after the prefix, or the whole prompt when there is no prefix
+ */
+record AiPromptLayout(String staticPrefix, String dynamicPrompt) {
+
+    static AiPromptLayout split(String staticPrefix, String systemPrompt) {
+        if (!StringUtils.hasText(staticPrefix) || systemPrompt == null || !systemPrompt.startsWith(staticPrefix)) {
+            return new AiPromptLayout(null, systemPrompt);
+        }
+        String remainder = systemPrompt.substring(staticPrefix.length()).strip();
+        return new AiPromptLayout(staticPrefix, remainder.isEmpty() ? null : remainder);
+    }
+}
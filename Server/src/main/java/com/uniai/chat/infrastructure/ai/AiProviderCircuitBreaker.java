@@ -0,0 +1,94 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.provider.AiProviderCircuitState;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one provider and operation. Consecutive timeouts, connection failures and
+ * server errors open it; while open, calls are refused without reaching the provider. After the
+ * open period a limited number of probe calls are let through: one healthy answer closes the
+ * circuit and another tripping failure opens it again. Any other outcome, including client errors
+ * and rate limiting, shows the provider is reachable and counts as healthy.
+ */
+public class AiProviderCircuitBreaker {
+
+    static final Set<AiProviderFailureCategory> TRIPPING_CATEGORIES = EnumSet.of(
+            AiProviderFailureCategory.TIMEOUT,
+            AiProviderFailureCategory.UNAVAILABLE,
+            AiProviderFailureCategory.HTTP_SERVER_ERROR);
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+    private AiProviderCircuitState state = AiProviderCircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private int probesInFlight;
+
+    public AiProviderCircuitBreaker(int failureThreshold, long openMillis, int halfOpenProbes) {
+        this(failureThreshold, openMillis, halfOpenProbes, System::nanoTime);
+    }
+
+    AiProviderCircuitBreaker(int failureThreshold, long openMillis, int halfOpenProbes, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, openMillis));
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns whether a call may go to the provider. Every permitted call must be followed by
+     * {@link #onResult(AiProviderFailureCategory)} or {@link #onAbandoned()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == AiProviderCircuitState.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                return false;
+            }
+            state = AiProviderCircuitState.HALF_OPEN;
+            probesInFlight = 0;
+        }
+        if (state == AiProviderCircuitState.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onResult(AiProviderFailureCategory category) {
+        if (category == null || !TRIPPING_CATEGORIES.contains(category)) {
+            consecutiveFailures = 0;
+            probesInFlight = 0;
+            state = AiProviderCircuitState.CLOSED;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == AiProviderCircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = AiProviderCircuitState.OPEN;
+            openedAtNanos = nanoClock.getAsLong();
+            probesInFlight = 0;
+        }
+    }
+
+    /**
+     * Ends a permitted call whose caller gave up on it, such as a cancelled hedge. The outcome says
+     * nothing about the provider, so only a half-open probe slot is released.
+     */
+    public synchronized void onAbandoned() {
+        if (state == AiProviderCircuitState.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized AiProviderCircuitState state() {
+        return state;
+    }
+}
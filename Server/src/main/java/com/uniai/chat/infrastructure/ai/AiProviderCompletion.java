@@ -0,0 +1,37 @@
+package com.uniai.chat.infrastructure.ai;
+
+/**
+ * Fields the provider adapters use from a non-streaming completion body, collected by
+ * {@link AiProviderResponseReader} in one pass over the response stream.
+ *
+ * @param statusCode HTTP status of the response
+ * @param empty whether the body held no JSON at all
+ * @param choicesPresent whether the candidates or choices array had at least one element
+ * @param content answer text, or {@code null}
+ * @param model model reported by the provider, or {@code null}
+ * @param finishReason provider finish reason, or {@code null}
+ * @param promptTokens input tokens reported by the provider, or {@code null}
+ * @param completionTokens output tokens reported by the provider, or {@code null}
+ * @param cachedPromptTokens input tokens served from the provider's prompt cache, or {@code null}
+ * @param bodyBytes bytes read from the body
+ */
+record AiProviderCompletion(
+        int statusCode,
+        boolean empty,
+        boolean choicesPresent,
+        String content,
+        String model,
+        String finishReason,
+        Long promptTokens,
+        Long completionTokens,
+        Long cachedPromptTokens,
+        long bodyBytes
+) {
+    static AiProviderCompletion withoutBody(int statusCode) {
+        return new AiProviderCompletion(statusCode, true, false, null, null, null, null, null, null, 0L);
+    }
+
+    boolean successful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+}
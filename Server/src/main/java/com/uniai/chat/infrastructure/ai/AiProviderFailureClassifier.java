@@ -1,11 +1,17 @@
 package com.uniai.chat.infrastructure.ai;
 
 import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import org.springframework.http.HttpHeaders;
 
 import java.io.InterruptedIOException;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Locale;
 
 final class AiProviderFailureClassifier {
@@ -60,6 +66,30 @@ final class AiProviderFailureClassifier {
         return AiProviderFailureCategory.UNKNOWN;
     }
 
+    /**
+     * Reads {@code Retry-After} from a rate-limited response, as delay-seconds or an HTTP date.
+     */
+    static Long retryAfterMillis(AiProviderFailureCategory category, HttpHeaders headers) {
+        if (category != AiProviderFailureCategory.RATE_LIMITED || headers == null) {
+            return null;
+        }
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()) * 1000L);
+        } catch (NumberFormatException ignored) {
+            // Not delay-seconds; try the HTTP-date form.
+        }
+        try {
+            Instant retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0L, Duration.between(Instant.now(), retryAt).toMillis());
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
     static AiProviderFailureCategory classifyParseFailure() {
         return AiProviderFailureCategory.INVALID_RESPONSE;
     }
@@ -0,0 +1,40 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.port.out.AiProviderStatusPort;
+import com.uniai.chat.application.provider.AiProviderStatusSnapshot;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reports provider status and circuit breaker state. Health is down only when every provider seen
+ * so far has an open circuit, because one healthy provider still serves answers through failover.
+ */
+public class AiProviderHealthIndicator implements HealthIndicator {
+
+    private final AiProviderStatusPort statusPort;
+
+    public AiProviderHealthIndicator(AiProviderStatusPort statusPort) {
+        this.statusPort = statusPort;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, AiProviderStatusSnapshot> statuses = new TreeMap<>(statusPort.getAllStatuses());
+        Health.Builder builder = !statuses.isEmpty() && statuses.values().stream().allMatch(AiProviderStatusSnapshot::hasOpenCircuit)
+                ? Health.down()
+                : Health.up();
+        statuses.forEach((provider, snapshot) -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", snapshot.status());
+            details.put("lastFailureCategory", snapshot.lastFailureCategory());
+            details.put("consecutiveFailures", snapshot.consecutiveFailures());
+            details.put("circuits", snapshot.circuits());
+            builder.withDetail(provider, details);
+        });
+        return builder.build();
+    }
+}
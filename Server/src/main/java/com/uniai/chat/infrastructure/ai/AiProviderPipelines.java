@@ -0,0 +1,35 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.port.out.AiServicePort;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The provider pipelines of the application, one per provider. Routing, the single-provider path and
+ * planner hedging all take their pipeline from here, so a provider has one adapter, one rate limiter,
+ * one set of circuit breakers and, for Gemini, one context cache however many callers reach it.
+ */
+public class AiProviderPipelines {
+
+    private final Map<String, AiServicePort> pipelines = new ConcurrentHashMap<>();
+
+    /** The pipeline already built for {@code provider}, or {@code null}. */
+    public AiServicePort get(String provider) {
+        return pipelines.get(normalize(provider));
+    }
+
+    /**
+     * Returns the pipeline for {@code provider}, building it with {@code factory} the first time.
+     * A factory returning {@code null} marks the provider as not configured; nothing is stored.
+     */
+    public AiServicePort computeIfAbsent(String provider, Function<String, AiServicePort> factory) {
+        return pipelines.computeIfAbsent(normalize(provider), factory);
+    }
+
+    private static String normalize(String provider) {
+        return provider == null ? "" : provider.trim().toLowerCase(Locale.ROOT);
+    }
+}
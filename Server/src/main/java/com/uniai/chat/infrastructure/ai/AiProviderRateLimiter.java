@@ -0,0 +1,150 @@
+package com.uniai.chat.infrastructure.ai;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Requests-per-minute and tokens-per-minute buckets for one provider model. Each bucket holds up to
+ * one minute of allowance and refills continuously. Callers reserve capacity up front and are told
+ * how long to wait; balances may go negative while reservations are outstanding, so waiting callers
+ * are served in the order they reserved. A limit of zero or less disables that bucket.
+ * <p>
+ * A rate-limited response pauses both buckets, for the provider's {@code Retry-After} when given
+ * and otherwise for an exponential backoff that resets on the next success.
+ */
+public class AiProviderRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final String provider;
+    private final String model;
+    private final long requestsPerMinute;
+    private final long tokensPerMinute;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final LongSupplier nanoClock;
+    private double requestBalance;
+    private double tokenBalance;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private int consecutiveRateLimits;
+
+    public AiProviderRateLimiter(
+            String provider,
+            String model,
+            long requestsPerMinute,
+            long tokensPerMinute,
+            Duration initialBackoff,
+            Duration maxBackoff
+    ) {
+        this(provider, model, requestsPerMinute, tokensPerMinute, initialBackoff, maxBackoff, System::nanoTime);
+    }
+
+    AiProviderRateLimiter(
+            String provider,
+            String model,
+            long requestsPerMinute,
+            long tokensPerMinute,
+            Duration initialBackoff,
+            Duration maxBackoff,
+            LongSupplier nanoClock
+    ) {
+        this.provider = normalize(provider);
+        this.model = normalize(model);
+        this.requestsPerMinute = Math.max(0L, requestsPerMinute);
+        this.tokensPerMinute = Math.max(0L, tokensPerMinute);
+        this.initialBackoff = initialBackoff == null || initialBackoff.isNegative() ? Duration.ofSeconds(1) : initialBackoff;
+        this.maxBackoff = maxBackoff == null || maxBackoff.compareTo(this.initialBackoff) < 0 ? this.initialBackoff : maxBackoff;
+        this.nanoClock = nanoClock;
+        this.requestBalance = this.requestsPerMinute;
+        this.tokenBalance = this.tokensPerMinute;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    public String provider() {
+        return provider;
+    }
+
+    public String model() {
+        return model;
+    }
+
+    /**
+     * Reserves one request and {@code tokenCost} tokens.
+     *
+     * @return nanoseconds to wait before sending, or {@code -1} when the wait would exceed
+     *         {@code maxWaitNanos}, in which case nothing is reserved
+     */
+    public synchronized long reserve(long tokenCost, long maxWaitNanos) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+        // A single request larger than the bucket waits for a full bucket instead of forever.
+        long cost = tokensPerMinute > 0 ? Math.min(Math.max(0L, tokenCost), tokensPerMinute) : 0L;
+
+        long waitNanos = Math.max(0L, pausedUntilNanos - now);
+        if (requestsPerMinute > 0) {
+            waitNanos = Math.max(waitNanos, nanosUntilAvailable(requestBalance, 1L, requestsPerMinute));
+        }
+        if (tokensPerMinute > 0) {
+            waitNanos = Math.max(waitNanos, nanosUntilAvailable(tokenBalance, cost, tokensPerMinute));
+        }
+        if (waitNanos > maxWaitNanos) {
+            return -1L;
+        }
+
+        if (requestsPerMinute > 0) {
+            requestBalance -= 1;
+        }
+        if (tokensPerMinute > 0) {
+            tokenBalance -= cost;
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Pauses the buckets after the provider answered 429 and returns the pause applied.
+     */
+    public synchronized Duration onRateLimited(Long retryAfterMillis) {
+        consecutiveRateLimits++;
+        Duration pause;
+        if (retryAfterMillis != null && retryAfterMillis >= 0) {
+            pause = Duration.ofMillis(retryAfterMillis);
+        } else {
+            int exponent = Math.min(consecutiveRateLimits - 1, 16);
+            Duration backoff = initialBackoff.multipliedBy(1L << exponent);
+            pause = backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+        }
+        pausedUntilNanos = Math.max(pausedUntilNanos, nanoClock.getAsLong() + pause.toNanos());
+        return pause;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveRateLimits = 0;
+    }
+
+    private void refill(long now) {
+        long elapsed = Math.max(0L, now - lastRefillNanos);
+        lastRefillNanos = now;
+        if (elapsed == 0L) {
+            return;
+        }
+        double minutes = (double) elapsed / NANOS_PER_MINUTE;
+        requestBalance = Math.min(requestsPerMinute, requestBalance + minutes * requestsPerMinute);
+        tokenBalance = Math.min(tokensPerMinute, tokenBalance + minutes * tokensPerMinute);
+    }
+
+    private static long nanosUntilAvailable(double balance, long needed, long perMinute) {
+        double deficit = needed - balance;
+        if (deficit <= 0) {
+            return 0L;
+        }
+        return (long) Math.ceil(deficit * NANOS_PER_MINUTE / perMinute);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "unknown" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,305 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads non-streaming provider bodies straight from the response stream with Jackson's
+ * {@link JsonParser}. Only the fields the adapters use are materialized and everything else is
+ * skipped token by token, so neither a body string nor a JSON tree is built. Content, finish
+ * reason, model and usage counts all come out of the same pass.
+ * <p>
+ * A body over the size limit and malformed JSON surface as {@link IllegalStateException}, as in
+ * {@link AiStreamAccumulator}, so adapters classify them as invalid responses. Other I/O failures
+ * keep propagating as transport errors.
+ */
+final class AiProviderResponseReader {
+
+    static final long DEFAULT_MAX_BODY_BYTES = 4L * 1024L * 1024L;
+
+    private AiProviderResponseReader() {
+    }
+
+    static AiProviderCompletion readGemini(JsonFactory factory, int statusCode, InputStream body, long maxBodyBytes) throws IOException {
+        return read(factory, statusCode, body, maxBodyBytes, AiProviderResponseReader::geminiField);
+    }
+
+    static AiProviderCompletion readGroq(JsonFactory factory, int statusCode, InputStream body, long maxBodyBytes) throws IOException {
+        return read(factory, statusCode, body, maxBodyBytes, AiProviderResponseReader::groqField);
+    }
+
+    static AiProviderCompletion readOllama(JsonFactory factory, int statusCode, InputStream body, long maxBodyBytes) throws IOException {
+        return read(factory, statusCode, body, maxBodyBytes, AiProviderResponseReader::ollamaField);
+    }
+
+    private static AiProviderCompletion read(JsonFactory factory, int statusCode, InputStream body, long maxBodyBytes, FieldHandler handler) throws IOException {
+        if (statusCode < 200 || statusCode >= 300 || body == null) {
+            return AiProviderCompletion.withoutBody(statusCode);
+        }
+        LimitedInputStream limited = new LimitedInputStream(body, maxBodyBytes);
+        try (JsonParser parser = factory.createParser(limited)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return AiProviderCompletion.withoutBody(statusCode);
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Provider response is not a JSON object");
+            }
+            Fields fields = new Fields();
+            readObject(parser, handler, fields);
+            return new AiProviderCompletion(
+                    statusCode,
+                    false,
+                    fields.choicesPresent,
+                    fields.content != null ? fields.content.toString() : null,
+                    fields.model,
+                    fields.finishReason,
+                    fields.promptTokens,
+                    fields.completionTokens,
+                    fields.cachedPromptTokens,
+                    limited.count());
+        } catch (BodyTooLargeException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unparseable provider response", ex);
+        }
+    }
+
+    private static void geminiField(String name, JsonParser parser, Fields fields) throws IOException {
+        switch (name) {
+            case "candidates" -> readFirstElement(parser, AiProviderResponseReader::geminiCandidateField, fields);
+            case "modelVersion" -> fields.model = scalarText(parser);
+            case "usageMetadata" -> readObject(parser, (usageName, usage, target) -> {
+                switch (usageName) {
+                    case "promptTokenCount" -> target.promptTokens = longValue(usage);
+                    case "candidatesTokenCount" -> target.completionTokens = longValue(usage);
+                    case "cachedContentTokenCount" -> target.cachedPromptTokens = longValue(usage);
+                    default -> usage.skipChildren();
+                }
+            }, fields);
+            default -> parser.skipChildren();
+        }
+    }
+
+    private static void geminiCandidateField(String name, JsonParser parser, Fields fields) throws IOException {
+        switch (name) {
+            case "finishReason" -> fields.finishReason = scalarText(parser);
+            case "content" -> readObject(parser, (contentName, content, target) -> {
+                if ("parts".equals(contentName)) {
+                    readGeminiParts(content, target);
+                } else {
+                    content.skipChildren();
+                }
+            }, fields);
+            default -> parser.skipChildren();
+        }
+    }
+
+    /** Joins the trimmed, non-blank text parts of a Gemini candidate with line breaks. */
+    private static void readGeminiParts(JsonParser parser, Fields fields) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (next(parser) != JsonToken.END_ARRAY) {
+            readObject(parser, (partName, part, target) -> {
+                if (!"text".equals(partName) || part.currentToken() != JsonToken.VALUE_STRING) {
+                    part.skipChildren();
+                    return;
+                }
+                String text = part.getText().trim();
+                if (text.isEmpty()) {
+                    return;
+                }
+                if (target.content == null) {
+                    target.content = new StringBuilder(text.length());
+                } else {
+                    target.content.append('\n');
+                }
+                target.content.append(text);
+            }, fields);
+        }
+    }
+
+    private static void groqField(String name, JsonParser parser, Fields fields) throws IOException {
+        switch (name) {
+            case "choices" -> readFirstElement(parser, (choiceName, choice, target) -> {
+                switch (choiceName) {
+                    case "finish_reason" -> target.finishReason = scalarText(choice);
+                    case "message" -> readObject(choice, (messageName, message, messageTarget) -> {
+                        if ("content".equals(messageName)) {
+                            messageTarget.setContent(scalarText(message));
+                        } else {
+                            message.skipChildren();
+                        }
+                    }, target);
+                    default -> choice.skipChildren();
+                }
+            }, fields);
+            case "model" -> fields.model = scalarText(parser);
+            case "usage" -> readObject(parser, (usageName, usage, target) -> {
+                switch (usageName) {
+                    case "prompt_tokens" -> target.promptTokens = longValue(usage);
+                    case "completion_tokens" -> target.completionTokens = longValue(usage);
+                    case "prompt_tokens_details" -> readObject(usage, (detailName, detail, detailTarget) -> {
+                        if ("cached_tokens".equals(detailName)) {
+                            detailTarget.cachedPromptTokens = longValue(detail);
+                        } else {
+                            detail.skipChildren();
+                        }
+                    }, target);
+                    default -> usage.skipChildren();
+                }
+            }, fields);
+            default -> parser.skipChildren();
+        }
+    }
+
+    private static void ollamaField(String name, JsonParser parser, Fields fields) throws IOException {
+        switch (name) {
+            case "message" -> readObject(parser, (messageName, message, target) -> {
+                if ("content".equals(messageName)) {
+                    target.setContent(scalarText(message));
+                } else {
+                    message.skipChildren();
+                }
+            }, fields);
+            case "model" -> fields.model = scalarText(parser);
+            case "done_reason" -> fields.finishReason = scalarText(parser);
+            case "prompt_eval_count" -> fields.promptTokens = longValue(parser);
+            case "eval_count" -> fields.completionTokens = longValue(parser);
+            default -> parser.skipChildren();
+        }
+    }
+
+    /** Reads the object at the current token, or skips the value when it is not an object. */
+    private static void readObject(JsonParser parser, FieldHandler handler, Fields fields) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (next(parser) != JsonToken.END_OBJECT) {
+            String name = parser.currentName();
+            next(parser);
+            handler.handle(name, parser, fields);
+        }
+    }
+
+    /** Reads the first element of the array at the current token as an object and skips the rest. */
+    private static void readFirstElement(JsonParser parser, FieldHandler handler, Fields fields) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (next(parser) != JsonToken.END_ARRAY) {
+            if (fields.choicesPresent) {
+                parser.skipChildren();
+                continue;
+            }
+            fields.choicesPresent = true;
+            readObject(parser, handler, fields);
+        }
+    }
+
+    private static JsonToken next(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IllegalStateException("Provider response ended inside a JSON value");
+        }
+        return token;
+    }
+
+    private static String scalarText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    private static Long longValue(JsonParser parser) throws IOException {
+        if (parser.currentToken().isNumeric()) {
+            return parser.getLongValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface FieldHandler {
+        void handle(String name, JsonParser parser, Fields fields) throws IOException;
+    }
+
+    private static final class Fields {
+        private boolean choicesPresent;
+        private StringBuilder content;
+        private String model;
+        private String finishReason;
+        private Long promptTokens;
+        private Long completionTokens;
+        private Long cachedPromptTokens;
+
+        private void setContent(String value) {
+            content = value != null ? new StringBuilder(value) : null;
+        }
+    }
+
+    private static final class BodyTooLargeException extends IOException {
+        private BodyTooLargeException(long limit) {
+            super("Provider response exceeds " + limit + " bytes");
+        }
+    }
+
+    /** Counts bytes read and fails once more than the limit has been consumed. */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit > 0 ? limit : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                advance(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                advance(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            advance(skipped);
+            return skipped;
+        }
+
+        private void advance(long bytes) throws BodyTooLargeException {
+            count += bytes;
+            if (count > limit) {
+                throw new BodyTooLargeException(limit);
+            }
+        }
+
+        private long count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.uniai.chat.infrastructure.ai;
+
+import java.time.Duration;
+
+/**
+ * Thresholds used by {@link RoutingAiServiceAdapter} to order providers for a request.
+ *
+ * @param failureThreshold consecutive failures after which a provider is tried last
+ * @param cooldown how long a failing or misconfigured provider stays at the back of the order
+ * @param slowLatencyMs last observed latency above which a healthy provider yields to faster ones
+ * @param maxAttempts providers tried for one request, including the first
+ */
+public record AiProviderRoutingPolicy(
+        int failureThreshold,
+        Duration cooldown,
+        long slowLatencyMs,
+        int maxAttempts
+) {
+    public AiProviderRoutingPolicy {
+        failureThreshold = Math.max(1, failureThreshold);
+        cooldown = cooldown == null || cooldown.isNegative() ? Duration.ZERO : cooldown;
+        slowLatencyMs = Math.max(1L, slowLatencyMs);
+        maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public static AiProviderRoutingPolicy defaults() {
+        return new AiProviderRoutingPolicy(3, Duration.ofSeconds(30), 8000L, 3);
+    }
+}
@@ -0,0 +1,100 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+
+import java.util.Random;
+
+/**
+ * Latency and failure injection shared by {@link ReplayAiServiceAdapter} and {@link MockAiProviderServer}.
+ * Latency is either the recorded provider time, a fixed delay, or a log-normal distribution fitted to a
+ * median and a p99, which matches the long right tail of real provider latencies. Failures are drawn
+ * independently per call: rate limits first, then server errors.
+ */
+public final class AiReplayFaultProfile {
+
+    public enum LatencyDistribution {
+        RECORDED,
+        FIXED,
+        LOG_NORMAL
+    }
+
+    private static final double Z_99 = 2.3263478740408408;
+
+    private final LatencyDistribution distribution;
+    private final long medianMs;
+    private final double sigma;
+    private final double rateLimitRate;
+    private final double failureRate;
+    private final Random random;
+
+    public AiReplayFaultProfile(
+            LatencyDistribution distribution,
+            long medianMs,
+            long p99Ms,
+            double rateLimitRate,
+            double failureRate,
+            Long seed
+    ) {
+        this.distribution = distribution != null ? distribution : LatencyDistribution.RECORDED;
+        this.medianMs = Math.max(0L, medianMs);
+        this.sigma = this.medianMs > 0 && p99Ms > this.medianMs
+                ? Math.log((double) p99Ms / this.medianMs) / Z_99
+                : 0.0;
+        this.rateLimitRate = clampRate(rateLimitRate);
+        this.failureRate = clampRate(failureRate);
+        this.random = seed != null ? new Random(seed) : new Random();
+    }
+
+    public static AiReplayFaultProfile none() {
+        return new AiReplayFaultProfile(LatencyDistribution.FIXED, 0L, 0L, 0.0, 0.0, null);
+    }
+
+    /** Total time the replayed call should take; recorded latency falls back to the median without a fixture. */
+    long latencyMs(AiFixture fixture) {
+        return switch (distribution) {
+            case RECORDED -> fixture != null ? fixture.latencyMs() : medianMs;
+            case FIXED -> medianMs;
+            case LOG_NORMAL -> medianMs == 0L
+                    ? 0L
+                    : Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+        };
+    }
+
+    /** Time to the first stream chunk, keeping the recorded share of the total latency when one exists. */
+    static long firstChunkMs(AiFixture fixture, long latencyMs) {
+        if (fixture == null || fixture.firstChunkMs() == null || fixture.latencyMs() <= 0L) {
+            return latencyMs;
+        }
+        return Math.round(latencyMs * ((double) fixture.firstChunkMs() / fixture.latencyMs()));
+    }
+
+    /** The failure to inject for this call, or {@link AiProviderFailureCategory#NONE}. */
+    AiProviderFailureCategory injectedFailure() {
+        if (rateLimitRate == 0.0 && failureRate == 0.0) {
+            return AiProviderFailureCategory.NONE;
+        }
+        double draw = random.nextDouble();
+        if (draw < rateLimitRate) {
+            return AiProviderFailureCategory.RATE_LIMITED;
+        }
+        if (draw < rateLimitRate + failureRate) {
+            return AiProviderFailureCategory.HTTP_SERVER_ERROR;
+        }
+        return AiProviderFailureCategory.NONE;
+    }
+
+    static void pause(long millis) {
+        if (millis <= 0L) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double clampRate(double rate) {
+        return Double.isNaN(rate) ? 0.0 : Math.max(0.0, Math.min(1.0, rate));
+    }
+}
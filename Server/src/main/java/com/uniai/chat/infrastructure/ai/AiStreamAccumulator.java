@@ -0,0 +1,144 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Collects a streamed provider answer line by line while forwarding text chunks to the caller.
+ * Provider adapters own the wire format; this class only handles framing and aggregation.
+ */
+final class AiStreamAccumulator {
+
+    private static final String SSE_DATA_PREFIX = "data:";
+
+    private final Consumer<String> chunkConsumer;
+    private final StringBuilder content = new StringBuilder();
+    private String finishReason;
+    private String model;
+    private int chunkCount;
+    private Long promptTokens;
+    private Long completionTokens;
+    private Long cachedPromptTokens;
+
+    AiStreamAccumulator(Consumer<String> chunkConsumer) {
+        this.chunkConsumer = chunkConsumer;
+    }
+
+    /**
+     * Reads the response body line by line. Malformed JSON events surface as
+     * {@link IllegalStateException} so adapters classify them as invalid responses
+     * rather than transport failures.
+     */
+    AiStreamAccumulator read(InputStream body, LineHandler handler) throws IOException {
+        if (body == null) {
+            return this;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    if (!handler.handle(line, this)) {
+                        return this;
+                    }
+                } catch (JsonProcessingException ex) {
+                    throw new IllegalStateException("Unparseable provider stream event", ex);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the payload of an SSE {@code data:} line, or {@code null} for comments and other fields.
+     */
+    static String sseData(String line) {
+        if (line == null || !line.startsWith(SSE_DATA_PREFIX)) {
+            return null;
+        }
+        return line.substring(SSE_DATA_PREFIX.length()).trim();
+    }
+
+    void appendChunk(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        content.append(chunk);
+        chunkCount++;
+        if (chunkConsumer != null) {
+            chunkConsumer.accept(chunk);
+        }
+    }
+
+    void finishReason(String finishReason) {
+        if (StringUtils.hasText(finishReason)) {
+            this.finishReason = finishReason;
+        }
+    }
+
+    void model(String model) {
+        if (StringUtils.hasText(model)) {
+            this.model = model;
+        }
+    }
+
+    /** Keeps the latest reported usage; providers repeat or complete it on later events. */
+    void usage(Long promptTokens, Long completionTokens, Long cachedPromptTokens) {
+        if (promptTokens != null) {
+            this.promptTokens = promptTokens;
+        }
+        if (completionTokens != null) {
+            this.completionTokens = completionTokens;
+        }
+        if (cachedPromptTokens != null) {
+            this.cachedPromptTokens = cachedPromptTokens;
+        }
+    }
+
+    String content() {
+        return content.toString().trim();
+    }
+
+    String finishReason() {
+        return finishReason;
+    }
+
+    String model() {
+        return model;
+    }
+
+    int chunkCount() {
+        return chunkCount;
+    }
+
+    Long promptTokens() {
+        return promptTokens;
+    }
+
+    Long completionTokens() {
+        return completionTokens;
+    }
+
+    Long cachedPromptTokens() {
+        return cachedPromptTokens;
+    }
+
+    @FunctionalInterface
+    interface LineHandler {
+        /**
+         * Handles one non-blank line of the stream, appending any text it carries to the accumulator.
+         *
+         * @return {@code false} once the provider signalled the end of the stream
+         */
+        boolean handle(String line, AiStreamAccumulator accumulator) throws IOException;
+    }
+}
@@ -0,0 +1,45 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiTokenCalibration;
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator view of the token calibration: the factor the estimator applies now, the calibration bounds,
+ * and the learned state per provider, model and operation.
+ */
+@Endpoint(id = "tokencalibration")
+public class AiTokenCalibrationEndpoint {
+
+    private final AiTokenEstimator estimator;
+
+    public AiTokenCalibrationEndpoint(AiTokenEstimator estimator) {
+        this.estimator = estimator;
+    }
+
+    @ReadOperation
+    public Map<String, Object> calibration() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        AiTokenCalibration calibration = estimator.calibration();
+        view.put("tokenizer", estimator.tokenizerName());
+        view.put("appliedFactor", estimator.calibrationFactor());
+        if (calibration == null) {
+            view.put("enabled", false);
+            view.put("entries", List.of());
+            return view;
+        }
+        AiTokenCalibration.Settings settings = calibration.settings();
+        view.put("enabled", settings.enabled());
+        view.put("smoothing", settings.smoothing());
+        view.put("minFactor", settings.minFactor());
+        view.put("maxFactor", settings.maxFactor());
+        view.put("minSamples", settings.minSamples());
+        view.put("entries", calibration.snapshot());
+        return view;
+    }
+}
@@ -0,0 +1,149 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiProviderStatusPort;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.provider.AiProviderCircuitState;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps one provider adapter with a circuit breaker per {@link AiOperation}, so a provider that keeps
+ * timing out fails fast instead of costing every request a full timeout. A refused call returns a
+ * retryable {@link AiProviderFailureCategory#UNAVAILABLE} fallback, which the normal fallback and
+ * failover paths already handle. Calls the wrapped rate limiter refuses locally are marked
+ * {@link AiResponse#getNotSent() not sent} and release their permit without counting as an outcome.
+ * State changes are published to the {@link AiProviderStatusPort}.
+ */
+public class CircuitBreakingAiServiceAdapter implements AiServicePort {
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreakingAiServiceAdapter.class);
+    private static final String OPEN_CIRCUIT_MESSAGE = "The AI service is temporarily unavailable. Please try again shortly.";
+
+    private final AiServicePort delegate;
+    private final String provider;
+    private final AiProviderStatusPort statusPort;
+    private final MeterRegistry meterRegistry;
+    private final Map<AiOperation, AiProviderCircuitBreaker> breakers = new EnumMap<>(AiOperation.class);
+
+    public CircuitBreakingAiServiceAdapter(
+            AiServicePort delegate,
+            String provider,
+            Supplier<AiProviderCircuitBreaker> breakerFactory,
+            AiProviderStatusPort statusPort,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.provider = provider;
+        this.statusPort = statusPort;
+        this.meterRegistry = meterRegistry;
+        for (AiOperation operation : AiOperation.values()) {
+            breakers.put(operation, breakerFactory.get());
+        }
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        return execute(request, null);
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        return execute(request, chunkConsumer != null ? chunkConsumer : chunk -> { });
+    }
+
+    AiProviderCircuitState state(AiOperation operation) {
+        return breakers.get(operation).state();
+    }
+
+    private AiResponse execute(AiRequest request, Consumer<String> chunkConsumer) {
+        AiOperation operation = request == null || request.getOperation() == null ? AiOperation.UNKNOWN : request.getOperation();
+        AiProviderCircuitBreaker breaker = breakers.get(operation);
+        AiProviderCircuitState before = breaker.state();
+        if (!breaker.tryAcquire()) {
+            ChatAiMetrics.incrementCounter(
+                    meterRegistry,
+                    ChatAiMetrics.CIRCUIT_REJECTIONS,
+                    "AI provider calls refused by an open circuit",
+                    "provider", provider,
+                    "operation", ChatAiMetrics.normalizeEnumName(operation));
+            logger.debug("[AI_CIRCUIT] Call refused provider={} operation={}", provider, operation);
+            return openCircuitResponse();
+        }
+        publishIfChanged(operation, before, breaker.state());
+
+        before = breaker.state();
+        try {
+            AiResponse response = chunkConsumer == null
+                    ? delegate.generateResponse(request)
+                    : delegate.streamResponse(request, chunkConsumer);
+            // A call the rate limiter kept back says nothing about the provider, so it must not close the circuit.
+            if (Thread.currentThread().isInterrupted() || (response != null && Boolean.TRUE.equals(response.getNotSent()))) {
+                breaker.onAbandoned();
+            } else {
+                breaker.onResult(outcome(response));
+            }
+            return response;
+        } catch (RuntimeException ex) {
+            if (Thread.currentThread().isInterrupted()) {
+                breaker.onAbandoned();
+            } else {
+                breaker.onResult(AiProviderFailureCategory.UNAVAILABLE);
+            }
+            throw ex;
+        } finally {
+            publishIfChanged(operation, before, breaker.state());
+        }
+    }
+
+    private AiProviderFailureCategory outcome(AiResponse response) {
+        if (response == null) {
+            return AiProviderFailureCategory.UNAVAILABLE;
+        }
+        return Boolean.TRUE.equals(response.getFallback())
+                ? response.getFailureCategory()
+                : AiProviderFailureCategory.NONE;
+    }
+
+    private void publishIfChanged(AiOperation operation, AiProviderCircuitState before, AiProviderCircuitState after) {
+        if (before == after) {
+            return;
+        }
+        if (statusPort != null) {
+            statusPort.recordCircuitState(provider, operation, after);
+        }
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.CIRCUIT_TRANSITIONS,
+                "AI provider circuit breaker state changes",
+                "provider", provider,
+                "operation", ChatAiMetrics.normalizeEnumName(operation),
+                "state", ChatAiMetrics.normalizeEnumName(after));
+        if (after == AiProviderCircuitState.OPEN) {
+            logger.warn("[AI_CIRCUIT] Circuit opened provider={} operation={}", provider, operation);
+        } else {
+            logger.info("[AI_CIRCUIT] Circuit state changed provider={} operation={} from={} to={}", provider, operation, before, after);
+        }
+    }
+
+    private AiResponse openCircuitResponse() {
+        return AiResponse.builder()
+                .content(OPEN_CIRCUIT_MESSAGE)
+                .provider(provider)
+                .fallback(true)
+                .failureCategory(AiProviderFailureCategory.UNAVAILABLE)
+                .retryable(true)
+                .notSent(true)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.memory.ConversationMemoryPromptFormatter;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that lets concurrent, identical provider requests share one in-flight call.
+ * The first caller for a fingerprint performs the call; callers arriving while it runs wait for
+ * it and receive a copy of its {@link AiResponse}. Nothing is kept once the call completes, so
+ * this only removes duplicates that overlap in time.
+ * <p>
+ * Interpretation and title generation are coalesced by default. Main responses carry user-facing
+ * answers and are only coalesced when the deployment opts in. Streaming calls are never coalesced
+ * because every caller needs its own chunk stream.
+ */
+public class CoalescingAiServiceAdapter implements AiServicePort {
+
+    private static final Logger logger = LogManager.getLogger(CoalescingAiServiceAdapter.class);
+    private static final char SEPARATOR = '\u001F';
+
+    private final AiServicePort delegate;
+    private final Set<AiOperation> coalescedOperations;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CompletableFuture<AiResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingAiServiceAdapter(AiServicePort delegate, boolean coalesceMainResponses, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.coalescedOperations = coalesceMainResponses
+                ? EnumSet.of(AiOperation.INTERPRETATION, AiOperation.TITLE_GENERATION, AiOperation.MAIN_RESPONSE)
+                : EnumSet.of(AiOperation.INTERPRETATION, AiOperation.TITLE_GENERATION);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** The wrapped port, for callers that deliberately duplicate requests and must not be coalesced. */
+    public AiServicePort delegate() {
+        return delegate;
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        if (request == null || !coalescedOperations.contains(request.getOperation())) {
+            return delegate.generateResponse(request);
+        }
+        String fingerprint = fingerprint(request);
+        CompletableFuture<AiResponse> call = new CompletableFuture<>();
+        CompletableFuture<AiResponse> existing = inFlight.putIfAbsent(fingerprint, call);
+        if (existing != null) {
+            return awaitShared(existing, request.getOperation());
+        }
+        try {
+            AiResponse response = delegate.generateResponse(request);
+            call.complete(response);
+            return response;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(fingerprint, call);
+        }
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        return delegate.streamResponse(request, chunkConsumer);
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private AiResponse awaitShared(CompletableFuture<AiResponse> call, AiOperation operation) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.PROVIDER_COALESCED,
+                "Provider requests that joined an identical in-flight call",
+                "operation",
+                ChatAiMetrics.normalizeEnumName(operation)
+        );
+        logger.debug("[PROVIDER] Request coalesced operation={}", operation);
+        try {
+            return copy(call.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced provider call", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /** Followers get their own instance because {@link AiResponse} is mutable. */
+    private AiResponse copy(AiResponse response) {
+        if (response == null) {
+            return null;
+        }
+        return AiResponse.builder()
+                .content(response.getContent())
+                .provider(response.getProvider())
+                .model(response.getModel())
+                .finishReason(response.getFinishReason())
+                .fallback(response.getFallback())
+                .failureCategory(response.getFailureCategory())
+                .retryable(response.getRetryable())
+                .retryAfterMs(response.getRetryAfterMs())
+                .promptTokens(response.getPromptTokens())
+                .completionTokens(response.getCompletionTokens())
+                .cachedPromptTokens(response.getCachedPromptTokens())
+                .build();
+    }
+
+    static String fingerprint(AiRequest request) {
+        StringBuilder material = new StringBuilder()
+                .append(request.getOperation()).append(SEPARATOR)
+                .append(request.getTemperature()).append(SEPARATOR)
+                .append(request.getMaxTokens()).append(SEPARATOR)
+                .append(nullToEmpty(request.getSystemPrompt())).append(SEPARATOR)
+                .append(nullToEmpty(request.getUserMessage())).append(SEPARATOR)
+                .append(request.getConversationMemory() != null
+                        ? ConversationMemoryPromptFormatter.render(request.getConversationMemory())
+                        : "").append(SEPARATOR);
+        List<String> context = request.getContext();
+        if (context != null) {
+            for (String item : context) {
+                material.append(nullToEmpty(item)).append(SEPARATOR);
+            }
+        }
+        material.append(SEPARATOR);
+        List<AiConversationMessage> history = request.getConversationHistory();
+        if (history != null) {
+            for (AiConversationMessage message : history) {
+                if (message != null) {
+                    material.append(message.getRole()).append(':').append(nullToEmpty(message.getContent())).append(SEPARATOR);
+                }
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -1,9 +1,13 @@
 package com.uniai.chat.infrastructure.ai;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "ai.gemini")
@@ -12,4 +16,16 @@ public class GeminiAiProperties {
     private String apiKey;
     private String model = "gemini-2.5-flash";
     private String baseUrl = "https://generativelanguage.googleapis.com/v1beta";
+    private ContextCache contextCache = new ContextCache();
+    private Map<AiOperation, AiOperationTier> operations = new EnumMap<>(AiOperation.class);
+
+    @Data
+    public static class ContextCache {
+        private boolean enabled = true;
+        private long ttlSeconds = 3600L;
+        private long refreshBeforeSeconds = 300L;
+        /** Gemini rejects caches below a model-specific token minimum; shorter prefixes are sent inline. */
+        private int minPrefixChars = 4096;
+        private long failureBackoffSeconds = 600L;
+    }
 }
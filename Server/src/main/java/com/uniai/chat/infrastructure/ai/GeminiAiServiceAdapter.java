@@ -16,17 +16,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Gemini-backed implementation of {@link AiServicePort}.
@@ -42,9 +42,12 @@ public class GeminiAiServiceAdapter implements AiServicePort {
     private final RestTemplate restTemplate;
     private final AiProviderStatusPort statusPort;
     private final MeterRegistry meterRegistry;
+    private final long maxResponseBytes;
+    private final GeminiContextCache contextCache;
+    private final AiOperationTierSelector tierSelector;
 
     public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper) {
-        this(properties, objectMapper, buildRestTemplate(), null, null);
+        this(properties, objectMapper, restTemplate(AiHttpTransport.defaultTransport(), properties), null, null);
     }
 
     public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, AiProviderStatusPort statusPort) {
@@ -52,87 +55,145 @@ public class GeminiAiServiceAdapter implements AiServicePort {
     }
 
     public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
-        this(properties, objectMapper, buildRestTemplate(), statusPort, meterRegistry);
+        this(properties, objectMapper, restTemplate(AiHttpTransport.defaultTransport(), properties), statusPort, meterRegistry);
     }
 
     public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort) {
         this(properties, objectMapper, restTemplate, statusPort, null);
     }
 
+    public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, AiHttpTransport transport, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, restTemplate(transport, properties), statusPort, meterRegistry, transport.maxResponseBytes(), transport);
+    }
+
+    private GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes, AiHttpTransport transport) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, maxResponseBytes,
+                new GeminiContextCache(restTemplate, objectMapper, properties, meterRegistry), transport);
+    }
+
     public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES);
+    }
+
+    public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, maxResponseBytes, (GeminiContextCache) null);
+    }
+
+    public GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes, GeminiContextCache contextCache) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, maxResponseBytes, contextCache, null);
+    }
+
+    private GeminiAiServiceAdapter(GeminiAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes,
+                                   GeminiContextCache contextCache, AiHttpTransport transport) {
         this.properties = properties;
         this.objectMapper = objectMapper;
         this.restTemplate = restTemplate;
         this.statusPort = statusPort;
         this.meterRegistry = meterRegistry;
+        this.maxResponseBytes = maxResponseBytes;
+        this.contextCache = contextCache;
+        this.tierSelector = new AiOperationTierSelector(
+                "gemini",
+                properties != null ? properties.getBaseUrl() : null,
+                this::resolveModel,
+                () -> properties != null ? properties.getOperations() : null,
+                restTemplate,
+                transport);
     }
 
     @Override
     public AiResponse generateResponse(AiRequest request) {
+        return execute(request, null);
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        return execute(request, chunkConsumer != null ? chunkConsumer : chunk -> { });
+    }
+
+    private AiResponse execute(AiRequest request, Consumer<String> chunkConsumer) {
         long requestStartNanos = System.nanoTime();
         String userMessage = request != null ? request.getUserMessage() : null;
         String operation = resolveOperation(request);
-        recordRequest(request, resolveModel(), operation);
+        AiOperationTierSelector.Selection selection = tierSelector.select(request);
+        recordRequest(request, selection.model(), operation);
         logger.debug("[PROVIDER] Request started provider=gemini model={} baseUrl={} messageLength={} historyCount={} contextCount={}",
-                resolveModel(),
+                selection.model(),
                 normalizeBaseUrl(properties.getBaseUrl()),
                 StringUtils.hasText(userMessage) ? userMessage.length() : 0,
                 request != null && request.getConversationHistory() != null ? request.getConversationHistory().size() : 0,
                 request != null && request.getContext() != null ? request.getContext().size() : 0);
         if (!StringUtils.hasText(userMessage)) {
-            logger.warn("[PROVIDER] Empty request received provider=gemini model={}", resolveModel());
-            return failureResponse("gemini", resolveModel(), "Please enter a message.", AiProviderFailureCategory.UNKNOWN, false, requestStartNanos, false, operation);
+            logger.warn("[PROVIDER] Empty request received provider=gemini model={}", selection.model());
+            return failureResponse("gemini", selection.model(), "Please enter a message.", AiProviderFailureCategory.UNKNOWN, false, requestStartNanos, false, operation);
         }
 
         if (!StringUtils.hasText(properties.getApiKey())) {
             logger.warn("Gemini provider selected but ai.gemini.api-key is missing or blank");
-            return failureResponse("gemini", resolveModel(), "Gemini is not configured. Please set ai.gemini.api-key.",
+            return failureResponse("gemini", selection.model(), "Gemini is not configured. Please set ai.gemini.api-key.",
                     AiProviderFailureCategory.MISCONFIGURED, false, requestStartNanos, true, operation);
         }
 
-        String model = resolveModel();
+        String model = selection.model();
         String baseUrl = normalizeBaseUrl(properties.getBaseUrl());
         String url = baseUrl + "/models/" + model + ":generateContent";
+        AiPromptLayout layout = AiPromptLayout.split(request != null ? request.getStaticPromptPrefix() : null, composeSystemPrompt(request));
+        String cachedContent = resolveCachedContent(baseUrl, model, layout);
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
+            if (chunkConsumer != null) {
+                String streamUrl = baseUrl + "/models/" + model + ":streamGenerateContent?alt=sse";
+                return streamCompletion(streamUrl, request, userMessage, selection, requestStartNanos, operation, chunkConsumer, layout, cachedContent);
+            }
+
+            RestTemplate tierRestTemplate = selection.restTemplate();
+            AiProviderCompletion completion = tierRestTemplate.execute(
                     url,
                     HttpMethod.POST,
-                    buildRequest(request, userMessage),
-                    String.class
+                    tierRestTemplate.httpEntityCallback(buildRequest(request, userMessage, selection, false, layout, cachedContent)),
+                    response -> AiProviderResponseReader.readGemini(
+                            objectMapper.getFactory(), response.getStatusCode().value(), response.getBody(), maxResponseBytes)
             );
 
-            if (!response.getStatusCode().is2xxSuccessful() || !StringUtils.hasText(response.getBody())) {
+            if (completion == null || !completion.successful() || completion.empty()) {
                 logger.warn("[PROVIDER] Empty or non-success Gemini response status={} durationMs={}",
-                        response.getStatusCode().value(),
+                        completion != null ? completion.statusCode() : null,
                         elapsedMillis(requestStartNanos));
-                AiProviderFailureCategory failureCategory = !StringUtils.hasText(response.getBody())
+                AiProviderFailureCategory failureCategory = completion == null || completion.successful()
                         ? AiProviderFailureClassifier.classifyEmptyResponse()
-                        : AiProviderFailureClassifier.classifyHttpStatus(response.getStatusCode().value());
+                        : AiProviderFailureClassifier.classifyHttpStatus(completion.statusCode());
                 return failureResponse("gemini", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
             }
 
-            AiResponse aiResponse = toResponse(response.getBody(), model, requestStartNanos, operation);
+            AiResponse aiResponse = toResponse(completion, model, requestStartNanos, operation);
             if (Boolean.TRUE.equals(aiResponse.getFallback())) {
-                logger.warn("[PROVIDER] Gemini fallback generated model={} durationMs={} responseLength={}",
+                logger.warn("[PROVIDER] Gemini fallback generated model={} durationMs={} responseBytes={}",
                         model,
                         elapsedMillis(requestStartNanos),
-                        response.getBody().length());
+                        completion.bodyBytes());
             } else {
-                logger.debug("[PROVIDER] Request completed provider=gemini model={} finishReason={} responseLength={} durationMs={}",
+                logger.debug("[PROVIDER] Request completed provider=gemini model={} finishReason={} responseLength={} durationMs={} promptTokens={} completionTokens={}",
                         model,
                         aiResponse.getFinishReason(),
                         aiResponse.getContent() != null ? aiResponse.getContent().length() : 0,
-                        elapsedMillis(requestStartNanos));
+                        elapsedMillis(requestStartNanos),
+                        completion.promptTokens(),
+                        completion.completionTokens());
                 recordSuccess("gemini", aiResponse.getModel(), requestStartNanos);
+                recordUsage(aiResponse, operation);
             }
             return aiResponse;
         } catch (RestClientResponseException ex) {
             logger.error("[PROVIDER] Gemini HTTP failure status={} durationMs={}",
                     ex.getStatusCode().value(),
                     elapsedMillis(requestStartNanos));
+            if (cachedContent != null && isCachedContentRejection(ex.getStatusCode().value())) {
+                contextCache.invalidate(model, layout.staticPrefix());
+            }
             AiProviderFailureCategory failureCategory = AiProviderFailureClassifier.classifyHttpStatus(ex.getStatusCode().value());
-            return failureResponse("gemini", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
+            AiResponse failure = failureResponse("gemini", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
+            failure.setRetryAfterMs(AiProviderFailureClassifier.retryAfterMillis(failureCategory, ex.getResponseHeaders()));
+            return failure;
         } catch (ResourceAccessException ex) {
             logger.warn("[PROVIDER] Gemini request could not be completed durationMs={} reason={}",
                     elapsedMillis(requestStartNanos),
@@ -156,15 +217,105 @@ public class GeminiAiServiceAdapter implements AiServicePort {
         }
     }
 
-    private HttpEntity<Map<String, Object>> buildRequest(AiRequest request, String userMessage) {
+    private AiResponse streamCompletion(String url, AiRequest request, String userMessage, AiOperationTierSelector.Selection selection, long requestStartNanos, String operation,
+                                        Consumer<String> chunkConsumer, AiPromptLayout layout, String cachedContent) {
+        RestTemplate tierRestTemplate = selection.restTemplate();
+        AiStreamAccumulator accumulator = tierRestTemplate.execute(
+                url,
+                HttpMethod.POST,
+                tierRestTemplate.httpEntityCallback(buildRequest(request, userMessage, selection, true, layout, cachedContent)),
+                response -> new AiStreamAccumulator(chunkConsumer).read(response.getBody(), this::handleStreamLine)
+        );
+        return toStreamedResponse(accumulator, selection.model(), requestStartNanos, operation);
+    }
+
+    private boolean handleStreamLine(String line, AiStreamAccumulator accumulator) throws IOException {
+        String data = AiStreamAccumulator.sseData(line);
+        if (!StringUtils.hasText(data)) {
+            return true;
+        }
+        JsonNode event = objectMapper.readTree(data);
+        JsonNode candidate = event.path("candidates").path(0);
+        JsonNode parts = candidate.path("content").path("parts");
+        if (parts.isArray()) {
+            for (JsonNode part : parts) {
+                JsonNode textNode = part.get("text");
+                if (textNode != null && textNode.isTextual()) {
+                    accumulator.appendChunk(textNode.asText());
+                }
+            }
+        }
+        accumulator.finishReason(candidate.path("finishReason").asText(null));
+        JsonNode usage = event.path("usageMetadata");
+        if (usage.isObject()) {
+            accumulator.usage(
+                    longOrNull(usage.path("promptTokenCount")),
+                    longOrNull(usage.path("candidatesTokenCount")),
+                    longOrNull(usage.path("cachedContentTokenCount")));
+        }
+        return true;
+    }
+
+    private static Long longOrNull(JsonNode node) {
+        return node != null && node.isNumber() ? node.asLong() : null;
+    }
+
+    private AiResponse toStreamedResponse(AiStreamAccumulator accumulator, String model, long requestStartNanos, String operation) {
+        String text = accumulator != null ? accumulator.content() : null;
+        if (!StringUtils.hasText(text)) {
+            logger.warn("[PROVIDER] Empty Gemini stream model={} durationMs={}", model, elapsedMillis(requestStartNanos));
+            return failureResponse("gemini", model, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyEmptyResponse(), true, requestStartNanos, true, operation);
+        }
+
+        logger.debug("[PROVIDER] Stream completed provider=gemini model={} finishReason={} chunkCount={} responseLength={} durationMs={}",
+                model,
+                accumulator.finishReason(),
+                accumulator.chunkCount(),
+                text.length(),
+                elapsedMillis(requestStartNanos));
+        recordSuccess("gemini", model, requestStartNanos);
+        AiResponse aiResponse = AiResponse.builder()
+                .content(text)
+                .provider("gemini")
+                .model(model)
+                .finishReason(accumulator.finishReason())
+                .fallback(false)
+                .failureCategory(AiProviderFailureCategory.NONE)
+                .retryable(false)
+                .promptTokens(accumulator.promptTokens())
+                .completionTokens(accumulator.completionTokens())
+                .cachedPromptTokens(accumulator.cachedPromptTokens())
+                .build();
+        recordUsage(aiResponse, operation);
+        return aiResponse;
+    }
+
+    private String resolveCachedContent(String baseUrl, String model, AiPromptLayout layout) {
+        if (contextCache == null || layout.staticPrefix() == null) {
+            return null;
+        }
+        return contextCache.resolve(baseUrl, model, layout.staticPrefix());
+    }
+
+    private boolean isCachedContentRejection(int statusCode) {
+        // A cache that expired or was deleted server-side surfaces as a client error on generateContent.
+        return statusCode == 400 || statusCode == 403 || statusCode == 404;
+    }
+
+    private HttpEntity<Map<String, Object>> buildRequest(AiRequest request, String userMessage, AiOperationTierSelector.Selection selection, boolean stream, AiPromptLayout layout, String cachedContent) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setAccept(List.of(stream ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_JSON));
         headers.add("x-goog-api-key", properties.getApiKey());
 
         Map<String, Object> body = new LinkedHashMap<>();
 
-        String systemPrompt = composeSystemPrompt(request);
+        // Gemini rejects system_instruction next to cached_content, so the cached prefix carries the static part
+        // and the per-request remainder travels as the first user turn.
+        String systemPrompt = cachedContent != null ? null : composeSystemPrompt(request);
+        if (cachedContent != null) {
+            body.put("cached_content", cachedContent);
+        }
 
         if (StringUtils.hasText(systemPrompt)) {
             body.put("system_instruction", Map.of(
@@ -178,23 +329,24 @@ public class GeminiAiServiceAdapter implements AiServicePort {
         if (request != null && request.getTemperature() != null) {
             generationConfig.put("temperature", request.getTemperature());
         }
-        if (request != null && request.getMaxTokens() != null) {
-            generationConfig.put("max_output_tokens", request.getMaxTokens());
+        if (selection.maxTokens() != null) {
+            generationConfig.put("max_output_tokens", selection.maxTokens());
         }
-        if (request != null && request.getOperation() == AiOperation.INTERPRETATION) {
+        if (request != null && (request.getOperation() == AiOperation.INTERPRETATION || request.getOperation() == AiOperation.POST_ANSWER_UPDATE)) {
             generationConfig.put("response_mime_type", "application/json");
         }
         if (!generationConfig.isEmpty()) {
             body.put("generation_config", generationConfig);
         }
 
-        body.put("contents", buildContents(request, userMessage));
+        body.put("contents", buildContents(request, userMessage, cachedContent != null ? layout.dynamicPrompt() : null));
 
         return new HttpEntity<>(body, headers);
     }
 
-    private List<Map<String, Object>> buildContents(AiRequest request, String userMessage) {
+    private List<Map<String, Object>> buildContents(AiRequest request, String userMessage, String instructions) {
         List<Map<String, Object>> contents = new ArrayList<>();
+        addContent(contents, "user", instructions);
 
         if (request != null && request.getConversationHistory() != null) {
             for (AiConversationMessage historyMessage : request.getConversationHistory()) {
@@ -244,33 +396,12 @@ public class GeminiAiServiceAdapter implements AiServicePort {
         return null;
     }
 
-    private AiResponse toResponse(String responseBody, String model, long requestStartNanos, String operation) throws Exception {
-        JsonNode root = objectMapper.readTree(responseBody);
-        JsonNode candidates = root.path("candidates");
-        if (!candidates.isArray() || candidates.isEmpty()) {
+    private AiResponse toResponse(AiProviderCompletion completion, String model, long requestStartNanos, String operation) {
+        if (!completion.choicesPresent()) {
             return failureResponse("gemini", model, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyParseFailure(), true, requestStartNanos, true, operation);
         }
 
-        JsonNode firstCandidate = candidates.get(0);
-        String finishReason = firstCandidate.path("finishReason").isMissingNode()
-                ? null
-                : firstCandidate.path("finishReason").asText(null);
-
-        StringBuilder output = new StringBuilder();
-        JsonNode parts = firstCandidate.path("content").path("parts");
-        if (parts.isArray()) {
-            for (JsonNode part : parts) {
-                JsonNode textNode = part.get("text");
-                if (textNode != null && textNode.isTextual() && StringUtils.hasText(textNode.asText())) {
-                    if (output.length() > 0) {
-                        output.append('\n');
-                    }
-                    output.append(textNode.asText().trim());
-                }
-            }
-        }
-
-        String text = output.toString().trim();
+        String text = completion.content() != null ? completion.content().trim() : null;
         if (!StringUtils.hasText(text)) {
             return failureResponse("gemini", model, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyEmptyResponse(), true, requestStartNanos, true, operation);
         }
@@ -279,10 +410,13 @@ public class GeminiAiServiceAdapter implements AiServicePort {
                 .content(text)
                 .provider("gemini")
                 .model(model)
-                .finishReason(finishReason)
+                .finishReason(completion.finishReason())
                 .fallback(false)
                 .failureCategory(AiProviderFailureCategory.NONE)
                 .retryable(false)
+                .promptTokens(completion.promptTokens())
+                .completionTokens(completion.completionTokens())
+                .cachedPromptTokens(completion.cachedPromptTokens())
                 .build();
     }
 
@@ -299,6 +433,8 @@ public class GeminiAiServiceAdapter implements AiServicePort {
                     ChatAiMetrics.normalizeTagValue(model),
                     "operation",
                     ChatAiMetrics.normalizeTagValue(operation),
+                    "tier",
+                    tierSelector.tierTag(operation),
                     "failure_category",
                     ChatAiMetrics.normalizeEnumName(failureCategory)
             );
@@ -344,6 +480,10 @@ public class GeminiAiServiceAdapter implements AiServicePort {
                 : "gemini-2.5-flash";
     }
 
+    private static RestTemplate restTemplate(AiHttpTransport transport, GeminiAiProperties properties) {
+        return transport.restTemplate("gemini", properties != null ? properties.getBaseUrl() : null);
+    }
+
     private String normalizeBaseUrl(String baseUrl) {
         String effectiveBaseUrl = StringUtils.hasText(baseUrl)
                 ? baseUrl.trim()
@@ -353,22 +493,28 @@ public class GeminiAiServiceAdapter implements AiServicePort {
                 : effectiveBaseUrl;
     }
 
-    private static RestTemplate buildRestTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        int timeoutMillis = (int) Duration.ofSeconds(20).toMillis();
-        factory.setConnectTimeout(timeoutMillis);
-        factory.setReadTimeout(timeoutMillis);
-        return new RestTemplate(factory);
-    }
-
     private void recordSuccess(String provider, String model, long startNanos) {
         if (statusPort != null) {
             statusPort.recordSuccess(provider, model, elapsedMillis(startNanos));
         }
     }
 
+    private void recordUsage(AiResponse response, String operation) {
+        String model = ChatAiMetrics.normalizeTagValue(response.getModel());
+        String normalizedOperation = ChatAiMetrics.normalizeTagValue(operation);
+        if (response.getPromptTokens() != null) {
+            ChatAiMetrics.recordSummary(meterRegistry, ChatAiMetrics.PROVIDER_PROMPT_TOKENS, "AI provider prompt tokens", "tokens",
+                    response.getPromptTokens(), "provider", "gemini", "model", model, "operation", normalizedOperation, "tier", tierSelector.tierTag(operation));
+        }
+        if (response.getCachedPromptTokens() != null) {
+            ChatAiMetrics.recordSummary(meterRegistry, ChatAiMetrics.PROVIDER_CACHED_PROMPT_TOKENS, "AI provider prompt tokens served from cache", "tokens",
+                    response.getCachedPromptTokens(), "provider", "gemini", "model", model, "operation", normalizedOperation, "tier", tierSelector.tierTag(operation));
+        }
+    }
+
     private void recordFailure(String provider, String model, AiProviderFailureCategory failureCategory, long startNanos) {
-        if (statusPort != null) {
+        // An interrupted call was abandoned by its caller (a cancelled hedge) and says nothing about the provider.
+        if (statusPort != null && !Thread.currentThread().isInterrupted()) {
             statusPort.recordFailure(provider, model, failureCategory, elapsedMillis(startNanos));
         }
     }
@@ -384,6 +530,8 @@ public class GeminiAiServiceAdapter implements AiServicePort {
                 ChatAiMetrics.normalizeTagValue(model),
                 "operation",
                 ChatAiMetrics.normalizeTagValue(operation),
+                "tier",
+                tierSelector.tierTag(operation),
                 "outcome",
                 "attempt"
         );
@@ -0,0 +1,198 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps one Gemini {@code cachedContents} resource per model and static system prompt prefix.
+ * The first call for a prefix creates the resource; calls close to its expiry extend the TTL.
+ * When creation fails, typically because the prefix is below the model's cache minimum, the
+ * prefix is sent inline until the failure backoff passes.
+ * The {@code cachedContents} calls run under a lock of their own prefix only, never inside a map
+ * operation, so a slow create or refresh does not hold up requests for other prefixes. While a
+ * refresh is in flight, other requests keep using the still valid resource.
+ */
+public class GeminiContextCache {
+
+    private static final Logger logger = LogManager.getLogger(GeminiContextCache.class);
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final GeminiAiProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+    public GeminiContextCache(RestTemplate restTemplate, ObjectMapper objectMapper, GeminiAiProperties properties, MeterRegistry meterRegistry) {
+        this(restTemplate, objectMapper, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    GeminiContextCache(RestTemplate restTemplate, ObjectMapper objectMapper, GeminiAiProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached content name to reference for this prefix, or {@code null} when the
+     * prefix should be sent inline.
+     */
+    public String resolve(String baseUrl, String model, String staticPrefix) {
+        GeminiAiProperties.ContextCache settings = properties.getContextCache();
+        if (settings == null || !settings.isEnabled() || !StringUtils.hasText(staticPrefix)
+                || staticPrefix.length() < settings.getMinPrefixChars()) {
+            return null;
+        }
+        String key = key(model, staticPrefix);
+        Instant now = clock.instant();
+        Slot slot = slots.computeIfAbsent(key, ignored -> new Slot());
+        Entry current = slot.entry;
+        if (current != null && current.usableAt(now, settings.getRefreshBeforeSeconds())) {
+            return current.name();
+        }
+        Entry resolved;
+        if (current != null && current.name() != null && current.expiresAt().isAfter(now)) {
+            // Still valid: refresh if nobody else is, otherwise keep using it.
+            if (!slot.lock.tryLock()) {
+                return current.name();
+            }
+        } else {
+            slot.lock.lock();
+        }
+        try {
+            resolved = refreshOrCreate(slot.entry, baseUrl, model, staticPrefix, settings);
+            slot.entry = resolved;
+        } finally {
+            slot.lock.unlock();
+        }
+        return resolved != null && resolved.name() != null && resolved.expiresAt().isAfter(clock.instant())
+                ? resolved.name()
+                : null;
+    }
+
+    /** Forgets the cache for this prefix, for example after Gemini reported it missing. */
+    public void invalidate(String model, String staticPrefix) {
+        if (StringUtils.hasText(staticPrefix)) {
+            slots.remove(key(model, staticPrefix));
+        }
+    }
+
+    private Entry refreshOrCreate(Entry existing, String baseUrl, String model, String staticPrefix, GeminiAiProperties.ContextCache settings) {
+        Instant now = clock.instant();
+        if (existing != null && existing.usableAt(now, settings.getRefreshBeforeSeconds())) {
+            return existing;
+        }
+        if (existing != null && existing.name() == null && now.isBefore(existing.retryAt())) {
+            return existing;
+        }
+        if (existing != null && existing.name() != null && existing.expiresAt().isAfter(now)) {
+            Entry refreshed = send(HttpMethod.PATCH, baseUrl + "/" + existing.name() + "?updateMask=ttl",
+                    Map.of("ttl", settings.getTtlSeconds() + "s"), "refresh", model, settings);
+            if (refreshed.name() != null) {
+                return refreshed;
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", "models/" + model);
+        body.put("systemInstruction", Map.of("parts", List.of(Map.of("text", staticPrefix))));
+        body.put("ttl", settings.getTtlSeconds() + "s");
+        return send(HttpMethod.POST, baseUrl + "/cachedContents", body, "create", model, settings);
+    }
+
+    private Entry send(HttpMethod method, String url, Map<String, Object> body, String action, String model, GeminiAiProperties.ContextCache settings) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.add("x-goog-api-key", properties.getApiKey());
+        Instant now = clock.instant();
+        try {
+            String response = restTemplate.exchange(url, method, new HttpEntity<>(body, headers), String.class).getBody();
+            JsonNode root = objectMapper.readTree(response != null ? response : "{}");
+            String name = root.path("name").asText(null);
+            if (!StringUtils.hasText(name)) {
+                throw new IllegalStateException("Gemini cachedContents response has no name");
+            }
+            Instant expiresAt = parseExpireTime(root.path("expireTime").asText(null), now, settings.getTtlSeconds());
+            record(action, model, "success");
+            logger.info("[AI_CONTEXT_CACHE] Gemini cache {} name={} model={} expiresAt={}", action, name, model, expiresAt);
+            return new Entry(name, expiresAt, now);
+        } catch (RestClientException | IllegalStateException | IOException ex) {
+            record(action, model, "failure");
+            logger.warn("[AI_CONTEXT_CACHE] Gemini cache {} failed model={} reason={}", action, model, ex.getMessage());
+            return new Entry(null, now, now.plusSeconds(Math.max(0L, settings.getFailureBackoffSeconds())));
+        }
+    }
+
+    private Instant parseExpireTime(String value, Instant now, long ttlSeconds) {
+        if (StringUtils.hasText(value)) {
+            try {
+                return Instant.parse(value);
+            } catch (DateTimeParseException ignored) {
+                // Fall through to the requested TTL.
+            }
+        }
+        return now.plusSeconds(ttlSeconds);
+    }
+
+    private void record(String action, String model, String outcome) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.PROVIDER_CONTEXT_CACHE,
+                "Provider context cache operations",
+                "provider", "gemini",
+                "model", ChatAiMetrics.normalizeTagValue(model),
+                "action", action,
+                "outcome", outcome);
+    }
+
+    private static String key(String model, String staticPrefix) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(model).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(staticPrefix.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /** The current resource of one prefix and the lock its create and refresh calls run under. */
+    private static final class Slot {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Entry entry;
+    }
+
+    private record Entry(String name, Instant expiresAt, Instant retryAt) {
+        boolean usableAt(Instant now, long refreshBeforeSeconds) {
+            return name != null && now.isBefore(expiresAt.minusSeconds(Math.max(0L, refreshBeforeSeconds)));
+        }
+    }
+}
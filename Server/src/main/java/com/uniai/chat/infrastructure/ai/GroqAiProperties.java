@@ -1,9 +1,13 @@
 package com.uniai.chat.infrastructure.ai;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "ai.groq")
@@ -12,4 +16,5 @@ public class GroqAiProperties {
     private String apiKey;
     private String model = "llama-3.3-70b-versatile";
     private String baseUrl = "https://api.groq.com/openai/v1";
+    private Map<AiOperation, AiOperationTier> operations = new EnumMap<>(AiOperation.class);
 }
@@ -16,17 +16,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Groq-backed implementation of {@link AiServicePort}.
@@ -42,9 +42,11 @@ public class GroqAiServiceAdapter implements AiServicePort {
     private final RestTemplate restTemplate;
     private final AiProviderStatusPort statusPort;
     private final MeterRegistry meterRegistry;
+    private final long maxResponseBytes;
+    private final AiOperationTierSelector tierSelector;
 
     public GroqAiServiceAdapter(GroqAiProperties properties) {
-        this(properties, new ObjectMapper(), buildRestTemplate(), null, null);
+        this(properties, new ObjectMapper(), restTemplate(AiHttpTransport.defaultTransport(), properties), null, null);
     }
 
     public GroqAiServiceAdapter(GroqAiProperties properties, AiProviderStatusPort statusPort) {
@@ -52,11 +54,11 @@ public class GroqAiServiceAdapter implements AiServicePort {
     }
 
     public GroqAiServiceAdapter(GroqAiProperties properties, ObjectMapper objectMapper, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
-        this(properties, objectMapper, buildRestTemplate(), statusPort, meterRegistry);
+        this(properties, objectMapper, restTemplate(AiHttpTransport.defaultTransport(), properties), statusPort, meterRegistry);
     }
 
     public GroqAiServiceAdapter(GroqAiProperties properties, ObjectMapper objectMapper, AiProviderStatusPort statusPort) {
-        this(properties, objectMapper, buildRestTemplate(), statusPort, null);
+        this(properties, objectMapper, restTemplate(AiHttpTransport.defaultTransport(), properties), statusPort, null);
     }
 
     public GroqAiServiceAdapter(GroqAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate) {
@@ -67,71 +69,110 @@ public class GroqAiServiceAdapter implements AiServicePort {
         this(properties, objectMapper, restTemplate, statusPort, null);
     }
 
+    public GroqAiServiceAdapter(GroqAiProperties properties, ObjectMapper objectMapper, AiHttpTransport transport, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, restTemplate(transport, properties), statusPort, meterRegistry, transport.maxResponseBytes(), transport);
+    }
+
     public GroqAiServiceAdapter(GroqAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES);
+    }
+
+    public GroqAiServiceAdapter(GroqAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, maxResponseBytes, null);
+    }
+
+    private GroqAiServiceAdapter(GroqAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes, AiHttpTransport transport) {
         this.properties = properties;
         this.objectMapper = objectMapper;
         this.restTemplate = restTemplate;
         this.statusPort = statusPort;
         this.meterRegistry = meterRegistry;
+        this.maxResponseBytes = maxResponseBytes;
+        this.tierSelector = new AiOperationTierSelector(
+                "groq",
+                properties != null ? properties.getBaseUrl() : null,
+                this::resolveModel,
+                () -> properties != null ? properties.getOperations() : null,
+                restTemplate,
+                transport);
     }
 
     @Override
     public AiResponse generateResponse(AiRequest request) {
+        return execute(request, null);
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        return execute(request, chunkConsumer != null ? chunkConsumer : chunk -> { });
+    }
+
+    private AiResponse execute(AiRequest request, Consumer<String> chunkConsumer) {
         long requestStartNanos = System.nanoTime();
         String userMessage = request != null ? request.getUserMessage() : null;
         String operation = resolveOperation(request);
-        recordRequest(resolveModel(), operation);
+        AiOperationTierSelector.Selection selection = tierSelector.select(request);
+        recordRequest(selection.model(), operation);
         logger.debug("[PROVIDER] Request started provider=groq model={} baseUrl={} messageLength={} historyCount={} contextCount={}",
-                resolveModel(),
+                selection.model(),
                 normalizeBaseUrl(properties.getBaseUrl()),
                 StringUtils.hasText(userMessage) ? userMessage.length() : 0,
                 request != null && request.getConversationHistory() != null ? request.getConversationHistory().size() : 0,
                 request != null && request.getContext() != null ? request.getContext().size() : 0);
         if (!StringUtils.hasText(userMessage)) {
-            logger.warn("[PROVIDER] Empty request received provider=groq model={}", resolveModel());
-            return failureResponse("groq", resolveModel(), "Please enter a message.", AiProviderFailureCategory.UNKNOWN, false, requestStartNanos, false, operation);
+            logger.warn("[PROVIDER] Empty request received provider=groq model={}", selection.model());
+            return failureResponse("groq", selection.model(), "Please enter a message.", AiProviderFailureCategory.UNKNOWN, false, requestStartNanos, false, operation);
         }
 
         if (!StringUtils.hasText(properties.getApiKey())) {
             logger.warn("Groq provider selected but ai.groq.api-key is missing or blank");
-            return failureResponse("groq", resolveModel(), "Groq is not configured. Please set ai.groq.api-key.",
+            return failureResponse("groq", selection.model(), "Groq is not configured. Please set ai.groq.api-key.",
                     AiProviderFailureCategory.MISCONFIGURED, false, requestStartNanos, true, operation);
         }
 
-        String model = resolveModel();
+        String model = selection.model();
         String url = normalizeBaseUrl(properties.getBaseUrl()) + "/chat/completions";
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
+            if (chunkConsumer != null) {
+                return streamCompletion(url, request, userMessage, selection, requestStartNanos, operation, chunkConsumer);
+            }
+
+            RestTemplate tierRestTemplate = selection.restTemplate();
+            AiProviderCompletion completion = tierRestTemplate.execute(
                     url,
                     HttpMethod.POST,
-                    buildRequest(request, userMessage, model),
-                    String.class
+                    tierRestTemplate.httpEntityCallback(buildRequest(request, userMessage, selection, false)),
+                    response -> AiProviderResponseReader.readGroq(
+                            objectMapper.getFactory(), response.getStatusCode().value(), response.getBody(), maxResponseBytes)
             );
 
-            if (!response.getStatusCode().is2xxSuccessful() || !StringUtils.hasText(response.getBody())) {
+            if (completion == null || !completion.successful() || completion.empty()) {
                 logger.warn("[PROVIDER] Empty or non-success Groq response status={} durationMs={}",
-                        response.getStatusCode().value(),
+                        completion != null ? completion.statusCode() : null,
                         elapsedMillis(requestStartNanos));
-                AiProviderFailureCategory failureCategory = !StringUtils.hasText(response.getBody())
+                AiProviderFailureCategory failureCategory = completion == null || completion.successful()
                         ? AiProviderFailureClassifier.classifyEmptyResponse()
-                        : AiProviderFailureClassifier.classifyHttpStatus(response.getStatusCode().value());
+                        : AiProviderFailureClassifier.classifyHttpStatus(completion.statusCode());
                 return failureResponse("groq", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
             }
 
-            AiResponse aiResponse = toResponse(response.getBody(), model, requestStartNanos, operation);
+            AiResponse aiResponse = toResponse(completion, model, requestStartNanos, operation);
             if (Boolean.TRUE.equals(aiResponse.getFallback())) {
-                logger.warn("[PROVIDER] Groq fallback generated model={} durationMs={} responseLength={}",
+                logger.warn("[PROVIDER] Groq fallback generated model={} durationMs={} responseBytes={}",
                         model,
                         elapsedMillis(requestStartNanos),
-                        response.getBody().length());
+                        completion.bodyBytes());
             } else {
-                logger.debug("[PROVIDER] Request completed provider=groq model={} finishReason={} responseLength={} durationMs={}",
+                logger.debug("[PROVIDER] Request completed provider=groq model={} finishReason={} responseLength={} durationMs={} promptTokens={} completionTokens={}",
                         model,
                         aiResponse.getFinishReason(),
                         aiResponse.getContent() != null ? aiResponse.getContent().length() : 0,
-                        elapsedMillis(requestStartNanos));
+                        elapsedMillis(requestStartNanos),
+                        completion.promptTokens(),
+                        completion.completionTokens());
                 recordSuccess("groq", aiResponse.getModel(), requestStartNanos);
+                recordUsage(aiResponse, operation);
             }
             return aiResponse;
         } catch (RestClientResponseException ex) {
@@ -139,7 +180,9 @@ public class GroqAiServiceAdapter implements AiServicePort {
                     ex.getStatusCode().value(),
                     elapsedMillis(requestStartNanos));
             AiProviderFailureCategory failureCategory = AiProviderFailureClassifier.classifyHttpStatus(ex.getStatusCode().value());
-            return failureResponse("groq", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
+            AiResponse failure = failureResponse("groq", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
+            failure.setRetryAfterMs(AiProviderFailureClassifier.retryAfterMillis(failureCategory, ex.getResponseHeaders()));
+            return failure;
         } catch (ResourceAccessException ex) {
             logger.warn("[PROVIDER] Groq request could not be completed durationMs={} reason={}",
                     elapsedMillis(requestStartNanos),
@@ -163,22 +206,93 @@ public class GroqAiServiceAdapter implements AiServicePort {
         }
     }
 
-    private HttpEntity<Map<String, Object>> buildRequest(AiRequest request, String userMessage, String model) {
+    private AiResponse streamCompletion(String url, AiRequest request, String userMessage, AiOperationTierSelector.Selection selection, long requestStartNanos, String operation, Consumer<String> chunkConsumer) {
+        RestTemplate tierRestTemplate = selection.restTemplate();
+        AiStreamAccumulator accumulator = tierRestTemplate.execute(
+                url,
+                HttpMethod.POST,
+                tierRestTemplate.httpEntityCallback(buildRequest(request, userMessage, selection, true)),
+                response -> new AiStreamAccumulator(chunkConsumer).read(response.getBody(), this::handleStreamLine)
+        );
+        return toStreamedResponse(accumulator, selection.model(), requestStartNanos, operation);
+    }
+
+    private boolean handleStreamLine(String line, AiStreamAccumulator accumulator) throws IOException {
+        String data = AiStreamAccumulator.sseData(line);
+        if (data == null) {
+            return true;
+        }
+        if ("[DONE]".equals(data)) {
+            return false;
+        }
+        JsonNode event = objectMapper.readTree(data);
+        JsonNode choice = event.path("choices").path(0);
+        accumulator.appendChunk(choice.path("delta").path("content").asText(null));
+        accumulator.finishReason(choice.path("finish_reason").asText(null));
+        // Groq reports usage on the last chunk under x_groq; OpenAI-style include_usage puts it at the top level.
+        JsonNode usage = event.has("usage") ? event.path("usage") : event.path("x_groq").path("usage");
+        if (usage.isObject()) {
+            accumulator.usage(
+                    longOrNull(usage.path("prompt_tokens")),
+                    longOrNull(usage.path("completion_tokens")),
+                    longOrNull(usage.path("prompt_tokens_details").path("cached_tokens")));
+        }
+        return true;
+    }
+
+    private AiResponse toStreamedResponse(AiStreamAccumulator accumulator, String model, long requestStartNanos, String operation) {
+        String content = accumulator != null ? accumulator.content() : null;
+        if (!StringUtils.hasText(content)) {
+            logger.warn("[PROVIDER] Empty Groq stream model={} durationMs={}", model, elapsedMillis(requestStartNanos));
+            return failureResponse("groq", model, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyEmptyResponse(), true, requestStartNanos, true, operation);
+        }
+
+        logger.debug("[PROVIDER] Stream completed provider=groq model={} finishReason={} chunkCount={} responseLength={} durationMs={}",
+                model,
+                accumulator.finishReason(),
+                accumulator.chunkCount(),
+                content.length(),
+                elapsedMillis(requestStartNanos));
+        recordSuccess("groq", model, requestStartNanos);
+        AiResponse aiResponse = AiResponse.builder()
+                .content(content)
+                .provider("groq")
+                .model(model)
+                .finishReason(accumulator.finishReason())
+                .fallback(false)
+                .failureCategory(AiProviderFailureCategory.NONE)
+                .retryable(false)
+                .promptTokens(accumulator.promptTokens())
+                .completionTokens(accumulator.completionTokens())
+                .cachedPromptTokens(accumulator.cachedPromptTokens())
+                .build();
+        recordUsage(aiResponse, operation);
+        return aiResponse;
+    }
+
+    private static Long longOrNull(JsonNode node) {
+        return node != null && node.isNumber() ? node.asLong() : null;
+    }
+
+    private HttpEntity<Map<String, Object>> buildRequest(AiRequest request, String userMessage, AiOperationTierSelector.Selection selection, boolean stream) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setAccept(List.of(stream ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_JSON));
         headers.setBearerAuth(properties.getApiKey());
 
         Map<String, Object> body = new LinkedHashMap<>();
-        body.put("model", model);
+        body.put("model", selection.model());
         body.put("messages", buildMessages(request, userMessage));
+        if (stream) {
+            body.put("stream", Boolean.TRUE);
+        }
 
         Map<String, Object> generationConfig = new LinkedHashMap<>();
         if (request != null && request.getTemperature() != null) {
             generationConfig.put("temperature", request.getTemperature());
         }
-        if (request != null && request.getMaxTokens() != null) {
-            generationConfig.put("max_tokens", request.getMaxTokens());
+        if (selection.maxTokens() != null) {
+            generationConfig.put("max_tokens", selection.maxTokens());
         }
         body.putAll(generationConfig);
 
@@ -188,7 +302,10 @@ public class GroqAiServiceAdapter implements AiServicePort {
     private List<Map<String, Object>> buildMessages(AiRequest request, String userMessage) {
         List<Map<String, Object>> messages = new ArrayList<>();
 
-        addMessage(messages, "system", composeSystemPrompt(request));
+        // The static prefix goes first as its own message so provider-side prefix caching sees identical bytes on every call.
+        AiPromptLayout layout = AiPromptLayout.split(request != null ? request.getStaticPromptPrefix() : null, composeSystemPrompt(request));
+        addMessage(messages, "system", layout.staticPrefix());
+        addMessage(messages, "system", layout.dynamicPrompt());
 
         if (request != null && request.getConversationHistory() != null) {
             for (AiConversationMessage historyMessage : request.getConversationHistory()) {
@@ -246,19 +363,12 @@ public class GroqAiServiceAdapter implements AiServicePort {
         return systemPrompt + "\n\nTrusted conversation memory:\n" + memoryText;
     }
 
-    private AiResponse toResponse(String responseBody, String model, long requestStartNanos, String operation) throws Exception {
-        JsonNode root = objectMapper.readTree(responseBody);
-        JsonNode choices = root.path("choices");
-        if (!choices.isArray() || choices.isEmpty()) {
+    private AiResponse toResponse(AiProviderCompletion completion, String model, long requestStartNanos, String operation) {
+        if (!completion.choicesPresent()) {
             return failureResponse("groq", model, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyParseFailure(), true, requestStartNanos, true, operation);
         }
 
-        JsonNode firstChoice = choices.get(0);
-        String finishReason = firstChoice.path("finish_reason").isMissingNode()
-                ? null
-                : firstChoice.path("finish_reason").asText(null);
-        String content = firstChoice.path("message").path("content").asText(null);
-
+        String content = completion.content();
         if (!StringUtils.hasText(content)) {
             return failureResponse("groq", model, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyEmptyResponse(), true, requestStartNanos, true, operation);
         }
@@ -267,10 +377,13 @@ public class GroqAiServiceAdapter implements AiServicePort {
                 .content(content.trim())
                 .provider("groq")
                 .model(model)
-                .finishReason(finishReason)
+                .finishReason(completion.finishReason())
                 .fallback(false)
                 .failureCategory(AiProviderFailureCategory.NONE)
                 .retryable(false)
+                .promptTokens(completion.promptTokens())
+                .completionTokens(completion.completionTokens())
+                .cachedPromptTokens(completion.cachedPromptTokens())
                 .build();
     }
 
@@ -287,6 +400,8 @@ public class GroqAiServiceAdapter implements AiServicePort {
                     ChatAiMetrics.normalizeTagValue(model),
                     "operation",
                     ChatAiMetrics.normalizeTagValue(operation),
+                    "tier",
+                    tierSelector.tierTag(operation),
                     "failure_category",
                     ChatAiMetrics.normalizeEnumName(failureCategory)
             );
@@ -316,6 +431,10 @@ public class GroqAiServiceAdapter implements AiServicePort {
                 : "llama-3.3-70b-versatile";
     }
 
+    private static RestTemplate restTemplate(AiHttpTransport transport, GroqAiProperties properties) {
+        return transport.restTemplate("groq", properties != null ? properties.getBaseUrl() : null);
+    }
+
     private String normalizeBaseUrl(String baseUrl) {
         String effectiveBaseUrl = StringUtils.hasText(baseUrl)
                 ? baseUrl.trim()
@@ -325,22 +444,28 @@ public class GroqAiServiceAdapter implements AiServicePort {
                 : effectiveBaseUrl;
     }
 
-    private static RestTemplate buildRestTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        int timeoutMillis = (int) Duration.ofSeconds(20).toMillis();
-        factory.setConnectTimeout(timeoutMillis);
-        factory.setReadTimeout(timeoutMillis);
-        return new RestTemplate(factory);
-    }
-
     private void recordSuccess(String provider, String model, long startNanos) {
         if (statusPort != null) {
             statusPort.recordSuccess(provider, model, elapsedMillis(startNanos));
         }
     }
 
+    private void recordUsage(AiResponse response, String operation) {
+        String model = ChatAiMetrics.normalizeTagValue(response.getModel());
+        String normalizedOperation = ChatAiMetrics.normalizeTagValue(operation);
+        if (response.getPromptTokens() != null) {
+            ChatAiMetrics.recordSummary(meterRegistry, ChatAiMetrics.PROVIDER_PROMPT_TOKENS, "AI provider prompt tokens", "tokens",
+                    response.getPromptTokens(), "provider", "groq", "model", model, "operation", normalizedOperation, "tier", tierSelector.tierTag(operation));
+        }
+        if (response.getCachedPromptTokens() != null) {
+            ChatAiMetrics.recordSummary(meterRegistry, ChatAiMetrics.PROVIDER_CACHED_PROMPT_TOKENS, "AI provider prompt tokens served from cache", "tokens",
+                    response.getCachedPromptTokens(), "provider", "groq", "model", model, "operation", normalizedOperation, "tier", tierSelector.tierTag(operation));
+        }
+    }
+
     private void recordFailure(String provider, String model, AiProviderFailureCategory failureCategory, long startNanos) {
-        if (statusPort != null) {
+        // An interrupted call was abandoned by its caller (a cancelled hedge) and says nothing about the provider.
+        if (statusPort != null && !Thread.currentThread().isInterrupted()) {
             statusPort.recordFailure(provider, model, failureCategory, elapsedMillis(startNanos));
         }
     }
@@ -356,6 +481,8 @@ public class GroqAiServiceAdapter implements AiServicePort {
                 ChatAiMetrics.normalizeTagValue(model),
                 "operation",
                 ChatAiMetrics.normalizeTagValue(operation),
+                "tier",
+                tierSelector.tierTag(operation),
                 "outcome",
                 "attempt"
         );
@@ -1,6 +1,8 @@
 package com.uniai.chat.infrastructure.ai;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
 import com.uniai.chat.application.port.out.AiProviderStatusPort;
+import com.uniai.chat.application.provider.AiProviderCircuitState;
 import com.uniai.chat.application.provider.AiProviderFailureCategory;
 import com.uniai.chat.application.provider.AiProviderStatusSnapshot;
 
@@ -37,6 +39,17 @@ public class InMemoryAiProviderStatusRegistry implements AiProviderStatusPort {
                 : existing.withFailure(model, failureCategory, now, latencyMs));
     }
 
+    @Override
+    public void recordCircuitState(String provider, AiOperation operation, AiProviderCircuitState state) {
+        String normalizedProvider = normalizeProvider(provider);
+        if (normalizedProvider == null || operation == null) {
+            return;
+        }
+        snapshots.compute(normalizedProvider, (key, existing) -> existing == null
+                ? AiProviderStatusSnapshot.unknown(normalizedProvider).withCircuitState(operation, state)
+                : existing.withCircuitState(operation, state));
+    }
+
     @Override
     public AiProviderStatusSnapshot getStatus(String provider) {
         String normalizedProvider = normalizeProvider(provider);
@@ -0,0 +1,374 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP server that speaks the Gemini, Groq and Ollama wire formats and answers from recorded
+ * fixtures, so the real adapters, transport and response parsing can be load-tested without provider keys
+ * or network access. Point {@code ai.gemini.base-url}, {@code ai.groq.base-url} or {@code ai.ollama.base-url}
+ * at {@link #baseUrl()}; the server tells providers apart by request path.
+ * <p>
+ * Fixtures are matched on the last user turn of the request body. Latency and failures come from the
+ * {@link AiReplayFaultProfile}: injected rate limits answer 429 with {@code Retry-After}, injected server
+ * errors answer 503. Streams send their headers at once and spread the chunks over the sampled latency.
+ */
+public class MockAiProviderServer {
+
+    private static final Logger logger = LogManager.getLogger(MockAiProviderServer.class);
+    private static final String GENERATE_SUFFIX = ":generateContent";
+    private static final String STREAM_GENERATE_SUFFIX = ":streamGenerateContent";
+    private static final long CACHED_CONTENT_TTL_SECONDS = 3600L;
+
+    private final AiFixtureStore fixtures;
+    private final AiReplayFaultProfile faultProfile;
+    private final ObjectMapper objectMapper;
+    private final String host;
+    private final int port;
+    private final int threads;
+    private final int streamChunkChars;
+    private final AtomicInteger cachedContentCounter = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MockAiProviderServer(AiFixtureStore fixtures, AiReplayFaultProfile faultProfile, ObjectMapper objectMapper) {
+        this(fixtures, faultProfile, objectMapper, "127.0.0.1", 0, 8, 24);
+    }
+
+    public MockAiProviderServer(
+            AiFixtureStore fixtures,
+            AiReplayFaultProfile faultProfile,
+            ObjectMapper objectMapper,
+            String host,
+            int port,
+            int threads,
+            int streamChunkChars
+    ) {
+        this.fixtures = fixtures != null ? fixtures : new AiFixtureStore(List.of());
+        this.faultProfile = faultProfile != null ? faultProfile : AiReplayFaultProfile.none();
+        this.objectMapper = objectMapper;
+        this.host = host;
+        this.port = Math.max(0, port);
+        this.threads = Math.max(1, threads);
+        this.streamChunkChars = Math.max(1, streamChunkChars);
+    }
+
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not start mock AI provider server on " + host + ":" + port, ex);
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ai-mock-provider-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("[AI_REPLAY] Mock provider server started baseUrl={} fixtures={}", baseUrl(), fixtures.size());
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+        logger.info("[AI_REPLAY] Mock provider server stopped");
+    }
+
+    public synchronized int port() {
+        if (server == null) {
+            throw new IllegalStateException("Mock AI provider server is not running");
+        }
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://" + host + ":" + port();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            byte[] requestBody = readBody(exchange.getRequestBody());
+            if (path.contains("/cachedContents")) {
+                sendJson(exchange, 200, cachedContent(path));
+                return;
+            }
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, error("method not allowed"));
+                return;
+            }
+            JsonNode body = requestBody.length > 0 ? objectMapper.readTree(requestBody) : objectMapper.createObjectNode();
+            if (path.endsWith(GENERATE_SUFFIX) || path.endsWith(STREAM_GENERATE_SUFFIX)) {
+                String model = geminiModel(path);
+                respond(exchange, WireFormat.GEMINI, model, lastUserText(body.path("contents"), "parts"), path.endsWith(STREAM_GENERATE_SUFFIX));
+            } else if (path.endsWith("/chat/completions")) {
+                respond(exchange, WireFormat.GROQ, body.path("model").asText(null), lastUserText(body.path("messages"), null),
+                        body.path("stream").asBoolean(false));
+            } else if (path.endsWith("/api/chat")) {
+                // Ollama streams unless the request says otherwise.
+                respond(exchange, WireFormat.OLLAMA, body.path("model").asText(null), lastUserText(body.path("messages"), null),
+                        body.path("stream").asBoolean(true));
+            } else {
+                sendJson(exchange, 404, error("unknown endpoint " + path));
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("[AI_REPLAY] Mock provider request failed reason={}", ex.getMessage());
+        }
+    }
+
+    private void respond(HttpExchange exchange, WireFormat format, String requestedModel, String userMessage, boolean stream) throws IOException {
+        AiFixture fixture = fixtures.matchMessage(userMessage);
+        long latencyMs = faultProfile.latencyMs(fixture);
+        AiProviderFailureCategory failure = faultProfile.injectedFailure();
+        String model = requestedModel != null ? requestedModel : fixture != null ? fixture.model() : "mock";
+        AiFixture answer = fixture != null ? fixture : syntheticFixture(userMessage, model);
+
+        if (failure == AiProviderFailureCategory.RATE_LIMITED) {
+            AiReplayFaultProfile.pause(AiReplayFaultProfile.firstChunkMs(fixture, latencyMs));
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            sendJson(exchange, 429, error("mock rate limit"));
+            return;
+        }
+        if (failure != AiProviderFailureCategory.NONE) {
+            AiReplayFaultProfile.pause(AiReplayFaultProfile.firstChunkMs(fixture, latencyMs));
+            sendJson(exchange, 503, error("mock provider unavailable"));
+            return;
+        }
+        if (!stream) {
+            AiReplayFaultProfile.pause(latencyMs);
+            sendJson(exchange, 200, completion(format, model, answer));
+            return;
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", format == WireFormat.OLLAMA ? "application/x-ndjson" : "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream output = exchange.getResponseBody();
+        long firstChunkMs = AiReplayFaultProfile.firstChunkMs(fixture, latencyMs);
+        List<String> chunks = answer.contentChunks(streamChunkChars);
+        long gapMs = chunks.size() > 1 ? (latencyMs - firstChunkMs) / (chunks.size() - 1) : 0L;
+        AiReplayFaultProfile.pause(firstChunkMs);
+        for (int index = 0; index < chunks.size(); index++) {
+            if (index > 0) {
+                AiReplayFaultProfile.pause(gapMs);
+            }
+            writeEvent(output, format, streamChunk(format, model, chunks.get(index)));
+        }
+        writeEvent(output, format, streamEnd(format, model, answer));
+        if (format == WireFormat.GROQ) {
+            output.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+        output.flush();
+    }
+
+    private Map<String, Object> completion(WireFormat format, String model, AiFixture fixture) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        switch (format) {
+            case GEMINI -> {
+                body.put("candidates", List.of(Map.of(
+                        "content", Map.of("role", "model", "parts", List.of(Map.of("text", nullToEmpty(fixture.content())))),
+                        "finishReason", finishReason(fixture, "STOP"))));
+                body.put("usageMetadata", geminiUsage(fixture));
+                body.put("modelVersion", model);
+            }
+            case GROQ -> {
+                body.put("model", model);
+                body.put("choices", List.of(Map.of(
+                        "index", 0,
+                        "message", Map.of("role", "assistant", "content", nullToEmpty(fixture.content())),
+                        "finish_reason", finishReason(fixture, "stop"))));
+                body.put("usage", openAiUsage(fixture));
+            }
+            case OLLAMA -> {
+                body.put("model", model);
+                body.put("message", Map.of("role", "assistant", "content", nullToEmpty(fixture.content())));
+                body.put("done", true);
+                body.put("done_reason", finishReason(fixture, "stop"));
+                putIfPresent(body, "prompt_eval_count", fixture.promptTokens());
+                putIfPresent(body, "eval_count", fixture.completionTokens());
+            }
+        }
+        return body;
+    }
+
+    private Map<String, Object> streamChunk(WireFormat format, String model, String chunk) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        switch (format) {
+            case GEMINI -> event.put("candidates", List.of(Map.of(
+                    "content", Map.of("role", "model", "parts", List.of(Map.of("text", chunk))))));
+            case GROQ -> {
+                event.put("model", model);
+                event.put("choices", List.of(Map.of("index", 0, "delta", Map.of("content", chunk))));
+            }
+            case OLLAMA -> {
+                event.put("model", model);
+                event.put("message", Map.of("role", "assistant", "content", chunk));
+                event.put("done", false);
+            }
+        }
+        return event;
+    }
+
+    private Map<String, Object> streamEnd(WireFormat format, String model, AiFixture fixture) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        switch (format) {
+            case GEMINI -> {
+                event.put("candidates", List.of(Map.of(
+                        "content", Map.of("role", "model", "parts", List.of()),
+                        "finishReason", finishReason(fixture, "STOP"))));
+                event.put("usageMetadata", geminiUsage(fixture));
+            }
+            case GROQ -> {
+                event.put("model", model);
+                event.put("choices", List.of(Map.of("index", 0, "delta", Map.of(), "finish_reason", finishReason(fixture, "stop"))));
+                event.put("x_groq", Map.of("usage", openAiUsage(fixture)));
+            }
+            case OLLAMA -> {
+                event.put("model", model);
+                event.put("message", Map.of("role", "assistant", "content", ""));
+                event.put("done", true);
+                event.put("done_reason", finishReason(fixture, "stop"));
+                putIfPresent(event, "prompt_eval_count", fixture.promptTokens());
+                putIfPresent(event, "eval_count", fixture.completionTokens());
+            }
+        }
+        return event;
+    }
+
+    private Map<String, Object> geminiUsage(AiFixture fixture) {
+        Map<String, Object> usage = new LinkedHashMap<>();
+        putIfPresent(usage, "promptTokenCount", fixture.promptTokens());
+        putIfPresent(usage, "candidatesTokenCount", fixture.completionTokens());
+        putIfPresent(usage, "cachedContentTokenCount", fixture.cachedPromptTokens());
+        return usage;
+    }
+
+    private Map<String, Object> openAiUsage(AiFixture fixture) {
+        Map<String, Object> usage = new LinkedHashMap<>();
+        putIfPresent(usage, "prompt_tokens", fixture.promptTokens());
+        putIfPresent(usage, "completion_tokens", fixture.completionTokens());
+        if (fixture.cachedPromptTokens() != null) {
+            usage.put("prompt_tokens_details", Map.of("cached_tokens", fixture.cachedPromptTokens()));
+        }
+        return usage;
+    }
+
+    private Map<String, Object> cachedContent(String path) {
+        int separator = path.indexOf("cachedContents/");
+        String name = separator >= 0
+                ? path.substring(separator)
+                : "cachedContents/mock-" + cachedContentCounter.incrementAndGet();
+        return Map.of(
+                "name", name,
+                "expireTime", Instant.now().plusSeconds(CACHED_CONTENT_TTL_SECONDS).toString());
+    }
+
+    private void writeEvent(OutputStream output, WireFormat format, Map<String, Object> event) throws IOException {
+        String json = objectMapper.writeValueAsString(event);
+        String frame = format == WireFormat.OLLAMA ? json + "\n" : "data: " + json + "\n\n";
+        output.write(frame.getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /** Text of the last user turn; Gemini keeps it in {@code parts}, the chat formats in {@code content}. */
+    private static String lastUserText(JsonNode turns, String partsField) {
+        if (!turns.isArray()) {
+            return null;
+        }
+        for (int index = turns.size() - 1; index >= 0; index--) {
+            JsonNode turn = turns.get(index);
+            if (!"user".equals(turn.path("role").asText(null))) {
+                continue;
+            }
+            if (partsField == null) {
+                return turn.path("content").asText(null);
+            }
+            List<String> parts = new ArrayList<>();
+            turn.path(partsField).forEach(part -> {
+                if (part.hasNonNull("text")) {
+                    parts.add(part.get("text").asText());
+                }
+            });
+            return String.join("", parts);
+        }
+        return null;
+    }
+
+    private static String geminiModel(String path) {
+        int start = path.lastIndexOf("/models/");
+        int end = path.lastIndexOf(':');
+        return start >= 0 && end > start ? path.substring(start + "/models/".length(), end) : null;
+    }
+
+    private static AiFixture syntheticFixture(String userMessage, String model) {
+        return new AiFixture(null, null, null, "mock", model, 0L, null, "AI response to: " + userMessage, null, null, null, null);
+    }
+
+    private static String finishReason(AiFixture fixture, String fallback) {
+        return fixture.finishReason() != null ? fixture.finishReason() : fallback;
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Map.of("error", Map.of("message", message));
+    }
+
+    private static void putIfPresent(Map<String, Object> target, String key, Object value) {
+        if (value != null) {
+            target.put(key, value);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static byte[] readBody(InputStream body) throws IOException {
+        try (body) {
+            return body.readAllBytes();
+        }
+    }
+
+    private enum WireFormat {
+        GEMINI,
+        GROQ,
+        OLLAMA
+    }
+}
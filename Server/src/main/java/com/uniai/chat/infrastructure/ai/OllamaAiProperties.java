@@ -1,9 +1,13 @@
 package com.uniai.chat.infrastructure.ai;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "ai.ollama")
@@ -12,4 +16,6 @@ public class OllamaAiProperties {
     private String baseUrl = "http://localhost:11434";
     private String model = "gemma3:4b";
     private Integer timeoutSeconds = 120;
+    private String keepAlive = "30m";
+    private Map<AiOperation, AiOperationTier> operations = new EnumMap<>(AiOperation.class);
 }
@@ -16,17 +16,18 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Ollama-backed implementation of {@link AiServicePort}.
@@ -42,9 +43,11 @@ public class OllamaAiServiceAdapter implements AiServicePort {
     private final RestTemplate restTemplate;
     private final AiProviderStatusPort statusPort;
     private final MeterRegistry meterRegistry;
+    private final long maxResponseBytes;
+    private final AiOperationTierSelector tierSelector;
 
     public OllamaAiServiceAdapter(OllamaAiProperties properties) {
-        this(properties, new ObjectMapper(), buildRestTemplate(properties), null, null);
+        this(properties, new ObjectMapper(), restTemplate(AiHttpTransport.defaultTransport(), properties), null, null);
     }
 
     public OllamaAiServiceAdapter(OllamaAiProperties properties, AiProviderStatusPort statusPort) {
@@ -52,11 +55,11 @@ public class OllamaAiServiceAdapter implements AiServicePort {
     }
 
     public OllamaAiServiceAdapter(OllamaAiProperties properties, ObjectMapper objectMapper, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
-        this(properties, objectMapper, buildRestTemplate(properties), statusPort, meterRegistry);
+        this(properties, objectMapper, restTemplate(AiHttpTransport.defaultTransport(), properties), statusPort, meterRegistry);
     }
 
     public OllamaAiServiceAdapter(OllamaAiProperties properties, ObjectMapper objectMapper, AiProviderStatusPort statusPort) {
-        this(properties, objectMapper, buildRestTemplate(properties), statusPort, null);
+        this(properties, objectMapper, restTemplate(AiHttpTransport.defaultTransport(), properties), statusPort, null);
     }
 
     public OllamaAiServiceAdapter(OllamaAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate) {
@@ -67,19 +70,49 @@ public class OllamaAiServiceAdapter implements AiServicePort {
         this(properties, objectMapper, restTemplate, statusPort, null);
     }
 
+    public OllamaAiServiceAdapter(OllamaAiProperties properties, ObjectMapper objectMapper, AiHttpTransport transport, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, restTemplate(transport, properties), statusPort, meterRegistry, transport.maxResponseBytes(), transport);
+    }
+
     public OllamaAiServiceAdapter(OllamaAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES);
+    }
+
+    public OllamaAiServiceAdapter(OllamaAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes) {
+        this(properties, objectMapper, restTemplate, statusPort, meterRegistry, maxResponseBytes, null);
+    }
+
+    private OllamaAiServiceAdapter(OllamaAiProperties properties, ObjectMapper objectMapper, RestTemplate restTemplate, AiProviderStatusPort statusPort, MeterRegistry meterRegistry, long maxResponseBytes, AiHttpTransport transport) {
         this.properties = properties;
         this.objectMapper = objectMapper;
         this.restTemplate = restTemplate;
         this.statusPort = statusPort;
         this.meterRegistry = meterRegistry;
+        this.maxResponseBytes = maxResponseBytes;
+        this.tierSelector = new AiOperationTierSelector(
+                "ollama",
+                properties != null ? properties.getBaseUrl() : null,
+                this::resolveModel,
+                () -> properties != null ? properties.getOperations() : null,
+                restTemplate,
+                transport);
     }
 
     @Override
     public AiResponse generateResponse(AiRequest request) {
+        return execute(request, null);
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        return execute(request, chunkConsumer != null ? chunkConsumer : chunk -> { });
+    }
+
+    private AiResponse execute(AiRequest request, Consumer<String> chunkConsumer) {
         long requestStartNanos = System.nanoTime();
         String userMessage = request != null ? request.getUserMessage() : null;
-        String model = resolveModel();
+        AiOperationTierSelector.Selection selection = tierSelector.select(request);
+        String model = selection.model();
         String baseUrl = normalizeBaseUrl(properties.getBaseUrl());
         int messageCount = countMessages(request, userMessage);
         String operation = resolveOperation(request);
@@ -101,38 +134,45 @@ public class OllamaAiServiceAdapter implements AiServicePort {
 
         String url = baseUrl + "/api/chat";
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
+            if (chunkConsumer != null) {
+                return streamCompletion(url, request, userMessage, selection, requestStartNanos, operation, chunkConsumer);
+            }
+
+            RestTemplate tierRestTemplate = selection.restTemplate();
+            AiProviderCompletion completion = tierRestTemplate.execute(
                     url,
                     HttpMethod.POST,
-                    buildRequest(request, userMessage, model),
-                    String.class
+                    tierRestTemplate.httpEntityCallback(buildRequest(request, userMessage, selection, false)),
+                    response -> AiProviderResponseReader.readOllama(
+                            objectMapper.getFactory(), response.getStatusCode().value(), response.getBody(), maxResponseBytes)
             );
 
-            if (!response.getStatusCode().is2xxSuccessful() || !StringUtils.hasText(response.getBody())) {
+            if (completion == null || !completion.successful() || completion.empty()) {
                 logger.warn("[PROVIDER] Empty or non-success Ollama response status={} durationMs={}",
-                        response.getStatusCode().value(),
+                        completion != null ? completion.statusCode() : null,
                         elapsedMillis(requestStartNanos));
-                AiProviderFailureCategory failureCategory = !StringUtils.hasText(response.getBody())
+                AiProviderFailureCategory failureCategory = completion == null || completion.successful()
                         ? AiProviderFailureClassifier.classifyEmptyResponse()
-                        : AiProviderFailureClassifier.classifyHttpStatus(response.getStatusCode().value());
+                        : AiProviderFailureClassifier.classifyHttpStatus(completion.statusCode());
                 return failureResponse("ollama", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
             }
 
-            AiResponse aiResponse = toResponse(response.getBody(), model, requestStartNanos, operation);
+            AiResponse aiResponse = toResponse(completion, model, requestStartNanos, operation);
             if (Boolean.TRUE.equals(aiResponse.getFallback())) {
-                logger.warn("[PROVIDER] Ollama fallback generated model={} durationMs={} responseLength={}",
+                logger.warn("[PROVIDER] Ollama fallback generated model={} durationMs={} responseBytes={}",
                         aiResponse.getModel(),
                         elapsedMillis(requestStartNanos),
-                        response.getBody().length());
+                        completion.bodyBytes());
             } else {
                 logger.debug("[PROVIDER] Request completed provider=ollama model={} finishReason={} responseLength={} durationMs={} promptEvalCount={} evalCount={}",
                         aiResponse.getModel(),
                         aiResponse.getFinishReason(),
                         aiResponse.getContent() != null ? aiResponse.getContent().length() : 0,
                         elapsedMillis(requestStartNanos),
-                        extractLong(response.getBody(), "prompt_eval_count"),
-                        extractLong(response.getBody(), "eval_count"));
+                        completion.promptTokens(),
+                        completion.completionTokens());
                 recordSuccess("ollama", aiResponse.getModel(), requestStartNanos);
+                recordUsage(aiResponse, operation);
             }
             return aiResponse;
         } catch (RestClientResponseException ex) {
@@ -141,7 +181,9 @@ public class OllamaAiServiceAdapter implements AiServicePort {
                     elapsedMillis(requestStartNanos),
                     baseUrl);
             AiProviderFailureCategory failureCategory = AiProviderFailureClassifier.classifyHttpStatus(ex.getStatusCode().value());
-            return failureResponse("ollama", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
+            AiResponse failure = failureResponse("ollama", model, FALLBACK_MESSAGE, failureCategory, failureCategory.isRetryable(), requestStartNanos, true, operation);
+            failure.setRetryAfterMs(AiProviderFailureClassifier.retryAfterMillis(failureCategory, ex.getResponseHeaders()));
+            return failure;
         } catch (ResourceAccessException ex) {
             logger.warn("[PROVIDER] Ollama connection failed provider=ollama model={} baseUrl={} durationMs={} category=OLLAMA_UNAVAILABLE reason={}",
                     model,
@@ -171,22 +213,87 @@ public class OllamaAiServiceAdapter implements AiServicePort {
         }
     }
 
-    private HttpEntity<Map<String, Object>> buildRequest(AiRequest request, String userMessage, String model) {
+    private AiResponse streamCompletion(String url, AiRequest request, String userMessage, AiOperationTierSelector.Selection selection, long requestStartNanos, String operation, Consumer<String> chunkConsumer) {
+        RestTemplate tierRestTemplate = selection.restTemplate();
+        AiStreamAccumulator accumulator = tierRestTemplate.execute(
+                url,
+                HttpMethod.POST,
+                tierRestTemplate.httpEntityCallback(buildRequest(request, userMessage, selection, true)),
+                response -> new AiStreamAccumulator(chunkConsumer).read(response.getBody(), this::handleStreamLine)
+        );
+        return toStreamedResponse(accumulator, selection.model(), requestStartNanos, operation);
+    }
+
+    private boolean handleStreamLine(String line, AiStreamAccumulator accumulator) throws IOException {
+        JsonNode event = objectMapper.readTree(line);
+        if (event.hasNonNull("error")) {
+            throw new IllegalStateException("Ollama stream error: " + event.path("error").asText());
+        }
+        accumulator.model(event.path("model").asText(null));
+        accumulator.appendChunk(event.path("message").path("content").asText(null));
+        if (!event.path("done").asBoolean(false)) {
+            return true;
+        }
+        accumulator.finishReason(event.path("done_reason").asText(null));
+        accumulator.usage(
+                event.path("prompt_eval_count").isNumber() ? event.path("prompt_eval_count").asLong() : null,
+                event.path("eval_count").isNumber() ? event.path("eval_count").asLong() : null,
+                null);
+        return false;
+    }
+
+    private AiResponse toStreamedResponse(AiStreamAccumulator accumulator, String configuredModel, long requestStartNanos, String operation) {
+        String content = accumulator != null ? accumulator.content() : null;
+        if (!StringUtils.hasText(content)) {
+            logger.warn("[PROVIDER] Empty Ollama stream model={} durationMs={}", configuredModel, elapsedMillis(requestStartNanos));
+            return failureResponse("ollama", configuredModel, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyEmptyResponse(), true, requestStartNanos, true, operation);
+        }
+
+        String model = StringUtils.hasText(accumulator.model()) ? accumulator.model() : configuredModel;
+        logger.debug("[PROVIDER] Stream completed provider=ollama model={} finishReason={} chunkCount={} responseLength={} durationMs={} promptEvalCount={} evalCount={}",
+                model,
+                accumulator.finishReason(),
+                accumulator.chunkCount(),
+                content.length(),
+                elapsedMillis(requestStartNanos),
+                accumulator.promptTokens(),
+                accumulator.completionTokens());
+        recordSuccess("ollama", model, requestStartNanos);
+        AiResponse aiResponse = AiResponse.builder()
+                .content(content)
+                .provider("ollama")
+                .model(model)
+                .finishReason(accumulator.finishReason())
+                .fallback(false)
+                .failureCategory(AiProviderFailureCategory.NONE)
+                .retryable(false)
+                .promptTokens(accumulator.promptTokens())
+                .completionTokens(accumulator.completionTokens())
+                .build();
+        recordUsage(aiResponse, operation);
+        return aiResponse;
+    }
+
+    private HttpEntity<Map<String, Object>> buildRequest(AiRequest request, String userMessage, AiOperationTierSelector.Selection selection, boolean stream) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setAccept(List.of(stream ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON));
 
         Map<String, Object> body = new LinkedHashMap<>();
-        body.put("model", model);
-        body.put("stream", Boolean.FALSE);
+        body.put("model", selection.model());
+        body.put("stream", stream);
         body.put("messages", buildMessages(request, userMessage));
+        // Keeping the model loaded between calls lets Ollama reuse the KV cache for the shared prompt prefix.
+        if (properties != null && StringUtils.hasText(properties.getKeepAlive())) {
+            body.put("keep_alive", properties.getKeepAlive().trim());
+        }
 
         Map<String, Object> options = new LinkedHashMap<>();
         if (request != null && request.getTemperature() != null) {
             options.put("temperature", request.getTemperature());
         }
-        if (request != null && request.getMaxTokens() != null) {
-            options.put("num_predict", request.getMaxTokens());
+        if (selection.maxTokens() != null) {
+            options.put("num_predict", selection.maxTokens());
         }
         if (!options.isEmpty()) {
             body.put("options", options);
@@ -198,7 +305,10 @@ public class OllamaAiServiceAdapter implements AiServicePort {
     private List<Map<String, Object>> buildMessages(AiRequest request, String userMessage) {
         List<Map<String, Object>> messages = new ArrayList<>();
 
-        addMessage(messages, "system", composeSystemPrompt(request));
+        // The static prefix goes first as its own message so the prompt cache sees identical leading tokens on every call.
+        AiPromptLayout layout = AiPromptLayout.split(request != null ? request.getStaticPromptPrefix() : null, composeSystemPrompt(request));
+        addMessage(messages, "system", layout.staticPrefix());
+        addMessage(messages, "system", layout.dynamicPrompt());
 
         if (request != null && request.getConversationHistory() != null) {
             for (AiConversationMessage historyMessage : request.getConversationHistory()) {
@@ -240,14 +350,9 @@ public class OllamaAiServiceAdapter implements AiServicePort {
         return "user";
     }
 
-    private AiResponse toResponse(String responseBody, String configuredModel, long requestStartNanos, String operation) throws Exception {
-        JsonNode root = objectMapper.readTree(responseBody);
-        JsonNode messageNode = root.path("message");
-        String content = messageNode.path("content").asText(null);
-        String returnedModel = root.path("model").asText(null);
-        String finishReason = root.path("done_reason").isMissingNode()
-                ? null
-                : root.path("done_reason").asText(null);
+    private AiResponse toResponse(AiProviderCompletion completion, String configuredModel, long requestStartNanos, String operation) {
+        String content = completion.content();
+        String returnedModel = completion.model();
 
         if (!StringUtils.hasText(content)) {
             return failureResponse("ollama", configuredModel, FALLBACK_MESSAGE, AiProviderFailureClassifier.classifyEmptyResponse(), true, requestStartNanos, true, operation);
@@ -257,10 +362,12 @@ public class OllamaAiServiceAdapter implements AiServicePort {
                 .content(content.trim())
                 .provider("ollama")
                 .model(StringUtils.hasText(returnedModel) ? returnedModel : configuredModel)
-                .finishReason(finishReason)
+                .finishReason(completion.finishReason())
                 .fallback(false)
                 .failureCategory(AiProviderFailureCategory.NONE)
                 .retryable(false)
+                .promptTokens(completion.promptTokens())
+                .completionTokens(completion.completionTokens())
                 .build();
     }
 
@@ -277,6 +384,8 @@ public class OllamaAiServiceAdapter implements AiServicePort {
                     ChatAiMetrics.normalizeTagValue(model),
                     "operation",
                     ChatAiMetrics.normalizeTagValue(operation),
+                    "tier",
+                    tierSelector.tierTag(operation),
                     "failure_category",
                     ChatAiMetrics.normalizeEnumName(failureCategory)
             );
@@ -306,6 +415,13 @@ public class OllamaAiServiceAdapter implements AiServicePort {
                 : "gemma3:4b";
     }
 
+    private static RestTemplate restTemplate(AiHttpTransport transport, OllamaAiProperties properties) {
+        int timeoutSeconds = properties != null && properties.getTimeoutSeconds() != null
+                ? properties.getTimeoutSeconds()
+                : 120;
+        return transport.restTemplate("ollama", properties != null ? properties.getBaseUrl() : null, Duration.ofSeconds(timeoutSeconds));
+    }
+
     private String normalizeBaseUrl(String baseUrl) {
         String effectiveBaseUrl = StringUtils.hasText(baseUrl)
                 ? baseUrl.trim()
@@ -315,17 +431,6 @@ public class OllamaAiServiceAdapter implements AiServicePort {
                 : effectiveBaseUrl;
     }
 
-    private static RestTemplate buildRestTemplate(OllamaAiProperties properties) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        int timeoutSeconds = properties != null && properties.getTimeoutSeconds() != null
-                ? properties.getTimeoutSeconds()
-                : 120;
-        int timeoutMillis = (int) Duration.ofSeconds(timeoutSeconds).toMillis();
-        factory.setConnectTimeout(timeoutMillis);
-        factory.setReadTimeout(timeoutMillis);
-        return new RestTemplate(factory);
-    }
-
     private long elapsedMillis(long startNanos) {
         return (System.nanoTime() - startNanos) / 1_000_000L;
     }
@@ -365,24 +470,26 @@ public class OllamaAiServiceAdapter implements AiServicePort {
         return systemPrompt + "\n\nTrusted conversation memory:\n" + memoryText;
     }
 
-    private Long extractLong(String responseBody, String fieldName) {
-        try {
-            JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode value = root.path(fieldName);
-            return value.isNumber() ? value.longValue() : null;
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
     private void recordSuccess(String provider, String model, long startNanos) {
         if (statusPort != null) {
             statusPort.recordSuccess(provider, model, elapsedMillis(startNanos));
         }
     }
 
+    private void recordUsage(AiResponse response, String operation) {
+        if (response.getPromptTokens() != null) {
+            ChatAiMetrics.recordSummary(meterRegistry, ChatAiMetrics.PROVIDER_PROMPT_TOKENS, "AI provider prompt tokens", "tokens",
+                    response.getPromptTokens(),
+                    "provider", "ollama",
+                    "model", ChatAiMetrics.normalizeTagValue(response.getModel()),
+                    "operation", ChatAiMetrics.normalizeTagValue(operation),
+                    "tier", tierSelector.tierTag(operation));
+        }
+    }
+
     private void recordFailure(String provider, String model, AiProviderFailureCategory failureCategory, long startNanos) {
-        if (statusPort != null) {
+        // An interrupted call was abandoned by its caller (a cancelled hedge) and says nothing about the provider.
+        if (statusPort != null && !Thread.currentThread().isInterrupted()) {
             statusPort.recordFailure(provider, model, failureCategory, elapsedMillis(startNanos));
         }
     }
@@ -398,6 +505,8 @@ public class OllamaAiServiceAdapter implements AiServicePort {
                 ChatAiMetrics.normalizeTagValue(model),
                 "operation",
                 ChatAiMetrics.normalizeTagValue(operation),
+                "tier",
+                tierSelector.tierTag(operation),
                 "outcome",
                 "attempt"
         );
@@ -53,6 +53,8 @@ public class PlaceholderAiServiceAdapter implements AiServicePort {
                 "placeholder",
                 "operation",
                 operation,
+                "tier",
+                "default",
                 "outcome",
                 "attempt"
         );
@@ -0,0 +1,192 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Admission control in front of one provider adapter. Each call reserves a request and its estimated
+ * input plus output tokens from the {@link AiProviderRateLimiter} of the model the request will use, so
+ * per-operation tier models have buckets of their own, and waits for its turn, up to a
+ * bounded wait. Calls that would wait longer are not sent; they get a retryable
+ * {@link AiProviderFailureCategory#RATE_LIMITED} fallback, which lets a router fail over. A 429 from
+ * the provider pauses the limiter for its {@code Retry-After}.
+ */
+public class RateLimitedAiServiceAdapter implements AiServicePort {
+
+    private static final Logger logger = LogManager.getLogger(RateLimitedAiServiceAdapter.class);
+    private static final String THROTTLED_MESSAGE = "The AI service is busy right now. Please try again shortly.";
+
+    private final AiServicePort delegate;
+    private final String provider;
+    private final Function<AiRequest, String> modelResolver;
+    private final Function<String, AiProviderRateLimiter> limiterFactory;
+    private final AiTokenEstimator estimator;
+    private final long maxWaitNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitedAiServiceAdapter(
+            AiServicePort delegate,
+            AiProviderRateLimiter limiter,
+            AiTokenEstimator estimator,
+            Duration maxWait,
+            MeterRegistry meterRegistry
+    ) {
+        this(delegate, limiter.provider(), request -> limiter.model(), model -> limiter, estimator, maxWait, meterRegistry);
+    }
+
+    /**
+     * @param modelResolver the model a request is sent to
+     * @param limiterFactory creates the limiter of a model the first time a request uses it
+     */
+    public RateLimitedAiServiceAdapter(
+            AiServicePort delegate,
+            String provider,
+            Function<AiRequest, String> modelResolver,
+            Function<String, AiProviderRateLimiter> limiterFactory,
+            AiTokenEstimator estimator,
+            Duration maxWait,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.provider = provider;
+        this.modelResolver = modelResolver;
+        this.limiterFactory = limiterFactory;
+        this.estimator = estimator;
+        this.maxWaitNanos = maxWait == null || maxWait.isNegative() ? 0L : maxWait.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        return execute(request, null);
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        return execute(request, chunkConsumer != null ? chunkConsumer : chunk -> { });
+    }
+
+    private AiResponse execute(AiRequest request, Consumer<String> chunkConsumer) {
+        Bucket bucket = bucket(request);
+        AiProviderRateLimiter limiter = bucket.limiter();
+        long cost = estimateCost(request);
+        long waitNanos = limiter.reserve(cost, maxWaitNanos);
+        if (waitNanos < 0) {
+            recordThrottled(limiter, "rejected");
+            logger.warn("[AI_RATE_LIMIT] Request rejected provider={} model={} estimatedTokens={}",
+                    limiter.provider(), limiter.model(), cost);
+            return throttledResponse(limiter);
+        }
+        if (waitNanos > 0 && !await(bucket, waitNanos)) {
+            return throttledResponse(limiter);
+        }
+        ChatAiMetrics.recordTimer(
+                meterRegistry,
+                ChatAiMetrics.RATE_LIMIT_WAIT,
+                "Time AI requests wait for rate-limit capacity",
+                waitNanos,
+                "provider", limiter.provider(),
+                "model", limiter.model());
+
+        AiResponse response = chunkConsumer == null
+                ? delegate.generateResponse(request)
+                : delegate.streamResponse(request, chunkConsumer);
+        if (response != null
+                && Boolean.TRUE.equals(response.getFallback())
+                && response.getFailureCategory() == AiProviderFailureCategory.RATE_LIMITED) {
+            Duration pause = limiter.onRateLimited(response.getRetryAfterMs());
+            ChatAiMetrics.incrementCounter(
+                    meterRegistry,
+                    ChatAiMetrics.RATE_LIMIT_PAUSES,
+                    "Rate-limit pauses triggered by provider 429 responses",
+                    "provider", limiter.provider(),
+                    "model", limiter.model(),
+                    "source", response.getRetryAfterMs() != null ? "retry_after" : "backoff");
+            logger.warn("[AI_RATE_LIMIT] Provider rate limited provider={} model={} pauseMs={}",
+                    limiter.provider(), limiter.model(), pause.toMillis());
+        } else if (response != null && !Boolean.TRUE.equals(response.getFallback())) {
+            limiter.onSuccess();
+        }
+        return response;
+    }
+
+    private boolean await(Bucket bucket, long waitNanos) {
+        recordThrottled(bucket.limiter(), "delayed");
+        AtomicInteger waiting = bucket.waiting();
+        waiting.incrementAndGet();
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private long estimateCost(AiRequest request) {
+        if (request == null || estimator == null) {
+            return 0L;
+        }
+        long outputTokens = request.getMaxTokens() != null ? Math.max(0, request.getMaxTokens()) : 0L;
+        return estimator.estimateRequestTokens(request) + outputTokens;
+    }
+
+    private Bucket bucket(AiRequest request) {
+        String model = modelResolver.apply(request);
+        return buckets.computeIfAbsent(model != null ? model : provider, key -> {
+            Bucket bucket = new Bucket(limiterFactory.apply(key), new AtomicInteger());
+            if (meterRegistry != null) {
+                Gauge.builder(ChatAiMetrics.RATE_LIMIT_WAITING, bucket.waiting(), AtomicInteger::get)
+                        .description("AI requests waiting for rate-limit capacity")
+                        .tag("provider", bucket.limiter().provider())
+                        .tag("model", bucket.limiter().model())
+                        .register(meterRegistry);
+            }
+            return bucket;
+        });
+    }
+
+    private void recordThrottled(AiProviderRateLimiter limiter, String outcome) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.RATE_LIMIT_THROTTLED,
+                "AI requests delayed or rejected by client-side rate limiting",
+                "provider", limiter.provider(),
+                "model", limiter.model(),
+                "outcome", outcome);
+    }
+
+    private AiResponse throttledResponse(AiProviderRateLimiter limiter) {
+        return AiResponse.builder()
+                .content(THROTTLED_MESSAGE)
+                .provider(limiter.provider())
+                .model(limiter.model())
+                .fallback(true)
+                .failureCategory(AiProviderFailureCategory.RATE_LIMITED)
+                .retryable(true)
+                .notSent(true)
+                .build();
+    }
+
+    private record Bucket(AiProviderRateLimiter limiter, AtomicInteger waiting) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that appends every successful provider exchange, with its wall-clock latency and, for streams,
+ * its time to first chunk, to a JSON-lines fixture file for {@link ReplayAiServiceAdapter} and
+ * {@link MockAiProviderServer}. Fallback responses are not recorded; replays inject failures from their
+ * own profile instead. A failed write is logged and counted but never fails the chat request.
+ */
+public class RecordingAiServiceAdapter implements AiServicePort {
+
+    private static final Logger logger = LogManager.getLogger(RecordingAiServiceAdapter.class);
+
+    private final AiServicePort delegate;
+    private final Path fixtureFile;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Object writeLock = new Object();
+
+    public RecordingAiServiceAdapter(AiServicePort delegate, Path fixtureFile, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.fixtureFile = fixtureFile;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AiServicePort delegate() {
+        return delegate;
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        long startNanos = System.nanoTime();
+        AiResponse response = delegate.generateResponse(request);
+        record(request, response, elapsedMs(startNanos), null);
+        return response;
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        long startNanos = System.nanoTime();
+        AtomicLong firstChunkMs = new AtomicLong(-1L);
+        AiResponse response = delegate.streamResponse(request, chunk -> {
+            firstChunkMs.compareAndSet(-1L, elapsedMs(startNanos));
+            if (chunkConsumer != null) {
+                chunkConsumer.accept(chunk);
+            }
+        });
+        long firstChunk = firstChunkMs.get();
+        record(request, response, elapsedMs(startNanos), firstChunk >= 0L ? firstChunk : null);
+        return response;
+    }
+
+    private void record(AiRequest request, AiResponse response, long latencyMs, Long firstChunkMs) {
+        if (response == null || Boolean.TRUE.equals(response.getFallback())) {
+            return;
+        }
+        AiFixture fixture = AiFixture.of(request, response, latencyMs, firstChunkMs);
+        String outcome = "recorded";
+        try {
+            String line = objectMapper.writeValueAsString(fixture) + "\n";
+            synchronized (writeLock) {
+                Path parent = fixtureFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Files.writeString(fixtureFile, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException ex) {
+            outcome = "failed";
+            logger.warn("[AI_REPLAY] Fixture write failed file={} reason={}", fixtureFile, ex.getMessage());
+        }
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.PROVIDER_FIXTURES_RECORDED,
+                "Provider exchanges written to the fixture file",
+                "operation",
+                ChatAiMetrics.normalizeEnumName(request != null ? request.getOperation() : null),
+                "outcome",
+                outcome
+        );
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
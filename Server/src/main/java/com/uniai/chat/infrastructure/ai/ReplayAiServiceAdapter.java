@@ -0,0 +1,128 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiProviderStatusPort;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Offline {@link AiServicePort} that answers from recorded fixtures, selected with {@code ai.provider=replay}.
+ * Unlike {@link PlaceholderAiServiceAdapter} it returns real interpretation, planner and answer payloads,
+ * so the whole chat pipeline runs, and it reproduces provider timing and failures through an
+ * {@link AiReplayFaultProfile}. Requests without any matching fixture get the placeholder echo.
+ */
+public class ReplayAiServiceAdapter implements AiServicePort {
+
+    static final String PROVIDER = "replay";
+    private static final long RATE_LIMIT_RETRY_AFTER_MS = 1000L;
+    private static final Logger logger = LogManager.getLogger(ReplayAiServiceAdapter.class);
+
+    private final AiFixtureStore fixtures;
+    private final AiReplayFaultProfile faultProfile;
+    private final int streamChunkChars;
+    private final AiProviderStatusPort statusPort;
+    private final MeterRegistry meterRegistry;
+
+    public ReplayAiServiceAdapter(AiFixtureStore fixtures, AiReplayFaultProfile faultProfile) {
+        this(fixtures, faultProfile, 24, null, null);
+    }
+
+    public ReplayAiServiceAdapter(
+            AiFixtureStore fixtures,
+            AiReplayFaultProfile faultProfile,
+            int streamChunkChars,
+            AiProviderStatusPort statusPort,
+            MeterRegistry meterRegistry
+    ) {
+        this.fixtures = fixtures != null ? fixtures : new AiFixtureStore(List.of());
+        this.faultProfile = faultProfile != null ? faultProfile : AiReplayFaultProfile.none();
+        this.streamChunkChars = Math.max(1, streamChunkChars);
+        this.statusPort = statusPort;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        AiFixture fixture = fixtures.match(request);
+        long latencyMs = faultProfile.latencyMs(fixture);
+        AiReplayFaultProfile.pause(latencyMs);
+        return complete(request, fixture, latencyMs);
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        AiFixture fixture = fixtures.match(request);
+        long latencyMs = faultProfile.latencyMs(fixture);
+        long firstChunkMs = AiReplayFaultProfile.firstChunkMs(fixture, latencyMs);
+        AiReplayFaultProfile.pause(firstChunkMs);
+        AiResponse response = complete(request, fixture, latencyMs);
+        if (Boolean.TRUE.equals(response.getFallback()) || chunkConsumer == null) {
+            return response;
+        }
+        List<String> chunks = fixture != null ? fixture.contentChunks(streamChunkChars) : List.of(response.getContent());
+        long gapMs = chunks.size() > 1 ? (latencyMs - firstChunkMs) / (chunks.size() - 1) : 0L;
+        for (int index = 0; index < chunks.size(); index++) {
+            if (index > 0) {
+                AiReplayFaultProfile.pause(gapMs);
+            }
+            chunkConsumer.accept(chunks.get(index));
+        }
+        return response;
+    }
+
+    private AiResponse complete(AiRequest request, AiFixture fixture, long latencyMs) {
+        String operation = ChatAiMetrics.normalizeEnumName(request != null ? request.getOperation() : AiOperation.UNKNOWN);
+        AiProviderFailureCategory failure = faultProfile.injectedFailure();
+        String outcome = failure != AiProviderFailureCategory.NONE
+                ? ChatAiMetrics.normalizeEnumName(failure)
+                : fixture != null ? "hit" : "miss";
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.PROVIDER_REPLAYS,
+                "Provider calls answered from recorded fixtures",
+                "operation",
+                operation,
+                "outcome",
+                outcome
+        );
+        logger.debug("[AI_REPLAY] Request replayed operation={} outcome={} latencyMs={}", operation, outcome, latencyMs);
+
+        if (failure != AiProviderFailureCategory.NONE) {
+            if (statusPort != null) {
+                statusPort.recordFailure(PROVIDER, fixture != null ? fixture.model() : PROVIDER, failure, latencyMs);
+            }
+            return AiResponse.builder()
+                    .provider(PROVIDER)
+                    .model(fixture != null ? fixture.model() : PROVIDER)
+                    .fallback(true)
+                    .failureCategory(failure)
+                    .retryable(failure.isRetryable())
+                    .retryAfterMs(failure == AiProviderFailureCategory.RATE_LIMITED ? RATE_LIMIT_RETRY_AFTER_MS : null)
+                    .build();
+        }
+
+        AiResponse response = fixture != null
+                ? fixture.toResponse(PROVIDER)
+                : AiResponse.builder()
+                        .content("AI response to: " + (request != null ? request.getUserMessage() : null))
+                        .provider(PROVIDER)
+                        .model(PROVIDER)
+                        .fallback(false)
+                        .failureCategory(AiProviderFailureCategory.NONE)
+                        .retryable(false)
+                        .build();
+        if (statusPort != null) {
+            statusPort.recordSuccess(PROVIDER, response.getModel(), latencyMs);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,253 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiContextBudgetManager;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiProviderStatusPort;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import com.uniai.chat.application.provider.AiProviderRuntimeStatus;
+import com.uniai.chat.application.provider.AiProviderStatusSnapshot;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * {@link AiServicePort} that holds every configured provider adapter and picks one per request.
+ * Providers are tried in the priority order configured for the request's {@link AiOperation},
+ * reordered from the status registry: a provider is moved behind the healthy ones while it is
+ * cooling down after repeated failures or a misconfiguration, and behind faster ones when its
+ * last call was slow. Providers whose input window cannot hold the budgeted request are skipped.
+ * <p>
+ * A fallback response with a retryable or misconfiguration failure moves the request to the next
+ * provider. Streaming requests only fail over before the first chunk has been forwarded.
+ */
+public class RoutingAiServiceAdapter implements AiServicePort {
+
+    private static final Logger logger = LogManager.getLogger(RoutingAiServiceAdapter.class);
+
+    private final Map<String, AiServicePort> providers;
+    private final List<String> defaultOrder;
+    private final Map<AiOperation, List<String>> operationOrders;
+    private final AiProviderRoutingPolicy policy;
+    private final AiProviderStatusPort statusPort;
+    private final AiContextBudgetManager budgetManager;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public RoutingAiServiceAdapter(
+            Map<String, AiServicePort> providers,
+            Map<AiOperation, List<String>> operationOrders,
+            AiProviderRoutingPolicy policy,
+            AiProviderStatusPort statusPort,
+            AiContextBudgetManager budgetManager,
+            MeterRegistry meterRegistry
+    ) {
+        this(providers, operationOrders, policy, statusPort, budgetManager, meterRegistry, Clock.systemUTC());
+    }
+
+    RoutingAiServiceAdapter(
+            Map<String, AiServicePort> providers,
+            Map<AiOperation, List<String>> operationOrders,
+            AiProviderRoutingPolicy policy,
+            AiProviderStatusPort statusPort,
+            AiContextBudgetManager budgetManager,
+            MeterRegistry meterRegistry,
+            Clock clock
+    ) {
+        if (providers == null || providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one AI provider is required for routing");
+        }
+        this.providers = new LinkedHashMap<>();
+        providers.forEach((name, port) -> this.providers.put(normalizeProvider(name), port));
+        this.defaultOrder = List.copyOf(this.providers.keySet());
+        this.operationOrders = new EnumMap<>(AiOperation.class);
+        if (operationOrders != null) {
+            operationOrders.forEach((operation, order) -> this.operationOrders.put(operation, resolveOrder(order)));
+        }
+        this.policy = policy != null ? policy : AiProviderRoutingPolicy.defaults();
+        this.statusPort = statusPort;
+        this.budgetManager = budgetManager;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        return route(request, null);
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        return route(request, chunkConsumer != null ? chunkConsumer : chunk -> { });
+    }
+
+    /**
+     * Providers in the order they would be tried for the request right now.
+     */
+    public List<String> candidates(AiRequest request) {
+        AiOperation operation = operation(request);
+        List<String> order = operationOrders.getOrDefault(operation, defaultOrder);
+        Instant now = clock.instant();
+        List<String> preferred = new ArrayList<>();
+        List<String> slow = new ArrayList<>();
+        List<String> coolingDown = new ArrayList<>();
+        for (String provider : order) {
+            if (budgetManager != null && !budgetManager.fitsProvider(request, provider)) {
+                ChatAiMetrics.incrementCounter(
+                        meterRegistry,
+                        ChatAiMetrics.PROVIDER_ROUTING_SKIPS,
+                        "AI providers skipped by the router",
+                        "operation", ChatAiMetrics.normalizeEnumName(operation),
+                        "provider", provider,
+                        "reason", "budget");
+                continue;
+            }
+            AiProviderStatusSnapshot snapshot = statusPort != null ? statusPort.getStatus(provider) : null;
+            if (isCoolingDown(snapshot, now)) {
+                coolingDown.add(provider);
+            } else if (isSlow(snapshot)) {
+                slow.add(provider);
+            } else {
+                preferred.add(provider);
+            }
+        }
+
+        List<String> candidates = new ArrayList<>(preferred.size() + slow.size() + coolingDown.size());
+        candidates.addAll(preferred);
+        candidates.addAll(slow);
+        candidates.addAll(coolingDown);
+        if (candidates.isEmpty()) {
+            // No provider fits the budget; the first one returns the budget-sized failure as before.
+            candidates.add(order.get(0));
+        }
+        return candidates;
+    }
+
+    private AiResponse route(AiRequest request, Consumer<String> chunkConsumer) {
+        AiOperation operation = operation(request);
+        List<String> candidates = candidates(request);
+        int attempts = Math.min(policy.maxAttempts(), candidates.size());
+        AiResponse lastResponse = null;
+        RuntimeException lastFailure = null;
+
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            String provider = candidates.get(attempt);
+            AiServicePort port = providers.get(provider);
+            AtomicBoolean forwarded = new AtomicBoolean();
+            ChatAiMetrics.incrementCounter(
+                    meterRegistry,
+                    ChatAiMetrics.PROVIDER_ROUTED,
+                    "AI requests dispatched by the provider router",
+                    "operation", ChatAiMetrics.normalizeEnumName(operation),
+                    "provider", provider,
+                    "attempt", attempt == 0 ? "primary" : "failover");
+
+            AiProviderFailureCategory category;
+            try {
+                AiResponse response = chunkConsumer == null
+                        ? port.generateResponse(request)
+                        : port.streamResponse(request, chunk -> {
+                            forwarded.set(true);
+                            chunkConsumer.accept(chunk);
+                        });
+                // An interrupted caller has abandoned the request; trying another provider would be wasted.
+                if (forwarded.get() || Thread.currentThread().isInterrupted() || !shouldFailOver(response)) {
+                    return response;
+                }
+                lastResponse = response;
+                lastFailure = null;
+                category = response == null ? AiProviderFailureCategory.EMPTY_RESPONSE : response.getFailureCategory();
+            } catch (RuntimeException ex) {
+                if (forwarded.get() || Thread.currentThread().isInterrupted()) {
+                    throw ex;
+                }
+                lastResponse = null;
+                lastFailure = ex;
+                category = AiProviderFailureCategory.UNKNOWN;
+            }
+
+            if (attempt + 1 < attempts) {
+                String next = candidates.get(attempt + 1);
+                ChatAiMetrics.incrementCounter(
+                        meterRegistry,
+                        ChatAiMetrics.PROVIDER_FAILOVERS,
+                        "AI requests moved to another provider after a failure",
+                        "operation", ChatAiMetrics.normalizeEnumName(operation),
+                        "from", provider,
+                        "to", next,
+                        "category", ChatAiMetrics.normalizeEnumName(category));
+                logger.warn("[AI_ROUTER] Failing over operation={} from={} to={} category={}",
+                        operation, provider, next, category);
+            }
+        }
+
+        if (lastFailure != null) {
+            throw lastFailure;
+        }
+        return lastResponse;
+    }
+
+    private boolean shouldFailOver(AiResponse response) {
+        if (response == null) {
+            return true;
+        }
+        if (!Boolean.TRUE.equals(response.getFallback())) {
+            return false;
+        }
+        AiProviderFailureCategory category = response.getFailureCategory();
+        return Boolean.TRUE.equals(response.getRetryable())
+                || category == AiProviderFailureCategory.MISCONFIGURED
+                || (category != null && category.isRetryable());
+    }
+
+    private boolean isCoolingDown(AiProviderStatusSnapshot snapshot, Instant now) {
+        if (snapshot == null || snapshot.lastFailureAt() == null) {
+            return false;
+        }
+        boolean tripped = snapshot.status() == AiProviderRuntimeStatus.MISCONFIGURED
+                || snapshot.consecutiveFailures() >= policy.failureThreshold();
+        return tripped && snapshot.lastFailureAt().plus(policy.cooldown()).isAfter(now);
+    }
+
+    private boolean isSlow(AiProviderStatusSnapshot snapshot) {
+        return snapshot != null
+                && snapshot.status() == AiProviderRuntimeStatus.AVAILABLE
+                && snapshot.lastLatencyMs() != null
+                && snapshot.lastLatencyMs() > policy.slowLatencyMs();
+    }
+
+    private List<String> resolveOrder(List<String> order) {
+        List<String> resolved = new ArrayList<>();
+        if (order != null) {
+            for (String provider : order) {
+                String normalized = normalizeProvider(provider);
+                if (providers.containsKey(normalized) && !resolved.contains(normalized)) {
+                    resolved.add(normalized);
+                }
+            }
+        }
+        return resolved.isEmpty() ? defaultOrder : List.copyOf(resolved);
+    }
+
+    private static AiOperation operation(AiRequest request) {
+        return request == null || request.getOperation() == null ? AiOperation.UNKNOWN : request.getOperation();
+    }
+
+    private static String normalizeProvider(String provider) {
+        return provider == null ? "" : provider.trim().toLowerCase(Locale.ROOT);
+    }
+}
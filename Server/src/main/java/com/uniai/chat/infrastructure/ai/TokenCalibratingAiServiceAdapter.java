@@ -0,0 +1,97 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiTokenCalibration;
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.function.Consumer;
+
+/**
+ * Decorator that compares the estimated input tokens of each request with the prompt token count the
+ * provider reports, and feeds the pair to {@link AiTokenCalibration}. It sits directly around the provider
+ * adapter so every sample belongs to the provider that produced it. Fallback responses and responses
+ * without usage metadata are ignored.
+ */
+public class TokenCalibratingAiServiceAdapter implements AiServicePort {
+
+    private static final Logger logger = LogManager.getLogger(TokenCalibratingAiServiceAdapter.class);
+
+    private final AiServicePort delegate;
+    private final String provider;
+    private final String model;
+    private final AiTokenEstimator estimator;
+    private final AiTokenCalibration calibration;
+    private final MeterRegistry meterRegistry;
+
+    public TokenCalibratingAiServiceAdapter(
+            AiServicePort delegate,
+            String provider,
+            String model,
+            AiTokenEstimator estimator,
+            AiTokenCalibration calibration,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.provider = provider;
+        this.model = model;
+        this.estimator = estimator;
+        this.calibration = calibration;
+        this.meterRegistry = meterRegistry;
+        if (meterRegistry != null) {
+            Gauge.builder(ChatAiMetrics.TOKEN_CALIBRATION_FACTOR, calibration, value -> value.factor(provider))
+                    .description("Multiplier applied to token estimates for the provider")
+                    .tag("provider", ChatAiMetrics.normalizeTagValue(provider))
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        AiResponse response = delegate.generateResponse(request);
+        record(request, response);
+        return response;
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        AiResponse response = delegate.streamResponse(request, chunkConsumer);
+        record(request, response);
+        return response;
+    }
+
+    private void record(AiRequest request, AiResponse response) {
+        if (request == null
+                || response == null
+                || Boolean.TRUE.equals(response.getFallback())
+                || response.getPromptTokens() == null
+                || response.getPromptTokens() <= 0L) {
+            return;
+        }
+        long estimated = estimator.estimateUncalibratedInputTokens(request);
+        long actual = response.getPromptTokens();
+        String responseModel = response.getModel() != null && !response.getModel().isBlank() ? response.getModel() : model;
+        if (!calibration.record(provider, responseModel, request.getOperation(), estimated, actual)) {
+            return;
+        }
+
+        String operation = ChatAiMetrics.normalizeEnumName(request.getOperation());
+        ChatAiMetrics.recordSummary(meterRegistry, ChatAiMetrics.TOKEN_CALIBRATION_ESTIMATED,
+                "Uncalibrated input token estimate of requests with provider usage", "tokens", estimated,
+                "provider", provider,
+                "model", responseModel,
+                "operation", operation);
+        ChatAiMetrics.recordSummary(meterRegistry, ChatAiMetrics.TOKEN_CALIBRATION_ACTUAL,
+                "Input tokens reported by the provider", "tokens", actual,
+                "provider", provider,
+                "model", responseModel,
+                "operation", operation);
+        logger.debug("[AI_BUDGET] Token calibration provider={} model={} operation={} estimated={} actual={} factor={}",
+                provider, responseModel, operation, estimated, actual, String.format("%.3f", calibration.factor(provider)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.usage.AiUsageLedger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.function.Consumer;
+
+/**
+ * Charges every provider call to the {@link AiRequest#getUserId() user} it was made for, under the call's
+ * operation, so planner, memory, title and post-answer calls count toward quotas like the answer does.
+ * It sits inside request coalescing, so a call shared by several identical requests is charged once.
+ * A fallback without usage metadata never reached a provider and is not charged.
+ */
+public class UsageRecordingAiServiceAdapter implements AiServicePort {
+
+    private static final Logger logger = LogManager.getLogger(UsageRecordingAiServiceAdapter.class);
+
+    private final AiServicePort delegate;
+    private final AiUsageLedger ledger;
+    private final AiTokenEstimator estimator;
+    private final String provider;
+
+    public UsageRecordingAiServiceAdapter(AiServicePort delegate, AiUsageLedger ledger, AiTokenEstimator estimator, String provider) {
+        this.delegate = delegate;
+        this.ledger = ledger;
+        this.estimator = estimator;
+        this.provider = provider;
+    }
+
+    @Override
+    public AiResponse generateResponse(AiRequest request) {
+        AiResponse response = delegate.generateResponse(request);
+        record(request, response);
+        return response;
+    }
+
+    @Override
+    public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+        AiResponse response = delegate.streamResponse(request, chunkConsumer);
+        record(request, response);
+        return response;
+    }
+
+    private void record(AiRequest request, AiResponse response) {
+        if (request == null
+                || request.getUserId() == null
+                || response == null
+                || (Boolean.TRUE.equals(response.getFallback()) && response.getPromptTokens() == null)) {
+            return;
+        }
+        try {
+            ledger.record(
+                    request.getUserId(),
+                    request.getOperation(),
+                    response.getProvider() != null && !response.getProvider().isBlank() ? response.getProvider() : provider,
+                    estimator != null ? estimator.estimateRequestTokens(request) : 0L,
+                    request.getMaxTokens() != null ? request.getMaxTokens() : 0L,
+                    response.getPromptTokens(),
+                    response.getCompletionTokens());
+        } catch (RuntimeException ex) {
+            logger.warn("[AI_USAGE] Usage recording failed userId={} operation={} reason={}",
+                    request.getUserId(), request.getOperation(), ex.getMessage());
+        }
+    }
+}
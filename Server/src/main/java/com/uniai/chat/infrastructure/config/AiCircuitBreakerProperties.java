@@ -0,0 +1,16 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.circuit-breaker")
+public class AiCircuitBreakerProperties {
+
+    private boolean enabled = true;
+    private int failureThreshold = 3;
+    private long openMs = 30000L;
+    private int halfOpenProbes = 1;
+}
@@ -1,9 +1,11 @@
 package com.uniai.chat.infrastructure.config;
 
+import com.uniai.chat.application.dto.ai.AiOperation;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,6 +26,9 @@ public class AiContextBudgetProperties {
     private int requestOverheadTokens = 128;
 
     private Map<String, ProviderBudget> providers = new HashMap<>();
+    private Map<AiOperation, ProviderBudget> operations = new EnumMap<>(AiOperation.class);
+    private Tokenizer tokenizer = new Tokenizer();
+    private Calibration calibration = new Calibration();
 
     @Data
     public static class ProviderBudget {
@@ -33,4 +38,30 @@ public class AiContextBudgetProperties {
         private Integer maxRetrievalTokens;
         private Integer requestOverheadTokens;
     }
+
+    /**
+     * Token counting. {@code family} is {@code auto} (from the active model), {@code llama3}, {@code gemma},
+     * {@code generic} or {@code character}; counts for strings of at least {@code cacheMinChars} are memoized.
+     * Without a vocabulary on the classpath the family profiles are hand-tuned approximations, not exact counts.
+     */
+    @Data
+    public static class Tokenizer {
+        private String family = "auto";
+        private int cacheEntries = 512;
+        private int cacheMinChars = 256;
+    }
+
+    /**
+     * Learned correction of token estimates from provider usage metadata. {@code smoothing} is the weight
+     * of the newest sample; requests estimated below {@code minEstimatedTokens} are not sampled.
+     */
+    @Data
+    public static class Calibration {
+        private boolean enabled = true;
+        private double smoothing = 0.1;
+        private double minFactor = 0.5;
+        private double maxFactor = 2.0;
+        private int minSamples = 5;
+        private long minEstimatedTokens = 200;
+    }
 }
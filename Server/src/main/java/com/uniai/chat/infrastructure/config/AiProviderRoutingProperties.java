@@ -0,0 +1,24 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.routing")
+public class AiProviderRoutingProperties {
+
+    private boolean enabled = false;
+    private List<String> priority = new ArrayList<>(List.of("gemini", "groq", "ollama"));
+    private Map<String, List<String>> operations = new LinkedHashMap<>();
+    private int failureThreshold = 3;
+    private long cooldownSeconds = 30L;
+    private long slowLatencyMs = 8000L;
+    private int maxAttempts = 3;
+}
@@ -0,0 +1,43 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client-side admission limits. Each provider model gets its own buckets, since providers limit per model:
+ * per-operation tier models are not charged to the base model. {@code providers.<provider>} sets the limits
+ * of every model of the provider; {@code providers.<provider>.models.[<model>]} overrides them for one model.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.rate-limit")
+public class AiRateLimitProperties {
+
+    private boolean enabled = true;
+    private long maxWaitMs = 2000L;
+    private long initialBackoffMs = 1000L;
+    private long maxBackoffMs = 30000L;
+    private Map<String, Limit> providers = new LinkedHashMap<>();
+
+    public Limit limitFor(String provider) {
+        Limit limit = provider == null ? null : providers.get(provider);
+        return limit != null ? limit : new Limit();
+    }
+
+    public Limit limitFor(String provider, String model) {
+        Limit providerLimit = limitFor(provider);
+        Limit modelLimit = model == null ? null : providerLimit.getModels().get(model);
+        return modelLimit != null ? modelLimit : providerLimit;
+    }
+
+    @Data
+    public static class Limit {
+        private long requestsPerMinute = 0L;
+        private long tokensPerMinute = 0L;
+        private Map<String, Limit> models = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,42 @@
+package com.uniai.chat.infrastructure.config;
+
+import com.uniai.chat.infrastructure.ai.AiReplayFaultProfile;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline benchmarking support: recording provider exchanges to a fixture file and replaying them,
+ * either in-process with {@code ai.provider=replay} or over HTTP through the mock provider server.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.replay")
+public class AiReplayProperties {
+
+    /** JSON-lines file that live provider exchanges are appended to; blank disables recording. */
+    private String recordFile = "";
+    /** JSON-lines file the replay adapter and mock server answer from. */
+    private String fixtureFile = "";
+    private int streamChunkChars = 24;
+    private double rateLimitRate = 0.0;
+    private double failureRate = 0.0;
+    private Long seed;
+    private Latency latency = new Latency();
+    private MockServer mockServer = new MockServer();
+
+    @Data
+    public static class Latency {
+        private AiReplayFaultProfile.LatencyDistribution distribution = AiReplayFaultProfile.LatencyDistribution.RECORDED;
+        private long medianMs = 0L;
+        private long p99Ms = 0L;
+    }
+
+    @Data
+    public static class MockServer {
+        private boolean enabled = false;
+        private String host = "127.0.0.1";
+        private int port = 8089;
+        private int threads = 32;
+    }
+}
@@ -0,0 +1,14 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.coalescing")
+public class AiRequestCoalescingProperties {
+
+    private boolean enabled = true;
+    private boolean mainResponseEnabled = false;
+}
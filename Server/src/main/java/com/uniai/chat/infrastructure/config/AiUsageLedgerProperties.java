@@ -0,0 +1,20 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user AI token quotas over sliding windows, and how often the usage ledger is written.
+ * A limit of 0 disables that window.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.usage")
+public class AiUsageLedgerProperties {
+    private boolean quotaEnabled = false;
+    private long minuteTokenLimit = 450000;
+    private long dailyTokenLimit = 4000000;
+    private long flushIntervalMs = 30000;
+    private int flushBatchSize = 200;
+}
@@ -0,0 +1,16 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.background")
+public class BackgroundAiJobQueueProperties {
+
+    private int workerThreads = 2;
+    private int queueCapacity = 256;
+    private long memoryUpdateDeadlineMs = 30000L;
+    private long chatTitleDeadlineMs = 60000L;
+}
@@ -2,13 +2,20 @@ package com.uniai.chat.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uniai.catalog.domain.repository.UniversityCatalogRepository;
+import com.uniai.chat.application.background.BackgroundAiJobQueue;
+import com.uniai.chat.application.background.BackgroundAiJobQueueConfiguration;
+import com.uniai.chat.application.background.BackgroundAiJobType;
+import com.uniai.chat.application.dto.ai.AiOperation;
 import com.uniai.chat.application.budget.AiContextBudgetConfiguration;
 import com.uniai.chat.application.budget.AiContextBudgetManager;
+import com.uniai.chat.application.budget.AiTokenCalibration;
 import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.budget.AiTokenizer;
 import com.uniai.chat.application.budget.ConversationMemoryBudgetConfiguration;
 import com.uniai.chat.application.budget.ConversationMemoryBudgetManager;
 import com.uniai.chat.application.budget.GraduateRoutePlannerBudgetConfiguration;
 import com.uniai.chat.application.budget.GraduateRoutePlannerBudgetManager;
+import com.uniai.chat.application.budget.MemoizingAiTokenizer;
 import com.uniai.chat.application.memory.ConversationMemoryManager;
 import com.uniai.chat.application.memory.ConversationMemoryMergePolicy;
 import com.uniai.chat.application.memory.ConversationMemoryTriggerPolicy;
@@ -16,12 +23,23 @@ import com.uniai.chat.application.memory.ConversationMemoryUpdatePort;
 import com.uniai.chat.application.memory.ConversationMemoryValidator;
 import com.uniai.chat.application.port.out.AiProviderStatusPort;
 import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.port.out.AiUsageLedgerPort;
 import com.uniai.chat.application.port.out.ChatTitlePromptPort;
 import com.uniai.chat.application.port.out.ConversationMemoryPersistencePort;
 import com.uniai.chat.application.port.out.ConversationMemoryPromptPort;
 import com.uniai.chat.application.port.out.GraduateRoutePlannerPort;
 import com.uniai.chat.application.planning.GraduateAiRouteCatalog;
 import com.uniai.chat.application.planning.GraduateRoutePlanParser;
+import com.uniai.chat.application.planning.GraduateRoutePlanCache;
+import com.uniai.chat.application.planning.GraduateRouteFastPathPlanner;
+import com.uniai.chat.application.planning.GraduateRouteArgumentValidator;
+import com.uniai.chat.application.planning.GraduateRouteEntityResolver;
+import com.uniai.chat.application.planning.GraduateRouteResultCache;
+import com.uniai.chat.application.planning.GraduateRouteResultCacheConfiguration;
+import com.uniai.chat.application.planning.GraduateRouteContextEncodingConfiguration;
+import com.uniai.chat.infrastructure.metrics.GraduateRouteResultCacheMetrics;
+import com.uniai.chat.application.planning.GraduateRoutePlanCacheConfiguration;
+import com.uniai.chat.application.planning.GraduateRouteDeterministicFallback;
 import com.uniai.chat.application.planning.GraduateRouteFinalContextBuilder;
 import com.uniai.chat.application.planning.GraduateRouteRuntimeManager;
 import com.uniai.chat.application.planning.GraduateAiRouteHandler;
@@ -32,40 +50,84 @@ import com.uniai.chat.application.planning.GraduateProgramRouteHandlers;
 import com.uniai.chat.application.port.out.GraduateProgramRouteDao;
 import com.uniai.chat.application.port.out.GraduateTuitionRouteDao;
 import com.uniai.chat.application.planning.GraduateTuitionRouteHandlers;
+import com.uniai.chat.application.port.out.ChatSystemPromptPort;
 import com.uniai.chat.application.port.out.GraduateCatalogRouteDao;
 import com.uniai.chat.application.planning.GraduateCatalogRouteHandlers;
 import com.uniai.chat.application.port.out.GraduateSupportRouteDao;
 import com.uniai.chat.application.planning.GraduateSupportRouteHandlers;
+import com.uniai.chat.application.prefetch.ChatTurnPrefetchConfiguration;
+import com.uniai.chat.application.prefetch.ChatTurnPrefetcher;
 import com.uniai.chat.application.title.ChatTitleGenerationConfiguration;
 import com.uniai.chat.application.title.ChatTitleGenerationManager;
+import com.uniai.chat.application.postanswer.PostAnswerUpdateManager;
+import com.uniai.chat.application.postanswer.PostAnswerUpdatePort;
+import com.uniai.chat.application.usage.AiUsageLedger;
+import com.uniai.chat.application.usage.AiUsageLedgerConfiguration;
 import com.uniai.chat.domain.repository.ChatRepository;
 import com.uniai.chat.domain.repository.MessageRepository;
+import com.uniai.chat.infrastructure.ai.AiFixtureStore;
+import com.uniai.chat.infrastructure.ai.AiHttpTransport;
+import com.uniai.chat.infrastructure.ai.AiHttpTransportProperties;
+import com.uniai.chat.infrastructure.ai.AiOperationTier;
+import com.uniai.chat.infrastructure.ai.AiProviderCircuitBreaker;
+import com.uniai.chat.infrastructure.ai.AiProviderHealthIndicator;
+import com.uniai.chat.infrastructure.ai.AiProviderPipelines;
+import com.uniai.chat.infrastructure.ai.AiProviderRateLimiter;
+import com.uniai.chat.infrastructure.ai.AiProviderRoutingPolicy;
+import com.uniai.chat.infrastructure.ai.AiReplayFaultProfile;
+import com.uniai.chat.infrastructure.ai.AiTokenCalibrationEndpoint;
+import com.uniai.chat.infrastructure.ai.CircuitBreakingAiServiceAdapter;
+import com.uniai.chat.infrastructure.ai.CoalescingAiServiceAdapter;
 import com.uniai.chat.infrastructure.ai.GeminiAiProperties;
 import com.uniai.chat.infrastructure.ai.GeminiAiServiceAdapter;
 import com.uniai.chat.infrastructure.ai.GroqAiProperties;
 import com.uniai.chat.infrastructure.ai.GroqAiServiceAdapter;
 import com.uniai.chat.infrastructure.ai.InMemoryAiProviderStatusRegistry;
+import com.uniai.chat.infrastructure.ai.MockAiProviderServer;
 import com.uniai.chat.infrastructure.ai.OllamaAiProperties;
 import com.uniai.chat.infrastructure.ai.OllamaAiServiceAdapter;
 import com.uniai.chat.infrastructure.ai.PlaceholderAiServiceAdapter;
+import com.uniai.chat.infrastructure.ai.RateLimitedAiServiceAdapter;
+import com.uniai.chat.infrastructure.ai.RecordingAiServiceAdapter;
+import com.uniai.chat.infrastructure.ai.ReplayAiServiceAdapter;
+import com.uniai.chat.infrastructure.ai.RoutingAiServiceAdapter;
+import com.uniai.chat.infrastructure.ai.TokenCalibratingAiServiceAdapter;
+import com.uniai.chat.infrastructure.ai.UsageRecordingAiServiceAdapter;
 import com.uniai.chat.infrastructure.interpretation.AiGraduateRoutePlannerAdapter;
+import com.uniai.chat.infrastructure.interpretation.GraduateRoutePlanHedgePolicy;
+import com.uniai.chat.infrastructure.interpretation.GraduateRoutePlanHedger;
 import com.uniai.chat.infrastructure.memory.AiConversationMemoryUpdateAdapter;
+import com.uniai.chat.infrastructure.memory.AiPostAnswerUpdateAdapter;
 import com.uniai.chat.infrastructure.prompt.GraduateRoutePlannerPromptProvider;
+import com.uniai.chat.infrastructure.persistence.cache.RecentMessageCache;
+import com.uniai.chat.infrastructure.tokenizer.AiTokenizers;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.time.Duration;
+import java.nio.file.Path;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Configuration
 public class ChatAiConfiguration {
@@ -78,14 +140,13 @@ public class ChatAiConfiguration {
         Map<String, AiContextBudgetConfiguration.ProviderBudget> providerBudgets = new LinkedHashMap<>();
 
         if (properties != null && properties.getProviders() != null) {
-            properties.getProviders().forEach((provider, budget) -> providerBudgets.put(
-                    provider,
-                    new AiContextBudgetConfiguration.ProviderBudget(
-                            budget != null ? budget.getMaxInputTokens() : null,
-                            budget != null ? budget.getReservedOutputTokens() : null,
-                            budget != null ? budget.getMaxHistoryTokens() : null,
-                            budget != null ? budget.getMaxRetrievalTokens() : null,
-                            budget != null ? budget.getRequestOverheadTokens() : null)));
+            properties.getProviders().forEach((provider, budget) -> providerBudgets.put(provider, toProviderBudget(budget)));
+        }
+
+        Map<AiOperation, AiContextBudgetConfiguration.ProviderBudget> operationBudgets = new EnumMap<>(AiOperation.class);
+
+        if (properties != null && properties.getOperations() != null) {
+            properties.getOperations().forEach((operation, budget) -> operationBudgets.put(operation, toProviderBudget(budget)));
         }
 
         return new AiContextBudgetConfiguration(
@@ -95,13 +156,54 @@ public class ChatAiConfiguration {
                 properties != null ? properties.getMaxRetrievalTokens() : 120000,
                 properties != null ? properties.getCharactersPerToken() : 4,
                 properties != null ? properties.getRequestOverheadTokens() : 128,
-                providerBudgets);
+                providerBudgets,
+                operationBudgets);
+    }
+
+    private static AiContextBudgetConfiguration.ProviderBudget toProviderBudget(AiContextBudgetProperties.ProviderBudget budget) {
+        return new AiContextBudgetConfiguration.ProviderBudget(
+                budget != null ? budget.getMaxInputTokens() : null,
+                budget != null ? budget.getReservedOutputTokens() : null,
+                budget != null ? budget.getMaxHistoryTokens() : null,
+                budget != null ? budget.getMaxRetrievalTokens() : null,
+                budget != null ? budget.getRequestOverheadTokens() : null);
+    }
+
+    @Bean
+    public AiTokenCalibration aiTokenCalibration(AiContextBudgetProperties properties) {
+        AiContextBudgetProperties.Calibration settings = properties.getCalibration();
+        return new AiTokenCalibration(new AiTokenCalibration.Settings(
+                settings.isEnabled(),
+                settings.getSmoothing(),
+                settings.getMinFactor(),
+                settings.getMaxFactor(),
+                settings.getMinSamples(),
+                settings.getMinEstimatedTokens()));
     }
 
     @Bean
     public AiTokenEstimator aiTokenEstimator(
-            AiContextBudgetConfiguration configuration) {
-        return new AiTokenEstimator(configuration);
+            AiContextBudgetConfiguration configuration,
+            AiContextBudgetProperties properties,
+            AiTokenCalibration calibration,
+            @Value("${ai.provider:placeholder}") String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties) {
+        String normalizedProvider = normalizeProvider(provider);
+        AiContextBudgetProperties.Tokenizer settings = properties.getTokenizer();
+        String family = AiTokenizers.family(
+                settings.getFamily(),
+                normalizedProvider,
+                configuredModel(normalizedProvider, geminiAiProperties, groqAiProperties, ollamaAiProperties));
+        AiTokenizer tokenizer = AiTokenizers.create(family, configuration.charactersPerToken());
+        logger.info("[AI] Token estimator tokenizer={} cacheEntries={} cacheMinChars={} calibration={}",
+                tokenizer.name(), settings.getCacheEntries(), settings.getCacheMinChars(), calibration.settings().enabled());
+        return new AiTokenEstimator(
+                configuration,
+                new MemoizingAiTokenizer(tokenizer, settings.getCacheEntries(), settings.getCacheMinChars()),
+                calibration,
+                normalizedProvider);
     }
 
     @Bean
@@ -173,13 +275,46 @@ public class ChatAiConfiguration {
     @Bean
     public GraduateAiRouterManager graduateAiRouterManager(
             GraduateRoutePlanParser parser,
-            GraduateAiRouteRegistry registry) {
-        return new GraduateAiRouterManager(parser, registry);
+            GraduateAiRouteRegistry registry,
+            GraduateRouteResultCache resultCache) {
+        return new GraduateAiRouterManager(parser, registry,
+                new GraduateRouteArgumentValidator(), new GraduateRouteEntityResolver(), resultCache);
+    }
+
+    @Bean
+    public GraduateRouteResultCache graduateRouteResultCache(
+            GraduateRouteResultCacheProperties properties,
+            ObjectProvider<Flyway> flyway,
+            MeterRegistry meterRegistry) {
+        GraduateRouteResultCache cache = new GraduateRouteResultCache(
+                new GraduateRouteResultCacheConfiguration(
+                        properties.isEnabled(), properties.getMaxEntries(), properties.getMaxBytes()),
+                () -> currentSchemaVersion(flyway));
+        new GraduateRouteResultCacheMetrics(cache, "graduateRouteResults", List.of()).bindTo(meterRegistry);
+        return cache;
     }
 
     @Bean
-    public GraduateRouteFinalContextBuilder graduateRouteFinalContextBuilder() {
-        return new GraduateRouteFinalContextBuilder();
+    public GraduateRouteFinalContextBuilder graduateRouteFinalContextBuilder(
+            GraduateRouteContextProperties properties,
+            @Value("${ai.provider:placeholder}") String provider,
+            AiProviderRoutingProperties routingProperties,
+            AiTokenEstimator estimator,
+            MeterRegistry meterRegistry) {
+        if (routingProperties.isEnabled()) {
+            properties.getProviders().keySet().stream()
+                    .map(this::normalizeProvider)
+                    .filter(configured -> !configured.equals(normalizeProvider(provider)))
+                    .forEach(configured -> logger.info(
+                            "[AI_ROUTE_CONTEXT] Encoding for provider={} is not applied to routed calls; context uses provider={}",
+                            configured, normalizeProvider(provider)));
+        }
+        return new GraduateRouteFinalContextBuilder(
+                new GraduateRouteContextEncodingConfiguration(
+                        properties.getEncoding(), properties.getRoutes(), properties.getProviders()),
+                normalizeProvider(provider),
+                estimator,
+                meterRegistry);
     }
 
     @Bean
@@ -188,13 +323,39 @@ public class ChatAiConfiguration {
             GraduateRoutePlannerPromptProvider promptProvider,
             GraduateRoutePlannerBudgetManager budgetManager,
             GraduateAiRouterManager routerManager,
-            GraduateRouteFinalContextBuilder contextBuilder) {
+            GraduateRouteFinalContextBuilder contextBuilder,
+            GraduateRoutePlanParser parser,
+            GraduateRoutePlanCache planCache,
+            GraduateRouteFastPathPlanner fastPathPlanner,
+            GraduateRoutePlannerProperties properties) {
         return new GraduateRouteRuntimeManager(
                 plannerPort,
                 promptProvider,
                 budgetManager,
                 routerManager,
-                contextBuilder);
+                contextBuilder,
+                new GraduateRouteDeterministicFallback(parser),
+                planCache,
+                properties.getFastPath().isEnabled() ? fastPathPlanner : null);
+    }
+
+    @Bean
+    public GraduateRouteFastPathPlanner graduateRouteFastPathPlanner(
+            GraduateRoutePlanParser parser,
+            GraduateRoutePlannerProperties properties,
+            MeterRegistry meterRegistry) {
+        return new GraduateRouteFastPathPlanner(
+                parser, properties.getFastPath().getConfidenceThreshold(), meterRegistry);
+    }
+
+    @Bean
+    public GraduateRoutePlanCache graduateRoutePlanCache(
+            GraduateRoutePlannerProperties properties,
+            MeterRegistry meterRegistry) {
+        GraduateRoutePlannerProperties.Cache cache = properties.getCache();
+        return new GraduateRoutePlanCache(
+                new GraduateRoutePlanCacheConfiguration(cache.isEnabled(), cache.getMaxEntries(), cache.getTtlSeconds()),
+                meterRegistry);
     }
 
     @Bean
@@ -283,6 +444,37 @@ public class ChatAiConfiguration {
                 budgetConfiguration);
     }
 
+    @Bean
+    public PostAnswerUpdatePort postAnswerUpdatePort(
+            AiServicePort aiServicePort,
+            ConversationMemoryPromptPort memoryPromptPort,
+            ChatTitlePromptPort titlePromptPort,
+            ConversationMemoryBudgetConfiguration memoryBudgetConfiguration,
+            ChatTitleGenerationConfiguration titleConfiguration,
+            ObjectMapper objectMapper) {
+        return new AiPostAnswerUpdateAdapter(
+                aiServicePort,
+                memoryPromptPort,
+                titlePromptPort,
+                memoryBudgetConfiguration,
+                titleConfiguration,
+                objectMapper);
+    }
+
+    @Bean
+    public PostAnswerUpdateManager postAnswerUpdateManager(
+            ConversationMemoryManager conversationMemoryManager,
+            ChatTitleGenerationManager chatTitleGenerationManager,
+            PostAnswerUpdatePort postAnswerUpdatePort,
+            @Value("${ai.post-answer.combined-enabled:true}") boolean combinedEnabled,
+            MeterRegistry meterRegistry) {
+        return new PostAnswerUpdateManager(
+                conversationMemoryManager,
+                chatTitleGenerationManager,
+                combinedEnabled ? postAnswerUpdatePort : null,
+                meterRegistry);
+    }
+
     @Bean
     public ChatTitleGenerationConfiguration chatTitleGenerationConfiguration(
             @Value("${ai.provider:placeholder}") String provider) {
@@ -290,7 +482,8 @@ public class ChatAiConfiguration {
 
         boolean enabled = "gemini".equals(normalizedProvider)
                 || "groq".equals(normalizedProvider)
-                || "ollama".equals(normalizedProvider);
+                || "ollama".equals(normalizedProvider)
+                || "replay".equals(normalizedProvider);
 
         return new ChatTitleGenerationConfiguration(
                 enabled,
@@ -300,14 +493,108 @@ public class ChatAiConfiguration {
     }
 
     @Bean(destroyMethod = "shutdown")
-    public Executor chatTitleExecutor() {
-        return Executors.newSingleThreadExecutor(runnable -> {
-            Thread thread = new Thread(
-                    runnable,
-                    "chat-title-generator");
-            thread.setDaemon(true);
-            return thread;
-        });
+    public BackgroundAiJobQueue backgroundAiJobQueue(BackgroundAiJobQueueProperties properties, MeterRegistry meterRegistry) {
+        return new BackgroundAiJobQueue(
+                new BackgroundAiJobQueueConfiguration(
+                        properties.getWorkerThreads(),
+                        properties.getQueueCapacity(),
+                        properties.getMemoryUpdateDeadlineMs(),
+                        properties.getChatTitleDeadlineMs()),
+                meterRegistry);
+    }
+
+    /** Flushed on shutdown so counts recorded since the last scheduled flush are kept. */
+    @Bean(destroyMethod = "flush")
+    public AiUsageLedger aiUsageLedger(AiUsageLedgerProperties properties, AiUsageLedgerPort aiUsageLedgerPort, MeterRegistry meterRegistry) {
+        return new AiUsageLedger(
+                new AiUsageLedgerConfiguration(
+                        properties.isQuotaEnabled(),
+                        properties.getMinuteTokenLimit(),
+                        properties.getDailyTokenLimit(),
+                        properties.getFlushBatchSize()),
+                aiUsageLedgerPort,
+                meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService chatStreamExecutor(
+            @Value("${ai.stream.worker-threads:8}") int workerThreads,
+            @Value("${ai.stream.queue-capacity:32}") int queueCapacity) {
+        int threads = Math.max(1, workerThreads);
+        AtomicInteger threadCounter = new AtomicInteger();
+        // When saturated new streams are rejected, and the controller answers them with an error event.
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(
+                            runnable,
+                            "chat-stream-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService chatPrefetchExecutor(ChatTurnPrefetchProperties properties) {
+        int workerThreads = Math.max(1, properties.getWorkerThreads());
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Rejects when saturated; the prefetcher then skips optional stages and reads required ones inline.
+        return new ThreadPoolExecutor(
+                workerThreads,
+                workerThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(
+                            runnable,
+                            "chat-prefetch-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public ChatTurnPrefetchConfiguration chatTurnPrefetchConfiguration(ChatTurnPrefetchProperties properties) {
+        return new ChatTurnPrefetchConfiguration(
+                properties.getMemoryTimeoutMs(),
+                properties.getHistoryTimeoutMs(),
+                properties.getCatalogTimeoutMs(),
+                properties.getPromptTimeoutMs(),
+                properties.getTurnCountTimeoutMs());
+    }
+
+    @Bean
+    public RecentMessageCache recentMessageCache(RecentMessageCacheProperties properties, MeterRegistry meterRegistry) {
+        return new RecentMessageCache(
+                properties.isEnabled() ? properties.getMaxChats() : 0,
+                properties.getMessagesPerChat(),
+                meterRegistry);
+    }
+
+    @Bean
+    public ChatTurnPrefetcher chatTurnPrefetcher(
+            ConversationMemoryManager conversationMemoryManager,
+            MessageRepository messageRepository,
+            UniversityCatalogRepository universityCatalogRepository,
+            ChatSystemPromptPort chatSystemPromptPort,
+            @Qualifier("chatPrefetchExecutor") Executor chatPrefetchExecutor,
+            ChatTurnPrefetchConfiguration configuration,
+            MeterRegistry meterRegistry) {
+        return new ChatTurnPrefetcher(
+                conversationMemoryManager,
+                messageRepository,
+                universityCatalogRepository,
+                chatSystemPromptPort,
+                chatPrefetchExecutor,
+                configuration,
+                meterRegistry);
     }
 
     @Bean
@@ -318,7 +605,7 @@ public class ChatAiConfiguration {
             AiTokenEstimator estimator,
             ChatTitleGenerationConfiguration configuration,
             @Value("${ai.provider:placeholder}") String provider,
-            @Qualifier("chatTitleExecutor") Executor chatTitleExecutor,
+            BackgroundAiJobQueue backgroundAiJobQueue,
             MeterRegistry meterRegistry) {
         return new ChatTitleGenerationManager(
                 chatRepository,
@@ -326,16 +613,42 @@ public class ChatAiConfiguration {
                 promptPort,
                 estimator,
                 configuration,
-                chatTitleExecutor,
+                backgroundAiJobQueue.executor(BackgroundAiJobType.CHAT_TITLE),
                 provider,
                 meterRegistry);
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public AiHttpTransport aiHttpTransport(AiHttpTransportProperties properties, MeterRegistry meterRegistry) {
+        return new AiHttpTransport(
+                Duration.ofMillis(properties.getConnectTimeoutMs()),
+                Duration.ofMillis(properties.getReadTimeoutMs()),
+                properties.getMaxConnectionsPerProvider(),
+                properties.isHttp2Enabled(),
+                properties.getMaxResponseBytes(),
+                meterRegistry);
+    }
+
     @Bean
     public AiProviderStatusPort aiProviderStatusPort() {
         return new InMemoryAiProviderStatusRegistry();
     }
 
+    @Bean
+    public AiProviderHealthIndicator aiProvidersHealthIndicator(AiProviderStatusPort aiProviderStatusPort) {
+        return new AiProviderHealthIndicator(aiProviderStatusPort);
+    }
+
+    @Bean
+    public AiProviderPipelines aiProviderPipelines() {
+        return new AiProviderPipelines();
+    }
+
+    @Bean
+    public AiTokenCalibrationEndpoint aiTokenCalibrationEndpoint(AiTokenEstimator aiTokenEstimator) {
+        return new AiTokenCalibrationEndpoint(aiTokenEstimator);
+    }
+
     @Bean
     public AiServicePort aiServicePort(
             @Value("${ai.provider:placeholder}") String provider,
@@ -344,6 +657,451 @@ public class ChatAiConfiguration {
             OllamaAiProperties ollamaAiProperties,
             AiProviderStatusPort aiProviderStatusPort,
             ObjectMapper objectMapper,
+            AiRequestCoalescingProperties coalescingProperties,
+            AiProviderRoutingProperties routingProperties,
+            AiContextBudgetManager aiContextBudgetManager,
+            AiRateLimitProperties rateLimitProperties,
+            AiCircuitBreakerProperties circuitBreakerProperties,
+            AiTokenEstimator aiTokenEstimator,
+            AiHttpTransport aiHttpTransport,
+            AiReplayProperties replayProperties,
+            AiProviderPipelines aiProviderPipelines,
+            AiUsageLedger aiUsageLedger,
+            MeterRegistry meterRegistry) {
+        if ("replay".equals(normalizeProvider(provider))) {
+            return coalesced(replayAiServicePort(replayProperties, objectMapper, aiProviderStatusPort, meterRegistry),
+                    coalescingProperties, meterRegistry);
+        }
+        AiServicePort aiServicePort = routingProperties.isEnabled()
+                ? routingAiServicePort(
+                        provider,
+                        geminiAiProperties,
+                        groqAiProperties,
+                        ollamaAiProperties,
+                        aiProviderStatusPort,
+                        objectMapper,
+                        routingProperties,
+                        aiContextBudgetManager,
+                        rateLimitProperties,
+                        circuitBreakerProperties,
+                        aiTokenEstimator,
+                        aiHttpTransport,
+                        aiProviderPipelines,
+                        meterRegistry)
+                : singleProviderAiServicePort(
+                        provider,
+                        geminiAiProperties,
+                        groqAiProperties,
+                        ollamaAiProperties,
+                        aiProviderStatusPort,
+                        objectMapper,
+                        rateLimitProperties,
+                        circuitBreakerProperties,
+                        aiTokenEstimator,
+                        aiHttpTransport,
+                        aiProviderPipelines,
+                        meterRegistry);
+        if (hasText(replayProperties.getRecordFile())) {
+            // Recording sits inside coalescing so only calls that reached a provider become fixtures.
+            logger.info("[AI_REPLAY] Recording provider exchanges file={}", replayProperties.getRecordFile());
+            aiServicePort = new RecordingAiServiceAdapter(aiServicePort, Path.of(replayProperties.getRecordFile()), objectMapper, meterRegistry);
+        }
+        return coalesced(usageRecorded(aiServicePort, provider, aiUsageLedger, aiTokenEstimator), coalescingProperties, meterRegistry);
+    }
+
+    private AiServicePort usageRecorded(AiServicePort aiServicePort, String provider, AiUsageLedger aiUsageLedger, AiTokenEstimator aiTokenEstimator) {
+        if (aiUsageLedger == null || aiServicePort instanceof PlaceholderAiServiceAdapter) {
+            return aiServicePort;
+        }
+        return new UsageRecordingAiServiceAdapter(aiServicePort, aiUsageLedger, aiTokenEstimator, normalizeProvider(provider));
+    }
+
+    private AiServicePort coalesced(AiServicePort aiServicePort, AiRequestCoalescingProperties coalescingProperties, MeterRegistry meterRegistry) {
+        if (!coalescingProperties.isEnabled()) {
+            return aiServicePort;
+        }
+        logger.info("[AI] Request coalescing enabled mainResponse={}", coalescingProperties.isMainResponseEnabled());
+        return new CoalescingAiServiceAdapter(aiServicePort, coalescingProperties.isMainResponseEnabled(), meterRegistry);
+    }
+
+    private AiServicePort replayAiServicePort(
+            AiReplayProperties replayProperties,
+            ObjectMapper objectMapper,
+            AiProviderStatusPort aiProviderStatusPort,
+            MeterRegistry meterRegistry) {
+        AiFixtureStore fixtures = fixtureStore(replayProperties, objectMapper);
+        logger.info("[AI] Provider selected provider=replay fixtures={} latency={}",
+                fixtures.size(), replayProperties.getLatency().getDistribution());
+        return new ReplayAiServiceAdapter(
+                fixtures,
+                replayFaultProfile(replayProperties),
+                replayProperties.getStreamChunkChars(),
+                aiProviderStatusPort,
+                meterRegistry);
+    }
+
+    /** Serves recorded fixtures in the providers' wire formats, for load tests that go through the real adapters. */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "ai.replay.mock-server", name = "enabled", havingValue = "true")
+    public MockAiProviderServer mockAiProviderServer(AiReplayProperties replayProperties, ObjectMapper objectMapper) {
+        AiReplayProperties.MockServer settings = replayProperties.getMockServer();
+        MockAiProviderServer server = new MockAiProviderServer(
+                fixtureStore(replayProperties, objectMapper),
+                replayFaultProfile(replayProperties),
+                objectMapper,
+                settings.getHost(),
+                settings.getPort(),
+                settings.getThreads(),
+                replayProperties.getStreamChunkChars());
+        server.start();
+        return server;
+    }
+
+    private AiFixtureStore fixtureStore(AiReplayProperties replayProperties, ObjectMapper objectMapper) {
+        if (!hasText(replayProperties.getFixtureFile())) {
+            logger.warn("[AI_REPLAY] No fixture file configured; replies echo the user message");
+            return new AiFixtureStore(List.of());
+        }
+        return AiFixtureStore.load(Path.of(replayProperties.getFixtureFile()), objectMapper);
+    }
+
+    private AiReplayFaultProfile replayFaultProfile(AiReplayProperties replayProperties) {
+        AiReplayProperties.Latency latency = replayProperties.getLatency();
+        return new AiReplayFaultProfile(
+                latency.getDistribution(),
+                latency.getMedianMs(),
+                latency.getP99Ms(),
+                replayProperties.getRateLimitRate(),
+                replayProperties.getFailureRate(),
+                replayProperties.getSeed());
+    }
+
+    public AiServicePort routingAiServicePort(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            ObjectMapper objectMapper,
+            AiProviderRoutingProperties routingProperties,
+            AiContextBudgetManager aiContextBudgetManager,
+            AiRateLimitProperties rateLimitProperties,
+            AiCircuitBreakerProperties circuitBreakerProperties,
+            AiTokenEstimator aiTokenEstimator,
+            AiHttpTransport aiHttpTransport,
+            AiProviderPipelines aiProviderPipelines,
+            MeterRegistry meterRegistry) {
+        Map<String, AiServicePort> providers = new LinkedHashMap<>();
+        for (String candidate : routingProperties.getPriority()) {
+            String normalizedCandidate = normalizeProvider(candidate);
+            if (providers.containsKey(normalizedCandidate)) {
+                continue;
+            }
+            AiServicePort pipeline = routedProviderPipeline(
+                    normalizedCandidate,
+                    geminiAiProperties,
+                    groqAiProperties,
+                    ollamaAiProperties,
+                    aiProviderStatusPort,
+                    objectMapper,
+                    rateLimitProperties,
+                    circuitBreakerProperties,
+                    aiTokenEstimator,
+                    aiHttpTransport,
+                    aiProviderPipelines,
+                    meterRegistry);
+            if (pipeline == null) {
+                logger.warn("[AI] Routing skipped provider={} reason=not_configured", normalizedCandidate);
+                continue;
+            }
+            providers.put(normalizedCandidate, pipeline);
+        }
+
+        if (providers.size() < 2) {
+            logger.warn("[AI] Routing needs at least two configured providers configured={} using provider={}",
+                    providers.keySet(), provider);
+            return singleProviderAiServicePort(
+                    provider,
+                    geminiAiProperties,
+                    groqAiProperties,
+                    ollamaAiProperties,
+                    aiProviderStatusPort,
+                    objectMapper,
+                    rateLimitProperties,
+                    circuitBreakerProperties,
+                    aiTokenEstimator,
+                    aiHttpTransport,
+                    aiProviderPipelines,
+                    meterRegistry);
+        }
+
+        Map<AiOperation, List<String>> operationOrders = new LinkedHashMap<>();
+        routingProperties.getOperations().forEach((operation, order) -> {
+            try {
+                operationOrders.put(AiOperation.valueOf(operation.trim().replace('-', '_').toUpperCase(Locale.ROOT)), order);
+            } catch (IllegalArgumentException ex) {
+                logger.warn("[AI] Routing ignored unknown operation={}", operation);
+            }
+        });
+
+        logger.info("[AI] Provider routing enabled priority={} operations={}", providers.keySet(), operationOrders);
+        return new RoutingAiServiceAdapter(
+                providers,
+                operationOrders,
+                new AiProviderRoutingPolicy(
+                        routingProperties.getFailureThreshold(),
+                        Duration.ofSeconds(routingProperties.getCooldownSeconds()),
+                        routingProperties.getSlowLatencyMs(),
+                        routingProperties.getMaxAttempts()),
+                aiProviderStatusPort,
+                aiContextBudgetManager,
+                meterRegistry);
+    }
+
+    private AiServicePort singleProviderAiServicePort(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            ObjectMapper objectMapper,
+            AiRateLimitProperties rateLimitProperties,
+            AiCircuitBreakerProperties circuitBreakerProperties,
+            AiTokenEstimator aiTokenEstimator,
+            AiHttpTransport aiHttpTransport,
+            AiProviderPipelines aiProviderPipelines,
+            MeterRegistry meterRegistry) {
+        return aiProviderPipelines.computeIfAbsent(provider, normalizedProvider -> providerPipeline(
+                normalizedProvider,
+                configuredModel(normalizedProvider, geminiAiProperties, groqAiProperties, ollamaAiProperties),
+                configuredTiers(normalizedProvider, geminiAiProperties, groqAiProperties, ollamaAiProperties),
+                aiServicePort(
+                        provider,
+                        geminiAiProperties,
+                        groqAiProperties,
+                        ollamaAiProperties,
+                        aiProviderStatusPort,
+                        objectMapper,
+                        aiHttpTransport,
+                        meterRegistry),
+                rateLimitProperties,
+                circuitBreakerProperties,
+                aiProviderStatusPort,
+                aiTokenEstimator,
+                meterRegistry));
+    }
+
+    /**
+     * The shared pipeline of a routing or hedge target, or {@code null} when the provider is not configured.
+     * A provider already built for another caller is returned as is.
+     */
+    private AiServicePort routedProviderPipeline(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            ObjectMapper objectMapper,
+            AiRateLimitProperties rateLimitProperties,
+            AiCircuitBreakerProperties circuitBreakerProperties,
+            AiTokenEstimator aiTokenEstimator,
+            AiHttpTransport aiHttpTransport,
+            AiProviderPipelines aiProviderPipelines,
+            MeterRegistry meterRegistry) {
+        return aiProviderPipelines.computeIfAbsent(provider, normalizedProvider -> {
+            AiServicePort adapter = routedProviderAdapter(
+                    normalizedProvider,
+                    geminiAiProperties,
+                    groqAiProperties,
+                    ollamaAiProperties,
+                    aiProviderStatusPort,
+                    objectMapper,
+                    aiHttpTransport,
+                    meterRegistry);
+            return adapter == null ? null : providerPipeline(
+                    normalizedProvider,
+                    configuredModel(normalizedProvider, geminiAiProperties, groqAiProperties, ollamaAiProperties),
+                    configuredTiers(normalizedProvider, geminiAiProperties, groqAiProperties, ollamaAiProperties),
+                    adapter,
+                    rateLimitProperties,
+                    circuitBreakerProperties,
+                    aiProviderStatusPort,
+                    aiTokenEstimator,
+                    meterRegistry);
+        });
+    }
+
+    /**
+     * Wraps a provider adapter in its admission control and, outside that, its circuit breakers, so an
+     * open circuit refuses a call before it takes rate-limit capacity. Token calibration sits directly
+     * around the adapter so it only sees responses from this provider.
+     */
+    private AiServicePort providerPipeline(
+            String provider,
+            String model,
+            Supplier<Map<AiOperation, AiOperationTier>> tiers,
+            AiServicePort adapter,
+            AiRateLimitProperties rateLimitProperties,
+            AiCircuitBreakerProperties circuitBreakerProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            AiTokenEstimator aiTokenEstimator,
+            MeterRegistry meterRegistry) {
+        AiServicePort calibrated = calibrated(provider, model, adapter, aiTokenEstimator, meterRegistry);
+        AiTokenEstimator providerEstimator = aiTokenEstimator != null ? aiTokenEstimator.forProvider(provider) : null;
+        AiServicePort rateLimited = rateLimited(provider, model, tiers, calibrated, rateLimitProperties, providerEstimator, meterRegistry);
+        if (circuitBreakerProperties == null || !circuitBreakerProperties.isEnabled() || adapter instanceof PlaceholderAiServiceAdapter) {
+            return rateLimited;
+        }
+        logger.info("[AI] Circuit breakers enabled provider={} failureThreshold={} openMs={} halfOpenProbes={}",
+                provider,
+                circuitBreakerProperties.getFailureThreshold(),
+                circuitBreakerProperties.getOpenMs(),
+                circuitBreakerProperties.getHalfOpenProbes());
+        return new CircuitBreakingAiServiceAdapter(
+                rateLimited,
+                provider,
+                () -> new AiProviderCircuitBreaker(
+                        circuitBreakerProperties.getFailureThreshold(),
+                        circuitBreakerProperties.getOpenMs(),
+                        circuitBreakerProperties.getHalfOpenProbes()),
+                aiProviderStatusPort,
+                meterRegistry);
+    }
+
+    private AiServicePort calibrated(
+            String provider,
+            String model,
+            AiServicePort adapter,
+            AiTokenEstimator aiTokenEstimator,
+            MeterRegistry meterRegistry) {
+        AiTokenCalibration calibration = aiTokenEstimator != null ? aiTokenEstimator.calibration() : null;
+        if (calibration == null || !calibration.settings().enabled() || adapter instanceof PlaceholderAiServiceAdapter) {
+            return adapter;
+        }
+        return new TokenCalibratingAiServiceAdapter(adapter, provider, model, aiTokenEstimator, calibration, meterRegistry);
+    }
+
+    /**
+     * Rate limits are kept per provider model: a request is charged to the bucket of the model its
+     * operation tier sends it to, so a smaller title or planner model does not use the base model's quota.
+     */
+    private AiServicePort rateLimited(
+            String provider,
+            String model,
+            Supplier<Map<AiOperation, AiOperationTier>> tiers,
+            AiServicePort adapter,
+            AiRateLimitProperties rateLimitProperties,
+            AiTokenEstimator aiTokenEstimator,
+            MeterRegistry meterRegistry) {
+        if (rateLimitProperties == null || !rateLimitProperties.isEnabled() || adapter instanceof PlaceholderAiServiceAdapter) {
+            return adapter;
+        }
+        return new RateLimitedAiServiceAdapter(
+                adapter,
+                provider,
+                request -> AiOperationTier.modelFor(
+                        tiers.get(),
+                        request != null && request.getOperation() != null ? request.getOperation() : AiOperation.UNKNOWN,
+                        model),
+                tierModel -> {
+                    AiRateLimitProperties.Limit limit = rateLimitProperties.limitFor(provider, tierModel);
+                    logger.info("[AI] Rate limiting enabled provider={} model={} requestsPerMinute={} tokensPerMinute={} maxWaitMs={}",
+                            provider, tierModel, limit.getRequestsPerMinute(), limit.getTokensPerMinute(), rateLimitProperties.getMaxWaitMs());
+                    return new AiProviderRateLimiter(
+                            provider,
+                            tierModel,
+                            limit.getRequestsPerMinute(),
+                            limit.getTokensPerMinute(),
+                            Duration.ofMillis(rateLimitProperties.getInitialBackoffMs()),
+                            Duration.ofMillis(rateLimitProperties.getMaxBackoffMs()));
+                },
+                aiTokenEstimator,
+                Duration.ofMillis(rateLimitProperties.getMaxWaitMs()),
+                meterRegistry);
+    }
+
+    private Supplier<Map<AiOperation, AiOperationTier>> configuredTiers(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties) {
+        if ("gemini".equals(provider)) {
+            return geminiAiProperties::getOperations;
+        }
+        if ("groq".equals(provider)) {
+            return groqAiProperties::getOperations;
+        }
+        if ("ollama".equals(provider)) {
+            return ollamaAiProperties::getOperations;
+        }
+        return Map::of;
+    }
+
+    private String configuredModel(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties) {
+        if ("gemini".equals(provider)) {
+            return geminiAiProperties.getModel();
+        }
+        if ("groq".equals(provider)) {
+            return groqAiProperties.getModel();
+        }
+        if ("ollama".equals(provider)) {
+            return ollamaAiProperties.getModel();
+        }
+        return provider;
+    }
+
+    private AiServicePort routedProviderAdapter(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            ObjectMapper objectMapper,
+            AiHttpTransport aiHttpTransport,
+            MeterRegistry meterRegistry) {
+        if ("gemini".equals(provider) && hasText(geminiAiProperties.getApiKey())) {
+            return new GeminiAiServiceAdapter(geminiAiProperties, objectMapper, aiHttpTransport, aiProviderStatusPort, meterRegistry);
+        }
+        if ("groq".equals(provider) && hasText(groqAiProperties.getApiKey())) {
+            return new GroqAiServiceAdapter(groqAiProperties, objectMapper, aiHttpTransport, aiProviderStatusPort, meterRegistry);
+        }
+        if ("ollama".equals(provider)) {
+            return new OllamaAiServiceAdapter(ollamaAiProperties, objectMapper, aiHttpTransport, aiProviderStatusPort, meterRegistry);
+        }
+        return null;
+    }
+
+    public AiServicePort aiServicePort(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        return aiServicePort(
+                provider,
+                geminiAiProperties,
+                groqAiProperties,
+                ollamaAiProperties,
+                aiProviderStatusPort,
+                objectMapper,
+                AiHttpTransport.defaultTransport(),
+                meterRegistry);
+    }
+
+    public AiServicePort aiServicePort(
+            String provider,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            ObjectMapper objectMapper,
+            AiHttpTransport aiHttpTransport,
             MeterRegistry meterRegistry) {
         String normalizedProvider = normalizeProvider(provider);
 
@@ -355,6 +1113,7 @@ public class ChatAiConfiguration {
             AiServicePort aiServicePort = new GeminiAiServiceAdapter(
                     geminiAiProperties,
                     objectMapper,
+                    aiHttpTransport,
                     aiProviderStatusPort,
                     meterRegistry);
 
@@ -373,6 +1132,7 @@ public class ChatAiConfiguration {
             AiServicePort aiServicePort = new GroqAiServiceAdapter(
                     groqAiProperties,
                     objectMapper,
+                    aiHttpTransport,
                     aiProviderStatusPort,
                     meterRegistry);
 
@@ -391,6 +1151,7 @@ public class ChatAiConfiguration {
             AiServicePort aiServicePort = new OllamaAiServiceAdapter(
                     ollamaAiProperties,
                     objectMapper,
+                    aiHttpTransport,
                     aiProviderStatusPort,
                     meterRegistry);
 
@@ -437,14 +1198,121 @@ public class ChatAiConfiguration {
                 null);
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService routePlannerHedgeExecutor(GraduateRoutePlannerProperties properties) {
+        GraduateRoutePlannerProperties.Hedging hedging = properties.getHedging();
+        int workerThreads = Math.max(1, hedging.getWorkerThreads());
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Rejects when saturated; the hedger then skips the hedge or runs the primary on the calling thread.
+        return new ThreadPoolExecutor(
+                workerThreads,
+                workerThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, hedging.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(
+                            runnable,
+                            "ai-route-planner-hedge-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
     @Bean
     public GraduateRoutePlannerPort graduateRoutePlannerPort(
             @Value("${ai.provider:placeholder}") String provider,
             AiServicePort aiServicePort,
             GraduateRoutePlannerPromptProvider promptProvider,
             GraduateRoutePlannerBudgetConfiguration configuration,
-            GraduateRoutePlanParser parser) {
-        return new AiGraduateRoutePlannerAdapter(aiServicePort, promptProvider, configuration, parser);
+            GraduateRoutePlanParser parser,
+            GraduateRoutePlannerProperties properties,
+            GeminiAiProperties geminiAiProperties,
+            GroqAiProperties groqAiProperties,
+            OllamaAiProperties ollamaAiProperties,
+            AiProviderStatusPort aiProviderStatusPort,
+            ObjectMapper objectMapper,
+            AiRateLimitProperties rateLimitProperties,
+            AiCircuitBreakerProperties circuitBreakerProperties,
+            AiTokenEstimator aiTokenEstimator,
+            AiHttpTransport aiHttpTransport,
+            AiProviderPipelines aiProviderPipelines,
+            AiUsageLedger aiUsageLedger,
+            @Qualifier("routePlannerHedgeExecutor") ExecutorService routePlannerHedgeExecutor,
+            MeterRegistry meterRegistry) {
+        GraduateRoutePlannerProperties.Hedging hedging = properties.getHedging();
+        if (!hedging.isEnabled()) {
+            return new AiGraduateRoutePlannerAdapter(aiServicePort, promptProvider, configuration, parser);
+        }
+
+        // Hedges bypass coalescing, which would otherwise attach the duplicate to the call it hedges.
+        AiServicePort primary = aiServicePort instanceof CoalescingAiServiceAdapter coalescing
+                ? coalescing.delegate()
+                : aiServicePort;
+        AiServicePort hedgePort = primary;
+        String hedgeTarget = normalizeProvider(provider);
+        if (hasText(hedging.getProvider())) {
+            String hedgeProvider = normalizeProvider(hedging.getProvider());
+            // Reuses the provider's pipeline when routing or the primary path already built it, so the
+            // hedge shares its rate limits, circuit breakers and context cache.
+            AiServicePort pipeline = routedProviderPipeline(
+                    hedgeProvider,
+                    geminiAiProperties,
+                    groqAiProperties,
+                    ollamaAiProperties,
+                    aiProviderStatusPort,
+                    objectMapper,
+                    rateLimitProperties,
+                    circuitBreakerProperties,
+                    aiTokenEstimator,
+                    aiHttpTransport,
+                    aiProviderPipelines,
+                    meterRegistry);
+            if (pipeline == null) {
+                logger.warn("[AI_ROUTE_PLANNER] Hedge provider not configured provider={} using provider={}",
+                        hedgeProvider, hedgeTarget);
+            } else {
+                // The shared pipeline sits below usage recording, so the hedge is charged here.
+                hedgePort = usageRecorded(pipeline, hedgeProvider, aiUsageLedger, aiTokenEstimator);
+                hedgeTarget = hedgeProvider;
+            }
+        }
+
+        GraduateRoutePlanHedgePolicy policy = new GraduateRoutePlanHedgePolicy(
+                hedging.getPercentile(),
+                hedging.getInitialDelayMs(),
+                hedging.getMinDelayMs(),
+                hedging.getMaxDelayMs(),
+                hedging.getBudgetPercent(),
+                hedging.getSampleSize(),
+                hedging.getMinSamples());
+        logger.info("[AI_ROUTE_PLANNER] Hedging enabled target={} percentile={} budgetPercent={}",
+                hedgeTarget, policy.percentile(), policy.budgetPercent());
+        return new AiGraduateRoutePlannerAdapter(
+                aiServicePort,
+                promptProvider,
+                configuration,
+                parser,
+                new GraduateRoutePlanHedger(primary, hedgePort, hedgeTarget, policy, meterRegistry, routePlannerHedgeExecutor));
+    }
+
+    private String currentSchemaVersion(ObjectProvider<Flyway> flyway) {
+        Flyway migrations = flyway.getIfAvailable();
+        if (migrations == null) {
+            return null;
+        }
+        try {
+            MigrationInfo current = migrations.info().current();
+            return current != null && current.getVersion() != null ? "v" + current.getVersion().getVersion() : null;
+        } catch (RuntimeException ex) {
+            logger.warn("[AI_ROUTE_CACHE] Unable to read schema version reason={}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.isBlank();
     }
 
     private String normalizeProvider(String provider) {
@@ -0,0 +1,19 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.prefetch")
+public class ChatTurnPrefetchProperties {
+
+    private int workerThreads = 8;
+    private int queueCapacity = 64;
+    private long memoryTimeoutMs = 2000L;
+    private long historyTimeoutMs = 2000L;
+    private long catalogTimeoutMs = 3000L;
+    private long promptTimeoutMs = 1000L;
+    private long turnCountTimeoutMs = 1000L;
+}
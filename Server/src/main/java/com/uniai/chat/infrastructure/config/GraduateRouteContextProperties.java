@@ -0,0 +1,26 @@
+package com.uniai.chat.infrastructure.config;
+
+import com.uniai.chat.application.planning.GraduateAiRoute;
+import com.uniai.chat.application.planning.GraduateRouteContextEncoding;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encoding of route result rows in the final answer context: {@code labeled} or {@code compact}.
+ * {@code routes.<ROUTE>} overrides {@code providers.<provider>}, which overrides {@code encoding}.
+ * Only the entry of {@code ai.provider} is used: the context is built before provider routing runs,
+ * so a routed or failed-over call receives the primary provider's encoding.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.route-context")
+public class GraduateRouteContextProperties {
+    private GraduateRouteContextEncoding encoding = GraduateRouteContextEncoding.LABELED;
+    private Map<GraduateAiRoute, GraduateRouteContextEncoding> routes = new EnumMap<>(GraduateAiRoute.class);
+    private Map<String, GraduateRouteContextEncoding> providers = new HashMap<>();
+}
@@ -12,4 +12,37 @@ public class GraduateRoutePlannerProperties {
     private int maxOutputTokens = 500;
     private int historyMessageLimit = 4;
     private String promptPath = "prompts/graduate-route-planner-prompt.txt";
+    private Cache cache = new Cache();
+    private FastPath fastPath = new FastPath();
+    private Hedging hedging = new Hedging();
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxEntries = 2000;
+        private long ttlSeconds = 600L;
+    }
+
+    @Data
+    public static class FastPath {
+        private boolean enabled = true;
+        private double confidenceThreshold = 0.75d;
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        /** Provider that receives hedges; blank duplicates the call on the configured provider stack. */
+        private String provider = "";
+        private double percentile = 0.9d;
+        private long initialDelayMs = 1500L;
+        private long minDelayMs = 100L;
+        private long maxDelayMs = 5000L;
+        private double budgetPercent = 10.0d;
+        private int sampleSize = 200;
+        private int minSamples = 20;
+        /** Threads running primary and hedge attempts; every hedged call holds two while both run. */
+        private int workerThreads = 16;
+        private int queueCapacity = 16;
+    }
 }
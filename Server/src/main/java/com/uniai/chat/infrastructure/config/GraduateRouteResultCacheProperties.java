@@ -0,0 +1,14 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.route-result-cache")
+public class GraduateRouteResultCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 5000;
+    private long maxBytes = 32L * 1024L * 1024L;
+}
@@ -0,0 +1,15 @@
+package com.uniai.chat.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.history-cache")
+public class RecentMessageCacheProperties {
+
+    private boolean enabled = true;
+    private int maxChats = 10000;
+    private int messagesPerChat = 16;
+}
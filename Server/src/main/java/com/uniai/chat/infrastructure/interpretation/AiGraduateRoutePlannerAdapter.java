@@ -28,20 +28,44 @@ public final class AiGraduateRoutePlannerAdapter implements GraduateRoutePlanner
     private final GraduateRoutePlannerPromptPort promptPort;
     private final GraduateRoutePlannerBudgetConfiguration budgetConfiguration;
     private final GraduateRoutePlanParser parser;
+    private final GraduateRoutePlanHedger hedger;
 
     public AiGraduateRoutePlannerAdapter(AiServicePort aiServicePort,
                                          GraduateRoutePlannerPromptPort promptPort,
                                          GraduateRoutePlannerBudgetConfiguration budgetConfiguration,
                                          GraduateRoutePlanParser parser) {
+        this(aiServicePort, promptPort, budgetConfiguration, parser, null);
+    }
+
+    /**
+     * @param hedger optional; when present, slow planner calls are duplicated and the first
+     *               response that passes validation wins
+     */
+    public AiGraduateRoutePlannerAdapter(AiServicePort aiServicePort,
+                                         GraduateRoutePlannerPromptPort promptPort,
+                                         GraduateRoutePlannerBudgetConfiguration budgetConfiguration,
+                                         GraduateRoutePlanParser parser,
+                                         GraduateRoutePlanHedger hedger) {
         this.aiServicePort = aiServicePort;
         this.promptPort = promptPort;
         this.budgetConfiguration = budgetConfiguration;
         this.parser = parser;
+        this.hedger = hedger;
     }
 
     @Override
     public ValidatedGraduateRoutePlan<?> plan(GraduateRoutePlanningRequest request) {
-        AiResponse response = requestProvider(request);
+        AiRequest aiRequest = buildRequest(request);
+        if (hedger == null) {
+            return acceptPlan(aiServicePort.generateResponse(aiRequest), aiRequest, request);
+        }
+        return hedger.execute(aiRequest, response -> acceptPlan(response, aiRequest, request));
+    }
+
+    private ValidatedGraduateRoutePlan<?> acceptPlan(AiResponse response,
+                                                     AiRequest aiRequest,
+                                                     GraduateRoutePlanningRequest request) {
+        checkResponse(response, aiRequest);
         if (!StringUtils.hasText(response.getContent())) {
             throw providerFailure("AI_QUERY_PLANNER_PROVIDER_EMPTY", "Route planner provider returned empty content");
         }
@@ -64,22 +88,27 @@ public final class AiGraduateRoutePlannerAdapter implements GraduateRoutePlanner
         }
     }
 
-    private AiResponse requestProvider(GraduateRoutePlanningRequest request) {
+    private AiRequest buildRequest(GraduateRoutePlanningRequest request) {
         String userMessage = request != null ? request.userMessage() : null;
         List<AiConversationMessage> history = request != null ? request.recentConversationHistory() : List.of();
         ConversationMemory memory = request != null ? request.conversationMemory() : ConversationMemory.empty();
-        String prompt = appendMemory(promptPort.getPrompt(), memory);
+        String plannerPrompt = promptPort.getPrompt();
+        String prompt = appendMemory(plannerPrompt, memory);
 
-        AiRequest aiRequest = AiRequest.builder()
+        return AiRequest.builder()
                 .systemPrompt(prompt)
+                .staticPromptPrefix(plannerPrompt)
                 .userMessage(userMessage)
                 .conversationHistory(history)
                 .conversationMemory(memory)
                 .operation(AiOperation.INTERPRETATION)
+                .userId(request != null ? request.userId() : null)
                 .temperature(0.0)
                 .maxTokens(budgetConfiguration != null ? budgetConfiguration.maxOutputTokens() : 500)
                 .build();
-        AiResponse response = aiServicePort.generateResponse(aiRequest);
+    }
+
+    private void checkResponse(AiResponse response, AiRequest aiRequest) {
         if (response == null || Boolean.TRUE.equals(response.getFallback())) {
             throw providerFailure("AI_QUERY_PLANNER_PROVIDER_UNAVAILABLE", "Route planner provider is unavailable");
         }
@@ -89,9 +118,9 @@ public final class AiGraduateRoutePlannerAdapter implements GraduateRoutePlanner
                     response.getProvider(), response.getModel(), response.getFinishReason());
             throw providerFailure("AI_QUERY_PLANNER_PROVIDER_TRUNCATED", "Route planner response was truncated");
         }
+        int historyCount = aiRequest.getConversationHistory() != null ? aiRequest.getConversationHistory().size() : 0;
         logger.debug("[AI_ROUTE_PLANNER] Plan received provider={} model={} historyCount={} maxTokens={}",
-                response.getProvider(), response.getModel(), history.size(), aiRequest.getMaxTokens());
-        return response;
+                response.getProvider(), response.getModel(), historyCount, aiRequest.getMaxTokens());
     }
 
     private String appendMemory(String prompt, ConversationMemory memory) {
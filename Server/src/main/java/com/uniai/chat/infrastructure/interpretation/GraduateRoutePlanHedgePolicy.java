@@ -0,0 +1,36 @@
+package com.uniai.chat.infrastructure.interpretation;
+
+/**
+ * Settings used by {@link GraduateRoutePlanHedger} to decide when a planner call is duplicated.
+ *
+ * @param percentile observed latency percentile used as the hedge delay, between 0 and 1
+ * @param initialDelayMillis delay used until {@code minSamples} latencies have been observed
+ * @param minDelayMillis lower bound of the adaptive delay
+ * @param maxDelayMillis upper bound of the adaptive delay
+ * @param budgetPercent share of planner calls that may fire a hedge
+ * @param sampleSize number of recent latencies the percentile is computed over
+ * @param minSamples latencies required before the adaptive delay replaces the initial one
+ */
+public record GraduateRoutePlanHedgePolicy(
+        double percentile,
+        long initialDelayMillis,
+        long minDelayMillis,
+        long maxDelayMillis,
+        double budgetPercent,
+        int sampleSize,
+        int minSamples
+) {
+    public GraduateRoutePlanHedgePolicy {
+        percentile = Math.min(1.0d, Math.max(0.0d, percentile));
+        minDelayMillis = Math.max(0L, minDelayMillis);
+        maxDelayMillis = Math.max(minDelayMillis, maxDelayMillis);
+        initialDelayMillis = Math.min(maxDelayMillis, Math.max(minDelayMillis, initialDelayMillis));
+        budgetPercent = Math.min(100.0d, Math.max(0.0d, budgetPercent));
+        sampleSize = Math.max(1, sampleSize);
+        minSamples = Math.min(sampleSize, Math.max(1, minSamples));
+    }
+
+    public static GraduateRoutePlanHedgePolicy defaults() {
+        return new GraduateRoutePlanHedgePolicy(0.9d, 1500L, 100L, 5000L, 10.0d, 200, 20);
+    }
+}
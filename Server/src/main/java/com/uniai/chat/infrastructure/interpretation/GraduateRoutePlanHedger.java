@@ -0,0 +1,213 @@
+package com.uniai.chat.infrastructure.interpretation;
+
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.planning.GraduateRoutePlannerProviderException;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hedges route-planner calls against tail latency. The primary call runs first; if it has not
+ * finished after the observed latency percentile, a duplicate goes to the hedge port and the first
+ * attempt whose response the caller accepts wins. The other attempt is cancelled by interrupting
+ * it, which the provider stack treats as an abandoned call rather than a provider failure.
+ * <p>
+ * Hedges are capped at a share of all planner calls so a slow provider cannot double the load on it.
+ * A primary that finishes before the delay, successfully or not, is never hedged: hedging targets
+ * slow answers, not failed ones.
+ * <p>
+ * Attempts run on a bounded executor owned by the caller. When it is saturated the hedge is skipped,
+ * and a primary that cannot be queued runs on the calling thread without a hedge.
+ */
+public class GraduateRoutePlanHedger {
+
+    private static final Logger logger = LogManager.getLogger(GraduateRoutePlanHedger.class);
+
+    private final AiServicePort primary;
+    private final AiServicePort hedge;
+    private final String hedgeTarget;
+    private final GraduateRoutePlanHedgePolicy policy;
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final long[] latencies;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private int latencyCount;
+    private int nextLatency;
+
+    public GraduateRoutePlanHedger(
+            AiServicePort primary,
+            AiServicePort hedge,
+            String hedgeTarget,
+            GraduateRoutePlanHedgePolicy policy,
+            MeterRegistry meterRegistry,
+            Executor executor
+    ) {
+        this.primary = primary;
+        this.hedge = hedge != null ? hedge : primary;
+        this.hedgeTarget = hedgeTarget == null || hedgeTarget.isBlank() ? "primary" : hedgeTarget;
+        this.policy = policy != null ? policy : GraduateRoutePlanHedgePolicy.defaults();
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.latencies = new long[this.policy.sampleSize()];
+    }
+
+    /**
+     * Runs the request, hedging it when the primary is slow, and returns the first result the
+     * acceptor produces. The acceptor rejects a response by throwing; when every attempt is rejected
+     * the primary's failure is rethrown.
+     */
+    public <T> T execute(AiRequest request, Function<AiResponse, T> acceptor) {
+        calls.incrementAndGet();
+        long delayMillis = hedgeDelayMillis();
+        CompletionService<Attempt<T>> attempts = new ExecutorCompletionService<>(executor);
+        long startNanos = System.nanoTime();
+        Future<Attempt<T>> primaryCall;
+        try {
+            primaryCall = attempts.submit(() -> attempt(primary, request, acceptor, false));
+        } catch (RejectedExecutionException ex) {
+            record("rejected");
+            return acceptor.apply(primary.generateResponse(request));
+        }
+        Future<Attempt<T>> hedgeCall = null;
+        boolean primaryFinished = false;
+        try {
+            Future<Attempt<T>> finished = attempts.poll(delayMillis, TimeUnit.MILLISECONDS);
+            if (finished == null) {
+                if (tryReserveHedge()) {
+                    hedgeCall = submitHedge(attempts, request, acceptor, delayMillis);
+                } else {
+                    record("budget_exhausted");
+                }
+                finished = attempts.take();
+            }
+
+            int pending = hedgeCall != null ? 2 : 1;
+            RuntimeException failure = null;
+            while (true) {
+                Attempt<T> attempt = finished.get();
+                pending--;
+                if (!attempt.hedge()) {
+                    primaryFinished = true;
+                    recordLatency(attempt.elapsedNanos());
+                }
+                if (attempt.failure() == null) {
+                    if (attempt.hedge()) {
+                        record("won");
+                        logger.debug("[AI_ROUTE_PLANNER] Hedge won target={} delayMs={}", hedgeTarget, delayMillis);
+                    }
+                    return attempt.value();
+                }
+                if (failure == null || !attempt.hedge()) {
+                    failure = attempt.failure();
+                }
+                if (pending == 0) {
+                    throw failure;
+                }
+                finished = attempts.take();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GraduateRoutePlannerProviderException(
+                    "Route planner call was interrupted", "AI_QUERY_PLANNER_PROVIDER_UNAVAILABLE");
+        } catch (ExecutionException ex) {
+            // Attempts capture runtime exceptions themselves, so only errors reach this point.
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            if (!primaryFinished && primaryCall.cancel(true)) {
+                // A cancelled primary still tells us it took at least this long.
+                recordLatency(System.nanoTime() - startNanos);
+            }
+            if (hedgeCall != null) {
+                hedgeCall.cancel(true);
+            }
+        }
+    }
+
+    long hedgeDelayMillis() {
+        long[] samples;
+        synchronized (latencies) {
+            if (latencyCount < policy.minSamples()) {
+                return policy.initialDelayMillis();
+            }
+            samples = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(samples);
+        int index = Math.max(0, (int) Math.ceil(policy.percentile() * samples.length) - 1);
+        long delayMillis = TimeUnit.NANOSECONDS.toMillis(samples[index]);
+        return Math.min(policy.maxDelayMillis(), Math.max(policy.minDelayMillis(), delayMillis));
+    }
+
+    private <T> Future<Attempt<T>> submitHedge(
+            CompletionService<Attempt<T>> attempts, AiRequest request, Function<AiResponse, T> acceptor, long delayMillis) {
+        try {
+            Future<Attempt<T>> hedgeCall = attempts.submit(() -> attempt(hedge, request, acceptor, true));
+            record("fired");
+            logger.debug("[AI_ROUTE_PLANNER] Hedge fired target={} delayMs={}", hedgeTarget, delayMillis);
+            return hedgeCall;
+        } catch (RejectedExecutionException ex) {
+            hedges.decrementAndGet();
+            record("rejected");
+            return null;
+        }
+    }
+
+    private <T> Attempt<T> attempt(AiServicePort port, AiRequest request, Function<AiResponse, T> acceptor, boolean hedged) {
+        long startNanos = System.nanoTime();
+        try {
+            T value = acceptor.apply(port.generateResponse(request));
+            return new Attempt<>(hedged, value, null, System.nanoTime() - startNanos);
+        } catch (RuntimeException ex) {
+            return new Attempt<>(hedged, null, ex, System.nanoTime() - startNanos);
+        }
+    }
+
+    private boolean tryReserveHedge() {
+        while (true) {
+            long fired = hedges.get();
+            if ((fired + 1) * 100.0d > calls.get() * policy.budgetPercent()) {
+                return false;
+            }
+            if (hedges.compareAndSet(fired, fired + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void recordLatency(long elapsedNanos) {
+        synchronized (latencies) {
+            latencies[nextLatency] = elapsedNanos;
+            nextLatency = (nextLatency + 1) % latencies.length;
+            latencyCount = Math.min(latencies.length, latencyCount + 1);
+        }
+    }
+
+    private void record(String outcome) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.ROUTE_PLAN_HEDGES,
+                "Route planner hedged requests",
+                "target", hedgeTarget,
+                "outcome", outcome);
+    }
+
+    private record Attempt<T>(boolean hedge, T value, RuntimeException failure, long elapsedNanos) {
+    }
+}
@@ -49,6 +49,7 @@ public class AiConversationMemoryUpdateAdapter implements ConversationMemoryUpda
                 .userMessage(request.currentUserMessage())
                 .context(buildContext(memoryText, request))
                 .operation(AiOperation.MEMORY_UPDATE)
+                .userId(request.userId())
                 .maxTokens(maxTokens)
                 .build();
 
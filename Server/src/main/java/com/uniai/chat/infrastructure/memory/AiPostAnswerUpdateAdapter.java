@@ -0,0 +1,153 @@
+package com.uniai.chat.infrastructure.memory;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.application.budget.ConversationMemoryBudgetConfiguration;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.memory.ConversationMemoryPatch;
+import com.uniai.chat.application.memory.ConversationMemoryPromptFormatter;
+import com.uniai.chat.application.memory.ConversationMemoryUpdateRequest;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.port.out.ChatTitlePromptPort;
+import com.uniai.chat.application.port.out.ConversationMemoryPromptPort;
+import com.uniai.chat.application.postanswer.PostAnswerUpdate;
+import com.uniai.chat.application.postanswer.PostAnswerUpdatePort;
+import com.uniai.chat.application.title.ChatTitleGenerationConfiguration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AiPostAnswerUpdateAdapter implements PostAnswerUpdatePort {
+
+    private static final Logger logger = LogManager.getLogger(AiPostAnswerUpdateAdapter.class);
+
+    private static final String COMBINED_INSTRUCTIONS = """
+            You perform two independent tasks for the same conversation turn and answer with exactly one JSON object:
+            {"memoryPatch": <object produced by TASK 1>, "title": <string produced by TASK 2>}
+            Return only that JSON object, without markdown fences or commentary.""";
+
+    private final AiServicePort aiServicePort;
+    private final ConversationMemoryPromptPort memoryPromptPort;
+    private final ChatTitlePromptPort titlePromptPort;
+    private final int maxTokens;
+    private final ObjectMapper objectMapper;
+
+    public AiPostAnswerUpdateAdapter(
+            AiServicePort aiServicePort,
+            ConversationMemoryPromptPort memoryPromptPort,
+            ChatTitlePromptPort titlePromptPort,
+            ConversationMemoryBudgetConfiguration memoryBudgetConfiguration,
+            ChatTitleGenerationConfiguration titleConfiguration,
+            ObjectMapper objectMapper
+    ) {
+        this.aiServicePort = aiServicePort;
+        this.memoryPromptPort = memoryPromptPort;
+        this.titlePromptPort = titlePromptPort;
+        this.maxTokens = (memoryBudgetConfiguration != null ? memoryBudgetConfiguration.maxOutputTokens() : 250)
+                + (titleConfiguration != null ? titleConfiguration.maxOutputTokens() : 32);
+        this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public PostAnswerUpdate proposeUpdate(ConversationMemoryUpdateRequest memoryRequest) {
+        AiRequest aiRequest = AiRequest.builder()
+                .systemPrompt(buildSystemPrompt())
+                .userMessage(memoryRequest.currentUserMessage())
+                .context(buildContext(memoryRequest))
+                .operation(AiOperation.POST_ANSWER_UPDATE)
+                .userId(memoryRequest.userId())
+                .temperature(0.0)
+                .maxTokens(maxTokens)
+                .build();
+
+        AiResponse response = aiServicePort.generateResponse(aiRequest);
+        if (response == null || Boolean.TRUE.equals(response.getFallback()) || !StringUtils.hasText(response.getContent())) {
+            throw new IllegalStateException("Post-answer update provider failed");
+        }
+
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(stripMarkdownFences(response.getContent()));
+        } catch (Exception ex) {
+            logger.warn("[AI_POST_ANSWER] Combined response parse failed provider={} model={} reason={}",
+                    response.getProvider(),
+                    response.getModel(),
+                    ex.getMessage());
+            throw new IllegalStateException("Post-answer update response could not be parsed", ex);
+        }
+        if (root == null || !root.isObject()) {
+            throw new IllegalStateException("Post-answer update response is not a JSON object");
+        }
+
+        PostAnswerUpdate update = new PostAnswerUpdate(readPatch(root.get("memoryPatch"), response), readTitle(root.get("title")));
+        logger.debug("[AI_POST_ANSWER] Combined response parsed provider={} model={} memoryPatch={} title={}",
+                response.getProvider(),
+                response.getModel(),
+                update.memoryPatch() != null,
+                update.title() != null);
+        return update;
+    }
+
+    private String buildSystemPrompt() {
+        String memoryPrompt = memoryPromptPort != null ? memoryPromptPort.getPrompt() : "";
+        String titlePrompt = titlePromptPort != null ? titlePromptPort.getPrompt() : "";
+        return COMBINED_INSTRUCTIONS
+                + "\n\nTASK 1 - conversation memory patch:\n" + (memoryPrompt != null ? memoryPrompt : "")
+                + "\n\nTASK 2 - chat title for the user message:\n" + (titlePrompt != null ? titlePrompt : "");
+    }
+
+    private List<String> buildContext(ConversationMemoryUpdateRequest request) {
+        List<String> context = new ArrayList<>();
+        String memoryText = ConversationMemoryPromptFormatter.render(request.previousMemory());
+        if (StringUtils.hasText(memoryText)) {
+            context.add("Previous trusted memory:\n" + memoryText);
+        }
+        if (request.routeResult() != null) {
+            context.add("Validated interpretation:\n"
+                    + "route=" + request.routeResult().route()
+                    + "\nresolvedUniversities=" + request.routeResult().resolvedUniversities().size()
+                    + "\nempty=" + request.routeResult().empty());
+        }
+        if (StringUtils.hasText(request.assistantResponse())) {
+            context.add("Final assistant response:\n" + request.assistantResponse());
+        }
+        return context;
+    }
+
+    private ConversationMemoryPatch readPatch(JsonNode node, AiResponse response) {
+        if (node == null || !node.isObject()) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(node, ConversationMemoryPatch.class);
+        } catch (Exception ex) {
+            logger.warn("[AI_POST_ANSWER] Memory half could not be read provider={} model={} reason={}",
+                    response.getProvider(),
+                    response.getModel(),
+                    ex.getMessage());
+            return null;
+        }
+    }
+
+    private String readTitle(JsonNode node) {
+        return node != null && node.isTextual() && StringUtils.hasText(node.textValue()) ? node.textValue() : null;
+    }
+
+    private String stripMarkdownFences(String content) {
+        String trimmed = content.trim();
+        if (trimmed.startsWith("```")) {
+            int firstNewLine = trimmed.indexOf('\n');
+            int lastFence = trimmed.lastIndexOf("```");
+            if (firstNewLine >= 0 && lastFence > firstNewLine) {
+                return trimmed.substring(firstNewLine + 1, lastFence).trim();
+            }
+        }
+        return trimmed;
+    }
+}
@@ -15,11 +15,45 @@ import java.util.Locale;
 public final class ChatAiMetrics {
 
     public static final String CHAT_REQUEST_DURATION = "uniai.chat.request.duration";
+    public static final String TRANSACTION_ACQUIRE = "uniai.chat.transaction.acquire";
+    public static final String TRANSACTION_DURATION = "uniai.chat.transaction.duration";
+    public static final String PREFETCH_DURATION = "uniai.chat.prefetch.duration";
+    public static final String PREFETCH_STAGE_DURATION = "uniai.chat.prefetch.stage.duration";
+    public static final String PREFETCH_TIMEOUTS = "uniai.chat.prefetch.timeouts";
+    public static final String PREFETCH_REJECTIONS = "uniai.chat.prefetch.rejections";
+    public static final String HISTORY_CACHE_LOOKUPS = "uniai.chat.history.cache.lookups";
+    public static final String ROUTE_PLAN_CACHE_LOOKUPS = "uniai.ai.route_plan.cache.lookups";
+    public static final String ROUTE_PLAN_CACHE_EVICTIONS = "uniai.ai.route_plan.cache.evictions";
+    public static final String ROUTE_FAST_PATH = "uniai.ai.route_plan.fast_path";
+    public static final String ROUTE_PLAN_HEDGES = "uniai.ai.route_plan.hedges";
     public static final String INTERPRETATION_DURATION = "uniai.ai.interpretation.duration";
     public static final String RESPONSE_DURATION = "uniai.ai.response.duration";
+    public static final String RESPONSE_FIRST_TOKEN = "uniai.chat.response.first_token";
     public static final String RETRIEVAL_DURATION = "uniai.retrieval.duration";
     public static final String PROVIDER_REQUESTS = "uniai.ai.provider.requests";
     public static final String PROVIDER_FAILURES = "uniai.ai.provider.failures";
+    public static final String PROVIDER_COALESCED = "uniai.ai.provider.coalesced";
+    public static final String PROVIDER_ROUTED = "uniai.ai.provider.routed";
+    public static final String PROVIDER_FAILOVERS = "uniai.ai.provider.failovers";
+    public static final String PROVIDER_ROUTING_SKIPS = "uniai.ai.provider.routing.skips";
+    public static final String PROVIDER_CONTEXT_CACHE = "uniai.ai.provider.context_cache";
+    public static final String PROVIDER_PROMPT_TOKENS = "uniai.ai.provider.prompt_tokens";
+    public static final String PROVIDER_CACHED_PROMPT_TOKENS = "uniai.ai.provider.cached_prompt_tokens";
+    public static final String PROVIDER_FIXTURES_RECORDED = "uniai.ai.provider.fixtures.recorded";
+    public static final String PROVIDER_REPLAYS = "uniai.ai.provider.replays";
+    public static final String RATE_LIMIT_WAIT = "uniai.ai.rate_limit.wait";
+    public static final String RATE_LIMIT_WAITING = "uniai.ai.rate_limit.waiting";
+    public static final String RATE_LIMIT_THROTTLED = "uniai.ai.rate_limit.throttled";
+    public static final String RATE_LIMIT_PAUSES = "uniai.ai.rate_limit.pauses";
+    public static final String CIRCUIT_REJECTIONS = "uniai.ai.circuit.rejections";
+    public static final String CIRCUIT_TRANSITIONS = "uniai.ai.circuit.transitions";
+    public static final String BACKGROUND_QUEUE_DEPTH = "uniai.ai.background.queue.depth";
+    public static final String BACKGROUND_QUEUE_AGE = "uniai.ai.background.queue.age";
+    public static final String BACKGROUND_JOBS = "uniai.ai.background.jobs";
+    public static final String AI_HTTP_IN_FLIGHT = "uniai.ai.http.pool.in_flight";
+    public static final String AI_HTTP_POOL_UTILIZATION = "uniai.ai.http.pool.utilization";
+    public static final String AI_HTTP_POOL_WAIT = "uniai.ai.http.pool.wait";
+    public static final String AI_HTTP_POOL_REJECTIONS = "uniai.ai.http.pool.rejections";
     public static final String FALLBACKS = "uniai.ai.fallbacks";
     public static final String INTERPRETATION_INVALID = "uniai.ai.interpretation.invalid";
     public static final String INTERPRETATION_OUTCOMES = "uniai.ai.interpretation.outcomes";
@@ -28,8 +62,15 @@ public final class ChatAiMetrics {
     public static final String RETRIEVAL_REQUESTS = "uniai.retrieval.requests";
     public static final String RETRIEVAL_EMPTY = "uniai.retrieval.empty";
     public static final String BUDGET_REJECTIONS = "uniai.ai.budget.rejections";
+    public static final String POST_ANSWER_CALLS_SAVED = "uniai.ai.post_answer.calls_saved";
     public static final String ESTIMATED_TOKENS = "uniai.ai.request.estimated_tokens";
+    public static final String TOKEN_CALIBRATION_ESTIMATED = "uniai.ai.token_calibration.estimated_tokens";
+    public static final String TOKEN_CALIBRATION_ACTUAL = "uniai.ai.token_calibration.actual_tokens";
+    public static final String TOKEN_CALIBRATION_FACTOR = "uniai.ai.token_calibration.factor";
+    public static final String USAGE_QUOTA_REJECTIONS = "uniai.ai.usage.quota_rejections";
+    public static final String USAGE_LEDGER_FLUSHES = "uniai.ai.usage.ledger_flushes";
     public static final String CONTEXT_SIZE = "uniai.retrieval.context.size";
+    public static final String ROUTE_CONTEXT_TOKENS = "uniai.ai.route_context.tokens";
     public static final String RANKING_CANDIDATES = "uniai.retrieval.ranking.candidates";
     public static final String RANKING_SELECTED = "uniai.retrieval.ranking.selected";
 
@@ -58,6 +99,17 @@ public final class ChatAiMetrics {
                 .increment();
     }
 
+    public static void incrementCounter(MeterRegistry registry, String metricName, String description, double amount, String... keyValues) {
+        if (registry == null || amount <= 0) {
+            return;
+        }
+        Counter.builder(metricName)
+                .description(description)
+                .tags(tags(keyValues))
+                .register(registry)
+                .increment(amount);
+    }
+
     public static void recordSummary(MeterRegistry registry, String metricName, String description, String baseUnit, long value, String... keyValues) {
         if (registry == null || value < 0) {
             return;
@@ -0,0 +1,57 @@
+package com.uniai.chat.infrastructure.metrics;
+
+import com.uniai.chat.application.planning.GraduateRouteResultCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes the route result cache under the standard {@code cache.*} meters so it shows up next
+ * to the other caches in the actuator metrics endpoint.
+ */
+public class GraduateRouteResultCacheMetrics extends CacheMeterBinder<GraduateRouteResultCache> {
+
+    public GraduateRouteResultCacheMetrics(GraduateRouteResultCache cache, String cacheName, Iterable<Tag> tags) {
+        super(cache, cacheName, tags);
+    }
+
+    @Override
+    protected Long size() {
+        GraduateRouteResultCache cache = getCache();
+        return cache != null ? cache.size() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        GraduateRouteResultCache cache = getCache();
+        return cache != null ? cache.hitCount() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        GraduateRouteResultCache cache = getCache();
+        return cache != null ? cache.missCount() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        GraduateRouteResultCache cache = getCache();
+        return cache != null ? cache.evictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        GraduateRouteResultCache cache = getCache();
+        return cache != null ? cache.putCount() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.weight", getCache(), cache -> cache != null ? cache.weightBytes() : 0L)
+                .description("Estimated memory retained by cached route results")
+                .baseUnit("bytes")
+                .tags(getTagsWithCacheName())
+                .register(registry);
+    }
+}
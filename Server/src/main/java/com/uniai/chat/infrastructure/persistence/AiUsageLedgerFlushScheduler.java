@@ -0,0 +1,24 @@
+package com.uniai.chat.infrastructure.persistence;
+
+import com.uniai.chat.application.usage.AiUsageLedger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the in-memory usage ledger to the database on a fixed delay. The ledger bean flushes once more
+ * when the application shuts down.
+ */
+@Component
+public class AiUsageLedgerFlushScheduler {
+
+    private final AiUsageLedger ledger;
+
+    public AiUsageLedgerFlushScheduler(AiUsageLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    @Scheduled(fixedDelayString = "${ai.usage.flush-interval-ms:30000}", initialDelayString = "${ai.usage.flush-interval-ms:30000}")
+    public void flush() {
+        ledger.flush();
+    }
+}
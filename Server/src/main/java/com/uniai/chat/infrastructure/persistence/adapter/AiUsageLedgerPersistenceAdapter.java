@@ -0,0 +1,93 @@
+package com.uniai.chat.infrastructure.persistence.adapter;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.port.out.AiUsageLedgerPort;
+import com.uniai.chat.application.usage.AiUsageLedgerEntry;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Stores ledger batches with one upsert per row that adds to the existing counts. Rows of users deleted
+ * since the counts were recorded are skipped so they cannot fail the rest of the batch.
+ */
+@Repository
+public class AiUsageLedgerPersistenceAdapter implements AiUsageLedgerPort {
+
+    private static final String UPSERT = """
+            INSERT INTO ai_usage_ledger (user_id, usage_date, operation, provider, calls,
+                    estimated_input_tokens, estimated_output_tokens, actual_input_tokens, actual_output_tokens, updated_at)
+            SELECT :userId, :usageDate, :operation, :provider, :calls,
+                    :estimatedInputTokens, :estimatedOutputTokens, :actualInputTokens, :actualOutputTokens, NOW()
+            WHERE EXISTS (SELECT 1 FROM users WHERE id = :userId)
+            ON CONFLICT (user_id, usage_date, operation, provider) DO UPDATE SET
+                calls = ai_usage_ledger.calls + EXCLUDED.calls,
+                estimated_input_tokens = ai_usage_ledger.estimated_input_tokens + EXCLUDED.estimated_input_tokens,
+                estimated_output_tokens = ai_usage_ledger.estimated_output_tokens + EXCLUDED.estimated_output_tokens,
+                actual_input_tokens = ai_usage_ledger.actual_input_tokens + EXCLUDED.actual_input_tokens,
+                actual_output_tokens = ai_usage_ledger.actual_output_tokens + EXCLUDED.actual_output_tokens,
+                updated_at = NOW()
+            """;
+
+    private static final String FIND_BY_USER = """
+            SELECT user_id, usage_date, operation, provider, calls,
+                   estimated_input_tokens, estimated_output_tokens, actual_input_tokens, actual_output_tokens
+            FROM ai_usage_ledger
+            WHERE user_id = :userId
+            ORDER BY usage_date DESC, operation, provider
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public AiUsageLedgerPersistenceAdapter(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void addAll(List<AiUsageLedgerEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] batch = entries.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", entry.userId())
+                        .addValue("usageDate", entry.usageDate())
+                        .addValue("operation", entry.operation().name())
+                        .addValue("provider", entry.provider())
+                        .addValue("calls", entry.calls())
+                        .addValue("estimatedInputTokens", entry.estimatedInputTokens())
+                        .addValue("estimatedOutputTokens", entry.estimatedOutputTokens())
+                        .addValue("actualInputTokens", entry.actualInputTokens())
+                        .addValue("actualOutputTokens", entry.actualOutputTokens()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbc.batchUpdate(UPSERT, batch);
+    }
+
+    @Override
+    public List<AiUsageLedgerEntry> findByUserId(Long userId) {
+        if (userId == null) {
+            return List.of();
+        }
+        return jdbc.query(FIND_BY_USER, new MapSqlParameterSource("userId", userId), (rs, rowNum) -> new AiUsageLedgerEntry(
+                rs.getLong("user_id"),
+                rs.getObject("usage_date", LocalDate.class),
+                operation(rs.getString("operation")),
+                rs.getString("provider"),
+                rs.getLong("calls"),
+                rs.getLong("estimated_input_tokens"),
+                rs.getLong("estimated_output_tokens"),
+                rs.getLong("actual_input_tokens"),
+                rs.getLong("actual_output_tokens")));
+    }
+
+    private static AiOperation operation(String value) {
+        try {
+            return AiOperation.valueOf(value);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return AiOperation.UNKNOWN;
+        }
+    }
+}
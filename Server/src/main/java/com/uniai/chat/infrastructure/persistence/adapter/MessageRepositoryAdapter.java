@@ -1,17 +1,24 @@
 package com.uniai.chat.infrastructure.persistence.adapter;
 
 import com.uniai.chat.domain.model.Message;
+import com.uniai.chat.domain.model.RecentMessage;
 import com.uniai.chat.domain.repository.MessageRepository;
+import com.uniai.chat.infrastructure.persistence.cache.RecentMessageCache;
 import com.uniai.chat.infrastructure.persistence.repository.MessageJpaRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
 /**
  * JPA-backed implementation of the domain {@link MessageRepository} interface.
+ * Keeps the {@link RecentMessageCache} in step with writes: saves are appended after commit and
+ * deletes invalidate the affected chats both immediately and after commit.
  */
 @Repository
 @RequiredArgsConstructor
@@ -19,6 +26,7 @@ public class MessageRepositoryAdapter implements MessageRepository {
 
     private static final Logger logger = LogManager.getLogger(MessageRepositoryAdapter.class);
     private final MessageJpaRepository jpaRepository;
+    private final RecentMessageCache recentMessageCache;
 
     @Override
     public List<Message> findByChatIdOrderByTimestampAsc(Long chatId) {
@@ -30,14 +38,31 @@ public class MessageRepositoryAdapter implements MessageRepository {
         return jpaRepository.findTop10ByChatIdOrderByTimestampDesc(chatId);
     }
 
+    @Override
+    public List<RecentMessage> findRecentByChatId(Long chatId, int limit) {
+        return recentMessageCache.recent(chatId, limit,
+                size -> jpaRepository.findRecentByChatIdNewestFirst(chatId, PageRequest.of(0, size)));
+    }
+
     @Override
     public void deleteByChatId(Long chatId) {
         jpaRepository.deleteByChatId(chatId);
+        afterCommitOrNow(() -> recentMessageCache.invalidate(chatId));
+        recentMessageCache.invalidate(chatId);
     }
 
     @Override
     public void deleteByChatIdIn(List<Long> chatIds) {
         jpaRepository.deleteByChatIdIn(chatIds);
+        afterCommitOrNow(() -> recentMessageCache.invalidateAll(chatIds));
+        recentMessageCache.invalidateAll(chatIds);
+    }
+
+    @Override
+    public void deleteById(Long messageId) {
+        jpaRepository.deleteById(messageId);
+        afterCommitOrNow(() -> recentMessageCache.invalidateMessage(messageId));
+        recentMessageCache.invalidateMessage(messageId);
     }
 
     @Override
@@ -71,6 +96,11 @@ public class MessageRepositoryAdapter implements MessageRepository {
                     saved != null ? saved.getSenderId() : null,
                     saved != null && saved.getContent() != null ? saved.getContent().length() : 0,
                     elapsedMillis(startNanos));
+            if (saved != null && saved.getId() != null) {
+                Long chatId = saved.getChatId();
+                RecentMessage recentMessage = RecentMessage.from(saved);
+                afterCommitOrNow(() -> recentMessageCache.append(chatId, recentMessage));
+            }
             return saved;
         } catch (RuntimeException ex) {
             logger.error("[PERSISTENCE] Message save failed durationMs={} reason={}",
@@ -80,6 +110,19 @@ public class MessageRepositoryAdapter implements MessageRepository {
         }
     }
 
+    private void afterCommitOrNow(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private long elapsedMillis(long startNanos) {
         return (System.nanoTime() - startNanos) / 1_000_000L;
     }
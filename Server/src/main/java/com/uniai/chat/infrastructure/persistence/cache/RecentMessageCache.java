@@ -0,0 +1,189 @@
+package com.uniai.chat.infrastructure.persistence.cache;
+
+import com.uniai.chat.domain.model.RecentMessage;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+/**
+ * In-process cache of the newest messages of recently active chats. Each chat keeps a bounded ring
+ * of its last {@code messagesPerChat} messages; chats are evicted least-recently-used once
+ * {@code maxChats} is exceeded.
+ * <p>
+ * A ring is only created from a full database read, so it always holds the true tail of the chat.
+ * Saves append to rings that already exist and are ignored otherwise. A per-chat stamp stops a
+ * read that raced with a save or a delete from installing a stale ring.
+ */
+public class RecentMessageCache {
+
+    private static final int STAMP_STRIPES = 256;
+
+    private final int maxChats;
+    private final int messagesPerChat;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, ArrayDeque<RecentMessage>> rings;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public RecentMessageCache(int maxChats, int messagesPerChat, MeterRegistry meterRegistry) {
+        this.maxChats = Math.max(0, maxChats);
+        this.messagesPerChat = Math.max(1, messagesPerChat);
+        this.meterRegistry = meterRegistry;
+        this.rings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ArrayDeque<RecentMessage>> eldest) {
+                return size() > RecentMessageCache.this.maxChats;
+            }
+        };
+    }
+
+    /**
+     * Returns the last {@code limit} messages of the chat, oldest first. On a miss the loader is
+     * called with the ring capacity and must return the newest messages, newest first.
+     */
+    public List<RecentMessage> recent(Long chatId, int limit, IntFunction<List<RecentMessage>> newestFirstLoader) {
+        if (chatId == null || limit <= 0) {
+            return List.of();
+        }
+        if (maxChats == 0 || limit > messagesPerChat) {
+            record("bypass");
+            return oldestFirst(newestFirstLoader.apply(limit), limit);
+        }
+
+        synchronized (rings) {
+            ArrayDeque<RecentMessage> ring = rings.get(chatId);
+            if (ring != null) {
+                record("hit");
+                return tail(ring, limit);
+            }
+        }
+
+        record("miss");
+        long stamp = stamps.get(stripe(chatId));
+        List<RecentMessage> loaded = oldestFirst(newestFirstLoader.apply(messagesPerChat), messagesPerChat);
+        synchronized (rings) {
+            if (stamps.get(stripe(chatId)) == stamp && !rings.containsKey(chatId)) {
+                rings.put(chatId, new ArrayDeque<>(loaded));
+            }
+        }
+        return tail(loaded, limit);
+    }
+
+    /**
+     * Appends a committed message to the chat's ring when the chat is cached.
+     */
+    public void append(Long chatId, RecentMessage message) {
+        if (chatId == null || message == null) {
+            return;
+        }
+        synchronized (rings) {
+            stamps.incrementAndGet(stripe(chatId));
+            ArrayDeque<RecentMessage> ring = rings.get(chatId);
+            if (ring == null) {
+                return;
+            }
+            if (message.id() != null && !ring.isEmpty() && ring.peekLast().id() != null
+                    && message.id() < ring.peekLast().id()) {
+                // Commits of concurrent turns can arrive out of order; rebuilding keeps the ring id-ordered.
+                List<RecentMessage> ordered = new ArrayList<>(ring);
+                ordered.add(message);
+                ordered.sort((left, right) -> Long.compare(
+                        left.id() != null ? left.id() : Long.MAX_VALUE,
+                        right.id() != null ? right.id() : Long.MAX_VALUE));
+                ring.clear();
+                ring.addAll(ordered);
+            } else {
+                ring.addLast(message);
+            }
+            while (ring.size() > messagesPerChat) {
+                ring.pollFirst();
+            }
+        }
+    }
+
+    public void invalidate(Long chatId) {
+        if (chatId == null) {
+            return;
+        }
+        synchronized (rings) {
+            stamps.incrementAndGet(stripe(chatId));
+            rings.remove(chatId);
+        }
+    }
+
+    public void invalidateAll(Iterable<Long> chatIds) {
+        if (chatIds == null) {
+            return;
+        }
+        for (Long chatId : chatIds) {
+            invalidate(chatId);
+        }
+    }
+
+    /**
+     * Drops every ring whose chat contains the given message. Used when a single message is removed.
+     */
+    public void invalidateMessage(Long messageId) {
+        if (messageId == null) {
+            return;
+        }
+        synchronized (rings) {
+            Iterator<Map.Entry<Long, ArrayDeque<RecentMessage>>> iterator = rings.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, ArrayDeque<RecentMessage>> entry = iterator.next();
+                for (RecentMessage message : entry.getValue()) {
+                    if (messageId.equals(message.id())) {
+                        stamps.incrementAndGet(stripe(entry.getKey()));
+                        iterator.remove();
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    int size() {
+        synchronized (rings) {
+            return rings.size();
+        }
+    }
+
+    private List<RecentMessage> oldestFirst(List<RecentMessage> newestFirst, int limit) {
+        if (newestFirst == null || newestFirst.isEmpty()) {
+            return List.of();
+        }
+        int count = Math.min(limit, newestFirst.size());
+        List<RecentMessage> ordered = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            ordered.add(newestFirst.get(i));
+        }
+        return ordered;
+    }
+
+    private List<RecentMessage> tail(Collection<RecentMessage> messages, int limit) {
+        List<RecentMessage> copy = new ArrayList<>(messages);
+        return copy.size() <= limit ? copy : List.copyOf(copy.subList(copy.size() - limit, copy.size()));
+    }
+
+    private int stripe(Long chatId) {
+        return Math.floorMod(Long.hashCode(chatId), STAMP_STRIPES);
+    }
+
+    private void record(String result) {
+        ChatAiMetrics.incrementCounter(
+                meterRegistry,
+                ChatAiMetrics.HISTORY_CACHE_LOOKUPS,
+                "Recent-message cache lookups for chat history",
+                "result",
+                result
+        );
+    }
+}
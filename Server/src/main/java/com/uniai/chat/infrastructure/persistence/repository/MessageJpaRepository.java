@@ -1,6 +1,8 @@
 package com.uniai.chat.infrastructure.persistence.repository;
 
 import com.uniai.chat.domain.model.Message;
+import com.uniai.chat.domain.model.RecentMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -18,6 +20,10 @@ public interface MessageJpaRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.chat.id = :chatId ORDER BY m.timestamp DESC LIMIT 10")
     List<Message> findTop10ByChatIdOrderByTimestampDesc(@Param("chatId") Long chatId);
 
+    @Query("SELECT new com.uniai.chat.domain.model.RecentMessage(m.id, m.senderId, m.content) "
+            + "FROM Message m WHERE m.chat.id = :chatId ORDER BY m.timestamp DESC, m.id DESC")
+    List<RecentMessage> findRecentByChatIdNewestFirst(@Param("chatId") Long chatId, Pageable pageable);
+
     @Modifying
     @Query("DELETE FROM Message m WHERE m.chat.id = :chatId")
     void deleteByChatId(@Param("chatId") Long chatId);
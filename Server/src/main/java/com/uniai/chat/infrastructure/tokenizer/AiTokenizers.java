@@ -0,0 +1,74 @@
+package com.uniai.chat.infrastructure.tokenizer;
+
+import com.uniai.chat.application.budget.AiTokenizer;
+import com.uniai.chat.application.budget.CharacterRatioTokenizer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Resolves the tokenizer for a provider family. A BPE vocabulary at {@code tokenizers/<family>.tiktoken}
+ * on the classpath gives exact counts; without one the family's {@link ScriptAwareTokenizer} profile is used.
+ * Family {@code character} keeps the fixed characters-per-token ratio.
+ */
+public final class AiTokenizers {
+
+    public static final String AUTO = "auto";
+    public static final String CHARACTER = "character";
+    static final String VOCABULARY_LOCATION = "tokenizers/%s.tiktoken";
+
+    private static final Logger logger = LogManager.getLogger(AiTokenizers.class);
+
+    private AiTokenizers() {
+    }
+
+    /**
+     * The configured family, or for {@code auto} the family of the active model: Llama models use the
+     * Llama 3 vocabulary, Gemini and Gemma share one, and anything else gets the generic profile.
+     */
+    public static String family(String configuredFamily, String provider, String model) {
+        String configured = normalize(configuredFamily);
+        if (!configured.isEmpty() && !AUTO.equals(configured)) {
+            return configured;
+        }
+        String normalizedModel = normalize(model);
+        if (normalizedModel.contains("llama")) {
+            return ScriptAwareTokenizer.LLAMA3.family();
+        }
+        if (normalizedModel.contains("gemma") || normalizedModel.contains("gemini") || "gemini".equals(normalize(provider))) {
+            return ScriptAwareTokenizer.GEMMA.family();
+        }
+        return ScriptAwareTokenizer.GENERIC.family();
+    }
+
+    public static AiTokenizer create(String family, int charactersPerToken) {
+        return create(family, charactersPerToken, AiTokenizers.class.getClassLoader());
+    }
+
+    static AiTokenizer create(String family, int charactersPerToken, ClassLoader classLoader) {
+        String normalizedFamily = normalize(family);
+        if (CHARACTER.equals(normalizedFamily)) {
+            return new CharacterRatioTokenizer(charactersPerToken);
+        }
+        String location = VOCABULARY_LOCATION.formatted(normalizedFamily);
+        try (InputStream vocabulary = classLoader.getResourceAsStream(location)) {
+            if (vocabulary != null) {
+                BpeTokenizer tokenizer = BpeTokenizer.load(normalizedFamily, vocabulary);
+                logger.info("[AI_TOKENIZER] Vocabulary loaded family={} entries={}", normalizedFamily, tokenizer.vocabularySize());
+                return tokenizer;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load tokenizer vocabulary " + location, ex);
+        }
+        logger.info("[AI_TOKENIZER] No vocabulary found family={} using=script-aware", normalizedFamily);
+        return new ScriptAwareTokenizer(ScriptAwareTokenizer.profile(normalizedFamily));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,134 @@
+package com.uniai.chat.infrastructure.tokenizer;
+
+import com.uniai.chat.application.budget.AiTokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Byte-level BPE token counter over a merge-rank vocabulary in the tiktoken format
+ * ({@code <base64 token> <rank>} per line), which is how Llama 3 and the OpenAI-compatible families ship theirs.
+ * Text is pre-tokenized with the Llama 3 split pattern, then each piece is merged lowest rank first.
+ * <p>
+ * Byte sequences are held as ISO-8859-1 strings, one char per byte, so an ASCII piece is already its own
+ * key and is looked up without encoding. Pieces that are whole vocabulary entries, which covers most
+ * English words, skip the merge loop entirely.
+ */
+public final class BpeTokenizer implements AiTokenizer {
+
+    private static final Pattern PRE_TOKENIZER = Pattern.compile(
+            "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+    private static final int NO_MERGE = Integer.MAX_VALUE;
+
+    private final String family;
+    private final Map<String, Integer> ranks;
+
+    public BpeTokenizer(String family, Map<String, Integer> ranks) {
+        this.family = family;
+        this.ranks = Map.copyOf(ranks);
+    }
+
+    /** Reads a tiktoken rank file; blank lines are skipped and the stream is left open. */
+    public static BpeTokenizer load(String family, InputStream vocabulary) throws IOException {
+        Map<String, Integer> ranks = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(vocabulary, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int separator = line.indexOf(' ');
+            if (separator <= 0) {
+                throw new IOException("Malformed tokenizer vocabulary line for family " + family + ": " + line);
+            }
+            byte[] token = Base64.getDecoder().decode(line.substring(0, separator));
+            ranks.put(new String(token, StandardCharsets.ISO_8859_1), Integer.parseInt(line.substring(separator + 1).trim()));
+        }
+        return new BpeTokenizer(family, ranks);
+    }
+
+    @Override
+    public String name() {
+        return "bpe:" + family;
+    }
+
+    @Override
+    public long countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0L;
+        }
+        long tokens = 0L;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            tokens += countPiece(toBytes(text, matcher.start(), matcher.end()));
+        }
+        return tokens;
+    }
+
+    int vocabularySize() {
+        return ranks.size();
+    }
+
+    private int countPiece(String bytes) {
+        if (bytes.length() <= 1 || ranks.containsKey(bytes)) {
+            return 1;
+        }
+        // boundaries[i] is where part i starts; pairRanks[i] is the rank of merging parts i and i + 1.
+        int parts = bytes.length();
+        int[] boundaries = new int[parts + 1];
+        for (int index = 0; index <= parts; index++) {
+            boundaries[index] = index;
+        }
+        int[] pairRanks = new int[parts];
+        for (int index = 0; index < parts - 1; index++) {
+            pairRanks[index] = rank(bytes, boundaries[index], boundaries[index + 2]);
+        }
+        pairRanks[parts - 1] = NO_MERGE;
+
+        while (parts > 1) {
+            int best = -1;
+            int bestRank = NO_MERGE;
+            for (int index = 0; index < parts - 1; index++) {
+                if (pairRanks[index] < bestRank) {
+                    bestRank = pairRanks[index];
+                    best = index;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            System.arraycopy(boundaries, best + 2, boundaries, best + 1, parts - best - 1);
+            System.arraycopy(pairRanks, best + 2, pairRanks, best + 1, parts - best - 2);
+            parts--;
+            pairRanks[parts - 1] = NO_MERGE;
+            pairRanks[best] = best + 1 < parts ? rank(bytes, boundaries[best], boundaries[best + 2]) : NO_MERGE;
+            if (best > 0) {
+                pairRanks[best - 1] = rank(bytes, boundaries[best - 1], boundaries[best + 1]);
+            }
+        }
+        return parts;
+    }
+
+    private int rank(String bytes, int start, int end) {
+        Integer rank = ranks.get(bytes.substring(start, end));
+        return rank != null ? rank : NO_MERGE;
+    }
+
+    /** The UTF-8 bytes of {@code text[start, end)} as an ISO-8859-1 string; ASCII needs no encoding. */
+    private static String toBytes(String text, int start, int end) {
+        for (int index = start; index < end; index++) {
+            if (text.charAt(index) >= 0x80) {
+                return new String(text.substring(start, end).getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+            }
+        }
+        return text.substring(start, end);
+    }
+}
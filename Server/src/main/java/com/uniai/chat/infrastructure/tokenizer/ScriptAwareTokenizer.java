@@ -0,0 +1,144 @@
+package com.uniai.chat.infrastructure.tokenizer;
+
+import com.uniai.chat.application.budget.AiTokenizer;
+
+/**
+ * Vocabulary-free approximation of a subword tokenizer, used for a provider family when no BPE vocabulary
+ * is on the classpath. It splits text the way BPE pre-tokenizers do (words with their leading space,
+ * digit groups, punctuation runs, whitespace runs) and prices each piece by script, so Arabic, accented
+ * French and punctuation-dense JSON are no longer counted as if they were English prose.
+ * <p>
+ * ASCII characters are classified with plain range checks; Unicode script lookups only run for the
+ * non-ASCII remainder.
+ */
+public final class ScriptAwareTokenizer implements AiTokenizer {
+
+    /**
+     * Per-family costs. English words up to {@code wholeWordChars} letters are single tokens; longer words
+     * and other scripts cost one token per the given number of characters. The constants are estimates, not
+     * measurements; {@code ScriptAwareTokenizerReferenceTest} checks them against a real vocabulary when one is given.
+     */
+    public record Profile(
+            String family,
+            int wholeWordChars,
+            double latinCharsPerToken,
+            double accentedCharsPerToken,
+            int digitsPerToken,
+            double arabicCharsPerToken,
+            double otherCharsPerToken
+    ) {
+    }
+
+    /** Llama 3 style byte-level BPE with a 128k vocabulary; digits are grouped in threes. */
+    public static final Profile LLAMA3 = new Profile("llama3", 7, 4.0, 2.6, 3, 2.4, 1.0);
+    /** Gemini and Gemma SentencePiece with a 256k multilingual vocabulary; digits are split one per token. */
+    public static final Profile GEMMA = new Profile("gemma", 8, 4.3, 3.2, 1, 3.0, 1.4);
+    /** Conservative costs for families without a dedicated profile. */
+    public static final Profile GENERIC = new Profile("generic", 6, 3.6, 2.2, 1, 1.8, 0.8);
+
+    private final Profile profile;
+
+    public ScriptAwareTokenizer(Profile profile) {
+        this.profile = profile != null ? profile : GENERIC;
+    }
+
+    public static Profile profile(String family) {
+        if (LLAMA3.family().equals(family)) {
+            return LLAMA3;
+        }
+        if (GEMMA.family().equals(family)) {
+            return GEMMA;
+        }
+        return GENERIC;
+    }
+
+    @Override
+    public String name() {
+        return "script-aware:" + profile.family();
+    }
+
+    @Override
+    public long countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0L;
+        }
+        long tokens = 0L;
+        int length = text.length();
+        int index = 0;
+        while (index < length) {
+            char current = text.charAt(index);
+            if (isWordChar(current)) {
+                int start = index;
+                boolean accented = false;
+                while (index < length && isWordChar(text.charAt(index))) {
+                    accented |= text.charAt(index) >= 0x80;
+                    index++;
+                }
+                tokens += wordTokens(index - start, accented);
+            } else if (current >= '0' && current <= '9') {
+                int start = index;
+                while (index < length && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+                    index++;
+                }
+                tokens += divideUp(index - start, profile.digitsPerToken());
+            } else if (Character.isWhitespace(current)) {
+                int start = index;
+                while (index < length && Character.isWhitespace(text.charAt(index))) {
+                    index++;
+                }
+                // A single space is absorbed by the piece that follows it, as BPE vocabularies store " word".
+                boolean absorbed = index - start == 1 && current == ' ' && index < length;
+                tokens += absorbed ? 0L : 1L;
+            } else if (current < 0x80) {
+                int start = index;
+                while (index < length && isAsciiPunctuation(text.charAt(index))) {
+                    index++;
+                }
+                tokens += divideUp(index - start, 2.0);
+            } else {
+                int codePoint = text.codePointAt(index);
+                Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+                int start = index;
+                while (index < length) {
+                    int next = text.codePointAt(index);
+                    if (next < 0x80 || Character.isWhitespace(next) || Character.UnicodeScript.of(next) != script) {
+                        break;
+                    }
+                    index += Character.charCount(next);
+                }
+                int characters = text.codePointCount(start, index);
+                tokens += divideUp(characters, script == Character.UnicodeScript.ARABIC
+                        ? profile.arabicCharsPerToken()
+                        : profile.otherCharsPerToken());
+            }
+        }
+        return tokens;
+    }
+
+    private long wordTokens(int characters, boolean accented) {
+        if (accented) {
+            return divideUp(characters, profile.accentedCharsPerToken());
+        }
+        return characters <= profile.wholeWordChars() ? 1L : divideUp(characters, profile.latinCharsPerToken());
+    }
+
+    /** ASCII letters plus accented Latin letters, which French words mix freely with plain ones. */
+    private static boolean isWordChar(char value) {
+        if (value < 0x80) {
+            return (value >= 'a' && value <= 'z') || (value >= 'A' && value <= 'Z');
+        }
+        return value >= 0x00C0 && value <= 0x024F && value != 0x00D7 && value != 0x00F7;
+    }
+
+    private static boolean isAsciiPunctuation(char value) {
+        return value < 0x80
+                && !(value >= 'a' && value <= 'z')
+                && !(value >= 'A' && value <= 'Z')
+                && !(value >= '0' && value <= '9')
+                && !Character.isWhitespace(value);
+    }
+
+    private static long divideUp(int characters, double charactersPerToken) {
+        return Math.max(1L, (long) Math.ceil(characters / Math.max(0.1, charactersPerToken)));
+    }
+}
@@ -5,14 +5,29 @@ import com.uniai.chat.application.dto.response.ChatCreationResponseDto;
 import com.uniai.chat.application.dto.response.ChatSummaryResponseDto;
 import com.uniai.chat.application.dto.response.MessageResponseDto;
 import com.uniai.chat.application.port.in.*;
+import com.uniai.shared.exception.AiUsageQuotaExceededException;
+import com.uniai.shared.exception.ChatNotFoundException;
+import com.uniai.shared.exception.EmailNotFoundException;
+import com.uniai.shared.exception.InvalidMessageException;
+import com.uniai.shared.exception.UnauthorizedAccessException;
 import com.uniai.shared.infrastructure.jwt.JwtFacade;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Handles all chat endpoints.
@@ -20,16 +35,45 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/api/chats")
-@RequiredArgsConstructor
 public class ChatController {
 
+    private static final Logger logger = LogManager.getLogger(ChatController.class);
+    private static final String STREAM_FAILURE_MESSAGE = "AI service is temporarily unavailable. Please try again later.";
+
     private final JwtFacade jwtFacade;
     private final CreateChatUseCase createChatUseCase;
     private final SendMessageUseCase sendMessageUseCase;
+    private final StreamMessageUseCase streamMessageUseCase;
     private final GetUserChatsUseCase getUserChatsUseCase;
     private final GetChatMessagesUseCase getChatMessagesUseCase;
     private final DeleteChatUseCase deleteChatUseCase;
     private final DeleteAllChatsUseCase deleteAllChatsUseCase;
+    private final Executor chatStreamExecutor;
+    private final long streamTimeoutMillis;
+
+    public ChatController(
+            JwtFacade jwtFacade,
+            CreateChatUseCase createChatUseCase,
+            SendMessageUseCase sendMessageUseCase,
+            StreamMessageUseCase streamMessageUseCase,
+            GetUserChatsUseCase getUserChatsUseCase,
+            GetChatMessagesUseCase getChatMessagesUseCase,
+            DeleteChatUseCase deleteChatUseCase,
+            DeleteAllChatsUseCase deleteAllChatsUseCase,
+            @Qualifier("chatStreamExecutor") Executor chatStreamExecutor,
+            @Value("${ai.stream.timeout-seconds:180}") long streamTimeoutSeconds
+    ) {
+        this.jwtFacade = jwtFacade;
+        this.createChatUseCase = createChatUseCase;
+        this.sendMessageUseCase = sendMessageUseCase;
+        this.streamMessageUseCase = streamMessageUseCase;
+        this.getUserChatsUseCase = getUserChatsUseCase;
+        this.getChatMessagesUseCase = getChatMessagesUseCase;
+        this.deleteChatUseCase = deleteChatUseCase;
+        this.deleteAllChatsUseCase = deleteAllChatsUseCase;
+        this.chatStreamExecutor = chatStreamExecutor;
+        this.streamTimeoutMillis = Duration.ofSeconds(Math.max(1L, streamTimeoutSeconds)).toMillis();
+    }
 
     @PostMapping
     public ResponseEntity<ChatCreationResponseDto> createChat() {
@@ -43,6 +87,40 @@ public class ChatController {
         return ResponseEntity.ok(sendMessageUseCase.sendMessage(email, command));
     }
 
+    /**
+     * Streams the answer as Server-Sent Events: {@code chunk} events carry text as the provider
+     * produces it, then a single {@code message} event carries the persisted answer with citations,
+     * which replaces the streamed text. Failures end the stream with an {@code error} event.
+     */
+    @PostMapping(value = "/messages/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(@Valid @RequestBody SendMessageCommand command) {
+        String email = jwtFacade.getAuthenticatedUserEmail();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        AtomicBoolean clientConnected = new AtomicBoolean(true);
+        emitter.onTimeout(() -> clientConnected.set(false));
+        emitter.onError(ex -> clientConnected.set(false));
+
+        try {
+            chatStreamExecutor.execute(() -> {
+                try {
+                    MessageResponseDto response = streamMessageUseCase.streamMessage(email, command,
+                            chunk -> sendEvent(emitter, clientConnected, "chunk", chunk));
+                    sendEvent(emitter, clientConnected, "message", response);
+                    emitter.complete();
+                } catch (RuntimeException ex) {
+                    logger.warn("[CHAT] Stream failed chatId={} reason={}", command.getChatId(), ex.getMessage());
+                    sendEvent(emitter, clientConnected, "error", toStreamErrorMessage(ex));
+                    emitter.complete();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.warn("[CHAT] Stream rejected chatId={} reason={}", command.getChatId(), ex.getMessage());
+            sendEvent(emitter, clientConnected, "error", STREAM_FAILURE_MESSAGE);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
     @GetMapping
     public ResponseEntity<List<ChatSummaryResponseDto>> getUserChats() {
         String email = jwtFacade.getAuthenticatedUserEmail();
@@ -69,5 +147,29 @@ public class ChatController {
         return ResponseEntity.ok(new MessageResponse("All chats deleted successfully"));
     }
 
+    private void sendEvent(SseEmitter emitter, AtomicBoolean clientConnected, String eventName, Object data) {
+        if (!clientConnected.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away; generation continues so the answer is still persisted.
+            clientConnected.set(false);
+            logger.debug("[CHAT] Stream client disconnected event={} reason={}", eventName, ex.getMessage());
+        }
+    }
+
+    private String toStreamErrorMessage(RuntimeException ex) {
+        if (ex instanceof InvalidMessageException
+                || ex instanceof ChatNotFoundException
+                || ex instanceof UnauthorizedAccessException
+                || ex instanceof EmailNotFoundException
+                || ex instanceof AiUsageQuotaExceededException) {
+            return ex.getMessage() != null ? ex.getMessage() : STREAM_FAILURE_MESSAGE;
+        }
+        return STREAM_FAILURE_MESSAGE;
+    }
+
     private record MessageResponse(String message) {}
 }
@@ -0,0 +1,7 @@
+package com.uniai.shared.exception;
+
+public class AiUsageQuotaExceededException extends RuntimeException {
+    public AiUsageQuotaExceededException(String message) {
+        super(message);
+    }
+}
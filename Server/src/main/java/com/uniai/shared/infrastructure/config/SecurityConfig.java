@@ -66,6 +66,7 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/actuator/loggers", "/actuator/loggers/**").hasRole("ADMIN")
                         .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/tokencalibration").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/languages").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/skills").authenticated()
@@ -36,6 +36,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(429).body(ex.getMessage());
     }
 
+    @ExceptionHandler(AiUsageQuotaExceededException.class)
+    public ResponseEntity<?> handleAiUsageQuotaExceededException(Exception ex) {
+        logger.info("AiUsageQuotaExceededException: {}", ex.getMessage());
+        return ResponseEntity.status(429).body(ex.getMessage());
+    }
+
     @ExceptionHandler(AlreadyExistsException.class)
     public ResponseEntity<?> handleAlreadyExistsException(Exception ex) {
         logger.warn("AlreadyExistsException: {}", ex.getMessage(), ex);
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS ai_usage_ledger (
+    user_id BIGINT NOT NULL,
+    usage_date DATE NOT NULL,
+    operation VARCHAR(40) NOT NULL,
+    provider VARCHAR(40) NOT NULL,
+    calls BIGINT NOT NULL DEFAULT 0,
+    estimated_input_tokens BIGINT NOT NULL DEFAULT 0,
+    estimated_output_tokens BIGINT NOT NULL DEFAULT 0,
+    actual_input_tokens BIGINT NOT NULL DEFAULT 0,
+    actual_output_tokens BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_ai_usage_ledger PRIMARY KEY (user_id, usage_date, operation, provider),
+    CONSTRAINT fk_ai_usage_ledger_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
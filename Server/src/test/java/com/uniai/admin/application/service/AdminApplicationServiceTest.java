@@ -1,11 +1,18 @@
 package com.uniai.admin.application.service;
 
+import com.uniai.admin.application.dto.response.AdminUserAiUsageResponse;
 import com.uniai.admin.application.dto.response.AdminUserDetailsResponse;
 import com.uniai.admin.application.dto.response.AdminUserFeedbackResponse;
 import com.uniai.admin.application.dto.response.AdminUserSearchResponse;
 import com.uniai.admin.application.dto.response.AdminFeedbackResponse;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.port.out.AiUsageLedgerPort;
+import com.uniai.chat.application.usage.AiUsageLedger;
+import com.uniai.chat.application.usage.AiUsageLedgerConfiguration;
+import com.uniai.chat.application.usage.AiUsageLedgerEntry;
 import com.uniai.chat.domain.model.Chat;
 import com.uniai.chat.domain.model.Message;
+import com.uniai.chat.domain.model.RecentMessage;
 import com.uniai.chat.domain.repository.ChatRepository;
 import com.uniai.chat.domain.repository.MessageRepository;
 import com.uniai.cvbuilder.application.dto.response.PersonalInfoResponse;
@@ -88,6 +95,26 @@ class AdminApplicationServiceTest {
         assertEquals(0.0, response.getAverageMessagesPerChat());
     }
 
+    @Test
+    void getUserAiUsageShouldCombineFlushedAndPendingTotals() {
+        TestContext context = sampleContext();
+        context.aiUsageLedger.record(1L, AiOperation.MAIN_RESPONSE, "groq", 900L, 2000L, 1000L, 300L);
+        context.aiUsageLedger.flush();
+        context.aiUsageLedger.record(1L, AiOperation.MAIN_RESPONSE, "groq", 500L, 2000L, null, null);
+        context.aiUsageLedger.record(2L, AiOperation.MAIN_RESPONSE, "groq", 100L, 100L, 100L, 10L);
+
+        AdminUserAiUsageResponse response = context.service.getUserAiUsage(1L);
+
+        assertEquals(1L, response.getUserId());
+        assertEquals(2L, response.getTotalCalls());
+        assertEquals(1, response.getEntries().size());
+        assertEquals("MAIN_RESPONSE", response.getEntries().get(0).getOperation());
+        assertEquals(1400L, response.getEntries().get(0).getEstimatedInputTokens());
+        assertEquals(1000L, response.getEntries().get(0).getActualInputTokens());
+        assertEquals(1300L + 2500L, response.getMinuteTokens());
+        assertThrows(UserNotFoundException.class, () -> context.service.getUserAiUsage(99L));
+    }
+
     @Test
     void getUserPersonalInfoShouldReturnTargetUsersPersonalInfo() {
         TestContext context = sampleContext();
@@ -372,6 +399,21 @@ class AdminApplicationServiceTest {
         private final InMemoryFeedbackRepository feedbackRepository = new InMemoryFeedbackRepository();
         private final InMemoryCVRepository cvRepository = new InMemoryCVRepository();
         private final InMemoryPersonalInfoRepository personalInfoRepository = new InMemoryPersonalInfoRepository();
+        private final List<AiUsageLedgerEntry> storedUsage = new ArrayList<>();
+        private final AiUsageLedger aiUsageLedger = new AiUsageLedger(
+                AiUsageLedgerConfiguration.defaults(),
+                new AiUsageLedgerPort() {
+                    @Override
+                    public void addAll(List<AiUsageLedgerEntry> entries) {
+                        storedUsage.addAll(entries);
+                    }
+
+                    @Override
+                    public List<AiUsageLedgerEntry> findByUserId(Long userId) {
+                        return storedUsage.stream().filter(entry -> entry.userId().equals(userId)).toList();
+                    }
+                },
+                null);
 
         private final AdminApplicationService service = new AdminApplicationService(
                 userRepository,
@@ -379,7 +421,8 @@ class AdminApplicationServiceTest {
                 messageRepository,
                 feedbackRepository,
                 cvRepository,
-                personalInfoRepository
+                personalInfoRepository,
+                aiUsageLedger
         );
 
         private final class InMemoryUserRepository implements UserRepository {
@@ -561,6 +604,16 @@ class AdminApplicationServiceTest {
                         .toList();
             }
 
+            @Override
+            public List<RecentMessage> findRecentByChatId(Long chatId, int limit) {
+                List<RecentMessage> oldestFirst = messages.stream()
+                        .filter(message -> chatId.equals(message.getChatId()))
+                        .sorted(Comparator.comparing(Message::getTimestamp))
+                        .map(RecentMessage::from)
+                        .toList();
+                return oldestFirst.subList(Math.max(0, oldestFirst.size() - limit), oldestFirst.size());
+            }
+
             @Override
             public void deleteByChatId(Long chatId) {
                 messages.removeIf(message -> chatId.equals(message.getChatId()));
@@ -571,6 +624,11 @@ class AdminApplicationServiceTest {
                 messages.removeIf(message -> chatIds.contains(message.getChatId()));
             }
 
+            @Override
+            public void deleteById(Long messageId) {
+                messages.removeIf(message -> messageId.equals(message.getId()));
+            }
+
             @Override
             public long countByChatId(Long chatId) {
                 return messages.stream().filter(message -> chatId.equals(message.getChatId())).count();
@@ -3,12 +3,14 @@ package com.uniai.admin.presentation.controller;
 import com.uniai.admin.application.dto.command.UpdateAdminUserRoleCommand;
 import com.uniai.admin.application.dto.response.AdminFeedbackResponse;
 import com.uniai.admin.application.dto.response.AdminOverviewResponse;
+import com.uniai.admin.application.dto.response.AdminUserAiUsageResponse;
 import com.uniai.admin.application.dto.response.AdminUserDetailsResponse;
 import com.uniai.admin.application.dto.response.AdminUserFeedbackResponse;
 import com.uniai.admin.application.dto.response.AdminUserSearchResponse;
 import com.uniai.admin.application.service.AdminApplicationService;
 import com.uniai.chat.domain.model.Chat;
 import com.uniai.chat.domain.model.Message;
+import com.uniai.chat.domain.model.RecentMessage;
 import com.uniai.chat.domain.repository.ChatRepository;
 import com.uniai.chat.domain.repository.MessageRepository;
 import com.uniai.cvbuilder.application.dto.response.PersonalInfoResponse;
@@ -110,6 +112,23 @@ class AdminControllerTest {
         assertEquals(7L, service.lastUserId);
     }
 
+    @Test
+    void getUserAiUsageShouldDelegateToApplicationService() {
+        AdminUserAiUsageResponse expected = AdminUserAiUsageResponse.builder()
+                .userId(7L)
+                .dailyTokens(1200L)
+                .dailyTokenLimit(600000L)
+                .build();
+
+        StubAdminApplicationService service = new StubAdminApplicationService();
+        service.aiUsage = expected;
+
+        AdminController controller = new AdminController(new StubJwtFacade("alice@example.com"), service);
+
+        assertSame(expected, controller.getUserAiUsage(7L).getBody());
+        assertEquals(7L, service.lastUserId);
+    }
+
     @Test
     void getUserPersonalInfoShouldDelegateToApplicationService() {
         PersonalInfoResponse expected = PersonalInfoResponse.builder()
@@ -214,6 +233,7 @@ class AdminControllerTest {
         private AdminOverviewResponse overview = AdminOverviewResponse.builder().build();
         private List<AdminUserSearchResponse> searchResults = List.of();
         private AdminUserDetailsResponse details = AdminUserDetailsResponse.builder().build();
+        private AdminUserAiUsageResponse aiUsage = AdminUserAiUsageResponse.builder().build();
         private PersonalInfoResponse personalInfo = PersonalInfoResponse.builder().build();
         private List<AdminUserFeedbackResponse> feedback = List.of();
         private List<AdminFeedbackResponse> allFeedback = List.of();
@@ -229,7 +249,7 @@ class AdminControllerTest {
 
         private StubAdminApplicationService() {
             super(new NoopUserRepository(), new NoopChatRepository(), new NoopMessageRepository(),
-                    new NoopFeedbackRepository(), new NoopCVRepository(), new NoopPersonalInfoRepository());
+                    new NoopFeedbackRepository(), new NoopCVRepository(), new NoopPersonalInfoRepository(), null);
         }
 
         @Override
@@ -248,6 +268,12 @@ class AdminControllerTest {
             return searchResults;
         }
 
+        @Override
+        public AdminUserAiUsageResponse getUserAiUsage(Long userId) {
+            lastUserId = userId;
+            return aiUsage;
+        }
+
         @Override
         public AdminUserDetailsResponse getUserDetails(Long userId) {
             lastUserId = userId;
@@ -336,8 +362,10 @@ class AdminControllerTest {
     private static final class NoopMessageRepository implements MessageRepository {
         @Override public List<Message> findByChatIdOrderByTimestampAsc(Long chatId) { return List.of(); }
         @Override public List<Message> findTop10ByChatIdOrderByTimestampDesc(Long chatId) { return List.of(); }
+        @Override public List<RecentMessage> findRecentByChatId(Long chatId, int limit) { return List.of(); }
         @Override public void deleteByChatId(Long chatId) {}
         @Override public void deleteByChatIdIn(List<Long> chatIds) {}
+        @Override public void deleteById(Long messageId) {}
         @Override public long countByChatId(Long chatId) { return 0L; }
         @Override public long count() { return 0L; }
         @Override public long countByUserId(Long userId) { return 0L; }
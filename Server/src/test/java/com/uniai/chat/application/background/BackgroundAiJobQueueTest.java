@@ -0,0 +1,105 @@
+package com.uniai.chat.application.background;
+
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackgroundAiJobQueueTest {
+
+    @Test
+    void runNextShouldServeMemoryUpdatesBeforeTitlesInSubmissionOrder() {
+        BackgroundAiJobQueue queue = manualQueue(new BackgroundAiJobQueueConfiguration(1, 8, 1000L, 1000L), new AtomicLong(), null);
+        List<String> ran = new ArrayList<>();
+
+        queue.submit(BackgroundAiJobType.CHAT_TITLE, () -> ran.add("title-1"));
+        queue.submit(BackgroundAiJobType.MEMORY_UPDATE, () -> ran.add("memory-1"));
+        queue.submit(BackgroundAiJobType.MEMORY_UPDATE, () -> ran.add("memory-2"));
+        while (queue.runNext()) {
+        }
+
+        assertEquals(List.of("memory-1", "memory-2", "title-1"), ran);
+    }
+
+    @Test
+    void fullQueueShouldDisplaceLowerPriorityJobAndShedEqualPriorityJob() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BackgroundAiJobQueue queue = manualQueue(new BackgroundAiJobQueueConfiguration(1, 2, 1000L, 1000L), new AtomicLong(), registry);
+        List<String> ran = new ArrayList<>();
+
+        assertTrue(queue.submit(BackgroundAiJobType.CHAT_TITLE, () -> ran.add("title-1")));
+        assertTrue(queue.submit(BackgroundAiJobType.CHAT_TITLE, () -> ran.add("title-2")));
+        assertTrue(queue.submit(BackgroundAiJobType.MEMORY_UPDATE, () -> ran.add("memory-1")));
+        assertThrows(RejectedExecutionException.class,
+                () -> queue.executor(BackgroundAiJobType.CHAT_TITLE).execute(() -> ran.add("title-3")));
+
+        assertEquals(2, queue.depth());
+        assertEquals(2.0, registry.get(ChatAiMetrics.BACKGROUND_QUEUE_DEPTH).gauge().value());
+        while (queue.runNext()) {
+        }
+        assertEquals(List.of("memory-1", "title-1"), ran);
+        assertEquals(2.0, registry.get(ChatAiMetrics.BACKGROUND_JOBS)
+                .tags("job_type", "chat_title", "outcome", "shed")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void jobPastItsDeadlineShouldBeSkipped() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicLong clock = new AtomicLong();
+        BackgroundAiJobQueue queue = manualQueue(new BackgroundAiJobQueueConfiguration(1, 8, 100L, 1000L), clock, registry);
+        List<String> ran = new ArrayList<>();
+
+        queue.submit(BackgroundAiJobType.MEMORY_UPDATE, () -> ran.add("memory"));
+        queue.submit(BackgroundAiJobType.CHAT_TITLE, () -> ran.add("title"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500L));
+        while (queue.runNext()) {
+        }
+
+        assertEquals(List.of("title"), ran);
+        assertEquals(1.0, registry.get(ChatAiMetrics.BACKGROUND_JOBS)
+                .tags("job_type", "memory_update", "outcome", "expired")
+                .counter()
+                .count());
+        assertEquals(2L, registry.get(ChatAiMetrics.BACKGROUND_QUEUE_AGE).timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum());
+    }
+
+    @Test
+    void workersShouldRunJobsOffTheCallerThreadAndRejectAfterShutdown() throws InterruptedException {
+        BackgroundAiJobQueue queue = new BackgroundAiJobQueue(BackgroundAiJobQueueConfiguration.defaults(), null);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        List<Thread> runners = new ArrayList<>();
+
+        try {
+            assertTrue(queue.submit(BackgroundAiJobType.MEMORY_UPDATE, () -> {
+                runners.add(Thread.currentThread());
+                done.countDown();
+            }));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertFalse(runners.contains(caller));
+        } finally {
+            queue.shutdown();
+        }
+        assertFalse(queue.submit(BackgroundAiJobType.CHAT_TITLE, () -> {
+        }));
+    }
+
+    private BackgroundAiJobQueue manualQueue(BackgroundAiJobQueueConfiguration configuration, AtomicLong clock, SimpleMeterRegistry registry) {
+        return new BackgroundAiJobQueue(configuration, registry, clock::get, false);
+    }
+}
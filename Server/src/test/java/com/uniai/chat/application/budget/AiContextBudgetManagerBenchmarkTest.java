@@ -0,0 +1,79 @@
+package com.uniai.chat.application.budget;
+
+import ch.qos.logback.classic.Level;
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.support.BenchmarkTimer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost of budgeting a {@code LIST_PROGRAMS} answer with 200 program rows, once as 200 context entries that
+ * the overall budget has to drop one by one and once as the single joined entry the route handler produces,
+ * which ends in truncation. Fewer rounds than the parser benchmarks, since one budget call does far more work:
+ * {@code mvn test -Pbenchmark -Dtest=AiContextBudgetManagerBenchmarkTest}.
+ */
+@Tag("benchmark")
+class AiContextBudgetManagerBenchmarkTest {
+
+    private static final Logger logger = LogManager.getLogger(AiContextBudgetManagerBenchmarkTest.class);
+
+    private static final int ROWS = 200;
+    private static final BenchmarkTimer TIMER = new BenchmarkTimer(200, 2_000);
+
+    @Test
+    void measureListProgramsBudgeting() {
+        AiContextBudgetConfiguration configuration = new AiContextBudgetConfiguration(5_000, 1_000, 2_000, 120_000, 4, 50, Map.of());
+        AiContextBudgetManager manager = new AiContextBudgetManager(configuration, new AiTokenEstimator(configuration), "gemini");
+        List<String> rows = listProgramsRows();
+        // Trimming logs a warning per call; measure the trimming, not the console appender.
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(AiContextBudgetManager.class)).setLevel(Level.ERROR);
+
+        report("entries", manager, request(rows));
+        report("single-entry", manager, request(List.of(String.join("\n", rows))));
+    }
+
+    private static void report(String shape, AiContextBudgetManager manager, AiRequest request) {
+        long nanosPerBudget = TIMER.nanosPerRound(() -> manager.budget(request).finalEstimatedInputTokens());
+        AiContextBudgetResult result = manager.budget(request);
+        logger.info("[AI_BUDGET_BENCHMARK] shape={} rows={} nsPerBudget={} originalTokens={} finalTokens={} finalContextCount={}",
+                shape,
+                ROWS,
+                nanosPerBudget,
+                result.originalEstimatedInputTokens(),
+                result.finalEstimatedInputTokens(),
+                result.finalContextCount());
+    }
+
+    private static AiRequest request(List<String> context) {
+        List<AiConversationMessage> history = new ArrayList<>();
+        for (int turn = 0; turn < 10; turn++) {
+            history.add(AiConversationMessage.builder().role("user").content("Which programs does AUB offer in engineering? (" + turn + ")").build());
+            history.add(AiConversationMessage.builder().role("assistant").content("AUB offers several engineering master's programs. ".repeat(4)).build());
+        }
+        return AiRequest.builder()
+                .operation(AiOperation.MAIN_RESPONSE)
+                .systemPrompt("You are uniAI, the graduate admissions assistant for universities in Lebanon. ".repeat(20))
+                .userMessage("List every graduate program you know about.")
+                .conversationHistory(history)
+                .context(context)
+                .build();
+    }
+
+    private static List<String> listProgramsRows() {
+        List<String> rows = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            rows.add("{\"programId\":%d,\"university\":\"AUB\",\"name\":\"MSc Program %d\",\"degree\":\"MASTER\",\"faculty\":\"Engineering and Architecture\",\"language\":\"en\",\"credits\":30}"
+                    .formatted(row, row));
+        }
+        return rows;
+    }
+}
@@ -1,5 +1,6 @@
 package com.uniai.chat.application.budget;
 
+import com.uniai.chat.application.dto.ai.AiContextUnit;
 import com.uniai.chat.application.dto.ai.AiConversationMessage;
 import com.uniai.chat.application.dto.ai.AiOperation;
 import com.uniai.chat.application.dto.ai.AiRequest;
@@ -161,6 +162,36 @@ class AiContextBudgetManagerTest {
         assertEquals(100, unknownManager.budget(request).maxInputTokens());
     }
 
+    @Test
+    void budgetShouldPreferOperationTierOverridesOverProviderOverrides() {
+        AiContextBudgetConfiguration configuration = new AiContextBudgetConfiguration(
+                100,
+                10,
+                50,
+                50,
+                4,
+                0,
+                Map.of("groq", new AiContextBudgetConfiguration.ProviderBudget(80, null, null, null, null)),
+                Map.of(AiOperation.TITLE_GENERATION, new AiContextBudgetConfiguration.ProviderBudget(30, 5, null, null, null))
+        );
+        AiTokenEstimator estimator = new AiTokenEstimator(configuration);
+        AiContextBudgetManager manager = new AiContextBudgetManager(configuration, estimator, "groq");
+
+        AiRequest titleRequest = AiRequest.builder()
+                .operation(AiOperation.TITLE_GENERATION)
+                .userMessage("abcd")
+                .build();
+        AiRequest answerRequest = AiRequest.builder()
+                .operation(AiOperation.MAIN_RESPONSE)
+                .userMessage("abcd")
+                .build();
+
+        assertEquals(30, manager.budget(titleRequest).maxInputTokens());
+        assertEquals(5, manager.budget(titleRequest).reservedOutputTokens());
+        assertEquals(80, manager.budget(answerRequest).maxInputTokens());
+        assertEquals(10, manager.budget(answerRequest).reservedOutputTokens());
+    }
+
     @Test
     void budgetShouldMarkBlankContextRemovalAsTrimmedWithoutAppendingMarker() {
         AiContextBudgetManager manager = budgetManager("gemini", 500, 20, 500, 500, 1, 0);
@@ -319,6 +350,78 @@ class AiContextBudgetManagerTest {
         assertTrue(result.request().getContext().stream().mapToInt(String::length).sum() < largeContext.length());
     }
 
+    @Test
+    void overallTrimmingShouldEstimateEachContextEntryOnce() {
+        AiContextBudgetConfiguration configuration = configuration(1000, 0, 100, 100000, 1, 0, Map.of());
+        CountingTokenizer tokenizer = new CountingTokenizer(new CharacterRatioTokenizer(1));
+        AiContextBudgetManager manager = new AiContextBudgetManager(configuration, new AiTokenEstimator(configuration, tokenizer), "gemini");
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < 200; row++) {
+            rows.add("program-%03d".formatted(row));
+        }
+        AiRequest request = AiRequest.builder()
+                .systemPrompt("s")
+                .userMessage("u")
+                .context(rows)
+                .build();
+
+        AiContextBudgetResult result = manager.budget(request);
+
+        assertTrue(result.contextTrimmed());
+        assertTrue(result.requestFits());
+        assertEquals(90, result.finalContextCount());
+        assertEquals(rows.subList(0, 90), result.request().getContext());
+        assertTrue(tokenizer.calls <= 2 * rows.size(), "tokenizer calls " + tokenizer.calls);
+    }
+
+    @Test
+    void budgetShouldPackHighestValueRowsInsteadOfCuttingTheTail() {
+        AiContextBudgetManager manager = budgetManager("gemini", 500, 20, 500, 60, 1, 0);
+        List<AiContextUnit> units = List.of(
+                AiContextUnit.pinned("Rows:"),
+                AiContextUnit.ranked("row-a low", "a", 0.1),
+                AiContextUnit.ranked("row-b low", "b", 0.2),
+                AiContextUnit.ranked("row-c high", "c", 3.0),
+                AiContextUnit.pinned("Source references:"),
+                AiContextUnit.ranked("- [S3] C", "c", 0.0)
+        );
+        String entry = String.join("\n", units.stream().map(AiContextUnit::text).toList());
+        AiRequest request = AiRequest.builder()
+                .systemPrompt("s")
+                .userMessage("u")
+                .context(List.of(entry))
+                .contextUnits(units)
+                .build();
+
+        AiContextBudgetResult result = manager.budget(request);
+
+        assertTrue(result.contextTrimmed());
+        assertTrue(result.requestFits());
+        assertEquals("Rows:\nrow-b low\nrow-c high\nSource references:\n- [S3] C", result.request().getContext().get(0));
+        assertEquals("[Retrieved context truncated to fit the configured AI request budget.]",
+                result.request().getContext().get(1));
+        assertEquals(List.of("Rows:", "row-b low", "row-c high", "Source references:", "- [S3] C"),
+                result.request().getContextUnits().stream().map(AiContextUnit::text).toList());
+    }
+
+    @Test
+    void budgetShouldIgnoreUnitsThatDoNotDescribeTheContextEntry() {
+        AiContextBudgetManager manager = budgetManager("gemini", 500, 20, 500, 20, 1, 0);
+        String largeContext = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789abcdefghijklmnopqrstuvwxyz";
+        AiRequest request = AiRequest.builder()
+                .systemPrompt("s")
+                .userMessage("u")
+                .context(List.of(largeContext))
+                .contextUnits(List.of(AiContextUnit.ranked("other", "a", 1.0)))
+                .build();
+
+        AiContextBudgetResult result = manager.budget(request);
+
+        assertTrue(result.contextTrimmed());
+        assertTrue(largeContext.startsWith(result.request().getContext().get(0)));
+        assertTrue(result.request().getContextUnits().isEmpty());
+    }
+
     private AiContextBudgetManager budgetManager(
             String provider,
             int maxInputTokens,
@@ -372,4 +475,24 @@ class AiContextBudgetManagerTest {
                 .content(content)
                 .build();
     }
+
+    private static final class CountingTokenizer implements AiTokenizer {
+        private final AiTokenizer delegate;
+        private int calls;
+
+        private CountingTokenizer(AiTokenizer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String name() {
+            return delegate.name();
+        }
+
+        @Override
+        public long countTokens(String text) {
+            calls++;
+            return delegate.countTokens(text);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package com.uniai.chat.application.budget;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiTokenCalibrationTest {
+
+    @Test
+    void factorShouldStayNeutralUntilEnoughSamplesThenFollowTheAverage() {
+        AiTokenCalibration calibration = new AiTokenCalibration(new AiTokenCalibration.Settings(true, 0.5, 0.5, 2.0, 2, 10));
+
+        calibration.record("Groq", "llama-3.1-8b-instant", AiOperation.MAIN_RESPONSE, 1000, 1200);
+        assertEquals(1.0, calibration.factor("groq"));
+
+        calibration.record("groq", "llama-3.1-8b-instant", AiOperation.MAIN_RESPONSE, 1000, 1400);
+        assertEquals(1.3, calibration.factor("groq"), 1e-9);
+        assertEquals(1.0, calibration.factor("gemini"));
+    }
+
+    @Test
+    void samplesAndFactorShouldBeClampedAndSmallRequestsSkipped() {
+        AiTokenCalibration calibration = new AiTokenCalibration(new AiTokenCalibration.Settings(true, 1.0, 0.5, 2.0, 1, 100));
+
+        assertFalse(calibration.record("ollama", "llama3.2", AiOperation.MAIN_RESPONSE, 50, 500));
+        assertEquals(1.0, calibration.factor("ollama"));
+
+        assertTrue(calibration.record("ollama", "llama3.2", AiOperation.MAIN_RESPONSE, 1000, 9000));
+        assertEquals(2.0, calibration.factor("ollama"));
+
+        assertTrue(calibration.record("ollama", "llama3.2", AiOperation.MAIN_RESPONSE, 1000, 10));
+        assertEquals(0.5, calibration.factor("ollama"));
+    }
+
+    @Test
+    void snapshotShouldKeepStatePerProviderModelAndOperation() {
+        AiTokenCalibration calibration = new AiTokenCalibration(new AiTokenCalibration.Settings(true, 0.5, 0.5, 2.0, 1, 10));
+
+        calibration.record("gemini", "gemini-2.5-flash", AiOperation.MAIN_RESPONSE, 1000, 800);
+        calibration.record("gemini", "gemini-2.5-flash", AiOperation.MAIN_RESPONSE, 1000, 900);
+        calibration.record("gemini", "gemini-2.5-flash-lite", AiOperation.TITLE_GENERATION, 400, 600);
+
+        List<AiTokenCalibration.Snapshot> snapshot = calibration.snapshot();
+
+        assertEquals(2, snapshot.size());
+        assertEquals("gemini-2.5-flash", snapshot.get(0).model());
+        assertEquals(2L, snapshot.get(0).samples());
+        assertEquals(0.85, snapshot.get(0).factor(), 1e-9);
+        assertEquals(900L, snapshot.get(0).lastActualTokens());
+        assertEquals(AiOperation.TITLE_GENERATION, snapshot.get(1).operation());
+        assertEquals(1.5, snapshot.get(1).factor(), 1e-9);
+    }
+
+    @Test
+    void estimatorShouldScaleCountsAndPrefixesByTheProviderFactor() {
+        AiContextBudgetConfiguration configuration = new AiContextBudgetConfiguration(200, 20, 50, 50, 4, 12, Map.of());
+        AiTokenCalibration calibration = new AiTokenCalibration(new AiTokenCalibration.Settings(true, 1.0, 0.5, 2.0, 1, 1));
+        AiTokenEstimator estimator = new AiTokenEstimator(configuration, null, calibration, "groq");
+        String text = "a".repeat(40);
+
+        assertEquals(10L, estimator.estimateTokens(text));
+
+        calibration.record("groq", "llama", AiOperation.MAIN_RESPONSE, 10, 15);
+
+        assertEquals(1.5, estimator.calibrationFactor(), 1e-9);
+        assertEquals(15L, estimator.estimateTokens(text));
+        assertEquals(24, estimator.fitPrefixLength(text, 9L));
+        assertEquals(10L, estimator.estimateUncalibratedInputTokens(
+                AiRequest.builder().userMessage(text).build()));
+    }
+
+    @Test
+    void routedProviderChecksShouldUseThatProvidersFactor() {
+        AiContextBudgetConfiguration configuration = new AiContextBudgetConfiguration(200, 20, 50, 50, 4, 12, Map.of(
+                "gemini", new AiContextBudgetConfiguration.ProviderBudget(200, 20, null, null, 0),
+                "groq", new AiContextBudgetConfiguration.ProviderBudget(200, 20, null, null, 0)));
+        AiTokenCalibration calibration = new AiTokenCalibration(new AiTokenCalibration.Settings(true, 1.0, 0.5, 2.0, 1, 1));
+        AiTokenEstimator estimator = new AiTokenEstimator(configuration, null, calibration, "gemini");
+        calibration.record("gemini", "flash", AiOperation.MAIN_RESPONSE, 10, 5);
+        calibration.record("groq", "llama", AiOperation.MAIN_RESPONSE, 10, 20);
+        String text = "a".repeat(400);
+
+        assertEquals(50L, estimator.estimateTokens(text));
+        assertEquals(200L, estimator.forProvider("groq").estimateTokens(text));
+        assertSame(estimator, estimator.forProvider("gemini"));
+
+        AiContextBudgetManager budgetManager = new AiContextBudgetManager(configuration, estimator, "gemini");
+        AiRequest request = AiRequest.builder().userMessage(text).build();
+        assertTrue(budgetManager.fitsProvider(request, "gemini"));
+        assertFalse(budgetManager.fitsProvider(request, "groq"));
+    }
+}
@@ -5,6 +5,7 @@ import com.uniai.chat.application.dto.ai.AiRequest;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -38,6 +39,42 @@ class AiTokenEstimatorTest {
         assertEquals(expected, estimator.estimateRequestTokens(request));
     }
 
+    @Test
+    void estimatorShouldDelegateToTokenizerAndMemoizeLongStrings() {
+        AtomicInteger counted = new AtomicInteger();
+        AiTokenizer wordTokenizer = new AiTokenizer() {
+            @Override
+            public String name() {
+                return "words";
+            }
+
+            @Override
+            public long countTokens(String text) {
+                counted.incrementAndGet();
+                return text.isBlank() ? 0L : text.trim().split("\\s+").length;
+            }
+        };
+        AiTokenEstimator estimator = new AiTokenEstimator(configuration(4, 12), new MemoizingAiTokenizer(wordTokenizer, 8, 10));
+        String systemPrompt = "You are uniAI, the graduate admissions assistant.";
+
+        assertEquals(7L, estimator.estimateTokens(systemPrompt));
+        assertEquals(7L, estimator.estimateTokens(systemPrompt));
+        assertEquals(1L, estimator.estimateTokens("short"));
+        assertEquals(1L, estimator.estimateTokens("short"));
+
+        assertEquals(3, counted.get());
+        assertEquals("words", estimator.tokenizerName());
+    }
+
+    @Test
+    void fitPrefixLengthShouldKeepTheCharacterRatioByDefault() {
+        AiTokenEstimator estimator = new AiTokenEstimator(configuration(4, 12));
+
+        assertEquals(8, estimator.fitPrefixLength("abcdefghijkl", 2L));
+        assertEquals(12, estimator.fitPrefixLength("abcdefghijkl", 10L));
+        assertEquals(0, estimator.fitPrefixLength("abcdefghijkl", 0L));
+    }
+
     private AiContextBudgetConfiguration configuration(int charactersPerToken, int overheadTokens) {
         return new AiContextBudgetConfiguration(
                 200,
@@ -112,4 +112,20 @@ class GraduateCitationEngineTest {
 
         assertEquals(List.of("S1", "S3"), filtered.stream().map(GraduateCitation::label).toList());
     }
+
+    @Test
+    void filterCitationsPresentInContextShouldDropPackedOutLabelsEvenWhenNamesRemain() {
+        List<GraduateCitation> citations = List.of(
+                new GraduateCitation("program-1", "S1", "AUB CS", "https://aub.edu.lb/cs", "PROGRAM", 1L, "AUB", 11L, "Computer Science"),
+                new GraduateCitation("program-2", "S2", "AUB MBA", "https://aub.edu.lb/mba", "PROGRAM", 1L, "AUB", 22L, "MBA")
+        );
+
+        List<GraduateCitation> filtered = GraduateCitationEngine.filterCitationsPresentInContext(
+                citations,
+                List.of("1. AUB | Computer Science\n2. AUB | MBA\n- [S1] AUB CS\n- [S2] AUB MBA"),
+                List.of("2. AUB | MBA\n- [S2] AUB MBA")
+        );
+
+        assertEquals(List.of("S2"), filtered.stream().map(GraduateCitation::label).toList());
+    }
 }
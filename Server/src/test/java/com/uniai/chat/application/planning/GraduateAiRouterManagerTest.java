@@ -80,6 +80,55 @@ class GraduateAiRouterManagerTest {
         assertTrue(result.citations().isEmpty());
     }
 
+    @Test
+    void equivalentPlansShouldReuseCachedResultUntilDatasetVersionChanges() {
+        AtomicInteger executions = new AtomicInteger();
+        GraduateAiRouteHandler<GraduateRouteArguments.ProgramArguments> handler = new GraduateAiRouteHandler<>() {
+            @Override
+            public GraduateAiRoute route() {
+                return GraduateAiRoute.GET_PROGRAM_DETAILS;
+            }
+
+            @Override
+            public Class<GraduateRouteArguments.ProgramArguments> argumentType() {
+                return GraduateRouteArguments.ProgramArguments.class;
+            }
+
+            @Override
+            public GraduateRouteExecutionResult execute(GraduateRouteArguments.ProgramArguments arguments) {
+                executions.incrementAndGet();
+                return new GraduateRouteExecutionResult(route(), new ObjectMapper().valueToTree(arguments),
+                        "Program: " + arguments.programName(), List.of(), List.of(), false, null);
+            }
+        };
+        GraduateAiRouteCatalog catalog = new GraduateAiRouteCatalog();
+        GraduateRouteResultCache cache = new GraduateRouteResultCache(GraduateRouteResultCacheConfiguration.defaults(), "v58");
+        GraduateAiRouterManager manager = new GraduateAiRouterManager(
+                new GraduateRoutePlanParser(catalog, new ObjectMapper()),
+                new GraduateAiRouteRegistry(List.of(handler)),
+                new GraduateRouteArgumentValidator(),
+                new GraduateRouteEntityResolver(),
+                cache);
+        List<UniversityCatalog> universities = List.of(university(1L, "American University of Beirut", "AUB"));
+
+        manager.execute("""
+                {"route":"GET_PROGRAM_DETAILS","arguments":{"university":"AUB","programName":"Computer Science"}}
+                """, "CS at AUB?", universities);
+        GraduateRouteExecutionResult second = manager.execute("""
+                {"route":"GET_PROGRAM_DETAILS","arguments":{"university":"American University of Beirut","programName":"Computer Science"}}
+                """, "Tell me about computer science at the American University of Beirut", universities);
+
+        assertEquals(1, executions.get());
+        assertEquals(1L, second.resolvedUniversities().get(0).id());
+        assertEquals(1L, cache.hitCount());
+
+        assertEquals("v58.1", cache.bumpDatasetVersion("test"));
+        manager.execute("""
+                {"route":"GET_PROGRAM_DETAILS","arguments":{"university":"AUB","programName":"Computer Science"}}
+                """, "CS at AUB?", universities);
+        assertEquals(2, executions.get());
+    }
+
     private GraduateAiRouterManager manager(List<GraduateAiRouteHandler<?>> handlers) {
         GraduateAiRouteCatalog catalog = new GraduateAiRouteCatalog();
         GraduateRoutePlanParser parser = new GraduateRoutePlanParser(catalog, new ObjectMapper());
@@ -0,0 +1,124 @@
+package com.uniai.chat.application.planning;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.catalog.domain.model.CampusCatalog;
+import com.uniai.catalog.domain.model.UniversityCatalog;
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraduateRouteFastPathPlannerTest {
+
+    private final GraduateRouteFastPathPlanner planner = new GraduateRouteFastPathPlanner(
+            new GraduateRoutePlanParser(new GraduateAiRouteCatalog(), new ObjectMapper()));
+
+    private final List<UniversityCatalog> catalogs = List.of(
+            UniversityCatalog.builder().id(1L).name("American University of Beirut").acronym("AUB")
+                    .campuses(List.of(CampusCatalog.builder().name("Main Campus").city("Beirut").build())).build(),
+            UniversityCatalog.builder().id(2L).name("Lebanese American University").acronym("LAU")
+                    .campuses(List.of(CampusCatalog.builder().name("Byblos Campus").city("Byblos").build())).build(),
+            UniversityCatalog.builder().id(3L).name("Lebanese University").acronym("UL").build());
+
+    @Test
+    void tuitionQuestionWithProgramAliasShouldPlanTuitionWithHighConfidence() {
+        GraduateRouteFastPathResult result = planner.plan("Tuition of MBA at AUB?", List.of(), catalogs);
+
+        assertEquals(GraduateAiRoute.GET_TUITION, result.plan().route());
+        GraduateRouteArguments.TuitionArguments arguments =
+                assertInstanceOf(GraduateRouteArguments.TuitionArguments.class, result.plan().arguments());
+        assertEquals("American University of Beirut", arguments.university());
+        assertEquals("Business Administration", arguments.programName());
+        assertEquals(GraduateRouteArguments.DegreeLevel.MASTER, arguments.degreeType());
+        assertEquals(1.0d, result.confidence(), 1e-9);
+    }
+
+    @Test
+    void shouldRecognizeEachSupportedRoute() {
+        assertEquals(GraduateAiRoute.LIST_PROGRAMS,
+                planner.plan("What master's programs does LAU offer?", List.of(), catalogs).plan().route());
+        assertEquals(GraduateAiRoute.COUNT_PROGRAMS,
+                planner.plan("How many PhD programs does AUB have", List.of(), catalogs).plan().route());
+        assertEquals(GraduateAiRoute.GET_PROGRAM_DETAILS,
+                planner.plan("Tell me about computer science at AUB", List.of(), catalogs).plan().route());
+        assertEquals(GraduateAiRoute.GET_APPLICATION_DEADLINES,
+                planner.plan("What is the application deadline at LAU?", List.of(), catalogs).plan().route());
+        GraduateRouteFastPathResult campuses = planner.plan("LAU campuses in Byblos", List.of(), catalogs);
+        assertEquals(GraduateAiRoute.LIST_CAMPUSES, campuses.plan().route());
+        assertEquals("Byblos", ((GraduateRouteArguments.ListCampusesArguments) campuses.plan().arguments()).city());
+    }
+
+    @Test
+    void comparativeContextualOrAmbiguousQuestionsShouldFallThrough() {
+        assertNull(planner.plan("Compare MBA tuition at AUB and LAU", List.of(), catalogs).plan());
+        assertNull(planner.plan("Tuition of the MBA at AUB and LAU", List.of(), catalogs).plan());
+        assertNull(planner.plan("What about its tuition at AUB?",
+                List.of(AiConversationMessage.builder().role("user").content("MBA at AUB").build()), catalogs).plan());
+        assertNull(planner.plan("Tuition and deadlines at AUB", List.of(), catalogs).plan());
+        assertNull(planner.plan("What is the value of a degree?", List.of(), catalogs).plan());
+    }
+
+    @Test
+    void nearMissPhrasingsForNeighbouringRoutesShouldFallThrough() {
+        for (String message : List.of(
+                "How many campuses does LAU have?",
+                "Tell me about AUB's main campus",
+                "What is the duration of master's programs at AUB?",
+                "Which programs at AUB require the GRE?",
+                "How many programs does the engineering faculty at AUB have?",
+                "Tuition for the faculty of medicine at AUB",
+                "Which programs at LAU are taught in English?",
+                "List the tracks of the MBA at AUB",
+                "How many credits is the MBA at AUB?",
+                "What are the admission requirements for computer science at LAU?")) {
+            assertNull(planner.plan(message, List.of(), catalogs).plan(), message);
+        }
+        assertEquals("neighbouring_route",
+                planner.plan("Tuition for the faculty of medicine at AUB", List.of(), catalogs).reason());
+        assertEquals("no_intent", planner.plan("How many campuses does LAU have?", List.of(), catalogs).reason());
+    }
+
+    @Test
+    void matchedButAmbiguousQuestionsShouldFallThroughAtTheDefaultThreshold() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GraduateRouteFastPathPlanner defaults = new GraduateRouteFastPathPlanner(
+                new GraduateRoutePlanParser(new GraduateAiRouteCatalog(), new ObjectMapper()), 0.75d, registry);
+
+        // Program details differ per degree level, and "lu" is only an alias for the Lebanese University.
+        GraduateRouteFastPathResult noDegree = planner.plan("Tell me about computer science at AUB", List.of(), catalogs);
+        GraduateRouteFastPathResult alias = planner.plan("What master's programs does LU offer?", List.of(), catalogs);
+        assertEquals(GraduateAiRoute.GET_PROGRAM_DETAILS, noDegree.plan().route());
+        assertEquals(GraduateAiRoute.LIST_PROGRAMS, alias.plan().route());
+        assertTrue(noDegree.confidence() < 0.75d);
+        assertTrue(alias.confidence() < 0.75d);
+
+        assertTrue(defaults.tryPlan("Tell me about computer science at AUB", List.of(), catalogs).isEmpty());
+        assertTrue(defaults.tryPlan("What master's programs does LU offer?", List.of(), catalogs).isEmpty());
+        assertTrue(defaults.tryPlan("Tell me about the master's in computer science at AUB", List.of(), catalogs).isPresent());
+        assertTrue(defaults.tryPlan("What master's programs does UL offer?", List.of(), catalogs).isPresent());
+        assertEquals(1.0d, registry.get("uniai.ai.route_plan.fast_path").tag("outcome", "miss")
+                .tag("route", "GET_PROGRAM_DETAILS").tag("reason", "low_confidence").counter().count());
+        assertEquals(1.0d, registry.get("uniai.ai.route_plan.fast_path").tag("outcome", "miss")
+                .tag("route", "LIST_PROGRAMS").tag("reason", "low_confidence").counter().count());
+    }
+
+    @Test
+    void tryPlanShouldApplyThresholdAndRecordHitRate() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GraduateRouteFastPathPlanner strict = new GraduateRouteFastPathPlanner(
+                new GraduateRoutePlanParser(new GraduateAiRouteCatalog(), new ObjectMapper()), 0.9d, registry);
+
+        assertTrue(strict.tryPlan("Tuition of MBA at AUB", List.of(), catalogs).isPresent());
+        assertTrue(strict.tryPlan("List programs at AUB", List.of(), catalogs).isEmpty());
+
+        assertEquals(1.0d, registry.get("uniai.ai.route_plan.fast_path").tag("outcome", "hit").counter().count());
+        assertEquals(1.0d, registry.get("uniai.ai.route_plan.fast_path")
+                .tag("outcome", "miss").tag("reason", "low_confidence").counter().count());
+    }
+}
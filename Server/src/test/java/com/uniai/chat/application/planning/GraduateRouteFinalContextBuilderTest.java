@@ -1,11 +1,17 @@
 package com.uniai.chat.application.planning;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.application.budget.AiContextBudgetConfiguration;
+import com.uniai.chat.application.budget.AiTokenEstimator;
 import com.uniai.chat.application.citation.GraduateCitation;
+import com.uniai.chat.application.dto.ai.AiContextUnit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -44,4 +50,93 @@ class GraduateRouteFinalContextBuilderTest {
         assertTrue(context.contains("Graduate database retrieval: skipped"));
         assertFalse(context.contains("Retrieved database context"));
     }
+
+    @Test
+    void unitsRankRowsWithTheirSourceReferencesAndRenderTheFullContext() {
+        GraduateRouteExecutionResult result = new GraduateRouteExecutionResult(
+                GraduateAiRoute.GET_PROGRAM_TUITION,
+                objectMapper.createObjectNode(),
+                "Tuition rates:\n1. University: AUB | Amount: USD 1136.00\n2. University: LAU | Amount: USD 900.00",
+                List.of(new GraduateCitation("tuition-2", "S2", "LAU Tuition", "https://example.edu/lau",
+                        "TUITION", 2L, "LAU", null, "")),
+                List.of(),
+                false,
+                null).withContextRows(List.of(
+                new GraduateRouteContextRow("1. University: AUB | Amount: USD 1136.00", 3.0, null),
+                new GraduateRouteContextRow("2. University: LAU | Amount: USD 900.00", 1.5, "S2")));
+
+        List<AiContextUnit> units = builder.buildUnits(result);
+
+        assertEquals(builder.build(result), String.join("\n", units.stream().map(AiContextUnit::text).toList()));
+        List<AiContextUnit> ranked = units.stream().filter(unit -> !unit.isPinned()).toList();
+        assertEquals(3, ranked.size());
+        assertEquals("row-0", ranked.get(0).group());
+        assertEquals("row-1", ranked.get(1).group());
+        assertEquals("row-1", ranked.get(2).group());
+        assertTrue(ranked.get(2).text().startsWith("- [S2] LAU Tuition"));
+    }
+
+    @Test
+    void compactEncodingWritesHeaderAndDelimitedRowsWithSharedValuesOnce() {
+        GraduateRouteExecutionResult result = tuitionRows();
+        GraduateRouteFinalContextBuilder compactBuilder = new GraduateRouteFinalContextBuilder(
+                new GraduateRouteContextEncodingConfiguration(GraduateRouteContextEncoding.LABELED,
+                        Map.of(GraduateAiRoute.GET_PROGRAM_TUITION, GraduateRouteContextEncoding.COMPACT), Map.of()),
+                "gemini", null, null);
+
+        String context = compactBuilder.build(result);
+
+        assertTrue(context.contains("Tuition rates:\nShared values: University: AUB; Currency: USD\n#|Program|Amount|Source\n"
+                + "1|Computer Science|1136.00|\n2|Data Science|900.00|[S2]"));
+        assertFalse(context.contains("University: AUB | Program"));
+        assertTrue(context.contains("- [S2] AUB Data Science Tuition"));
+        List<AiContextUnit> units = compactBuilder.buildUnits(result);
+        assertEquals(context, String.join("\n", units.stream().map(AiContextUnit::text).toList()));
+        assertEquals(List.of("1|Computer Science|1136.00|", "2|Data Science|900.00|[S2]", "- [S2] AUB Data Science Tuition | University: AUB | URL: https://example.edu/ds"),
+                units.stream().filter(unit -> !unit.isPinned()).map(AiContextUnit::text).toList());
+    }
+
+    @Test
+    void encodingResolvesRouteBeforeProviderBeforeDefault() {
+        GraduateRouteContextEncodingConfiguration configuration = new GraduateRouteContextEncodingConfiguration(
+                GraduateRouteContextEncoding.LABELED,
+                Map.of(GraduateAiRoute.LIST_PROGRAMS, GraduateRouteContextEncoding.LABELED),
+                Map.of("Ollama", GraduateRouteContextEncoding.COMPACT));
+
+        assertEquals(GraduateRouteContextEncoding.LABELED, configuration.resolve(GraduateAiRoute.LIST_PROGRAMS, "ollama"));
+        assertEquals(GraduateRouteContextEncoding.COMPACT, configuration.resolve(GraduateAiRoute.GET_TUITION, "ollama"));
+        assertEquals(GraduateRouteContextEncoding.LABELED, configuration.resolve(GraduateAiRoute.GET_TUITION, "gemini"));
+    }
+
+    @Test
+    void outcomeRecordsTokensForBothEncodings() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GraduateRouteFinalContextBuilder meteredBuilder = new GraduateRouteFinalContextBuilder(
+                GraduateRouteContextEncodingConfiguration.defaults(), "gemini",
+                new AiTokenEstimator(new AiContextBudgetConfiguration(1000, 10, 100, 100, 1, 0, Map.of())), registry);
+
+        meteredBuilder.outcome(tuitionRows());
+
+        double labeled = registry.get("uniai.ai.route_context.tokens")
+                .tags("encoding", "labeled", "selected", "true").summary().totalAmount();
+        double compact = registry.get("uniai.ai.route_context.tokens")
+                .tags("encoding", "compact", "selected", "false").summary().totalAmount();
+        assertTrue(compact > 0 && compact < labeled, "compact " + compact + " labeled " + labeled);
+    }
+
+    private GraduateRouteExecutionResult tuitionRows() {
+        String row1 = "1. University: AUB | Program: Computer Science | Amount: USD 1136.00";
+        String row2 = "2. University: AUB | Program: Data Science | Amount: USD 900.00";
+        return new GraduateRouteExecutionResult(
+                GraduateAiRoute.GET_PROGRAM_TUITION,
+                objectMapper.createObjectNode(),
+                "Tuition rates:\n" + row1 + "\n" + row2,
+                List.of(new GraduateCitation("tuition-2", "S2", "AUB Data Science Tuition", "https://example.edu/ds",
+                        "TUITION", 1L, "AUB", null, "")),
+                List.of(),
+                false,
+                null).withContextRows(List.of(
+                new GraduateRouteContextRow(row1, 2.0, null),
+                new GraduateRouteContextRow(row2, 1.0, "S2")));
+    }
 }
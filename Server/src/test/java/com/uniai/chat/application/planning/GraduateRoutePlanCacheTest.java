@@ -0,0 +1,79 @@
+package com.uniai.chat.application.planning;
+
+import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.memory.ConversationMemory;
+import com.uniai.chat.application.memory.ConversationPreferences;
+import com.uniai.chat.application.memory.MemoryUniversityRef;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraduateRoutePlanCacheTest {
+
+    private static final ValidatedGraduateRoutePlan<?> PLAN = new ValidatedGraduateRoutePlan<>(
+            GraduateAiRoute.LIST_UNIVERSITIES, new GraduateRouteArguments.ListUniversitiesArguments(null, null, 5), null);
+
+    @Test
+    void keyShouldIgnoreCaseSpacingAndTrailingPunctuationButNotContext() {
+        GraduateRoutePlanCache cache = new GraduateRoutePlanCache(GraduateRoutePlanCacheConfiguration.defaults(), null);
+
+        String key = cache.key(request("Tuition of MBA at AUB?", List.of(), ConversationMemory.empty()), "prompt-v1");
+
+        assertEquals(key, cache.key(request("  tuition of  mba at aub ", List.of(), ConversationMemory.empty()), "prompt-v1"));
+        assertNotEquals(key, cache.key(request("Tuition of MBA at AUB?", List.of(), ConversationMemory.empty()), "prompt-v2"));
+        assertNotEquals(key, cache.key(request("Tuition of MBA at AUB?",
+                List.of(AiConversationMessage.builder().role("user").content("Hi").build()),
+                ConversationMemory.empty()), "prompt-v1"));
+        ConversationMemory memory = new ConversationMemory(1, List.of(new MemoryUniversityRef(1L, "American University of Beirut", "AUB")), List.of(),
+                null, false, List.of(), List.of(), List.of(), List.of(), new ConversationPreferences(null, null, null));
+        assertNotEquals(key, cache.key(request("Tuition of MBA at AUB?", List.of(), memory), "prompt-v1"));
+    }
+
+    @Test
+    void entriesShouldExpireAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GraduateRoutePlanCache cache = new GraduateRoutePlanCache(
+                new GraduateRoutePlanCacheConfiguration(true, 10, 60L), registry, now::get);
+
+        cache.put("k", PLAN);
+        assertSame(PLAN, cache.get("k").orElseThrow());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertTrue(cache.get("k").isEmpty());
+
+        assertEquals(1.0, registry.get("uniai.ai.route_plan.cache.lookups").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("uniai.ai.route_plan.cache.lookups").tag("result", "miss").counter().count());
+        assertEquals(1.0, registry.get("uniai.ai.route_plan.cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryShouldBeEvictedAndPurgeShouldClearAll() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GraduateRoutePlanCache cache = new GraduateRoutePlanCache(
+                new GraduateRoutePlanCacheConfiguration(true, 2, 60L), registry);
+
+        cache.put("a", PLAN);
+        cache.put("b", PLAN);
+        cache.get("a");
+        cache.put("c", PLAN);
+
+        assertTrue(cache.get("b").isEmpty());
+        assertEquals(2, cache.purge());
+        assertEquals(0, cache.size());
+        assertEquals(1.0, registry.get("uniai.ai.route_plan.cache.evictions").tag("cause", "size").counter().count());
+        assertEquals(2.0, registry.get("uniai.ai.route_plan.cache.evictions").tag("cause", "purge").counter().count());
+    }
+
+    private GraduateRoutePlanningRequest request(String message, List<AiConversationMessage> history, ConversationMemory memory) {
+        return new GraduateRoutePlanningRequest(message, history, memory);
+    }
+}
@@ -0,0 +1,53 @@
+package com.uniai.chat.application.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraduateRouteResultCacheTest {
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesWhenMemoryBudgetIsExceeded() {
+        GraduateRouteResultCache cache = new GraduateRouteResultCache(
+                new GraduateRouteResultCacheConfiguration(true, 100, 5_000L), "v58");
+
+        cache.put("a", result("x".repeat(1_000)));
+        cache.put("b", result("y".repeat(1_000)));
+        cache.get("a");
+        cache.put("c", result("z".repeat(1_000)));
+
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.weightBytes() <= 5_000L);
+        assertEquals(1L, cache.evictionCount());
+    }
+
+    @Test
+    void shouldSkipResultsLargerThanTheWholeBudget() {
+        GraduateRouteResultCache cache = new GraduateRouteResultCache(
+                new GraduateRouteResultCacheConfiguration(true, 100, 1_000L), "v58");
+
+        cache.put("a", result("x".repeat(1_000)));
+
+        assertEquals(0L, cache.size());
+        assertEquals(0L, cache.putCount());
+    }
+
+    @Test
+    void datasetVersionShouldCombineSchemaVersionAndRevision() {
+        GraduateRouteResultCache cache = new GraduateRouteResultCache(GraduateRouteResultCacheConfiguration.defaults(), () -> null);
+        cache.put("a", result("context"));
+
+        assertEquals("unknown.0", cache.datasetVersion());
+        assertEquals("unknown.1", cache.bumpDatasetVersion("test"));
+        assertEquals(0L, cache.size());
+    }
+
+    private GraduateRouteExecutionResult result(String context) {
+        return new GraduateRouteExecutionResult(GraduateAiRoute.LIST_UNIVERSITIES, null, context,
+                List.of(), List.of(), false, null);
+    }
+}
@@ -0,0 +1,140 @@
+package com.uniai.chat.application.postanswer;
+
+import com.uniai.chat.application.memory.ConversationMemory;
+import com.uniai.chat.application.memory.ConversationMemoryManager;
+import com.uniai.chat.application.memory.ConversationMemoryPatch;
+import com.uniai.chat.application.memory.ConversationMemoryUpdateRequest;
+import com.uniai.chat.application.planning.GraduateDirectAiReason;
+import com.uniai.chat.application.planning.GraduateRouteExecutionResult;
+import com.uniai.chat.application.title.ChatTitleGenerationManager;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostAnswerUpdateManagerTest {
+
+    private static final String QUESTION = "Tuition of MBA at AUB?";
+    private static final String ANSWER = "The MBA at AUB costs $1,200 per credit.";
+    private static final GraduateRouteExecutionResult ROUTE =
+            GraduateRouteExecutionResult.direct(null, GraduateDirectAiReason.GENERAL_CONVERSATION);
+    private static final ConversationMemoryUpdateRequest MEMORY_REQUEST =
+            new ConversationMemoryUpdateRequest(ConversationMemory.empty(), QUESTION, ANSWER, ROUTE, 7L);
+    private static final ConversationMemoryPatch PATCH = new ConversationMemoryPatch(
+            1, "TUITION_LOOKUP", null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+
+    @Mock
+    private ConversationMemoryManager memoryManager;
+
+    @Mock
+    private ChatTitleGenerationManager titleManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicReference<PostAnswerUpdate> combined = new AtomicReference<>();
+    private PostAnswerUpdateManager manager;
+
+    @BeforeEach
+    void setUp() {
+        PostAnswerUpdatePort port = request -> {
+            if (combined.get() == null) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            return combined.get();
+        };
+        manager = new PostAnswerUpdateManager(memoryManager, titleManager, port, registry);
+    }
+
+    @Test
+    void combinedUpdateShouldApplyBothHalvesAndSaveOneCall() {
+        bothDue();
+        combined.set(new PostAnswerUpdate(PATCH, "AUB MBA tuition"));
+        when(titleManager.applyTitle(11L, "AUB MBA tuition")).thenReturn(true);
+
+        update();
+
+        verify(memoryManager).applyUpdate(11L, MEMORY_REQUEST, PATCH);
+        verify(titleManager, never()).generateTitle(anyLong(), any(), anyString());
+        assertCallsSaved("combined", 1.0d);
+    }
+
+    @Test
+    void missingTitleShouldFallBackToStandaloneTitleGeneration() {
+        bothDue();
+        combined.set(new PostAnswerUpdate(PATCH, null));
+
+        update();
+
+        verify(memoryManager).applyUpdate(11L, MEMORY_REQUEST, PATCH);
+        verify(titleManager).generateTitle(11L, 7L, QUESTION);
+        assertCallsSaved("title_fallback", 0.0d);
+    }
+
+    @Test
+    void missingPatchShouldFallBackToStandaloneMemoryUpdate() {
+        bothDue();
+        combined.set(new PostAnswerUpdate(null, "AUB MBA tuition"));
+        when(titleManager.applyTitle(11L, "AUB MBA tuition")).thenReturn(true);
+
+        update();
+
+        // A null patch makes the memory manager ask its own update port.
+        verify(memoryManager).applyUpdate(11L, MEMORY_REQUEST, null);
+        verify(titleManager, never()).generateTitle(anyLong(), any(), anyString());
+        assertCallsSaved("memory_fallback", 0.0d);
+    }
+
+    @Test
+    void failedCombinedCallShouldFallBackForBothHalves() {
+        bothDue();
+
+        update();
+
+        verify(memoryManager).applyUpdate(11L, MEMORY_REQUEST, null);
+        verify(titleManager).generateTitle(11L, 7L, QUESTION);
+        assertCallsSaved("both_fallback", 0.0d);
+    }
+
+    @Test
+    void titleThatIsNotDueShouldSkipTheCombinedCall() {
+        when(titleManager.isTitleDue(11L, QUESTION)).thenReturn(false);
+        when(memoryManager.prepareUpdate(11L, 7L, ConversationMemory.empty(), QUESTION, ANSWER, ROUTE)).thenReturn(MEMORY_REQUEST);
+        combined.set(new PostAnswerUpdate(PATCH, "unused"));
+
+        update();
+
+        verify(memoryManager).applyUpdate(11L, MEMORY_REQUEST, null);
+        verify(titleManager, never()).generateTitleIfNeeded(anyLong(), any(), anyString());
+        assertEquals(0L, registry.find(ChatAiMetrics.POST_ANSWER_CALLS_SAVED).summaries().size());
+    }
+
+    private void bothDue() {
+        when(titleManager.isTitleDue(11L, QUESTION)).thenReturn(true);
+        when(memoryManager.prepareUpdate(11L, 7L, ConversationMemory.empty(), QUESTION, ANSWER, ROUTE)).thenReturn(MEMORY_REQUEST);
+    }
+
+    private void update() {
+        manager.updateAfterAnswer(11L, 7L, ConversationMemory.empty(), QUESTION, ANSWER, ROUTE, true);
+    }
+
+    private void assertCallsSaved(String outcome, double saved) {
+        DistributionSummary summary = registry.get(ChatAiMetrics.POST_ANSWER_CALLS_SAVED).tag("outcome", outcome).summary();
+        assertEquals(1L, summary.count());
+        assertEquals(saved, summary.totalAmount());
+        assertEquals(1, registry.find(ChatAiMetrics.POST_ANSWER_CALLS_SAVED).summaries().size());
+    }
+}
@@ -0,0 +1,239 @@
+package com.uniai.chat.application.prefetch;
+
+import com.uniai.catalog.domain.model.UniversityCatalog;
+import com.uniai.catalog.domain.repository.UniversityCatalogRepository;
+import com.uniai.chat.domain.model.Message;
+import com.uniai.chat.domain.model.RecentMessage;
+import com.uniai.chat.domain.repository.MessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatTurnPrefetcherTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void prefetchShouldRunStagesConcurrentlyAndCombineTurnContext() {
+        // Both stages wait for each other, so the prefetch only completes when they run in parallel.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        InMemoryMessageRepository messages = new InMemoryMessageRepository(bothStarted);
+        messages.add(7L, "Hi");
+        messages.add(0L, "Hello, how can I help?");
+        messages.add(7L, "Tuition of MBA at AUB?");
+        UniversityCatalogRepository catalogs = catalogRepository(() -> {
+            await(bothStarted);
+            return List.of(UniversityCatalog.builder().id(1L).name("American University of Beirut").build());
+        });
+        SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+        ChatTurnPrefetcher prefetcher = new ChatTurnPrefetcher(null, messages, catalogs, () -> "You are uniAI.",
+                executor, ChatTurnPrefetchConfiguration.defaults(), metrics);
+
+        ChatTurnContext context = prefetcher.prefetch(11L, 7L, "Tuition of MBA at AUB?");
+
+        assertEquals(2, context.conversationHistory().size());
+        assertEquals("assistant", context.conversationHistory().get(1).getRole());
+        assertFalse(context.firstUserTurn());
+        assertEquals(1, context.universityCatalogs().size());
+        assertEquals("You are uniAI.", context.systemPrompt());
+        assertTrue(context.conversationMemory().isEmpty());
+        assertEquals(1L, metrics.find("uniai.chat.prefetch.stage.duration")
+                .tags("stage", "catalog", "outcome", "success")
+                .timer()
+                .count());
+        assertEquals(1L, metrics.find("uniai.chat.prefetch.duration").tags("outcome", "success").timer().count());
+    }
+
+    @Test
+    void prefetchShouldDegradeHistoryWhenItExceedsItsDeadline() {
+        CountDownLatch neverReleased = new CountDownLatch(2);
+        InMemoryMessageRepository messages = new InMemoryMessageRepository(neverReleased);
+        SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+        ChatTurnPrefetcher prefetcher = new ChatTurnPrefetcher(null, messages, catalogRepository(List::of), () -> "prompt",
+                executor, new ChatTurnPrefetchConfiguration(1000L, 50L, 1000L, 1000L, 1000L), metrics);
+
+        ChatTurnContext context = prefetcher.prefetch(11L, 7L, "Hello");
+
+        assertTrue(context.conversationHistory().isEmpty());
+        assertFalse(context.firstUserTurn());
+        assertEquals(1.0, metrics.find("uniai.chat.prefetch.timeouts").tags("stage", "history").counter().count());
+        assertEquals(1L, metrics.find("uniai.chat.prefetch.duration").tags("outcome", "degraded").timer().count());
+    }
+
+    @Test
+    void degradedHistoryShouldStillDetectTheFirstUserTurn() {
+        CountDownLatch neverReleased = new CountDownLatch(2);
+        InMemoryMessageRepository messages = new InMemoryMessageRepository(neverReleased);
+        messages.add(7L, "Hello");
+        SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+        ChatTurnPrefetcher prefetcher = new ChatTurnPrefetcher(null, messages, catalogRepository(List::of), () -> "prompt",
+                executor, new ChatTurnPrefetchConfiguration(1000L, 50L, 1000L, 1000L, 1000L), metrics);
+
+        ChatTurnContext context = prefetcher.prefetch(11L, 7L, "Hello");
+
+        assertTrue(context.firstUserTurn());
+        assertTrue(context.conversationHistory().isEmpty());
+        assertEquals(1L, metrics.find("uniai.chat.prefetch.duration").tags("outcome", "degraded").timer().count());
+    }
+
+    @Test
+    void timedOutStageShouldInterruptItsWorker() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        MessageRepository blockingMessages = new InMemoryMessageRepository(null) {
+            @Override
+            public List<RecentMessage> findRecentByChatId(Long chatId, int limit) {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                }
+                return List.of();
+            }
+        };
+        ChatTurnPrefetcher prefetcher = new ChatTurnPrefetcher(null, blockingMessages, catalogRepository(List::of), () -> "prompt",
+                executor, new ChatTurnPrefetchConfiguration(1000L, 50L, 1000L, 1000L, 1000L), new SimpleMeterRegistry());
+
+        prefetcher.prefetch(11L, 7L, "Hello");
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void saturatedExecutorShouldSkipOptionalStagesAndReadRequiredOnesInline() {
+        // The held worker counts the latch down to one and waits for the test to release it.
+        CountDownLatch release = new CountDownLatch(2);
+        ThreadPoolExecutor saturated = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        saturated.execute(() -> await(release));
+        saturated.execute(() -> { });
+        InMemoryMessageRepository messages = new InMemoryMessageRepository(null);
+        messages.add(7L, "Hi");
+        messages.add(0L, "Hello, how can I help?");
+        SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+        ChatTurnPrefetcher prefetcher = new ChatTurnPrefetcher(null, messages,
+                catalogRepository(() -> List.of(UniversityCatalog.builder().id(1L).name("AUB").build())), () -> "prompt",
+                saturated, new ChatTurnPrefetchConfiguration(50L, 50L, 50L, 50L, 50L), metrics);
+
+        try {
+            ChatTurnContext context = prefetcher.prefetch(11L, 7L, "Tuition of MBA at AUB?");
+
+            assertTrue(context.conversationHistory().isEmpty());
+            assertEquals(1, context.universityCatalogs().size());
+            assertEquals("prompt", context.systemPrompt());
+            assertEquals(1.0, metrics.find("uniai.chat.prefetch.rejections").tags("stage", "history").counter().count());
+            assertEquals(1.0, metrics.find("uniai.chat.prefetch.rejections").tags("stage", "catalog").counter().count());
+            assertEquals(1L, metrics.find("uniai.chat.prefetch.duration").tags("outcome", "degraded").timer().count());
+        } finally {
+            release.countDown();
+            saturated.shutdownNow();
+        }
+    }
+
+    @Test
+    void prefetchShouldFailTheTurnWhenRequiredStageFails() {
+        InMemoryMessageRepository messages = new InMemoryMessageRepository(null);
+        UniversityCatalogRepository failingCatalogs = catalogRepository(() -> {
+            throw new IllegalStateException("catalog unavailable");
+        });
+        ChatTurnPrefetcher prefetcher = new ChatTurnPrefetcher(null, messages, failingCatalogs, () -> "prompt", executor);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> prefetcher.prefetch(11L, 7L, "Hello"));
+        assertEquals("catalog unavailable", failure.getMessage());
+    }
+
+    @Test
+    void prefetchShouldDetectFirstUserTurnWithoutExecutor() {
+        InMemoryMessageRepository messages = new InMemoryMessageRepository(null);
+        messages.add(7L, "Hello");
+        ChatTurnPrefetcher prefetcher = new ChatTurnPrefetcher(null, messages, catalogRepository(List::of), () -> "prompt", null);
+
+        ChatTurnContext context = prefetcher.prefetch(11L, 7L, "Hello");
+
+        assertTrue(context.firstUserTurn());
+        assertTrue(context.conversationHistory().isEmpty());
+    }
+
+    private static UniversityCatalogRepository catalogRepository(java.util.function.Supplier<List<UniversityCatalog>> loader) {
+        return new UniversityCatalogRepository() {
+            @Override
+            public List<UniversityCatalog> findAll() {
+                return loader.get();
+            }
+
+            @Override
+            public List<UniversityCatalog> searchByName(String search) {
+                return loader.get();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class InMemoryMessageRepository implements MessageRepository {
+        private final List<Message> messages = new ArrayList<>();
+        private final CountDownLatch historyGate;
+
+        private InMemoryMessageRepository(CountDownLatch historyGate) {
+            this.historyGate = historyGate;
+        }
+
+        void add(Long senderId, String content) {
+            messages.add(Message.builder()
+                    .id((long) messages.size() + 1)
+                    .senderId(senderId)
+                    .content(content)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+
+        @Override
+        public List<RecentMessage> findRecentByChatId(Long chatId, int limit) {
+            if (historyGate != null) {
+                await(historyGate);
+            }
+            return messages.subList(Math.max(0, messages.size() - limit), messages.size()).stream()
+                    .map(RecentMessage::from)
+                    .toList();
+        }
+
+        @Override public List<Message> findByChatIdOrderByTimestampAsc(Long chatId) { return List.copyOf(messages); }
+
+        @Override public List<Message> findTop10ByChatIdOrderByTimestampDesc(Long chatId) { return List.of(); }
+        @Override public void deleteByChatId(Long chatId) {}
+        @Override public void deleteByChatIdIn(List<Long> chatIds) {}
+        @Override public void deleteById(Long messageId) {}
+        @Override public long countByChatId(Long chatId) { return messages.size(); }
+        @Override public long count() { return messages.size(); }
+        @Override public long countByUserId(Long userId) { return 0L; }
+        @Override public boolean existsByChatId(Long chatId) { return !messages.isEmpty(); }
+        @Override public Message save(Message message) { messages.add(message); return message; }
+    }
+}
@@ -0,0 +1,214 @@
+package com.uniai.chat.application.service;
+
+import com.uniai.chat.application.budget.AiContextBudgetManager;
+import com.uniai.chat.application.budget.AiContextBudgetResult;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.dto.command.SendMessageCommand;
+import com.uniai.chat.application.memory.ConversationMemoryManager;
+import com.uniai.chat.application.planning.GraduateDirectAiReason;
+import com.uniai.chat.application.planning.GraduateRouteExecutionResult;
+import com.uniai.chat.application.planning.GraduateRouteRuntimeManager;
+import com.uniai.chat.application.planning.GraduateRouteRuntimeOutcome;
+import com.uniai.chat.application.prefetch.ChatTurnContext;
+import com.uniai.chat.application.prefetch.ChatTurnPrefetcher;
+import com.uniai.chat.application.title.ChatTitleGenerationManager;
+import com.uniai.chat.domain.model.Chat;
+import com.uniai.chat.domain.model.Message;
+import com.uniai.chat.domain.repository.ChatRepository;
+import com.uniai.chat.domain.repository.MessageRepository;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import com.uniai.user.domain.model.User;
+import com.uniai.user.domain.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatApplicationServiceTest {
+
+    private static final String EMAIL = "student@example.com";
+
+    @Mock
+    private ChatRepository chatRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ChatTurnPrefetcher chatTurnPrefetcher;
+
+    @Mock
+    private GraduateRouteRuntimeManager routeRuntimeManager;
+
+    @Mock
+    private AiContextBudgetManager budgetManager;
+
+    @Mock
+    private ConversationMemoryManager conversationMemoryManager;
+
+    @Mock
+    private ChatTitleGenerationManager chatTitleGenerationManager;
+
+    private final List<String> events = new ArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong messageIds = new AtomicLong(100L);
+    private final User user = User.builder().id(7L).email(EMAIL).username("student").build();
+    private final Chat chat = Chat.builder().id(11L).user(user).build();
+    private ChatApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(chatRepository.findById(11L)).thenReturn(Optional.of(chat));
+        lenient().when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        lenient().when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            message.setId(messageIds.incrementAndGet());
+            events.add("save:" + (message.getSenderId() == 0L ? "answer" : "question"));
+            return message;
+        });
+        lenient().when(routeRuntimeManager.execute(anyString(), any(), any(), any(), any())).thenReturn(
+                new GraduateRouteRuntimeOutcome(
+                        GraduateRouteExecutionResult.direct(null, GraduateDirectAiReason.GREETING), "", List.of()));
+        lenient().when(budgetManager.budget(any(AiRequest.class))).thenAnswer(invocation -> new AiContextBudgetResult(
+                invocation.getArgument(0), 100L, 100L, 8000L, 500L, 0, 0, 0, 0, false, false, true, "groq", null));
+        lenient().doAnswer(invocation -> events.add("title"))
+                .when(chatTitleGenerationManager).generateTitleIfNeeded(anyLong(), any(), anyString());
+        lenient().doAnswer(invocation -> events.add("memory"))
+                .when(conversationMemoryManager).updateMemoryIfNeeded(anyLong(), any(), any(), anyString(), anyString(), any());
+
+        service = new ChatApplicationService(
+                chatRepository,
+                messageRepository,
+                userRepository,
+                request -> AiResponse.builder().content("Hello! How can I help?").provider("groq").build(),
+                chatTurnPrefetcher,
+                routeRuntimeManager,
+                budgetManager,
+                conversationMemoryManager,
+                chatTitleGenerationManager,
+                null,
+                null,
+                null,
+                null,
+                registry,
+                new RecordingTransactionManager());
+    }
+
+    @Test
+    void afterCommitHooksShouldOnlyRunOnceTheAnswerIsCommitted() {
+        firstTurnPrefetched();
+
+        service.sendMessage(EMAIL, command());
+
+        assertEquals(List.of(
+                "begin", "save:question", "commit",
+                "begin", "save:answer", "commit",
+                "title", "memory"), events);
+    }
+
+    @Test
+    void failureAfterTheLoadStageShouldDeleteTheCommittedUserMessage() {
+        when(chatTurnPrefetcher.prefetch(11L, 7L, "Hi")).thenThrow(new IllegalStateException("catalog unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> service.sendMessage(EMAIL, command()));
+
+        verify(messageRepository).deleteById(101L);
+        assertEquals(List.of("begin", "save:question", "commit", "begin", "commit"), events);
+        assertEquals(1L, duration("discard_turn", "committed").count());
+        assertNull(registry.find(ChatAiMetrics.TRANSACTION_ACQUIRE).tag("stage", "persist_answer").timer());
+    }
+
+    @Test
+    void failedAnswerCommitShouldSkipAfterCommitHooksAndDiscardTheTurn() {
+        firstTurnPrefetched();
+        when(chatRepository.save(chat)).thenThrow(new IllegalStateException("connection reset"));
+
+        assertThrows(IllegalStateException.class, () -> service.sendMessage(EMAIL, command()));
+
+        verify(chatTitleGenerationManager, never()).generateTitleIfNeeded(anyLong(), any(), anyString());
+        verify(messageRepository).deleteById(101L);
+        assertEquals(List.of(
+                "begin", "save:question", "commit",
+                "begin", "save:answer", "rollback",
+                "begin", "commit"), events);
+        assertEquals(1L, duration("persist_answer", "failure").count());
+    }
+
+    @Test
+    void transactionTimersShouldBeTaggedWithTheirStageAndOutcome() {
+        firstTurnPrefetched();
+
+        service.sendMessage(EMAIL, command());
+
+        for (String stage : List.of("load_turn", "persist_answer")) {
+            assertEquals(1L, registry.get(ChatAiMetrics.TRANSACTION_ACQUIRE).tag("stage", stage).timer().count(), stage);
+            assertEquals(1L, duration(stage, "committed").count(), stage);
+        }
+        assertNull(registry.find(ChatAiMetrics.TRANSACTION_DURATION).tag("outcome", "failure").timer());
+        assertNull(registry.find(ChatAiMetrics.TRANSACTION_ACQUIRE).tag("stage", "discard_turn").timer());
+    }
+
+    private void firstTurnPrefetched() {
+        when(chatTurnPrefetcher.prefetch(11L, 7L, "Hi"))
+                .thenReturn(new ChatTurnContext(null, List.of(), true, List.of(), "You are uniAI."));
+    }
+
+    private Timer duration(String stage, String outcome) {
+        return registry.get(ChatAiMetrics.TRANSACTION_DURATION).tag("stage", stage).tag("outcome", outcome).timer();
+    }
+
+    private static SendMessageCommand command() {
+        return SendMessageCommand.builder().chatId(11L).content("Hi").build();
+    }
+
+    /** Runs synchronizations like a real manager, recording where each transaction begins and ends. */
+    private final class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            events.add("begin");
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            events.add("commit");
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            events.add("rollback");
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -107,6 +108,20 @@ class ChatTitleGenerationManagerTest {
         assertNull(chatRepository.findTitleById(14L));
     }
 
+    @Test
+    void applyTitleShouldValidateCombinedTitlesWithoutProviderCall() {
+        chatRepository.save(chat(17L, null));
+
+        assertTrue(manager.isTitleDue(17L, "Compare AUB and LAU master's tuition"));
+        assertFalse(manager.applyTitle(17L, "Title:\n**AUB vs LAU**"));
+        assertNull(chatRepository.findTitleById(17L));
+        assertTrue(manager.applyTitle(17L, "\"AUB vs LAU Tuition.\""));
+
+        assertEquals(0, aiServicePort.callCount);
+        assertEquals("AUB vs LAU Tuition", chatRepository.findTitleById(17L));
+        assertFalse(manager.isTitleDue(17L, "Compare AUB and LAU master's tuition"));
+    }
+
     @Test
     void generateTitleIfNeededShouldRespectConcurrentSkip() {
         chatRepository.save(chat(15L, null));
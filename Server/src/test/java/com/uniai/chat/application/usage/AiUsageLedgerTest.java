@@ -0,0 +1,163 @@
+package com.uniai.chat.application.usage;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.port.out.AiUsageLedgerPort;
+import com.uniai.shared.exception.AiUsageQuotaExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AiUsageLedgerTest {
+
+    @Test
+    void minuteQuotaShouldRefuseUntilTheWindowSlidesPastTheUsage() {
+        MutableClock clock = new MutableClock();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiUsageLedger ledger = new AiUsageLedger(new AiUsageLedgerConfiguration(true, 1000L, 0L, 10), new RecordingPort(), registry, clock);
+
+        ledger.record(7L, AiOperation.MAIN_RESPONSE, "groq", 700L, 500L, 800L, 250L);
+
+        assertThrows(AiUsageQuotaExceededException.class, () -> ledger.checkQuota(7L));
+        assertDoesNotThrow(() -> ledger.checkQuota(8L));
+        assertEquals(1.0, registry.get("uniai.ai.usage.quota_rejections").tag("window", "minute").counter().count());
+
+        clock.advance(Duration.ofSeconds(70));
+
+        assertDoesNotThrow(() -> ledger.checkQuota(7L));
+    }
+
+    @Test
+    void dailyQuotaShouldChargeEstimatesWhenTheProviderReportsNoUsage() {
+        MutableClock clock = new MutableClock();
+        AiUsageLedger ledger = new AiUsageLedger(new AiUsageLedgerConfiguration(true, 0L, 5000L, 10), new RecordingPort(), null, clock);
+
+        ledger.record(7L, AiOperation.MAIN_RESPONSE, "ollama", 2000L, 1000L, null, null);
+        clock.advance(Duration.ofHours(2));
+        assertDoesNotThrow(() -> ledger.checkQuota(7L));
+
+        ledger.record(7L, AiOperation.MAIN_RESPONSE, "ollama", 1500L, 1000L, null, null);
+        clock.advance(Duration.ofHours(2));
+        assertThrows(AiUsageQuotaExceededException.class, () -> ledger.checkQuota(7L));
+
+        clock.advance(Duration.ofHours(21));
+        assertDoesNotThrow(() -> ledger.checkQuota(7L));
+    }
+
+    @Test
+    void dayWindowShouldStartFromTodaysStoredUsageAfterARestart() {
+        MutableClock clock = new MutableClock();
+        RecordingPort port = new RecordingPort();
+        port.addAll(List.of(
+                new AiUsageLedgerEntry(7L, LocalDate.of(2026, 3, 2), AiOperation.MAIN_RESPONSE, "groq", 3L, 3000L, 900L, 2800L, 700L),
+                new AiUsageLedgerEntry(7L, LocalDate.of(2026, 3, 1), AiOperation.MAIN_RESPONSE, "groq", 9L, 9000L, 900L, 9000L, 900L)));
+        AiUsageLedger ledger = new AiUsageLedger(new AiUsageLedgerConfiguration(true, 0L, 3500L, 10), port, null, clock);
+
+        assertThrows(AiUsageQuotaExceededException.class, () -> ledger.checkQuota(7L));
+        assertEquals(3500L, ledger.usage(7L).dailyTokens());
+        assertEquals(0L, ledger.usage(7L).minuteTokens());
+    }
+
+    @Test
+    void flushShouldWriteOnlyNewCountsInBatchesAndRetryFailedBatches() {
+        MutableClock clock = new MutableClock();
+        RecordingPort port = new RecordingPort();
+        AiUsageLedger ledger = new AiUsageLedger(new AiUsageLedgerConfiguration(true, 0L, 0L, 2), port, null, clock);
+
+        ledger.record(1L, AiOperation.MAIN_RESPONSE, "Groq", 100L, 50L, 120L, 40L);
+        ledger.record(1L, AiOperation.MAIN_RESPONSE, "groq", 100L, 50L, 110L, 30L);
+        ledger.record(2L, AiOperation.MAIN_RESPONSE, "groq", 10L, 5L, null, null);
+        ledger.record(3L, AiOperation.MAIN_RESPONSE, "gemini", 10L, 5L, 12L, 4L);
+
+        assertEquals(3, ledger.flush());
+        assertEquals(2, port.batches.size());
+        AiUsageLedgerEntry first = port.rows().stream().filter(entry -> entry.userId() == 1L).findFirst().orElseThrow();
+        assertEquals(2L, first.calls());
+        assertEquals(230L, first.actualInputTokens());
+        assertEquals("groq", first.provider());
+
+        ledger.record(1L, AiOperation.MAIN_RESPONSE, "groq", 100L, 50L, 90L, 20L);
+        port.failing = true;
+        assertEquals(0, ledger.flush());
+        port.failing = false;
+        assertEquals(1, ledger.flush());
+        AiUsageLedgerEntry retried = port.batches.get(port.batches.size() - 1).get(0);
+        assertEquals(1L, retried.calls());
+        assertEquals(90L, retried.actualInputTokens());
+        assertEquals(0, ledger.flush());
+    }
+
+    @Test
+    void usageShouldAddPendingCountsToStoredTotals() {
+        MutableClock clock = new MutableClock();
+        RecordingPort port = new RecordingPort();
+        AiUsageLedger ledger = new AiUsageLedger(new AiUsageLedgerConfiguration(true, 0L, 0L, 10), port, null, clock);
+
+        ledger.record(1L, AiOperation.MAIN_RESPONSE, "groq", 100L, 50L, 120L, 40L);
+        ledger.flush();
+        ledger.record(1L, AiOperation.MAIN_RESPONSE, "groq", 100L, 50L, 80L, 10L);
+
+        AiUserUsage usage = ledger.usage(1L);
+
+        assertEquals(1, usage.entries().size());
+        assertEquals(2L, usage.entries().get(0).calls());
+        assertEquals(200L, usage.entries().get(0).actualInputTokens());
+        assertEquals(250L, usage.dailyTokens());
+    }
+
+    private static final class RecordingPort implements AiUsageLedgerPort {
+        private final List<List<AiUsageLedgerEntry>> batches = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void addAll(List<AiUsageLedgerEntry> entries) {
+            if (failing) {
+                throw new IllegalStateException("database unavailable");
+            }
+            batches.add(List.copyOf(entries));
+        }
+
+        @Override
+        public List<AiUsageLedgerEntry> findByUserId(Long userId) {
+            return rows().stream().filter(entry -> entry.userId().equals(userId)).toList();
+        }
+
+        private List<AiUsageLedgerEntry> rows() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-03-02T08:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
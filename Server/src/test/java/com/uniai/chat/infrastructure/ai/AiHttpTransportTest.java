@@ -0,0 +1,113 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiHttpTransportTest {
+
+    private final CountDownLatch slowStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/fast", exchange -> respond(exchange, "ok"));
+        server.createContext("/slow", exchange -> {
+            slowStarted.countDown();
+            try {
+                releaseSlow.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "slow");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        releaseSlow.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void templatesForTheSameProviderShouldShareOnePoolAndReleaseSlotsAfterEachResponse() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiHttpTransport transport = new AiHttpTransport(Duration.ofSeconds(1), Duration.ofSeconds(5), 4, true, registry);
+
+        try {
+            RestTemplate first = transport.restTemplate("groq", baseUrl);
+            RestTemplate second = transport.restTemplate("GROQ", baseUrl);
+
+            assertEquals("ok", first.getForObject(baseUrl + "/fast", String.class));
+            assertEquals("ok", second.getForObject(baseUrl + "/fast", String.class));
+            assertEquals(0, transport.inFlight("groq"));
+            assertEquals(1, registry.find(ChatAiMetrics.AI_HTTP_IN_FLIGHT).gauges().size());
+            assertEquals(0.0, registry.get(ChatAiMetrics.AI_HTTP_POOL_UTILIZATION).tag("provider", "groq").gauge().value());
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    void exhaustedConnectionCapShouldFailAsTimeoutAfterTheConnectTimeout() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AiHttpTransport transport = new AiHttpTransport(Duration.ofMillis(100), Duration.ofSeconds(5), 1, true, registry);
+
+        try {
+            RestTemplate restTemplate = transport.restTemplate("ollama", baseUrl);
+            CompletableFuture<String> slow = CompletableFuture.supplyAsync(
+                    () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+            assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+            assertEquals(1, transport.inFlight("ollama"));
+
+            ResourceAccessException exception = assertThrows(
+                    ResourceAccessException.class,
+                    () -> restTemplate.getForObject(baseUrl + "/fast", String.class));
+            assertInstanceOf(SocketTimeoutException.class, exception.getCause());
+            assertEquals(1.0, registry.get(ChatAiMetrics.AI_HTTP_POOL_REJECTIONS).counter().count());
+
+            releaseSlow.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+            assertEquals(0, transport.inFlight("ollama"));
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
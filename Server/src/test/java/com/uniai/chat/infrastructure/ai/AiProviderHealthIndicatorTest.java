@@ -0,0 +1,46 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.provider.AiProviderCircuitState;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AiProviderHealthIndicatorTest {
+
+    private final InMemoryAiProviderStatusRegistry statuses = new InMemoryAiProviderStatusRegistry();
+    private final AiProviderHealthIndicator health = new AiProviderHealthIndicator(statuses);
+
+    @Test
+    void healthShouldBeUpBeforeAnyProviderIsSeen() {
+        assertEquals(Status.UP, health.health().getStatus());
+    }
+
+    @Test
+    void oneProviderWithoutOpenCircuitsShouldKeepHealthUp() {
+        statuses.recordFailure("groq", "llama", AiProviderFailureCategory.TIMEOUT, 10L);
+        statuses.recordCircuitState("groq", AiOperation.MAIN_RESPONSE, AiProviderCircuitState.OPEN);
+        statuses.recordSuccess("ollama", "gemma3:4b", 10L);
+        statuses.recordCircuitState("ollama", AiOperation.TITLE_GENERATION, AiProviderCircuitState.HALF_OPEN);
+
+        assertEquals(Status.UP, health.health().getStatus());
+    }
+
+    @Test
+    void healthShouldBeDownWhenEveryProviderHasAnOpenCircuit() {
+        statuses.recordCircuitState("groq", AiOperation.MAIN_RESPONSE, AiProviderCircuitState.OPEN);
+        statuses.recordCircuitState("ollama", AiOperation.INTERPRETATION, AiProviderCircuitState.OPEN);
+
+        Health result = health.health();
+
+        assertEquals(Status.DOWN, result.getStatus());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> groq = (Map<String, Object>) result.getDetails().get("groq");
+        assertEquals(Map.of(AiOperation.MAIN_RESPONSE, AiProviderCircuitState.OPEN), groq.get("circuits"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.support.BenchmarkTimer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of parsing a non-streaming completion the way the adapters used to, reading the body into a String and
+ * walking a {@code readTree} copy of it (three copies for Ollama, which re-read its eval counts), against the
+ * single streaming pass of {@link AiProviderResponseReader}. The payloads are hand-written to the shape of each
+ * provider's documented response, with a long answer and the usage fields the adapters read; they are not captures
+ * of real traffic. Run with {@code mvn test -Pbenchmark -Dtest=AiProviderResponseReaderBenchmarkTest}.
+ */
+@Tag("benchmark")
+class AiProviderResponseReaderBenchmarkTest {
+
+    private static final Logger logger = LogManager.getLogger(AiProviderResponseReaderBenchmarkTest.class);
+
+    private static final BenchmarkTimer TIMER = new BenchmarkTimer(2_000, 20_000);
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String ANSWER = "The MSc in Computer Science at AUB requires 30 credits, a thesis or project, and a B average. "
+            .repeat(20);
+
+    private static final byte[] GEMINI = bytes("""
+            {"candidates":[{"content":{"role":"model","parts":[{"text":"%s"}]},"finishReason":"STOP","index":0,
+              "safetyRatings":[{"category":"HARM_CATEGORY_HARASSMENT","probability":"NEGLIGIBLE"},{"category":"HARM_CATEGORY_HATE_SPEECH","probability":"NEGLIGIBLE"}]}],
+             "usageMetadata":{"promptTokenCount":3812,"candidatesTokenCount":412,"totalTokenCount":4224,"cachedContentTokenCount":3072},
+             "modelVersion":"gemini-2.5-flash","responseId":"resp-1"}
+            """.formatted(ANSWER));
+    private static final byte[] GROQ = bytes("""
+            {"id":"chatcmpl-1","object":"chat.completion","created":1735689600,"model":"llama-3.3-70b-versatile",
+             "choices":[{"index":0,"message":{"role":"assistant","content":"%s"},"logprobs":null,"finish_reason":"stop"}],
+             "usage":{"queue_time":0.02,"prompt_tokens":3301,"prompt_time":0.1,"completion_tokens":412,"completion_time":0.9,"total_tokens":3713,
+               "prompt_tokens_details":{"cached_tokens":2560}},
+             "system_fingerprint":"fp_1","x_groq":{"id":"req_1"}}
+            """.formatted(ANSWER));
+    private static final byte[] OLLAMA = bytes("""
+            {"model":"gemma3:4b","created_at":"2025-01-01T00:00:00Z","message":{"role":"assistant","content":"%s"},
+             "done_reason":"stop","done":true,"total_duration":5123456789,"load_duration":12345678,
+             "prompt_eval_count":3295,"prompt_eval_duration":1234567890,"eval_count":412,"eval_duration":3456789012}
+            """.formatted(ANSWER));
+
+    @Test
+    void compareParsingOfHandWrittenPayloads() throws IOException {
+        report("gemini", GEMINI, new Parser() {
+            @Override
+            public long previous(byte[] body) throws IOException {
+                JsonNode candidate = OBJECT_MAPPER.readTree(new String(body, StandardCharsets.UTF_8)).path("candidates").get(0);
+                StringBuilder output = new StringBuilder();
+                for (JsonNode part : candidate.path("content").path("parts")) {
+                    JsonNode text = part.get("text");
+                    if (text != null && text.isTextual() && !text.asText().isBlank()) {
+                        if (output.length() > 0) {
+                            output.append('\n');
+                        }
+                        output.append(text.asText().trim());
+                    }
+                }
+                return output.toString().trim().length() + candidate.path("finishReason").asText("").length();
+            }
+
+            @Override
+            public long current(byte[] body) throws IOException {
+                AiProviderCompletion completion = AiProviderResponseReader.readGemini(
+                        FACTORY, 200, new ByteArrayInputStream(body), AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES);
+                return completion.content().length() + completion.finishReason().length();
+            }
+        });
+        report("groq", GROQ, new Parser() {
+            @Override
+            public long previous(byte[] body) throws IOException {
+                JsonNode choice = OBJECT_MAPPER.readTree(new String(body, StandardCharsets.UTF_8)).path("choices").get(0);
+                return choice.path("message").path("content").asText("").length() + choice.path("finish_reason").asText("").length();
+            }
+
+            @Override
+            public long current(byte[] body) throws IOException {
+                AiProviderCompletion completion = AiProviderResponseReader.readGroq(
+                        FACTORY, 200, new ByteArrayInputStream(body), AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES);
+                return completion.content().length() + completion.finishReason().length();
+            }
+        });
+        report("ollama", OLLAMA, new Parser() {
+            @Override
+            public long previous(byte[] body) throws IOException {
+                String text = new String(body, StandardCharsets.UTF_8);
+                JsonNode root = OBJECT_MAPPER.readTree(text);
+                long promptTokens = OBJECT_MAPPER.readTree(text).path("prompt_eval_count").longValue();
+                long completionTokens = OBJECT_MAPPER.readTree(text).path("eval_count").longValue();
+                return root.path("message").path("content").asText("").length() + root.path("done_reason").asText("").length()
+                        + promptTokens + completionTokens;
+            }
+
+            @Override
+            public long current(byte[] body) throws IOException {
+                AiProviderCompletion completion = AiProviderResponseReader.readOllama(
+                        FACTORY, 200, new ByteArrayInputStream(body), AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES);
+                return completion.content().length() + completion.finishReason().length()
+                        + completion.promptTokens() + completion.completionTokens();
+            }
+        });
+    }
+
+    private static void report(String provider, byte[] body, Parser parser) throws IOException {
+        // Both paths must extract the same fields before their timings are worth comparing.
+        assertEquals(parser.previous(body), parser.current(body));
+        logger.info("[AI_RESPONSE_READER_BENCHMARK] provider={} bodyBytes={} readTreeNsPerResponse={} streamingNsPerResponse={}",
+                provider,
+                body.length,
+                TIMER.nanosPerRound(() -> parser.previous(body)),
+                TIMER.nanosPerRound(() -> parser.current(body)));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private interface Parser {
+        long previous(byte[] body) throws IOException;
+
+        long current(byte[] body) throws IOException;
+    }
+}
@@ -0,0 +1,104 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiProviderResponseReaderTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    void readsGeminiPartsFinishReasonAndUsageInOnePass() throws IOException {
+        AiProviderCompletion completion = AiProviderResponseReader.readGemini(FACTORY, 200, body("""
+                {"candidates":[{"content":{"role":"model","parts":[{"text":" First part "},{"text":"  "},{"inlineData":{"data":"x"}},{"text":"Second part"}]},
+                  "finishReason":"STOP","safetyRatings":[{"category":"HARM_CATEGORY_HARASSMENT","probability":"NEGLIGIBLE"}]},
+                  {"content":{"parts":[{"text":"ignored candidate"}]}}],
+                 "usageMetadata":{"promptTokenCount":812,"candidatesTokenCount":64,"totalTokenCount":876,"cachedContentTokenCount":640},
+                 "modelVersion":"gemini-2.5-flash"}
+                """), 4096);
+
+        assertTrue(completion.choicesPresent());
+        assertEquals("First part\nSecond part", completion.content());
+        assertEquals("STOP", completion.finishReason());
+        assertEquals("gemini-2.5-flash", completion.model());
+        assertEquals(812L, completion.promptTokens());
+        assertEquals(64L, completion.completionTokens());
+        assertEquals(640L, completion.cachedPromptTokens());
+    }
+
+    @Test
+    void readsGroqFirstChoiceAndUsage() throws IOException {
+        AiProviderCompletion completion = AiProviderResponseReader.readGroq(FACTORY, 200, body("""
+                {"id":"chatcmpl-1","object":"chat.completion","model":"llama-3.3-70b-versatile",
+                 "choices":[{"index":0,"message":{"role":"assistant","content":"Hello there"},"logprobs":null,"finish_reason":"stop"}],
+                 "usage":{"queue_time":0.02,"prompt_tokens":301,"completion_tokens":12,"total_tokens":313,"prompt_tokens_details":{"cached_tokens":256}},
+                 "x_groq":{"id":"req_1"}}
+                """), 4096);
+
+        assertEquals("Hello there", completion.content());
+        assertEquals("stop", completion.finishReason());
+        assertEquals(301L, completion.promptTokens());
+        assertEquals(12L, completion.completionTokens());
+        assertEquals(256L, completion.cachedPromptTokens());
+    }
+
+    @Test
+    void readsOllamaMessageModelAndEvalCounts() throws IOException {
+        AiProviderCompletion completion = AiProviderResponseReader.readOllama(FACTORY, 200, body("""
+                {"model":"gemma3:4b","created_at":"2025-01-01T00:00:00Z","message":{"role":"assistant","content":"Local answer"},
+                 "done_reason":"stop","done":true,"total_duration":123,"prompt_eval_count":95,"eval_count":7}
+                """), 4096);
+
+        assertEquals("Local answer", completion.content());
+        assertEquals("gemma3:4b", completion.model());
+        assertEquals("stop", completion.finishReason());
+        assertEquals(95L, completion.promptTokens());
+        assertEquals(7L, completion.completionTokens());
+    }
+
+    @Test
+    void reportsEmptyBodiesAndMissingChoices() throws IOException {
+        assertTrue(AiProviderResponseReader.readGroq(FACTORY, 200, body("  "), 4096).empty());
+
+        AiProviderCompletion noChoices = AiProviderResponseReader.readGroq(FACTORY, 200, body("{\"choices\":[]}"), 4096);
+        assertFalse(noChoices.empty());
+        assertFalse(noChoices.choicesPresent());
+        assertNull(noChoices.content());
+    }
+
+    @Test
+    void doesNotReadNonSuccessBodies() throws IOException {
+        AiProviderCompletion completion = AiProviderResponseReader.readGroq(FACTORY, 302, body("{broken"), 4096);
+
+        assertFalse(completion.successful());
+        assertEquals(302, completion.statusCode());
+    }
+
+    @Test
+    void oversizedAndMalformedBodiesAreInvalidResponses() {
+        String large = "{\"choices\":[{\"message\":{\"content\":\"" + "a".repeat(10_000) + "\"}}]}";
+
+        IllegalStateException tooLarge = assertThrows(IllegalStateException.class,
+                () -> AiProviderResponseReader.readGroq(FACTORY, 200, body(large), 1024));
+        assertTrue(tooLarge.getMessage().contains("1024"));
+        assertThrows(IllegalStateException.class,
+                () -> AiProviderResponseReader.readOllama(FACTORY, 200, body("{\"message\":{\"content\":"), 4096));
+        assertThrows(IllegalStateException.class,
+                () -> AiProviderResponseReader.readGemini(FACTORY, 200, body("[1,2]"), 4096));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -39,6 +39,12 @@ class AiProviderStatusRegistryTest {
         assertEquals(AiProviderFailureCategory.RATE_LIMITED, afterFailure.lastFailureCategory());
         assertEquals(99L, afterFailure.lastLatencyMs());
         assertNotNull(afterFailure.lastFailureAt());
+        assertEquals(1, afterFailure.consecutiveFailures());
+
+        registry.recordFailure("gemini", "gemini-2.5-flash", AiProviderFailureCategory.TIMEOUT, 120L);
+        assertEquals(2, registry.getStatus("gemini").consecutiveFailures());
+        registry.recordSuccess("gemini", "gemini-2.5-flash", 40L);
+        assertEquals(0, registry.getStatus("gemini").consecutiveFailures());
     }
 
     @Test
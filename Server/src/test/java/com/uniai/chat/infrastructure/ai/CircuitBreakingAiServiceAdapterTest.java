@@ -0,0 +1,181 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.provider.AiProviderCircuitState;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakingAiServiceAdapterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<AiResponse> next = new AtomicReference<>(failure(AiProviderFailureCategory.TIMEOUT));
+    private final InMemoryAiProviderStatusRegistry statuses = new InMemoryAiProviderStatusRegistry();
+    private final CircuitBreakingAiServiceAdapter adapter = new CircuitBreakingAiServiceAdapter(
+            request -> {
+                calls.incrementAndGet();
+                return next.get();
+            },
+            "ollama",
+            () -> new AiProviderCircuitBreaker(2, 1000L, 1, clock::get),
+            statuses,
+            null);
+
+    @Test
+    void consecutiveTimeoutsShouldOpenTheCircuitAndFailFast() {
+        adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        AiResponse refused = adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+
+        assertEquals(2, calls.get());
+        assertTrue(refused.getFallback());
+        assertTrue(refused.getRetryable());
+        assertEquals(AiProviderFailureCategory.UNAVAILABLE, refused.getFailureCategory());
+        assertEquals(AiProviderCircuitState.OPEN, adapter.state(AiOperation.MAIN_RESPONSE));
+        assertEquals(Map.of(AiOperation.MAIN_RESPONSE, AiProviderCircuitState.OPEN), statuses.getStatus("ollama").circuits());
+        // Other operations keep their own breaker.
+        assertEquals(AiProviderCircuitState.CLOSED, adapter.state(AiOperation.TITLE_GENERATION));
+    }
+
+    @Test
+    void halfOpenProbeShouldCloseOnSuccessAndReopenOnFailure() {
+        adapter.generateResponse(request(AiOperation.INTERPRETATION));
+        adapter.generateResponse(request(AiOperation.INTERPRETATION));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        adapter.generateResponse(request(AiOperation.INTERPRETATION));
+        assertEquals(3, calls.get());
+        assertEquals(AiProviderCircuitState.OPEN, adapter.state(AiOperation.INTERPRETATION));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        next.set(AiResponse.builder().content("ok").fallback(false).build());
+        assertFalse(adapter.generateResponse(request(AiOperation.INTERPRETATION)).getFallback());
+        assertEquals(AiProviderCircuitState.CLOSED, adapter.state(AiOperation.INTERPRETATION));
+        assertTrue(statuses.getStatus("ollama").circuits().isEmpty());
+    }
+
+    @Test
+    void nonTrippingFailuresShouldKeepTheCircuitClosed() {
+        next.set(failure(AiProviderFailureCategory.RATE_LIMITED));
+        for (int index = 0; index < 5; index++) {
+            adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        }
+
+        assertEquals(5, calls.get());
+        assertEquals(AiProviderCircuitState.CLOSED, adapter.state(AiOperation.MAIN_RESPONSE));
+    }
+
+    @Test
+    void locallyThrottledProbeShouldNotCloseTheCircuit() {
+        AtomicLong limiterClock = new AtomicLong();
+        RateLimitedAiServiceAdapter rateLimited = new RateLimitedAiServiceAdapter(
+                request -> {
+                    calls.incrementAndGet();
+                    return next.get();
+                },
+                new AiProviderRateLimiter("ollama", "gemma", 3, 0, Duration.ofSeconds(1), Duration.ofSeconds(30), limiterClock::get),
+                null,
+                Duration.ZERO,
+                null);
+        CircuitBreakingAiServiceAdapter guarded = new CircuitBreakingAiServiceAdapter(
+                rateLimited, "ollama", () -> new AiProviderCircuitBreaker(2, 1000L, 1, clock::get), statuses, null);
+        guarded.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        guarded.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        assertEquals(AiProviderCircuitState.OPEN, guarded.state(AiOperation.MAIN_RESPONSE));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // The limiter has one request left; another caller takes it, so the probe is refused locally.
+        rateLimited.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        AiResponse throttled = guarded.generateResponse(request(AiOperation.MAIN_RESPONSE));
+
+        assertTrue(throttled.getNotSent());
+        assertEquals(AiProviderFailureCategory.RATE_LIMITED, throttled.getFailureCategory());
+        assertEquals(3, calls.get());
+        assertEquals(AiProviderCircuitState.HALF_OPEN, guarded.state(AiOperation.MAIN_RESPONSE));
+        assertEquals(Map.of(AiOperation.MAIN_RESPONSE, AiProviderCircuitState.HALF_OPEN), statuses.getStatus("ollama").circuits());
+
+        // The probe slot is free again, and the next probe that reaches the provider decides the circuit.
+        limiterClock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        guarded.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        assertEquals(4, calls.get());
+        assertEquals(AiProviderCircuitState.OPEN, guarded.state(AiOperation.MAIN_RESPONSE));
+    }
+
+    @Test
+    void locallyThrottledCallsShouldNotResetConsecutiveFailures() {
+        AtomicInteger sent = new AtomicInteger();
+        CircuitBreakingAiServiceAdapter guarded = new CircuitBreakingAiServiceAdapter(
+                request -> sent.getAndIncrement() % 2 == 0
+                        ? failure(AiProviderFailureCategory.TIMEOUT)
+                        : AiResponse.builder()
+                                .fallback(true)
+                                .failureCategory(AiProviderFailureCategory.RATE_LIMITED)
+                                .retryable(true)
+                                .notSent(true)
+                                .build(),
+                "ollama",
+                () -> new AiProviderCircuitBreaker(2, 1000L, 1, clock::get),
+                statuses,
+                null);
+
+        guarded.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        guarded.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        guarded.generateResponse(request(AiOperation.MAIN_RESPONSE));
+
+        assertEquals(AiProviderCircuitState.OPEN, guarded.state(AiOperation.MAIN_RESPONSE));
+    }
+
+    @Test
+    void abandonedProbeShouldNotDecideTheCircuit() {
+        AiProviderCircuitBreaker breaker = new AiProviderCircuitBreaker(1, 1000L, 1, clock::get);
+        breaker.tryAcquire();
+        breaker.onResult(AiProviderFailureCategory.TIMEOUT);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onAbandoned();
+
+        assertEquals(AiProviderCircuitState.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void healthShouldBeDownOnlyWhenEveryProviderHasAnOpenCircuit() {
+        AiProviderHealthIndicator health = new AiProviderHealthIndicator(statuses);
+        statuses.recordSuccess("groq", "llama", 10L);
+        adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+
+        assertEquals(Status.UP, health.health().getStatus());
+
+        statuses.recordCircuitState("groq", AiOperation.MAIN_RESPONSE, AiProviderCircuitState.OPEN);
+        assertEquals(Status.DOWN, health.health().getStatus());
+    }
+
+    private static AiRequest request(AiOperation operation) {
+        return AiRequest.builder().userMessage("Hello").operation(operation).build();
+    }
+
+    private static AiResponse failure(AiProviderFailureCategory category) {
+        return AiResponse.builder()
+                .content("fallback")
+                .fallback(true)
+                .failureCategory(category)
+                .retryable(category.isRetryable())
+                .build();
+    }
+}
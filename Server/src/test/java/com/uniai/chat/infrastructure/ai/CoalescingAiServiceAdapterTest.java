@@ -0,0 +1,141 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingAiServiceAdapterTest {
+
+    @Test
+    void identicalConcurrentInterpretationRequestsShouldShareOneProviderCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingProvider provider = new BlockingProvider(release);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CoalescingAiServiceAdapter adapter = new CoalescingAiServiceAdapter(provider, false, registry);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            CompletableFuture<AiResponse> leader = CompletableFuture.supplyAsync(
+                    () -> adapter.generateResponse(request(AiOperation.INTERPRETATION)), executor);
+            assertTrue(provider.started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<AiResponse> follower = CompletableFuture.supplyAsync(
+                    () -> adapter.generateResponse(request(AiOperation.INTERPRETATION)), executor);
+            waitForCoalesced(registry);
+            release.countDown();
+
+            AiResponse first = leader.get(5, TimeUnit.SECONDS);
+            AiResponse second = follower.get(5, TimeUnit.SECONDS);
+            assertEquals(1, provider.calls.get());
+            assertEquals(first.getContent(), second.getContent());
+            assertNotSame(first, second);
+            assertEquals(0, adapter.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void mainResponsesShouldNotBeCoalescedUnlessEnabled() {
+        CountingProvider provider = new CountingProvider();
+        CoalescingAiServiceAdapter adapter = new CoalescingAiServiceAdapter(provider, false, null);
+
+        adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+        adapter.generateResponse(request(AiOperation.MAIN_RESPONSE));
+
+        assertEquals(2, provider.calls.get());
+    }
+
+    @Test
+    void providerFailureShouldReleaseTheFingerprint() {
+        AiServicePort failing = request -> {
+            throw new IllegalStateException("boom");
+        };
+        CoalescingAiServiceAdapter adapter = new CoalescingAiServiceAdapter(failing, false, null);
+
+        assertThrows(IllegalStateException.class, () -> adapter.generateResponse(request(AiOperation.TITLE_GENERATION)));
+        assertEquals(0, adapter.inFlightCount());
+    }
+
+    @Test
+    void fingerprintShouldCoverPromptHistoryAndSampling() {
+        AiRequest base = request(AiOperation.INTERPRETATION);
+        AiRequest otherPrompt = request(AiOperation.INTERPRETATION);
+        otherPrompt.setSystemPrompt("another prompt");
+        AiRequest otherTemperature = request(AiOperation.INTERPRETATION);
+        otherTemperature.setTemperature(0.7d);
+
+        assertEquals(CoalescingAiServiceAdapter.fingerprint(base),
+                CoalescingAiServiceAdapter.fingerprint(request(AiOperation.INTERPRETATION)));
+        assertNotEquals(CoalescingAiServiceAdapter.fingerprint(base), CoalescingAiServiceAdapter.fingerprint(otherPrompt));
+        assertNotEquals(CoalescingAiServiceAdapter.fingerprint(base), CoalescingAiServiceAdapter.fingerprint(otherTemperature));
+    }
+
+    private void waitForCoalesced(SimpleMeterRegistry registry) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (registry.find("uniai.ai.provider.coalesced").counter() != null) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private AiRequest request(AiOperation operation) {
+        return AiRequest.builder()
+                .operation(operation)
+                .systemPrompt("planner prompt")
+                .userMessage("Tuition of MBA at AUB?")
+                .context(List.of())
+                .temperature(0.0d)
+                .maxTokens(200)
+                .build();
+    }
+
+    private static final class BlockingProvider implements AiServicePort {
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private BlockingProvider(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public AiResponse generateResponse(AiRequest request) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return AiResponse.builder().content("{\"route\":\"GET_TUITION\"}").provider("test").fallback(false).build();
+        }
+    }
+
+    private static final class CountingProvider implements AiServicePort {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public AiResponse generateResponse(AiRequest request) {
+            calls.incrementAndGet();
+            return AiResponse.builder().content("answer").fallback(false).build();
+        }
+    }
+}
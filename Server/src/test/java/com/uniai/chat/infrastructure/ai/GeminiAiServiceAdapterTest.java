@@ -18,6 +18,8 @@ import org.springframework.web.client.RestTemplate;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -199,14 +201,69 @@ class GeminiAiServiceAdapterTest {
         }
 
         @Override
-        public <T> org.springframework.http.ResponseEntity<T> exchange(
+        public <T> T execute(
                 String url,
                 HttpMethod method,
-                org.springframework.http.HttpEntity<?> requestEntity,
-                Class<T> responseType,
+                org.springframework.web.client.RequestCallback requestCallback,
+                org.springframework.web.client.ResponseExtractor<T> responseExtractor,
                 Object... uriVariables
         ) {
             throw failure;
         }
     }
+
+    @Test
+    void streamResponseShouldUseServerSentEventsEndpointAndForwardChunks() {
+        GeminiAiProperties properties = new GeminiAiProperties();
+        properties.setApiKey("test-gemini-key");
+        properties.setModel("gemini-2.5-flash");
+        properties.setBaseUrl("https://generativelanguage.googleapis.com/v1beta");
+
+        InMemoryAiProviderStatusRegistry registry = new InMemoryAiProviderStatusRegistry();
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        GeminiAiServiceAdapter adapter = new GeminiAiServiceAdapter(properties, new ObjectMapper(), restTemplate, registry);
+
+        server.expect(requestTo("https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:streamGenerateContent?alt=sse"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("x-goog-api-key", "test-gemini-key"))
+                .andRespond(withSuccess("""
+                        data: {"candidates":[{"content":{"parts":[{"text":"Hello"}]}}]}
+
+                        data: {"candidates":[{"content":{"parts":[{"text":" there."}]},"finishReason":"STOP"}]}
+
+                        """, MediaType.TEXT_EVENT_STREAM));
+
+        List<String> chunks = new ArrayList<>();
+        AiResponse response = adapter.streamResponse(AiRequest.builder().userMessage("Hello").build(), chunks::add);
+
+        server.verify();
+        assertEquals(List.of("Hello", " there."), chunks);
+        assertFalse(response.getFallback());
+        assertEquals("Hello there.", response.getContent());
+        assertEquals("STOP", response.getFinishReason());
+        assertEquals(AiProviderRuntimeStatus.AVAILABLE, registry.getStatus("gemini").status());
+    }
+
+    @Test
+    void streamResponseShouldClassifyMalformedEventsAsInvalidResponse() {
+        GeminiAiProperties properties = new GeminiAiProperties();
+        properties.setApiKey("test-gemini-key");
+        properties.setModel("gemini-2.5-flash");
+
+        InMemoryAiProviderStatusRegistry registry = new InMemoryAiProviderStatusRegistry();
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        GeminiAiServiceAdapter adapter = new GeminiAiServiceAdapter(properties, new ObjectMapper(), restTemplate, registry);
+
+        server.expect(requestTo("https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:streamGenerateContent?alt=sse"))
+                .andRespond(withSuccess("data: {not-json\n\n", MediaType.TEXT_EVENT_STREAM));
+
+        AiResponse response = adapter.streamResponse(AiRequest.builder().userMessage("Hello").build(), chunk -> { });
+
+        server.verify();
+        assertTrue(response.getFallback());
+        assertEquals(AiProviderFailureCategory.INVALID_RESPONSE, response.getFailureCategory());
+        assertEquals(AiProviderFailureCategory.INVALID_RESPONSE, registry.getStatus("gemini").lastFailureCategory());
+    }
 }
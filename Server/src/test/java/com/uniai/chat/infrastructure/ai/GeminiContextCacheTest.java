@@ -0,0 +1,206 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GeminiContextCacheTest {
+
+    private static final String BASE_URL = "https://generativelanguage.googleapis.com/v1beta";
+    private static final String PREFIX = "You are uniAI, the graduate admissions assistant.";
+
+    @Test
+    void generateResponseShouldCreateCacheOnceAndReferenceItInsteadOfSystemInstruction() {
+        GeminiAiProperties properties = properties();
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+        GeminiContextCache cache = new GeminiContextCache(restTemplate, new ObjectMapper(), properties, metrics,
+                Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+        GeminiAiServiceAdapter adapter = new GeminiAiServiceAdapter(properties, new ObjectMapper(), restTemplate,
+                new InMemoryAiProviderStatusRegistry(), metrics, AiProviderResponseReader.DEFAULT_MAX_BODY_BYTES, cache);
+
+        server.expect(once(), requestTo(BASE_URL + "/cachedContents"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.model").value("models/gemini-2.5-flash"))
+                .andExpect(jsonPath("$.systemInstruction.parts[0].text").value(PREFIX))
+                .andExpect(jsonPath("$.ttl").value("3600s"))
+                .andRespond(withSuccess("""
+                        {"name":"cachedContents/abc123","expireTime":"2026-01-01T01:00:00Z"}
+                        """, MediaType.APPLICATION_JSON));
+        for (int call = 0; call < 2; call++) {
+            server.expect(requestTo(BASE_URL + "/models/gemini-2.5-flash:generateContent"))
+                    .andExpect(jsonPath("$.cached_content").value("cachedContents/abc123"))
+                    .andExpect(jsonPath("$.system_instruction").doesNotExist())
+                    .andExpect(jsonPath("$.contents[0].parts[0].text").value("Cite the official sources."))
+                    .andExpect(jsonPath("$.contents[1].parts[0].text").value("Hello"))
+                    .andRespond(withSuccess("""
+                            {
+                              "candidates": [ { "content": { "parts": [ { "text": "Hi." } ] }, "finishReason": "STOP" } ],
+                              "usageMetadata": { "promptTokenCount": 900, "candidatesTokenCount": 2, "cachedContentTokenCount": 850 }
+                            }
+                            """, MediaType.APPLICATION_JSON));
+        }
+
+        AiRequest request = AiRequest.builder()
+                .userMessage("Hello")
+                .staticPromptPrefix(PREFIX)
+                .systemPrompt(PREFIX + "\n\nCite the official sources.")
+                .build();
+        AiResponse first = adapter.generateResponse(request);
+        AiResponse second = adapter.generateResponse(request);
+
+        server.verify();
+        assertFalse(first.getFallback());
+        assertEquals(850L, second.getCachedPromptTokens());
+        assertEquals(2L, metrics.get("uniai.ai.provider.cached_prompt_tokens").summary().count());
+    }
+
+    @Test
+    void resolveShouldRefreshTtlCloseToExpiry() {
+        GeminiAiProperties properties = properties();
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        GeminiContextCache cache = new GeminiContextCache(restTemplate, new ObjectMapper(), properties, new SimpleMeterRegistry(), clock);
+
+        server.expect(requestTo(BASE_URL + "/cachedContents"))
+                .andRespond(withSuccess("""
+                        {"name":"cachedContents/abc123","expireTime":"2026-01-01T01:00:00Z"}
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE_URL + "/cachedContents/abc123?updateMask=ttl"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andExpect(jsonPath("$.ttl").value("3600s"))
+                .andRespond(withSuccess("""
+                        {"name":"cachedContents/abc123","expireTime":"2026-01-01T01:58:00Z"}
+                        """, MediaType.APPLICATION_JSON));
+
+        assertEquals("cachedContents/abc123", cache.resolve(BASE_URL, "gemini-2.5-flash", PREFIX));
+        clock.now = Instant.parse("2026-01-01T00:58:00Z");
+        assertEquals("cachedContents/abc123", cache.resolve(BASE_URL, "gemini-2.5-flash", PREFIX));
+        server.verify();
+    }
+
+    @Test
+    void resolveShouldSendPrefixInlineDuringFailureBackoff() {
+        GeminiAiProperties properties = properties();
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        GeminiContextCache cache = new GeminiContextCache(restTemplate, new ObjectMapper(), properties, new SimpleMeterRegistry(), clock);
+
+        server.expect(once(), requestTo(BASE_URL + "/cachedContents"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST));
+
+        assertNull(cache.resolve(BASE_URL, "gemini-2.5-flash", PREFIX));
+        clock.now = Instant.parse("2026-01-01T00:05:00Z");
+        assertNull(cache.resolve(BASE_URL, "gemini-2.5-flash", PREFIX));
+        server.verify();
+
+        properties.getContextCache().setMinPrefixChars(PREFIX.length() + 1);
+        assertNull(cache.resolve(BASE_URL, "gemini-2.5-flash", PREFIX));
+    }
+
+    @Test
+    void slowCreateShouldNotBlockResolvingAnotherPrefix() throws Exception {
+        CountDownLatch createStarted = new CountDownLatch(1);
+        CountDownLatch releaseCreate = new CountDownLatch(1);
+        String slowPrefix = PREFIX + " Slow.";
+        RestTemplate restTemplate = new RestTemplate() {
+            @Override
+            public <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                                  Class<T> responseType, Object... uriVariables) {
+                boolean slow = String.valueOf(requestEntity.getBody()).contains(slowPrefix);
+                if (slow) {
+                    createStarted.countDown();
+                    try {
+                        releaseCreate.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                String name = slow ? "cachedContents/slow" : "cachedContents/fast";
+                return ResponseEntity.ok(responseType.cast(
+                        "{\"name\":\"" + name + "\",\"expireTime\":\"2026-01-01T01:00:00Z\"}"));
+            }
+        };
+        GeminiContextCache cache = new GeminiContextCache(restTemplate, new ObjectMapper(), properties(), new SimpleMeterRegistry(),
+                Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> cache.resolve(BASE_URL, "gemini-2.5-flash", slowPrefix));
+            assertTrue(createStarted.await(5, TimeUnit.SECONDS));
+
+            assertEquals("cachedContents/fast", cache.resolve(BASE_URL, "gemini-2.5-flash", PREFIX));
+            assertFalse(slow.isDone());
+
+            releaseCreate.countDown();
+            assertEquals("cachedContents/slow", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseCreate.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static GeminiAiProperties properties() {
+        GeminiAiProperties properties = new GeminiAiProperties();
+        properties.setApiKey("test-gemini-key");
+        properties.setModel("gemini-2.5-flash");
+        properties.setBaseUrl(BASE_URL);
+        properties.getContextCache().setMinPrefixChars(10);
+        return properties;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,26 +1,32 @@
 package com.uniai.chat.infrastructure.ai;
 
 import com.uniai.chat.application.dto.ai.AiConversationMessage;
+import com.uniai.chat.application.dto.ai.AiOperation;
 import com.uniai.chat.application.dto.ai.AiRequest;
 import com.uniai.chat.application.dto.ai.AiResponse;
 import com.uniai.chat.application.provider.AiProviderFailureCategory;
 import com.uniai.chat.application.provider.AiProviderRuntimeStatus;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 class GroqAiServiceAdapterTest {
@@ -74,7 +80,8 @@ class GroqAiServiceAdapterTest {
                               "message": {"content": "AUB offers several master's programs."},
                               "finish_reason": "stop"
                             }
-                          ]
+                          ],
+                          "usage": {"prompt_tokens": 42, "completion_tokens": 9, "total_tokens": 51}
                         }
                         """, MediaType.APPLICATION_JSON));
 
@@ -88,6 +95,149 @@ class GroqAiServiceAdapterTest {
         assertEquals("llama-3.3-70b-versatile", response.getModel());
         assertEquals("AUB offers several master's programs.", response.getContent());
         assertEquals("stop", response.getFinishReason());
+        assertEquals(42L, response.getPromptTokens());
+        assertEquals(9L, response.getCompletionTokens());
+        assertEquals(AiProviderRuntimeStatus.AVAILABLE, registry.getStatus("groq").status());
+    }
+
+    @Test
+    void operationTierShouldOverrideModelAndCapMaxTokens() {
+        GroqAiProperties properties = new GroqAiProperties();
+        properties.setApiKey("test-groq-key");
+        properties.setModel("llama-3.3-70b-versatile");
+        properties.setBaseUrl("https://api.groq.com/openai/v1");
+        AiOperationTier titleTier = new AiOperationTier();
+        titleTier.setModel("llama-3.1-8b-instant");
+        titleTier.setMaxTokens(32);
+        properties.getOperations().put(AiOperation.TITLE_GENERATION, titleTier);
+
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        GroqAiServiceAdapter adapter = new GroqAiServiceAdapter(properties, new com.fasterxml.jackson.databind.ObjectMapper(), restTemplate, new InMemoryAiProviderStatusRegistry());
+
+        server.expect(requestTo("https://api.groq.com/openai/v1/chat/completions"))
+                .andExpect(jsonPath("$.model").value("llama-3.1-8b-instant"))
+                .andExpect(jsonPath("$.max_tokens").value(32))
+                .andRespond(withSuccess("""
+                        {"choices":[{"message":{"content":"AUB masters"},"finish_reason":"stop"}]}
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://api.groq.com/openai/v1/chat/completions"))
+                .andExpect(jsonPath("$.model").value("llama-3.3-70b-versatile"))
+                .andExpect(jsonPath("$.max_tokens").value(256))
+                .andRespond(withSuccess("""
+                        {"choices":[{"message":{"content":"Answer"},"finish_reason":"stop"}]}
+                        """, MediaType.APPLICATION_JSON));
+
+        AiResponse title = adapter.generateResponse(AiRequest.builder()
+                .operation(AiOperation.TITLE_GENERATION)
+                .userMessage("Name this chat")
+                .maxTokens(64)
+                .build());
+        AiResponse answer = adapter.generateResponse(AiRequest.builder()
+                .operation(AiOperation.MAIN_RESPONSE)
+                .userMessage("What master's programs does AUB offer?")
+                .maxTokens(256)
+                .build());
+
+        server.verify();
+        assertEquals("llama-3.1-8b-instant", title.getModel());
+        assertEquals("llama-3.3-70b-versatile", answer.getModel());
+    }
+
+    @Test
+    void rateLimitedResponseShouldCarryRetryAfter() {
+        GroqAiProperties properties = new GroqAiProperties();
+        properties.setApiKey("test-groq-key");
+        properties.setBaseUrl("https://api.groq.com/openai/v1");
+
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        GroqAiServiceAdapter adapter = new GroqAiServiceAdapter(properties, new com.fasterxml.jackson.databind.ObjectMapper(), restTemplate, new InMemoryAiProviderStatusRegistry());
+
+        server.expect(requestTo("https://api.groq.com/openai/v1/chat/completions"))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "7"));
+
+        AiResponse response = adapter.generateResponse(AiRequest.builder().userMessage("Hello").build());
+
+        server.verify();
+        assertEquals(AiProviderFailureCategory.RATE_LIMITED, response.getFailureCategory());
+        assertEquals(7000L, response.getRetryAfterMs());
+    }
+
+    @Test
+    void streamResponseShouldForwardChunksAndAggregateGroqEventStream() {
+        GroqAiProperties properties = new GroqAiProperties();
+        properties.setApiKey("test-groq-key");
+        properties.setModel("llama-3.3-70b-versatile");
+        properties.setBaseUrl("https://api.groq.com/openai/v1");
+
+        InMemoryAiProviderStatusRegistry registry = new InMemoryAiProviderStatusRegistry();
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        GroqAiServiceAdapter adapter = new GroqAiServiceAdapter(properties, new com.fasterxml.jackson.databind.ObjectMapper(), restTemplate, registry);
+
+        server.expect(requestTo("https://api.groq.com/openai/v1/chat/completions"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE))
+                .andExpect(jsonPath("$.stream").value(true))
+                .andRespond(withSuccess("""
+                        data: {"choices":[{"delta":{"role":"assistant"}}]}
+
+                        data: {"choices":[{"delta":{"content":"AUB offers "}}]}
+
+                        data: {"choices":[{"delta":{"content":"master's programs."},"finish_reason":"stop"}]}
+
+                        data: [DONE]
+
+                        """, MediaType.TEXT_EVENT_STREAM));
+
+        List<String> chunks = new ArrayList<>();
+        AiResponse response = adapter.streamResponse(AiRequest.builder().userMessage("Programs?").build(), chunks::add);
+
+        server.verify();
+        assertEquals(List.of("AUB offers ", "master's programs."), chunks);
+        assertFalse(response.getFallback());
+        assertEquals("AUB offers master's programs.", response.getContent());
+        assertEquals("stop", response.getFinishReason());
         assertEquals(AiProviderRuntimeStatus.AVAILABLE, registry.getStatus("groq").status());
     }
+
+    @Test
+    void staticPromptPrefixShouldLeadAsItsOwnSystemMessageAndStreamUsageShouldBeReported() {
+        GroqAiProperties properties = new GroqAiProperties();
+        properties.setApiKey("test-groq-key");
+        properties.setModel("llama-3.3-70b-versatile");
+        properties.setBaseUrl("https://api.groq.com/openai/v1");
+
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        GroqAiServiceAdapter adapter = new GroqAiServiceAdapter(properties, new com.fasterxml.jackson.databind.ObjectMapper(), restTemplate, new InMemoryAiProviderStatusRegistry());
+
+        server.expect(requestTo("https://api.groq.com/openai/v1/chat/completions"))
+                .andExpect(jsonPath("$.messages[0].role").value("system"))
+                .andExpect(jsonPath("$.messages[0].content").value("You are uniAI."))
+                .andExpect(jsonPath("$.messages[1].role").value("system"))
+                .andExpect(jsonPath("$.messages[1].content").value("Cite the official sources."))
+                .andExpect(jsonPath("$.messages[2].role").value("user"))
+                .andRespond(withSuccess("""
+                        data: {"choices":[{"delta":{"content":"Done."},"finish_reason":"stop"}]}
+
+                        data: {"choices":[],"x_groq":{"usage":{"prompt_tokens":120,"completion_tokens":3,"prompt_tokens_details":{"cached_tokens":96}}}}
+
+                        data: [DONE]
+
+                        """, MediaType.TEXT_EVENT_STREAM));
+
+        AiResponse response = adapter.streamResponse(AiRequest.builder()
+                .userMessage("Programs?")
+                .staticPromptPrefix("You are uniAI.")
+                .systemPrompt("You are uniAI.\n\nCite the official sources.")
+                .build(), chunk -> { });
+
+        server.verify();
+        assertEquals("Done.", response.getContent());
+        assertEquals(120L, response.getPromptTokens());
+        assertEquals(3L, response.getCompletionTokens());
+        assertEquals(96L, response.getCachedPromptTokens());
+    }
 }
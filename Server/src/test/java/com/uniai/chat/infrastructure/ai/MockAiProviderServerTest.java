@@ -0,0 +1,121 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MockAiProviderServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AiFixtureStore fixtures = new AiFixtureStore(List.of(new AiFixture(
+            null,
+            AiFixture.messageKey("Which programs?"),
+            AiOperation.MAIN_RESPONSE.name(),
+            "gemini",
+            "gemini-2.5-flash",
+            0L,
+            null,
+            "AUB offers twelve graduate programs.",
+            null,
+            42L,
+            9L,
+            30L)));
+    private MockAiProviderServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void groqAdapterShouldReadFixtureFromChatCompletionsEndpoint() {
+        server = start(AiReplayFaultProfile.none());
+        GroqAiProperties properties = new GroqAiProperties();
+        properties.setApiKey("offline");
+        properties.setModel("llama-3.3-70b-versatile");
+        properties.setBaseUrl(server.baseUrl());
+        GroqAiServiceAdapter adapter = new GroqAiServiceAdapter(properties, objectMapper, restTemplate(), new InMemoryAiProviderStatusRegistry());
+
+        AiResponse response = adapter.generateResponse(request("Which programs?"));
+
+        assertFalse(response.getFallback());
+        assertEquals("AUB offers twelve graduate programs.", response.getContent());
+        assertEquals("llama-3.3-70b-versatile", response.getModel());
+        assertEquals(42L, response.getPromptTokens());
+        assertEquals(30L, response.getCachedPromptTokens());
+    }
+
+    @Test
+    void geminiAndOllamaAdaptersShouldStreamFixtureChunks() {
+        server = start(AiReplayFaultProfile.none());
+        GeminiAiProperties gemini = new GeminiAiProperties();
+        gemini.setApiKey("offline");
+        gemini.setModel("gemini-2.5-flash");
+        gemini.setBaseUrl(server.baseUrl());
+        OllamaAiProperties ollama = new OllamaAiProperties();
+        ollama.setModel("gemma3:4b");
+        ollama.setBaseUrl(server.baseUrl());
+        List<String> geminiChunks = new ArrayList<>();
+        List<String> ollamaChunks = new ArrayList<>();
+
+        AiResponse geminiResponse = new GeminiAiServiceAdapter(gemini, objectMapper, restTemplate(), new InMemoryAiProviderStatusRegistry())
+                .streamResponse(request("Which programs?"), geminiChunks::add);
+        AiResponse ollamaResponse = new OllamaAiServiceAdapter(ollama, objectMapper, restTemplate(), new InMemoryAiProviderStatusRegistry())
+                .streamResponse(request("Which programs?"), ollamaChunks::add);
+
+        assertEquals("AUB offers twelve graduate programs.", geminiResponse.getContent());
+        assertEquals(4, geminiChunks.size());
+        assertEquals(9L, geminiResponse.getCompletionTokens());
+        assertEquals("AUB offers twelve graduate programs.", ollamaResponse.getContent());
+        assertEquals(4, ollamaChunks.size());
+        assertEquals(42L, ollamaResponse.getPromptTokens());
+    }
+
+    @Test
+    void injectedRateLimitShouldSurfaceAsRetryableProviderFailure() {
+        server = start(new AiReplayFaultProfile(AiReplayFaultProfile.LatencyDistribution.FIXED, 0L, 0L, 1.0, 0.0, 1L));
+        GroqAiProperties properties = new GroqAiProperties();
+        properties.setApiKey("offline");
+        properties.setBaseUrl(server.baseUrl());
+        GroqAiServiceAdapter adapter = new GroqAiServiceAdapter(properties, objectMapper, restTemplate(), new InMemoryAiProviderStatusRegistry());
+
+        AiResponse response = adapter.generateResponse(request("Which programs?"));
+
+        assertTrue(response.getFallback());
+        assertEquals(AiProviderFailureCategory.RATE_LIMITED, response.getFailureCategory());
+        assertEquals(1000L, response.getRetryAfterMs());
+    }
+
+    private MockAiProviderServer start(AiReplayFaultProfile profile) {
+        MockAiProviderServer mockServer = new MockAiProviderServer(fixtures, profile, objectMapper, "127.0.0.1", 0, 2, 10);
+        mockServer.start();
+        return mockServer;
+    }
+
+    private static RestTemplate restTemplate() {
+        return new RestTemplate(new SimpleClientHttpRequestFactory());
+    }
+
+    private static AiRequest request(String userMessage) {
+        return AiRequest.builder()
+                .operation(AiOperation.MAIN_RESPONSE)
+                .systemPrompt("You are uniAI.")
+                .userMessage(userMessage)
+                .build();
+    }
+}
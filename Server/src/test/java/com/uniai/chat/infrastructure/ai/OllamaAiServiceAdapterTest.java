@@ -14,6 +14,7 @@ import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
@@ -67,6 +69,7 @@ class OllamaAiServiceAdapterTest {
                             {"role":"system","content":"Retrieved official graduate context:\\nRetrieved official context: AUB has master programs."},
                             {"role":"user","content":"What master's programs does AUB offer?"}
                           ],
+                          "keep_alive": "30m",
                           "options": {
                             "temperature": 0.2,
                             "num_predict": 256
@@ -176,4 +179,37 @@ class OllamaAiServiceAdapterTest {
             throw new ResourceAccessException("Connection refused");
         }
     }
+
+    @Test
+    void streamResponseShouldReadNdjsonChunksUntilDone() {
+        OllamaAiProperties properties = new OllamaAiProperties();
+        properties.setBaseUrl("http://localhost:11434");
+        properties.setModel("gemma3:4b");
+        properties.setTimeoutSeconds(120);
+
+        InMemoryAiProviderStatusRegistry registry = new InMemoryAiProviderStatusRegistry();
+        RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        OllamaAiServiceAdapter adapter = new OllamaAiServiceAdapter(properties, objectMapper, restTemplate, registry);
+
+        server.expect(requestTo("http://localhost:11434/api/chat"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.stream").value(true))
+                .andRespond(withSuccess("""
+                        {"model":"llama3.2","message":{"role":"assistant","content":"AUB offers "},"done":false}
+                        {"model":"llama3.2","message":{"role":"assistant","content":"several programs."},"done":false}
+                        {"model":"llama3.2","message":{"role":"assistant","content":""},"done":true,"done_reason":"stop","eval_count":7}
+                        """, MediaType.APPLICATION_NDJSON));
+
+        List<String> chunks = new ArrayList<>();
+        AiResponse response = adapter.streamResponse(AiRequest.builder().userMessage("Programs?").build(), chunks::add);
+
+        server.verify();
+        assertEquals(List.of("AUB offers ", "several programs."), chunks);
+        assertFalse(response.getFallback());
+        assertEquals("llama3.2", response.getModel());
+        assertEquals("AUB offers several programs.", response.getContent());
+        assertEquals("stop", response.getFinishReason());
+        assertEquals(AiProviderRuntimeStatus.AVAILABLE, registry.getStatus("ollama").status());
+    }
 }
@@ -0,0 +1,160 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiContextBudgetConfiguration;
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitedAiServiceAdapterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void limiterShouldQueueRequestsUntilTheBucketRefills() {
+        AiProviderRateLimiter limiter = limiter(2, 0);
+
+        assertEquals(0L, limiter.reserve(0, 0));
+        assertEquals(0L, limiter.reserve(0, 0));
+        assertEquals(30 * SECOND, limiter.reserve(0, 60 * SECOND));
+        assertEquals(-1L, limiter.reserve(0, 30 * SECOND));
+
+        clock.addAndGet(60 * SECOND);
+        assertEquals(0L, limiter.reserve(0, 0));
+    }
+
+    @Test
+    void limiterShouldChargeTokensAndCapOversizedRequests() {
+        AiProviderRateLimiter limiter = limiter(0, 600);
+
+        assertEquals(0L, limiter.reserve(400, 0));
+        assertEquals(20 * SECOND, limiter.reserve(400, 60 * SECOND));
+        // Larger than the whole bucket: waits for a full minute of refill instead of forever.
+        assertEquals(-1L, limiter.reserve(5000, 60 * SECOND));
+    }
+
+    @Test
+    void rateLimitedResponsesShouldPauseForRetryAfterOrBackOffExponentially() {
+        AiProviderRateLimiter limiter = limiter(0, 0);
+
+        assertEquals(Duration.ofSeconds(5), limiter.onRateLimited(5000L));
+        assertEquals(-1L, limiter.reserve(0, 4 * SECOND));
+        assertEquals(Duration.ofSeconds(2), limiter.onRateLimited(null));
+        assertEquals(Duration.ofSeconds(4), limiter.onRateLimited(null));
+
+        limiter.onSuccess();
+        assertEquals(Duration.ofSeconds(1), limiter.onRateLimited(null));
+    }
+
+    @Test
+    void adapterShouldRejectOverLimitRequestsWithoutCallingTheProvider() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger calls = new AtomicInteger();
+        AiServicePort provider = request -> {
+            calls.incrementAndGet();
+            return AiResponse.builder().content("answer").provider("groq").fallback(false).build();
+        };
+        RateLimitedAiServiceAdapter adapter = new RateLimitedAiServiceAdapter(
+                provider, limiter(1, 0), estimator(), Duration.ZERO, registry);
+        AiRequest request = AiRequest.builder().userMessage("Hello").maxTokens(50).build();
+
+        assertFalse(adapter.generateResponse(request).getFallback());
+        AiResponse throttled = adapter.generateResponse(request);
+
+        assertTrue(throttled.getFallback());
+        assertTrue(throttled.getRetryable());
+        assertEquals(AiProviderFailureCategory.RATE_LIMITED, throttled.getFailureCategory());
+        assertEquals(1, calls.get());
+        assertEquals(1.0, registry.get(ChatAiMetrics.RATE_LIMIT_THROTTLED).tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void providerRateLimitShouldPauseLaterRequests() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger calls = new AtomicInteger();
+        AiServicePort provider = request -> {
+            calls.incrementAndGet();
+            return AiResponse.builder()
+                    .fallback(true)
+                    .failureCategory(AiProviderFailureCategory.RATE_LIMITED)
+                    .retryable(true)
+                    .retryAfterMs(60_000L)
+                    .build();
+        };
+        RateLimitedAiServiceAdapter adapter = new RateLimitedAiServiceAdapter(
+                provider, limiter(0, 0), estimator(), Duration.ofMillis(100), registry);
+        AiRequest request = AiRequest.builder().userMessage("Hello").build();
+
+        adapter.generateResponse(request);
+        adapter.generateResponse(request);
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, registry.get(ChatAiMetrics.RATE_LIMIT_PAUSES).tag("source", "retry_after").counter().count());
+    }
+
+    @Test
+    void tierModelRequestsShouldNotUseTheBaseModelBucket() {
+        AtomicInteger calls = new AtomicInteger();
+        AiServicePort provider = request -> {
+            calls.incrementAndGet();
+            return AiResponse.builder().content("answer").provider("groq").fallback(false).build();
+        };
+        Map<AiOperation, AiOperationTier> tiers = Map.of(AiOperation.TITLE_GENERATION, tier("llama-small"));
+        RateLimitedAiServiceAdapter adapter = new RateLimitedAiServiceAdapter(
+                provider,
+                "groq",
+                request -> AiOperationTier.modelFor(tiers, request.getOperation(), "llama"),
+                model -> new AiProviderRateLimiter("groq", model, 1, 0, Duration.ofSeconds(1), Duration.ofSeconds(30), clock::get),
+                estimator(),
+                Duration.ZERO,
+                new SimpleMeterRegistry());
+        AiRequest chat = AiRequest.builder().userMessage("Hello").operation(AiOperation.MAIN_RESPONSE).build();
+        AiRequest title = AiRequest.builder().userMessage("Hello").operation(AiOperation.TITLE_GENERATION).build();
+
+        assertFalse(adapter.generateResponse(chat).getFallback());
+        assertFalse(adapter.generateResponse(title).getFallback());
+        AiResponse throttled = adapter.generateResponse(chat);
+
+        assertTrue(throttled.getFallback());
+        assertEquals("llama", throttled.getModel());
+        assertEquals(2, calls.get());
+    }
+
+    private AiProviderRateLimiter limiter(long requestsPerMinute, long tokensPerMinute) {
+        return new AiProviderRateLimiter(
+                "groq",
+                "llama",
+                requestsPerMinute,
+                tokensPerMinute,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                clock::get);
+    }
+
+    private static AiOperationTier tier(String model) {
+        AiOperationTier tier = new AiOperationTier();
+        tier.setModel(model);
+        return tier;
+    }
+
+    private static AiTokenEstimator estimator() {
+        return new AiTokenEstimator(new AiContextBudgetConfiguration(10000, 100, 1000, 1000, 4, 16, Map.of()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayAiServiceAdapterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordedExchangesShouldReplayByRequestThenByOperation() throws IOException {
+        Path fixtureFile = tempDir.resolve("fixtures/chat.jsonl");
+        AiServicePort provider = request -> AiResponse.builder()
+                .content(request.getOperation() == AiOperation.INTERPRETATION ? "{\"intent\":\"programs\"}" : "AUB offers 12 programs.")
+                .provider("groq")
+                .model("llama-3.3-70b-versatile")
+                .finishReason("stop")
+                .fallback(false)
+                .failureCategory(AiProviderFailureCategory.NONE)
+                .promptTokens(40L)
+                .completionTokens(8L)
+                .build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RecordingAiServiceAdapter recorder = new RecordingAiServiceAdapter(provider, fixtureFile, objectMapper, registry);
+
+        recorder.generateResponse(request(AiOperation.INTERPRETATION, "Which programs?"));
+        recorder.generateResponse(request(AiOperation.MAIN_RESPONSE, "Which programs?"));
+        recorder.streamResponse(request(AiOperation.MAIN_RESPONSE, "Tuition?"), chunk -> { });
+
+        assertEquals(3, Files.readAllLines(fixtureFile).size());
+        assertEquals(3.0, registry.get("uniai.ai.provider.fixtures.recorded").tag("outcome", "recorded").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+
+        ReplayAiServiceAdapter replay = new ReplayAiServiceAdapter(AiFixtureStore.load(fixtureFile, objectMapper), AiReplayFaultProfile.none());
+
+        AiResponse interpretation = replay.generateResponse(request(AiOperation.INTERPRETATION, "Which programs?"));
+        AiResponse unseenInterpretation = replay.generateResponse(request(AiOperation.INTERPRETATION, "Never recorded"));
+
+        assertEquals("{\"intent\":\"programs\"}", interpretation.getContent());
+        assertEquals("replay", interpretation.getProvider());
+        assertEquals("llama-3.3-70b-versatile", interpretation.getModel());
+        assertEquals(40L, interpretation.getPromptTokens());
+        assertEquals("{\"intent\":\"programs\"}", unseenInterpretation.getContent());
+    }
+
+    @Test
+    void streamResponseShouldReplayRecordedContentInChunks() {
+        AiFixtureStore fixtures = new AiFixtureStore(List.of(fixture("Which programs?", "AUB offers twelve graduate programs.")));
+        ReplayAiServiceAdapter replay = new ReplayAiServiceAdapter(fixtures, AiReplayFaultProfile.none(), 10, null, null);
+        List<String> chunks = new ArrayList<>();
+
+        AiResponse response = replay.streamResponse(request(AiOperation.MAIN_RESPONSE, "Which programs?"), chunks::add);
+
+        assertEquals(List.of("AUB offers", " twelve gr", "aduate pro", "grams."), chunks);
+        assertEquals(String.join("", chunks), response.getContent());
+        assertFalse(response.getFallback());
+    }
+
+    @Test
+    void faultProfileShouldInjectRateLimitsAsRetryableFallbacks() {
+        AiFixtureStore fixtures = new AiFixtureStore(List.of(fixture("Hi", "Hello")));
+        AiReplayFaultProfile alwaysRateLimited = new AiReplayFaultProfile(
+                AiReplayFaultProfile.LatencyDistribution.FIXED, 0L, 0L, 1.0, 0.0, 7L);
+        ReplayAiServiceAdapter replay = new ReplayAiServiceAdapter(fixtures, alwaysRateLimited);
+        List<String> chunks = new ArrayList<>();
+
+        AiResponse response = replay.streamResponse(request(AiOperation.MAIN_RESPONSE, "Hi"), chunks::add);
+
+        assertTrue(response.getFallback());
+        assertEquals(AiProviderFailureCategory.RATE_LIMITED, response.getFailureCategory());
+        assertTrue(response.getRetryable());
+        assertEquals(1000L, response.getRetryAfterMs());
+        assertTrue(chunks.isEmpty());
+    }
+
+    @Test
+    void logNormalLatencyShouldCenterOnTheConfiguredMedian() {
+        AiReplayFaultProfile profile = new AiReplayFaultProfile(
+                AiReplayFaultProfile.LatencyDistribution.LOG_NORMAL, 200L, 2000L, 0.0, 0.0, 42L);
+        List<Long> samples = new ArrayList<>();
+        for (int index = 0; index < 2001; index++) {
+            samples.add(profile.latencyMs(null));
+        }
+        samples.sort(Long::compare);
+
+        long median = samples.get(1000);
+        long p99 = samples.get(1980);
+        assertTrue(median > 170L && median < 230L, "median=" + median);
+        assertTrue(p99 > 1400L && p99 < 2800L, "p99=" + p99);
+    }
+
+    private static AiRequest request(AiOperation operation, String userMessage) {
+        return AiRequest.builder()
+                .operation(operation)
+                .systemPrompt("You are uniAI.")
+                .userMessage(userMessage)
+                .build();
+    }
+
+    private static AiFixture fixture(String userMessage, String content) {
+        return new AiFixture(null, AiFixture.messageKey(userMessage), AiOperation.MAIN_RESPONSE.name(), "gemini", "gemini-2.5-flash",
+                0L, null, content, "STOP", 12L, 4L, null);
+    }
+}
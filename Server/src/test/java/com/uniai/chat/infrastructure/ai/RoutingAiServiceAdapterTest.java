@@ -0,0 +1,175 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiContextBudgetConfiguration;
+import com.uniai.chat.application.budget.AiContextBudgetManager;
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.provider.AiProviderFailureCategory;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingAiServiceAdapterTest {
+
+    private final InMemoryAiProviderStatusRegistry statuses = new InMemoryAiProviderStatusRegistry();
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void rateLimitedProviderShouldFailOverToTheNextProvider() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Map<String, AiServicePort> providers = new LinkedHashMap<>();
+        providers.put("gemini", provider("gemini", failure(AiProviderFailureCategory.RATE_LIMITED)));
+        providers.put("groq", provider("groq", success("groq")));
+        RoutingAiServiceAdapter router = router(providers, Map.of(), null, registry);
+
+        AiResponse response = router.generateResponse(request(AiOperation.MAIN_RESPONSE));
+
+        assertEquals("groq", response.getProvider());
+        assertEquals(List.of("gemini", "groq"), calls);
+        assertEquals(1.0, registry.get(ChatAiMetrics.PROVIDER_FAILOVERS).tag("from", "gemini").counter().count());
+    }
+
+    @Test
+    void nonRetryableFailureShouldBeReturnedWithoutFailover() {
+        Map<String, AiServicePort> providers = new LinkedHashMap<>();
+        providers.put("gemini", provider("gemini", failure(AiProviderFailureCategory.HTTP_CLIENT_ERROR)));
+        providers.put("groq", provider("groq", success("groq")));
+        RoutingAiServiceAdapter router = router(providers, Map.of(), null, null);
+
+        AiResponse response = router.generateResponse(request(AiOperation.MAIN_RESPONSE));
+
+        assertTrue(response.getFallback());
+        assertEquals(List.of("gemini"), calls);
+    }
+
+    @Test
+    void candidatesShouldFollowOperationOrderAndMoveCoolingProvidersLast() {
+        Map<String, AiServicePort> providers = new LinkedHashMap<>();
+        providers.put("gemini", provider("gemini", success("gemini")));
+        providers.put("groq", provider("groq", success("groq")));
+        providers.put("ollama", provider("ollama", success("ollama")));
+        RoutingAiServiceAdapter router = router(
+                providers,
+                Map.of(AiOperation.INTERPRETATION, List.of("groq", "gemini", "ollama")),
+                null,
+                null);
+
+        assertEquals(List.of("groq", "gemini", "ollama"), router.candidates(request(AiOperation.INTERPRETATION)));
+        assertEquals(List.of("gemini", "groq", "ollama"), router.candidates(request(AiOperation.MAIN_RESPONSE)));
+
+        for (int index = 0; index < 3; index++) {
+            statuses.recordFailure("groq", "llama", AiProviderFailureCategory.TIMEOUT, 20000L);
+        }
+        statuses.recordSuccess("gemini", "flash", 12000L);
+
+        assertEquals(List.of("ollama", "gemini", "groq"), router.candidates(request(AiOperation.INTERPRETATION)));
+    }
+
+    @Test
+    void providersWhoseBudgetCannotHoldTheRequestShouldBeSkipped() {
+        AiContextBudgetConfiguration budget = new AiContextBudgetConfiguration(
+                10000, 100, 1000, 1000, 4, 0,
+                Map.of("groq", new AiContextBudgetConfiguration.ProviderBudget(120, 100, null, null, null)));
+        AiContextBudgetManager budgetManager = new AiContextBudgetManager(budget, new AiTokenEstimator(budget), "gemini");
+        Map<String, AiServicePort> providers = new LinkedHashMap<>();
+        providers.put("groq", provider("groq", success("groq")));
+        providers.put("gemini", provider("gemini", success("gemini")));
+        RoutingAiServiceAdapter router = router(providers, Map.of(), budgetManager, null);
+
+        AiRequest request = request(AiOperation.MAIN_RESPONSE);
+        request.setUserMessage("x".repeat(400));
+
+        assertEquals("gemini", router.generateResponse(request).getProvider());
+        assertEquals(List.of("gemini"), calls);
+    }
+
+    @Test
+    void streamingShouldNotFailOverOnceChunksWereForwarded() {
+        Map<String, AiServicePort> providers = new LinkedHashMap<>();
+        providers.put("gemini", new AiServicePort() {
+            @Override
+            public AiResponse generateResponse(AiRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+                calls.add("gemini");
+                chunkConsumer.accept("partial");
+                return failure(AiProviderFailureCategory.TIMEOUT);
+            }
+        });
+        providers.put("groq", provider("groq", success("groq")));
+        RoutingAiServiceAdapter router = router(providers, Map.of(), null, null);
+        List<String> chunks = new ArrayList<>();
+
+        AiResponse response = router.streamResponse(request(AiOperation.MAIN_RESPONSE), chunks::add);
+
+        assertTrue(response.getFallback());
+        assertEquals(List.of("partial"), chunks);
+        assertEquals(List.of("gemini"), calls);
+    }
+
+    private RoutingAiServiceAdapter router(
+            Map<String, AiServicePort> providers,
+            Map<AiOperation, List<String>> operationOrders,
+            AiContextBudgetManager budgetManager,
+            SimpleMeterRegistry registry) {
+        return new RoutingAiServiceAdapter(
+                providers,
+                operationOrders,
+                new AiProviderRoutingPolicy(3, Duration.ofMinutes(5), 8000L, 3),
+                statuses,
+                budgetManager,
+                registry,
+                Clock.fixed(Instant.now().plusSeconds(1), ZoneOffset.UTC));
+    }
+
+    private AiServicePort provider(String name, AiResponse response) {
+        return request -> {
+            calls.add(name);
+            return response;
+        };
+    }
+
+    private static AiRequest request(AiOperation operation) {
+        return AiRequest.builder()
+                .userMessage("What is the tuition?")
+                .operation(operation)
+                .build();
+    }
+
+    private static AiResponse success(String provider) {
+        return AiResponse.builder()
+                .content("answer from " + provider)
+                .provider(provider)
+                .fallback(false)
+                .failureCategory(AiProviderFailureCategory.NONE)
+                .build();
+    }
+
+    private static AiResponse failure(AiProviderFailureCategory category) {
+        return AiResponse.builder()
+                .content("fallback")
+                .fallback(true)
+                .failureCategory(category)
+                .retryable(category.isRetryable())
+                .build();
+    }
+}
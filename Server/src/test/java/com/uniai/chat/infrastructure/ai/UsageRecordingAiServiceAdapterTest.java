@@ -0,0 +1,86 @@
+package com.uniai.chat.infrastructure.ai;
+
+import com.uniai.chat.application.budget.AiContextBudgetConfiguration;
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiUsageLedgerPort;
+import com.uniai.chat.application.usage.AiUsageLedger;
+import com.uniai.chat.application.usage.AiUsageLedgerConfiguration;
+import com.uniai.chat.application.usage.AiUsageLedgerEntry;
+import com.uniai.chat.application.usage.AiUserUsage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsageRecordingAiServiceAdapterTest {
+
+    private final AiUsageLedger ledger = new AiUsageLedger(
+            new AiUsageLedgerConfiguration(true, 0L, 0L, 10), new EmptyPort(), null);
+
+    @Test
+    void everyOperationShouldBeChargedToTheRequestingUser() {
+        UsageRecordingAiServiceAdapter adapter = adapter(AiResponse.builder()
+                .content("ok")
+                .provider("groq")
+                .promptTokens(120L)
+                .completionTokens(30L)
+                .build());
+
+        adapter.generateResponse(request(AiOperation.INTERPRETATION, 7L));
+        adapter.generateResponse(request(AiOperation.TITLE_GENERATION, 7L));
+        adapter.streamResponse(request(AiOperation.MAIN_RESPONSE, 7L), chunk -> { });
+
+        AiUserUsage usage = ledger.usage(7L);
+        assertEquals(3, usage.entries().size());
+        AiUsageLedgerEntry title = usage.entries().stream()
+                .filter(entry -> entry.operation() == AiOperation.TITLE_GENERATION)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1L, title.calls());
+        assertEquals(120L, title.actualInputTokens());
+        assertEquals("groq", title.provider());
+        assertEquals(450L, usage.dailyTokens());
+    }
+
+    @Test
+    void callsWithoutAUserOrWithoutProviderUsageShouldNotBeCharged() {
+        UsageRecordingAiServiceAdapter fallback = adapter(AiResponse.builder().fallback(true).build());
+
+        adapter(AiResponse.builder().content("ok").promptTokens(10L).completionTokens(5L).build())
+                .generateResponse(request(AiOperation.MEMORY_UPDATE, null));
+        fallback.generateResponse(request(AiOperation.MEMORY_UPDATE, 7L));
+
+        assertTrue(ledger.usage(7L).entries().isEmpty());
+    }
+
+    private UsageRecordingAiServiceAdapter adapter(AiResponse response) {
+        AiTokenEstimator estimator = new AiTokenEstimator(new AiContextBudgetConfiguration(10000, 100, 1000, 1000, 4, 16, Map.of()));
+        return new UsageRecordingAiServiceAdapter(request -> response, ledger, estimator, "ollama");
+    }
+
+    private static AiRequest request(AiOperation operation, Long userId) {
+        return AiRequest.builder()
+                .userMessage("Which universities offer a master's in data science?")
+                .operation(operation)
+                .userId(userId)
+                .maxTokens(100)
+                .build();
+    }
+
+    private static final class EmptyPort implements AiUsageLedgerPort {
+        @Override
+        public void addAll(List<AiUsageLedgerEntry> entries) {
+        }
+
+        @Override
+        public List<AiUsageLedgerEntry> findByUserId(Long userId) {
+            return List.of();
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.uniai.chat.infrastructure.config;
 
+import com.uniai.chat.application.budget.AiContextBudgetConfiguration;
+import com.uniai.chat.application.budget.AiTokenEstimator;
+import com.uniai.chat.application.planning.GraduateAiRouteCatalog;
+import com.uniai.chat.application.planning.GraduateRoutePlanParser;
 import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.infrastructure.ai.AiHttpTransport;
+import com.uniai.chat.infrastructure.ai.AiProviderPipelines;
 import com.uniai.chat.infrastructure.ai.GeminiAiProperties;
 import com.uniai.chat.infrastructure.ai.GroqAiProperties;
 import com.uniai.chat.infrastructure.ai.GroqAiServiceAdapter;
@@ -8,11 +14,23 @@ import com.uniai.chat.infrastructure.ai.InMemoryAiProviderStatusRegistry;
 import com.uniai.chat.infrastructure.ai.OllamaAiProperties;
 import com.uniai.chat.infrastructure.ai.OllamaAiServiceAdapter;
 import com.uniai.chat.infrastructure.ai.PlaceholderAiServiceAdapter;
+import com.uniai.chat.infrastructure.prompt.GraduateRoutePlannerPromptProvider;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ChatAiConfigurationTest {
@@ -43,6 +61,83 @@ class ChatAiConfigurationTest {
         assertInstanceOf(PlaceholderAiServiceAdapter.class, aiServicePort);
     }
 
+    @Test
+    void hedgeProviderShouldReuseTheRoutedProviderPipeline() {
+        GeminiAiProperties gemini = new GeminiAiProperties();
+        GroqAiProperties groq = new GroqAiProperties();
+        groq.setApiKey("test-groq-key");
+        OllamaAiProperties ollama = new OllamaAiProperties();
+        InMemoryAiProviderStatusRegistry registry = new InMemoryAiProviderStatusRegistry();
+        AiProviderRoutingProperties routing = new AiProviderRoutingProperties();
+        routing.setEnabled(true);
+        AiRateLimitProperties rateLimits = new AiRateLimitProperties();
+        AiCircuitBreakerProperties circuitBreakers = new AiCircuitBreakerProperties();
+        AiTokenEstimator estimator = new AiTokenEstimator(new AiContextBudgetConfiguration(10000, 100, 1000, 1000, 4, 16, Map.of()));
+        AiHttpTransport transport = AiHttpTransport.defaultTransport();
+        AiProviderPipelines pipelines = new AiProviderPipelines();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        AiServicePort aiServicePort = configuration.aiServicePort("groq", gemini, groq, ollama, registry, new ObjectMapper(),
+                new AiRequestCoalescingProperties(), routing, null, rateLimits, circuitBreakers, estimator, transport,
+                new AiReplayProperties(), pipelines, null, meterRegistry);
+        AiServicePort routedGroq = pipelines.get("groq");
+        AiServicePort routedOllama = pipelines.get("ollama");
+        assertNotNull(routedGroq);
+        assertNotNull(routedOllama);
+        assertNull(pipelines.get("gemini"));
+
+        GraduateRoutePlannerProperties plannerProperties = new GraduateRoutePlannerProperties();
+        plannerProperties.getHedging().setEnabled(true);
+        plannerProperties.getHedging().setProvider("ollama");
+        GraduateAiRouteCatalog catalog = new GraduateAiRouteCatalog();
+        ExecutorService hedgeExecutor = configuration.routePlannerHedgeExecutor(plannerProperties);
+        configuration.graduateRoutePlannerPort("groq", aiServicePort,
+                new GraduateRoutePlannerPromptProvider(plannerProperties, catalog),
+                configuration.graduateRoutePlannerBudgetConfiguration(plannerProperties),
+                new GraduateRoutePlanParser(catalog, new ObjectMapper()), plannerProperties,
+                gemini, groq, ollama, registry, new ObjectMapper(), rateLimits, circuitBreakers, estimator, transport,
+                pipelines, null, hedgeExecutor, meterRegistry);
+
+        assertSame(routedGroq, pipelines.get("groq"));
+        assertSame(routedOllama, pipelines.get("ollama"));
+        hedgeExecutor.shutdown();
+    }
+
+    @Test
+    void routePlannerHedgeExecutorShouldRejectAttemptsBeyondItsQueue() throws Exception {
+        GraduateRoutePlannerProperties properties = new GraduateRoutePlannerProperties();
+        properties.getHedging().setWorkerThreads(1);
+        properties.getHedging().setQueueCapacity(1);
+        ExecutorService executor = configuration.routePlannerHedgeExecutor(properties);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void chatStreamExecutorShouldRejectStreamsBeyondItsQueue() throws Exception {
+        ExecutorService executor = configuration.chatStreamExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
     @Test
     void chatTitleGenerationConfigurationShouldDisablePlaceholderProvider() {
         assertFalse(configuration.chatTitleGenerationConfiguration("placeholder").enabled());
@@ -52,4 +147,12 @@ class ChatAiConfigurationTest {
     void chatTitleGenerationConfigurationShouldEnableSupportedProvider() {
         assertTrue(configuration.chatTitleGenerationConfiguration("gemini").enabled());
     }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -16,6 +16,8 @@ import com.uniai.chat.application.port.out.AiServicePort;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -66,6 +68,39 @@ class AiGraduateRoutePlannerAdapterTest {
         assertEquals("what campuses does LAU have in Beirut?", arguments.query());
     }
 
+    @Test
+    void hedgedPlannerAcceptsTheFirstValidPlan() {
+        AiServicePort slowPrimary = request -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return AiResponse.builder().content("{broken").fallback(false).build();
+        };
+        RecordingAiService hedge = new RecordingAiService(
+                "{\"route\":\"GET_PROGRAM_TUITION\",\"arguments\":{\"university\":\"AUB\",\"programName\":\"Computer Science\"}}",
+                "STOP");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        GraduateRoutePlanHedger hedger = new GraduateRoutePlanHedger(slowPrimary, hedge, "groq",
+                new GraduateRoutePlanHedgePolicy(0.9d, 10L, 10L, 1000L, 100.0d, 10, 5), null, executor);
+        try {
+            AiGraduateRoutePlannerAdapter adapter = new AiGraduateRoutePlannerAdapter(
+                    slowPrimary,
+                    () -> "Strict planner prompt",
+                    new GraduateRoutePlannerBudgetConfiguration(true, 4500, 500, 4,
+                            "prompts/graduate-route-planner-prompt.txt"),
+                    new GraduateRoutePlanParser(new GraduateAiRouteCatalog(), new ObjectMapper()),
+                    hedger);
+
+            ValidatedGraduateRoutePlan<?> plan = adapter.plan(request("What is Computer Science tuition at AUB?"));
+
+            assertEquals(GraduateAiRoute.GET_PROGRAM_TUITION, plan.route());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void assertInvalid(String content) {
         assertThrows(GraduateRoutePlannerProviderException.class,
                 () -> adapter(new RecordingAiService(content, "STOP")).plan(request("query")));
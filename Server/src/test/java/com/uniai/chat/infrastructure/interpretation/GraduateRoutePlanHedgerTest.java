@@ -0,0 +1,213 @@
+package com.uniai.chat.infrastructure.interpretation;
+
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.infrastructure.metrics.ChatAiMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraduateRoutePlanHedgerTest {
+
+    private static final Function<AiResponse, String> ACCEPT_VALID = response -> {
+        if (!"valid".equals(response.getContent())) {
+            throw new IllegalArgumentException("invalid plan " + response.getContent());
+        }
+        return response.getProvider();
+    };
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch primaryInterrupted = new CountDownLatch(1);
+    private final AtomicInteger hedgeCalls = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private GraduateRoutePlanHedger hedger;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fastPrimaryIsNeverHedged() {
+        hedger = hedger(respond("primary", "valid"), respond("hedge", "valid"), 100.0d);
+
+        assertEquals("primary", hedger.execute(request(), ACCEPT_VALID));
+        assertEquals(0, hedgeCalls.get());
+        assertEquals(0.0d, count("fired"));
+    }
+
+    @Test
+    void saturatedExecutorShouldSkipTheHedge() {
+        // Accepts the primary and refuses everything after it, like a bounded pool that is full.
+        AtomicInteger submitted = new AtomicInteger();
+        Executor firstOnly = task -> {
+            if (submitted.getAndIncrement() > 0) {
+                throw new RejectedExecutionException("saturated");
+            }
+            executor.execute(task);
+        };
+        AiServicePort slowPrimary = request -> {
+            sleep(200L);
+            return response("primary", "valid");
+        };
+        hedger = new GraduateRoutePlanHedger(
+                slowPrimary,
+                request -> {
+                    hedgeCalls.incrementAndGet();
+                    return response("hedge", "valid");
+                },
+                "groq",
+                new GraduateRoutePlanHedgePolicy(0.9d, 20L, 5L, 1000L, 100.0d, 10, 2),
+                registry,
+                firstOnly);
+
+        assertEquals("primary", hedger.execute(request(), ACCEPT_VALID));
+        assertEquals(0, hedgeCalls.get());
+        assertEquals(0.0d, count("fired"));
+        assertEquals(1.0d, count("rejected"));
+    }
+
+    @Test
+    void rejectedPrimaryShouldRunOnTheCallingThread() {
+        ExecutorService refusing = Executors.newSingleThreadExecutor();
+        refusing.shutdown();
+        GraduateRoutePlanHedger rejected = new GraduateRoutePlanHedger(
+                respond("primary", "valid"),
+                respond("hedge", "valid"),
+                "groq",
+                new GraduateRoutePlanHedgePolicy(0.9d, 20L, 5L, 1000L, 100.0d, 10, 2),
+                registry,
+                refusing);
+
+        assertEquals("primary", rejected.execute(request(), ACCEPT_VALID));
+        assertEquals(1.0d, count("rejected"));
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndCancelledWhenTheHedgeWins() throws Exception {
+        hedger = hedger(blocking(), respond("hedge", "valid"), 100.0d);
+
+        assertEquals("hedge", hedger.execute(request(), ACCEPT_VALID));
+        assertTrue(primaryInterrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0d, count("fired"));
+        assertEquals(1.0d, count("won"));
+    }
+
+    @Test
+    void rejectedHedgeWaitsForTheValidPrimary() {
+        AiServicePort slowValidPrimary = request -> {
+            sleep(150);
+            return response("primary", "valid");
+        };
+        hedger = hedger(slowValidPrimary, respond("hedge", "{broken"), 100.0d);
+
+        assertEquals("primary", hedger.execute(request(), ACCEPT_VALID));
+        assertEquals(1, hedgeCalls.get());
+        assertEquals(0.0d, count("won"));
+    }
+
+    @Test
+    void primaryFailureIsRethrownWhenEveryAttemptIsRejected() {
+        AiServicePort slowInvalidPrimary = request -> {
+            sleep(100);
+            return response("primary", "primary-invalid");
+        };
+        hedger = hedger(slowInvalidPrimary, respond("hedge", "hedge-invalid"), 100.0d);
+
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+                () -> hedger.execute(request(), ACCEPT_VALID));
+        assertEquals("invalid plan primary-invalid", failure.getMessage());
+    }
+
+    @Test
+    void hedgesStopAtTheBudget() {
+        AiServicePort slowPrimary = request -> {
+            sleep(60);
+            return response("primary", "valid");
+        };
+        hedger = hedger(slowPrimary, respond("hedge", "{broken"), 0.0d);
+
+        assertEquals("primary", hedger.execute(request(), ACCEPT_VALID));
+        assertEquals(0, hedgeCalls.get());
+        assertEquals(1.0d, count("budget_exhausted"));
+    }
+
+    @Test
+    void delayAdaptsToObservedLatencyWithinBounds() {
+        hedger = hedger(respond("primary", "valid"), respond("hedge", "valid"), 100.0d);
+        assertEquals(20L, hedger.hedgeDelayMillis());
+
+        hedger.execute(request(), ACCEPT_VALID);
+        hedger.execute(request(), ACCEPT_VALID);
+
+        // Instant answers put the percentile below the floor.
+        assertEquals(5L, hedger.hedgeDelayMillis());
+    }
+
+    private GraduateRoutePlanHedger hedger(AiServicePort primary, AiServicePort hedge, double budgetPercent) {
+        AiServicePort countingHedge = request -> {
+            hedgeCalls.incrementAndGet();
+            return hedge.generateResponse(request);
+        };
+        return new GraduateRoutePlanHedger(
+                primary,
+                countingHedge,
+                "groq",
+                new GraduateRoutePlanHedgePolicy(0.9d, 20L, 5L, 1000L, budgetPercent, 10, 2),
+                registry,
+                executor);
+    }
+
+    private AiServicePort blocking() {
+        return request -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                primaryInterrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return response("primary", "valid");
+        };
+    }
+
+    private static AiServicePort respond(String provider, String content) {
+        return request -> response(provider, content);
+    }
+
+    private static AiResponse response(String provider, String content) {
+        return AiResponse.builder().provider(provider).content(content).fallback(false).build();
+    }
+
+    private static AiRequest request() {
+        return AiRequest.builder().userMessage("List programs").operation(AiOperation.INTERPRETATION).build();
+    }
+
+    private double count(String outcome) {
+        Counter counter = registry.find(ChatAiMetrics.ROUTE_PLAN_HEDGES).tag("outcome", outcome).counter();
+        return counter == null ? 0.0d : counter.count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
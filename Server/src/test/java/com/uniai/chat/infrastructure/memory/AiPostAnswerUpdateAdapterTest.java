@@ -0,0 +1,102 @@
+package com.uniai.chat.infrastructure.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniai.chat.application.budget.ConversationMemoryBudgetConfiguration;
+import com.uniai.chat.application.dto.ai.AiOperation;
+import com.uniai.chat.application.dto.ai.AiRequest;
+import com.uniai.chat.application.dto.ai.AiResponse;
+import com.uniai.chat.application.memory.ConversationMemory;
+import com.uniai.chat.application.memory.ConversationMemoryUpdateRequest;
+import com.uniai.chat.application.port.out.AiServicePort;
+import com.uniai.chat.application.postanswer.PostAnswerUpdate;
+import com.uniai.chat.application.title.ChatTitleGenerationConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiPostAnswerUpdateAdapterTest {
+
+    private static final ConversationMemoryUpdateRequest REQUEST = new ConversationMemoryUpdateRequest(
+            ConversationMemory.empty(), "Compare AUB and LAU tuition", "AUB costs more.", null);
+
+    @Test
+    void proposeUpdateShouldSendOneCombinedRequestAndReadBothHalves() {
+        StubAiServicePort aiServicePort = new StubAiServicePort("""
+                ```json
+                {"memoryPatch":{"setLastIntent":"COMPARE_TUITION","replaceActiveUniversities":["AUB","LAU"]},"title":"AUB vs LAU Tuition"}
+                ```""");
+
+        PostAnswerUpdate update = adapter(aiServicePort).proposeUpdate(REQUEST);
+
+        assertEquals(AiOperation.POST_ANSWER_UPDATE, aiServicePort.lastRequest.getOperation());
+        assertEquals(250 + 24, aiServicePort.lastRequest.getMaxTokens());
+        assertTrue(aiServicePort.lastRequest.getSystemPrompt().contains("Memory prompt"));
+        assertTrue(aiServicePort.lastRequest.getSystemPrompt().contains("Title prompt"));
+        assertEquals("COMPARE_TUITION", update.memoryPatch().setLastIntent());
+        assertEquals(List.of("AUB", "LAU"), update.memoryPatch().replaceActiveUniversities());
+        assertEquals("AUB vs LAU Tuition", update.title());
+    }
+
+    @Test
+    void proposeUpdateShouldLeaveMissingOrMalformedHalvesEmpty() {
+        PostAnswerUpdate update = adapter(new StubAiServicePort("""
+                {"memoryPatch":{"replaceActiveUniversities":"AUB"},"title":"AUB vs LAU Tuition"}
+                """)).proposeUpdate(REQUEST);
+
+        assertNull(update.memoryPatch());
+        assertEquals("AUB vs LAU Tuition", update.title());
+
+        update = adapter(new StubAiServicePort("""
+                {"memoryPatch":{"setLastIntent":"COMPARE_TUITION"}}
+                """)).proposeUpdate(REQUEST);
+
+        assertEquals("COMPARE_TUITION", update.memoryPatch().setLastIntent());
+        assertNull(update.title());
+    }
+
+    @Test
+    void proposeUpdateShouldFailWhenProviderFallsBackOrReturnsNoObject() {
+        StubAiServicePort fallback = new StubAiServicePort("Please try again later.");
+        fallback.fallback = true;
+
+        assertThrows(IllegalStateException.class, () -> adapter(fallback).proposeUpdate(REQUEST));
+        assertThrows(IllegalStateException.class, () -> adapter(new StubAiServicePort("AUB vs LAU")).proposeUpdate(REQUEST));
+    }
+
+    private static AiPostAnswerUpdateAdapter adapter(AiServicePort aiServicePort) {
+        return new AiPostAnswerUpdateAdapter(
+                aiServicePort,
+                () -> "Memory prompt",
+                () -> "Title prompt",
+                new ConversationMemoryBudgetConfiguration(true, 1200, 250, null),
+                new ChatTitleGenerationConfiguration(true, 300, 24, 60),
+                new ObjectMapper());
+    }
+
+    private static final class StubAiServicePort implements AiServicePort {
+        private final String content;
+        private boolean fallback;
+        private AiRequest lastRequest;
+
+        private StubAiServicePort(String content) {
+            this.content = content;
+        }
+
+        @Override
+        public AiResponse generateResponse(AiRequest request) {
+            lastRequest = request;
+            return AiResponse.builder().content(content).provider("gemini").model("gemini-2.5-flash").fallback(fallback).build();
+        }
+
+        @Override
+        public AiResponse streamResponse(AiRequest request, Consumer<String> chunkConsumer) {
+            return generateResponse(request);
+        }
+    }
+}
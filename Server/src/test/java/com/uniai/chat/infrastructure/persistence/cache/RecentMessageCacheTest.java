@@ -0,0 +1,90 @@
+package com.uniai.chat.infrastructure.persistence.cache;
+
+import com.uniai.chat.domain.model.RecentMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecentMessageCacheTest {
+
+    @Test
+    void warmChatShouldServeAppendedMessagesWithoutLoading() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RecentMessageCache cache = new RecentMessageCache(10, 3, registry);
+        AtomicInteger loads = new AtomicInteger();
+        List<RecentMessage> stored = new ArrayList<>(List.of(message(2L), message(1L)));
+
+        assertEquals(List.of(message(1L), message(2L)), cache.recent(5L, 3, limit -> {
+            loads.incrementAndGet();
+            return stored;
+        }));
+
+        cache.append(5L, message(3L));
+        cache.append(5L, message(4L));
+
+        assertEquals(List.of(message(3L), message(4L)), cache.recent(5L, 2, limit -> {
+            loads.incrementAndGet();
+            return List.of();
+        }));
+        assertEquals(List.of(message(2L), message(3L), message(4L)), cache.recent(5L, 3, limit -> List.of()));
+        assertEquals(1, loads.get());
+        assertEquals(2.0, registry.get("uniai.chat.history.cache.lookups").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void appendToColdChatShouldNotCreatePartialRing() {
+        RecentMessageCache cache = new RecentMessageCache(10, 4, null);
+
+        cache.append(5L, message(9L));
+
+        assertEquals(List.of(message(8L), message(9L)),
+                cache.recent(5L, 4, limit -> List.of(message(9L), message(8L))));
+    }
+
+    @Test
+    void invalidationShouldForceReload() {
+        RecentMessageCache cache = new RecentMessageCache(10, 4, null);
+        cache.recent(5L, 2, limit -> List.of(message(1L)));
+        cache.recent(6L, 2, limit -> List.of(message(2L)));
+
+        cache.invalidate(5L);
+        cache.invalidateMessage(2L);
+
+        assertEquals(0, cache.size());
+        assertEquals(List.of(), cache.recent(5L, 2, limit -> List.of()));
+    }
+
+    @Test
+    void loadRacingWithSaveShouldNotInstallStaleRing() {
+        RecentMessageCache cache = new RecentMessageCache(10, 4, null);
+
+        cache.recent(5L, 2, limit -> {
+            cache.append(5L, message(2L));
+            return List.of(message(1L));
+        });
+
+        assertEquals(List.of(message(1L), message(2L)),
+                cache.recent(5L, 2, limit -> List.of(message(2L), message(1L))));
+    }
+
+    @Test
+    void leastRecentlyUsedChatShouldBeEvicted() {
+        RecentMessageCache cache = new RecentMessageCache(2, 4, null);
+        cache.recent(1L, 1, limit -> List.of(message(1L)));
+        cache.recent(2L, 1, limit -> List.of(message(2L)));
+        cache.recent(1L, 1, limit -> List.of());
+        cache.recent(3L, 1, limit -> List.of(message(3L)));
+
+        assertEquals(2, cache.size());
+        assertEquals(List.of(message(1L)), cache.recent(1L, 1, limit -> List.of()));
+    }
+
+    private RecentMessage message(Long id) {
+        return new RecentMessage(id, id % 2 == 0 ? 0L : 7L, "m" + id);
+    }
+}
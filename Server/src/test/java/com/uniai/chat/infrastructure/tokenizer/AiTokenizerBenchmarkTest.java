@@ -0,0 +1,58 @@
+package com.uniai.chat.infrastructure.tokenizer;
+
+import com.uniai.chat.application.budget.AiTokenizer;
+import com.uniai.chat.application.budget.CharacterRatioTokenizer;
+import com.uniai.chat.application.budget.MemoizingAiTokenizer;
+import com.uniai.support.BenchmarkTimer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput comparison of the tokenizers against the original character-ratio estimator on the text mix
+ * a chat request carries: an English system prompt, Arabic and French user turns and JSON route context.
+ * Only speed is compared here, not how close each count is to a real vocabulary.
+ * Run with {@code mvn test -Pbenchmark -Dtest=AiTokenizerBenchmarkTest}.
+ */
+@Tag("benchmark")
+class AiTokenizerBenchmarkTest {
+
+    private static final Logger logger = LogManager.getLogger(AiTokenizerBenchmarkTest.class);
+
+    private static final BenchmarkTimer TIMER = new BenchmarkTimer(2_000, 20_000);
+
+    private static final List<String> CORPUS = List.of(
+            "You are uniAI, the graduate admissions assistant for universities in Lebanon. ".repeat(40),
+            "ما هي شروط القبول في برنامج الماجستير في علوم الحاسوب في الجامعة الأمريكية في بيروت؟",
+            "Quelles sont les conditions d'admission pour le master en génie électrique à l'USJ ?",
+            "{\"program\":\"MSc Computer Science\",\"university\":\"AUB\",\"credits\":30,\"tuition\":[1250,1350],\"language\":\"en\"}".repeat(20));
+
+    @Test
+    void compareTokenizerThroughput() {
+        Map<String, AiTokenizer> tokenizers = new LinkedHashMap<>();
+        tokenizers.put("character-ratio", new CharacterRatioTokenizer(4));
+        tokenizers.put("script-aware-llama3", new ScriptAwareTokenizer(ScriptAwareTokenizer.LLAMA3));
+        tokenizers.put("script-aware-llama3-memoized",
+                new MemoizingAiTokenizer(new ScriptAwareTokenizer(ScriptAwareTokenizer.LLAMA3), 64, 256));
+        tokenizers.put("bpe-test-vocabulary", AiTokenizers.create("test", 4));
+
+        tokenizers.forEach((name, tokenizer) -> logger.info(
+                "[AI_TOKENIZER_BENCHMARK] tokenizer={} nsPerRequest={} tokensPerRequest={}",
+                name,
+                TIMER.nanosPerRound(() -> countCorpus(tokenizer)),
+                countCorpus(tokenizer)));
+    }
+
+    private static long countCorpus(AiTokenizer tokenizer) {
+        long tokens = 0L;
+        for (String text : CORPUS) {
+            tokens += tokenizer.countTokens(text);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,56 @@
+package com.uniai.chat.infrastructure.tokenizer;
+
+import com.uniai.chat.application.budget.AiTokenizer;
+import com.uniai.chat.application.budget.CharacterRatioTokenizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BpeTokenizerTest {
+
+    private final AiTokenizer tokenizer = AiTokenizers.create("test", 4);
+
+    @Test
+    void classpathVocabularyShouldSelectBpeTokenizer() {
+        assertInstanceOf(BpeTokenizer.class, tokenizer);
+        assertEquals("bpe:test", tokenizer.name());
+        assertInstanceOf(ScriptAwareTokenizer.class, AiTokenizers.create("llama3", 4));
+        assertInstanceOf(CharacterRatioTokenizer.class, AiTokenizers.create("character", 4));
+    }
+
+    @Test
+    void countTokensShouldApplyMergesLowestRankFirst() {
+        assertEquals(1L, tokenizer.countTokens("the"));
+        assertEquals(3L, tokenizer.countTokens("the programs"));
+        assertEquals(5L, tokenizer.countTokens("testing"));
+        assertEquals(0L, tokenizer.countTokens(""));
+    }
+
+    @Test
+    void countTokensShouldFallBackToBytesForUnmergedScriptsAndGroupDigits() {
+        // Five Arabic letters are ten UTF-8 bytes, none of which this vocabulary merges.
+        assertEquals(10L, tokenizer.countTokens("مرحبا"));
+        assertEquals(5L, tokenizer.countTokens("12345"));
+    }
+
+    @Test
+    void maxPrefixLengthShouldStopAtTheTokenBudget() {
+        String text = "the programs the programs";
+
+        int prefix = tokenizer.maxPrefixLength(text, 3L);
+
+        assertTrue(tokenizer.countTokens(text.substring(0, prefix)) <= 3L);
+        assertTrue(tokenizer.countTokens(text.substring(0, prefix + 1)) > 3L);
+    }
+
+    @Test
+    void familyShouldFollowTheActiveModelWhenAuto() {
+        assertEquals("llama3", AiTokenizers.family("auto", "groq", "llama-3.3-70b-versatile"));
+        assertEquals("gemma", AiTokenizers.family("auto", "gemini", "gemini-2.5-flash"));
+        assertEquals("gemma", AiTokenizers.family(null, "ollama", "gemma3:4b"));
+        assertEquals("generic", AiTokenizers.family("auto", "groq", "qwen-qwq-32b"));
+        assertEquals("character", AiTokenizers.family("Character", "groq", "llama-3.3-70b-versatile"));
+    }
+}
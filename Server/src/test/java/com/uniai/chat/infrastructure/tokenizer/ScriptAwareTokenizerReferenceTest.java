@@ -0,0 +1,64 @@
+package com.uniai.chat.infrastructure.tokenizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the {@link ScriptAwareTokenizer} profiles against the family's real vocabulary. The vocabularies are not
+ * redistributable with this repository, so the test only runs when one is supplied, e.g. Meta's Llama 3
+ * {@code tokenizer.model} (already in the tiktoken format) copied to {@code <dir>/llama3.tiktoken}:
+ * {@code mvn test -Dtest=ScriptAwareTokenizerReferenceTest -Dtokenizer.reference.dir=<dir>}.
+ * Gemma ships a SentencePiece model that {@link BpeTokenizer} cannot read, so its profile has no check here.
+ */
+class ScriptAwareTokenizerReferenceTest {
+
+    private static final String REFERENCE_DIR = "tokenizer.reference.dir";
+    /** Largest relative error a profile may show on any one sample before its constants need re-tuning. */
+    private static final double TOLERANCE = 0.3d;
+
+    private static final Map<String, String> SAMPLES = samples();
+
+    @Test
+    void llama3ProfileShouldStayCloseToTheLlama3Vocabulary() throws IOException {
+        BpeTokenizer reference = reference(ScriptAwareTokenizer.LLAMA3.family());
+        ScriptAwareTokenizer approximation = new ScriptAwareTokenizer(ScriptAwareTokenizer.LLAMA3);
+
+        SAMPLES.forEach((sample, text) -> {
+            long expected = reference.countTokens(text);
+            long actual = approximation.countTokens(text);
+            double error = Math.abs(actual - expected) / (double) expected;
+            assertTrue(error <= TOLERANCE,
+                    "%s: script-aware=%d reference=%d error=%.2f".formatted(sample, actual, expected, error));
+        });
+    }
+
+    private static BpeTokenizer reference(String family) throws IOException {
+        String directory = System.getProperty(REFERENCE_DIR);
+        assumeTrue(directory != null && !directory.isBlank(), "no -D" + REFERENCE_DIR + " given");
+        Path vocabulary = Path.of(directory).resolve(family + ".tiktoken");
+        assumeTrue(Files.isRegularFile(vocabulary), "no reference vocabulary at " + vocabulary);
+        try (InputStream input = Files.newInputStream(vocabulary)) {
+            return BpeTokenizer.load(family, input);
+        }
+    }
+
+    private static Map<String, String> samples() {
+        Map<String, String> samples = new LinkedHashMap<>();
+        samples.put("arabic", "ما هي شروط القبول في برنامج الماجستير في علوم الحاسوب في الجامعة الأمريكية في بيروت؟ "
+                + "وهل يمكنني التقديم بشهادة بكالوريوس في الرياضيات بدلا من علوم الحاسوب؟");
+        samples.put("french", "Quelles sont les conditions d'admission pour le master en génie électrique à l'USJ ? "
+                + "Les frais de scolarité sont-ils calculés par crédit ou par semestre, et existe-t-il des bourses d'études ?");
+        samples.put("json", "{\"program\":\"MSc Computer Science\",\"university\":\"AUB\",\"degree\":\"MASTER\",\"credits\":30,"
+                + "\"tuition\":[1250,1350],\"language\":\"en\",\"deadlines\":{\"fall\":\"2026-04-01\",\"spring\":\"2026-10-15\"}}");
+        return samples;
+    }
+}
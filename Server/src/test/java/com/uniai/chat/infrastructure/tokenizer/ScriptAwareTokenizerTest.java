@@ -0,0 +1,42 @@
+package com.uniai.chat.infrastructure.tokenizer;
+
+import com.uniai.chat.application.budget.CharacterRatioTokenizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScriptAwareTokenizerTest {
+
+    private final ScriptAwareTokenizer llama = new ScriptAwareTokenizer(ScriptAwareTokenizer.LLAMA3);
+    private final ScriptAwareTokenizer gemma = new ScriptAwareTokenizer(ScriptAwareTokenizer.GEMMA);
+    private final CharacterRatioTokenizer ratio = new CharacterRatioTokenizer(4);
+
+    @Test
+    void shortEnglishWordsShouldCostOneTokenEachWithTheirLeadingSpace() {
+        assertEquals(7L, llama.countTokens("Which master degree does AUB offer?"));
+        assertEquals(0L, llama.countTokens(null));
+    }
+
+    @Test
+    void arabicAndFrenchShouldCostMoreThanTheCharacterRatio() {
+        String arabic = "ما هي برامج الماجستير المتوفرة في الجامعة الأمريكية في بيروت";
+        String french = "Quelles sont les conditions d'admission pour le diplôme d'ingénieur électrique";
+
+        assertTrue(llama.countTokens(arabic) > ratio.countTokens(arabic));
+        assertTrue(llama.countTokens(french) > 13L);
+    }
+
+    @Test
+    void jsonPunctuationShouldBeCountedSeparatelyFromWords() {
+        String json = "{\"program\":\"MSc\",\"credits\":30,\"tuition\":[1250,1350]}";
+
+        assertTrue(llama.countTokens(json) > ratio.countTokens(json));
+    }
+
+    @Test
+    void digitGroupingShouldFollowTheFamily() {
+        assertEquals(2L, llama.countTokens("123456"));
+        assertEquals(6L, gemma.countTokens("123456"));
+    }
+}
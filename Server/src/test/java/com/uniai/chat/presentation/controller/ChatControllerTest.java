@@ -0,0 +1,122 @@
+package com.uniai.chat.presentation.controller;
+
+import com.uniai.chat.application.dto.response.MessageResponseDto;
+import com.uniai.chat.application.port.in.StreamMessageUseCase;
+import com.uniai.shared.exception.AiUsageQuotaExceededException;
+import com.uniai.shared.exception.InvalidMessageException;
+import com.uniai.shared.infrastructure.jwt.JwtFacade;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class ChatControllerTest {
+
+    private static final String GENERIC_FAILURE = "AI service is temporarily unavailable. Please try again later.";
+
+    @Test
+    void streamShouldSendChunksInOrderThenThePersistedMessage() throws Exception {
+        String body = stream(Runnable::run, (email, command, chunks) -> {
+            chunks.accept("Tuition is ");
+            chunks.accept("$1,200 per credit.");
+            return MessageResponseDto.builder().messageId(42L).chatId(command.getChatId()).content("Tuition is $1,200 per credit.").build();
+        });
+
+        int first = body.indexOf("event:chunk\ndata:Tuition is \n");
+        int second = body.indexOf("event:chunk\ndata:$1,200 per credit.\n");
+        int message = body.indexOf("event:message\ndata:{\"messageId\":42");
+        assertTrue(first >= 0 && first < second && second < message, body);
+        assertFalse(body.contains("event:error"), body);
+    }
+
+    @Test
+    void streamShouldEndWithAnErrorEventWhenTheTurnFails() throws Exception {
+        String body = stream(Runnable::run, (email, command, chunks) -> {
+            chunks.accept("Partial");
+            throw new IllegalStateException("connection reset by peer");
+        });
+
+        assertTrue(body.indexOf("event:chunk\ndata:Partial") < body.indexOf("event:error\ndata:" + GENERIC_FAILURE), body);
+        assertFalse(body.contains("event:message"), body);
+        assertFalse(body.contains("connection reset"), body);
+    }
+
+    @Test
+    void streamErrorsShouldPassQuotaAndValidationMessagesThrough() throws Exception {
+        String quota = stream(Runnable::run, (email, command, chunks) -> {
+            throw new AiUsageQuotaExceededException("Daily AI usage limit reached. Try again tomorrow.");
+        });
+        String invalid = stream(Runnable::run, (email, command, chunks) -> {
+            throw new InvalidMessageException("Message content is too long (max 5000 characters)");
+        });
+
+        assertTrue(quota.contains("event:error\ndata:Daily AI usage limit reached. Try again tomorrow."), quota);
+        assertTrue(invalid.contains("event:error\ndata:Message content is too long (max 5000 characters)"), invalid);
+    }
+
+    @Test
+    void saturatedStreamExecutorShouldAnswerWithAnErrorEvent() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Executor saturated = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+
+        String body = stream(saturated, (email, command, chunks) -> {
+            calls.incrementAndGet();
+            return MessageResponseDto.builder().build();
+        });
+
+        assertEquals("event:error\ndata:" + GENERIC_FAILURE + "\n\n", body);
+        assertEquals(0, calls.get());
+    }
+
+    private static String stream(Executor executor, StreamMessageUseCase useCase) throws Exception {
+        ChatController controller = new ChatController(
+                new StubJwtFacade("student@example.com"),
+                null,
+                null,
+                useCase,
+                null,
+                null,
+                null,
+                null,
+                executor,
+                30L);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        MvcResult result = mockMvc.perform(post("/api/chats/messages/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content("{\"chatId\":11,\"content\":\"Tuition of MBA at AUB?\"}"))
+                .andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static final class StubJwtFacade extends JwtFacade {
+        private final String email;
+
+        private StubJwtFacade(String email) {
+            this.email = email;
+        }
+
+        @Override
+        public String getAuthenticatedUserEmail() {
+            return email;
+        }
+    }
+}
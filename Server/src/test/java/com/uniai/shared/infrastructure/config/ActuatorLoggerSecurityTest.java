@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
 import java.util.Base64;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -72,6 +73,19 @@ class ActuatorLoggerSecurityTest {
                 .andExpect(result -> assertTrue(result.getResponse().getContentAsString().contains("\"status\":\"UP\"")));
     }
 
+    @Test
+    void healthDetailsShouldOnlyBeShownToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/health")
+                        .header("Authorization", bearerToken("user@example.com", "USER")))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertFalse(result.getResponse().getContentAsString().contains("\"components\"")));
+
+        mockMvc.perform(get("/actuator/health")
+                        .header("Authorization", bearerToken("admin@example.com", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertTrue(result.getResponse().getContentAsString().contains("\"components\"")));
+    }
+
     @Test
     void anonymousUsersShouldBeDeniedFromLoggerManagement() throws Exception {
         mockMvc.perform(get("/actuator/loggers/com.uniai.chat"))
@@ -0,0 +1,48 @@
+package com.uniai.support;
+
+/**
+ * Warm-up-then-measure loop shared by the {@code benchmark}-tagged tests. Every round returns a value that is
+ * folded into a published sink so the JIT cannot drop the work being timed.
+ */
+public final class BenchmarkTimer {
+
+    private static volatile long sink;
+
+    private final int warmupRounds;
+    private final int measuredRounds;
+
+    public BenchmarkTimer(int warmupRounds, int measuredRounds) {
+        if (warmupRounds < 0 || measuredRounds <= 0) {
+            throw new IllegalArgumentException("warmupRounds must be >= 0 and measuredRounds > 0");
+        }
+        this.warmupRounds = warmupRounds;
+        this.measuredRounds = measuredRounds;
+    }
+
+    public int measuredRounds() {
+        return measuredRounds;
+    }
+
+    /** Runs the warm-up rounds, then returns the mean wall-clock nanoseconds of one measured round. */
+    public <E extends Exception> long nanosPerRound(Round<E> round) throws E {
+        long total = repeat(round, warmupRounds);
+        long startNanos = System.nanoTime();
+        total += repeat(round, measuredRounds);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        sink += total;
+        return elapsedNanos / measuredRounds;
+    }
+
+    private static <E extends Exception> long repeat(Round<E> round, int rounds) throws E {
+        long total = 0L;
+        for (int index = 0; index < rounds; index++) {
+            total += round.run();
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    public interface Round<E extends Exception> {
+        long run() throws E;
+    }
+}